@@ -0,0 +1,148 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.benchmark;
+
+import com.amazon.ion.IonType;
+import com.amazon.ion.IonWriter;
+import com.amazon.ion.impl.bin._Private_IonManagedBinaryWriterBuilder;
+import com.amazon.ion.impl.bin._Private_IonManagedBinaryWriterBuilder.AllocatorMode;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures how {@code IonManagedBinaryWriter} throughput scales with the
+ * number of threads writing at once, for each block {@code allocator}.
+ * Every operation builds a writer from a shared builder, writes
+ * {@code recordCount} small records and closes it, which takes blocks from
+ * the builder's pool and returns them. With few records per writer, the
+ * pool's cost under contention dominates.
+ * <p>
+ * Each {@code threadsN} method runs the same operation on N threads, and
+ * JMH reports their combined throughput.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+public class BlockPoolBenchmark
+{
+    @State(Scope.Benchmark)
+    public static class PoolState
+    {
+        @Param({"POOLED", "THREAD_LOCAL"})
+        public AllocatorMode allocator;
+
+        @Param({"16"})
+        public int recordCount;
+
+        _Private_IonManagedBinaryWriterBuilder builder;
+        String[] names;
+
+        @Setup(Level.Trial)
+        public void createBuilder()
+        {
+            // the builder owns the pool, so all threads share it as writers built by one builder would
+            builder = _Private_IonManagedBinaryWriterBuilder.create(allocator);
+            names = new String[recordCount];
+            for (int i = 0; i < recordCount; i++)
+            {
+                names[i] = "record-" + i;
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class OutputState
+    {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    }
+
+    private static int write(PoolState pool, OutputState output)
+        throws IOException
+    {
+        output.out.reset();
+        IonWriter writer = pool.builder.newWriter(output.out);
+        try
+        {
+            for (int i = 0; i < pool.recordCount; i++)
+            {
+                writer.stepIn(IonType.STRUCT);
+                writer.setFieldName("id");
+                writer.writeInt(i);
+                writer.setFieldName("name");
+                writer.writeString(pool.names[i]);
+                writer.setFieldName("tags");
+                writer.stepIn(IonType.LIST);
+                writer.writeSymbol("alpha");
+                writer.writeSymbol("beta");
+                writer.stepOut();
+                writer.stepOut();
+            }
+        }
+        finally
+        {
+            writer.close();
+        }
+        return output.out.size();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public int threads1(PoolState pool, OutputState output)
+        throws IOException
+    {
+        return write(pool, output);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public int threads4(PoolState pool, OutputState output)
+        throws IOException
+    {
+        return write(pool, output);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public int threads16(PoolState pool, OutputState output)
+        throws IOException
+    {
+        return write(pool, output);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public int threads64(PoolState pool, OutputState output)
+        throws IOException
+    {
+        return write(pool, output);
+    }
+}
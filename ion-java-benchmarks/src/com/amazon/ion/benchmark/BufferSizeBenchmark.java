@@ -0,0 +1,147 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.benchmark;
+
+import com.amazon.ion.IonReader;
+import com.amazon.ion.system.IonReaderBuilder;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the trade-off made by {@link IonReaderBuilder#setBufferSize(int)}
+ * and {@link IonReaderBuilder#setReadAhead(int)} for readers over
+ * {@link InputStream}s. Run with {@code -prof gc}: the ops/s score shows the
+ * throughput, and {@code gc.alloc.rate.norm} shows the buffer memory each
+ * reader allocates.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+public class BufferSizeBenchmark
+{
+    @State(Scope.Benchmark)
+    public static class BufferState
+    {
+        /** The page size; 0 is the library default. */
+        @Param({"1024", "8192", "0", "262144"})
+        public int bufferSize;
+
+        @Param({"0", "65536"})
+        public int readAhead;
+
+        /**
+         * The most bytes the source returns per read. The default mimics a
+         * socket receiving Ethernet frames.
+         */
+        @Param({"1460"})
+        public int chunkSize;
+
+        /** The number of streams opened at once by {@link #openMany}. */
+        @Param({"1000"})
+        public int streamCount;
+
+        IonReaderBuilder builder;
+
+        @Setup(Level.Trial)
+        public void configure()
+        {
+            builder = IonReaderBuilder.standard()
+                .withBufferSize(bufferSize)
+                .withReadAhead(readAhead)
+                .immutable();
+        }
+    }
+
+    /**
+     * Returns at most {@code chunkSize} bytes per read.
+     */
+    private static final class ChunkedInputStream
+        extends ByteArrayInputStream
+    {
+        private final int chunkSize;
+
+        ChunkedInputStream(byte[] data, int chunkSize)
+        {
+            super(data);
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len)
+        {
+            return super.read(b, off, Math.min(len, chunkSize));
+        }
+    }
+
+    /**
+     * Traverses the corpus from a single stream, as a large sequential scan
+     * does.
+     */
+    @Benchmark
+    public void scan(CorpusState corpus, BufferState buffers, Blackhole bh)
+        throws IOException
+    {
+        InputStream in = new ChunkedInputStream(corpus.data, buffers.chunkSize);
+        IonReader reader = buffers.builder.build(in);
+        try
+        {
+            ReaderBenchmark.traverse(reader, bh);
+        }
+        finally
+        {
+            reader.close();
+        }
+    }
+
+    /**
+     * Opens {@code streamCount} readers, reading the first value of each
+     * before closing any. This models a worker that holds many concurrent
+     * streams; the allocation per operation is dominated by their buffers.
+     */
+    @Benchmark
+    public void openMany(CorpusState corpus, BufferState buffers, Blackhole bh)
+        throws IOException
+    {
+        IonReader[] readers = new IonReader[buffers.streamCount];
+        for (int i = 0; i < readers.length; i++)
+        {
+            InputStream in = new ChunkedInputStream(corpus.data, buffers.chunkSize);
+            readers[i] = buffers.builder.build(in);
+            bh.consume(readers[i].next());
+        }
+        for (IonReader reader : readers)
+        {
+            reader.close();
+        }
+    }
+}
@@ -0,0 +1,239 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.benchmark;
+
+import com.amazon.ion.IonReader;
+import com.amazon.ion.IonType;
+import com.amazon.ion.IonWriter;
+import com.amazon.ion.Timestamp;
+import com.amazon.ion.system.IonBinaryWriterBuilder;
+import com.amazon.ion.system.IonReaderBuilder;
+import com.amazon.ion.system.IonTextWriterBuilder;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.Random;
+
+/**
+ * Produces the Ion data that the benchmarks operate on.
+ * <p>
+ * A corpus is named by a specification string, which is either
+ * {@value #SYNTHETIC} for generated data or the path of an Ion file (text or
+ * binary, optionally GZIPped). Either way the data is normalized into both
+ * Ion binary and Ion text so that every benchmark can be run in both formats
+ * over identical data.
+ */
+public final class Corpus
+{
+    /** Specification of the generated corpus. */
+    public static final String SYNTHETIC = "synthetic";
+
+    private static final long SEED = 0x10000EEL;
+
+    private static final String[] SYMBOLS = {
+        "red", "green", "blue", "cyan", "magenta", "yellow", "black", "white"
+    };
+
+    private final byte[] binary;
+    private final byte[] text;
+
+    private Corpus(byte[] binary, byte[] text)
+    {
+        this.binary = binary;
+        this.text = text;
+    }
+
+    /**
+     * Loads or generates a corpus.
+     *
+     * @param spec either {@value #SYNTHETIC} or the path of an Ion file.
+     * @param syntheticRecordCount the number of top-level records to generate
+     *  for the synthetic corpus; ignored for file corpora.
+     */
+    public static Corpus load(String spec, int syntheticRecordCount)
+        throws IOException
+    {
+        byte[] source;
+        if (SYNTHETIC.equals(spec))
+        {
+            source = generate(syntheticRecordCount);
+        }
+        else
+        {
+            source = readFully(new File(spec));
+        }
+        return new Corpus(transcode(source, IonFormat.ION_BINARY),
+                          transcode(source, IonFormat.ION_TEXT));
+    }
+
+    /**
+     * Returns the corpus encoded in the given format. The returned array is
+     * shared and must not be modified.
+     */
+    public byte[] bytes(IonFormat format)
+    {
+        return format == IonFormat.ION_BINARY ? binary : text;
+    }
+
+    /**
+     * Re-encodes Ion data in the given format.
+     */
+    public static byte[] transcode(byte[] ionData, IonFormat format)
+        throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(ionData.length);
+        IonReader reader = IonReaderBuilder.standard().build(ionData);
+        IonWriter writer = format.newWriter(out);
+        try
+        {
+            writer.writeValues(reader);
+        }
+        finally
+        {
+            writer.close();
+            reader.close();
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Generates a deterministic stream of records that exercises every
+     * commonly used Ion type, nested containers, and a repeated field name
+     * vocabulary so that the local symbol table is realistic.
+     */
+    static byte[] generate(int recordCount)
+        throws IOException
+    {
+        Random random = new Random(SEED);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IonWriter writer = IonBinaryWriterBuilder.standard().build(out);
+        try
+        {
+            Timestamp base = Timestamp.valueOf("2019-01-01T00:00:00.000Z");
+            for (int i = 0; i < recordCount; i++)
+            {
+                writer.stepIn(IonType.STRUCT);
+                writer.setFieldName("id");
+                writer.writeInt(i);
+                writer.setFieldName("name");
+                writer.writeString(randomText(random, 4 + random.nextInt(28)));
+                writer.setFieldName("color");
+                writer.writeSymbol(SYMBOLS[random.nextInt(SYMBOLS.length)]);
+                writer.setFieldName("price");
+                writer.writeDecimal(BigDecimal.valueOf(random.nextInt(1000000), 2));
+                writer.setFieldName("ratio");
+                writer.writeFloat(random.nextDouble());
+                writer.setFieldName("active");
+                writer.writeBool(random.nextBoolean());
+                writer.setFieldName("created");
+                writer.writeTimestamp(base.addSecond(random.nextInt(31536000)));
+                writer.setFieldName("tags");
+                writer.stepIn(IonType.LIST);
+                int tagCount = random.nextInt(6);
+                for (int t = 0; t < tagCount; t++)
+                {
+                    writer.writeSymbol(SYMBOLS[random.nextInt(SYMBOLS.length)]);
+                }
+                writer.stepOut();
+                writer.setFieldName("metrics");
+                writer.stepIn(IonType.LIST);
+                int metricCount = 8 + random.nextInt(24);
+                for (int m = 0; m < metricCount; m++)
+                {
+                    writer.writeFloat(random.nextGaussian());
+                }
+                writer.stepOut();
+                writer.setFieldName("owner");
+                writer.stepIn(IonType.STRUCT);
+                writer.setFieldName("id");
+                writer.writeInt(random.nextLong());
+                writer.setFieldName("email");
+                writer.writeString(randomText(random, 12) + "@example.com");
+                writer.stepOut();
+                writer.setFieldName("payload");
+                byte[] payload = new byte[random.nextInt(64)];
+                random.nextBytes(payload);
+                writer.writeBlob(payload);
+                writer.stepOut();
+            }
+        }
+        finally
+        {
+            writer.close();
+        }
+        return out.toByteArray();
+    }
+
+    private static String randomText(Random random, int length)
+    {
+        StringBuilder buf = new StringBuilder(length);
+        for (int i = 0; i < length; i++)
+        {
+            buf.append((char) ('a' + random.nextInt(26)));
+        }
+        return buf.toString();
+    }
+
+    private static byte[] readFully(File file)
+        throws IOException
+    {
+        InputStream in = new FileInputStream(file);
+        try
+        {
+            ByteArrayOutputStream out =
+                new ByteArrayOutputStream((int) Math.min(file.length(), Integer.MAX_VALUE));
+            byte[] buf = new byte[64 * 1024];
+            int len;
+            while ((len = in.read(buf)) != -1)
+            {
+                out.write(buf, 0, len);
+            }
+            return out.toByteArray();
+        }
+        finally
+        {
+            in.close();
+        }
+    }
+
+    /**
+     * The Ion encodings that benchmarks are parameterized over.
+     */
+    public enum IonFormat
+    {
+        ION_BINARY
+        {
+            @Override
+            IonWriter newWriter(ByteArrayOutputStream out)
+            {
+                return IonBinaryWriterBuilder.standard().build(out);
+            }
+        },
+        ION_TEXT
+        {
+            @Override
+            IonWriter newWriter(ByteArrayOutputStream out)
+            {
+                return IonTextWriterBuilder.standard().build(out);
+            }
+        };
+
+        abstract IonWriter newWriter(ByteArrayOutputStream out);
+    }
+}
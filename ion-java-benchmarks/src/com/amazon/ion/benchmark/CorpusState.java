@@ -0,0 +1,53 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.benchmark;
+
+import com.amazon.ion.benchmark.Corpus.IonFormat;
+import java.io.IOException;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmark state holding the corpus under test, parameterized by its source
+ * and its encoding. Select a file corpus with
+ * {@code -p corpus=/path/to/data.10n}; the synthetic corpus size is chosen
+ * with {@code -p recordCount=N}.
+ */
+@State(Scope.Benchmark)
+public class CorpusState
+{
+    @Param({Corpus.SYNTHETIC})
+    public String corpus;
+
+    @Param({"1000"})
+    public int recordCount;
+
+    @Param({"ION_BINARY", "ION_TEXT"})
+    public IonFormat format;
+
+    /** The corpus, encoded in {@link #format}. */
+    public byte[] data;
+
+    @Setup(Level.Trial)
+    public void loadCorpus()
+        throws IOException
+    {
+        data = Corpus.load(corpus, recordCount).bytes(format);
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.benchmark;
+
+import com.amazon.ion.IonDatagram;
+import com.amazon.ion.IonReader;
+import com.amazon.ion.IonSystem;
+import com.amazon.ion.system.IonReaderBuilder;
+import com.amazon.ion.system.IonSystemBuilder;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the lite DOM: materializing values from a reader with
+ * {@code IonSystemLite.newValue(IonReader)}, and serializing a loaded
+ * {@code IonDatagramLite} with {@link IonDatagram#getBytes()}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+public class DomBenchmark
+{
+    private static final IonSystem SYSTEM = IonSystemBuilder.standard().build();
+
+    @State(Scope.Thread)
+    public static class DatagramState
+    {
+        IonDatagram datagram;
+
+        @Setup(Level.Trial)
+        public void load(CorpusState corpus)
+        {
+            datagram = SYSTEM.getLoader().load(corpus.data);
+        }
+    }
+
+    @Benchmark
+    public void newValueFromReader(CorpusState corpus, Blackhole bh)
+        throws IOException
+    {
+        IonReader reader = IonReaderBuilder.standard().build(corpus.data);
+        try
+        {
+            while (reader.next() != null)
+            {
+                bh.consume(SYSTEM.newValue(reader));
+            }
+        }
+        finally
+        {
+            reader.close();
+        }
+    }
+
+    @Benchmark
+    public IonDatagram loadDatagram(CorpusState corpus)
+    {
+        return SYSTEM.getLoader().load(corpus.data);
+    }
+
+    /**
+     * Re-encodes the datagram as Ion binary. The datagram is unchanged
+     * between invocations, so this measures the full serialization cost
+     * rather than any caching.
+     */
+    @Benchmark
+    public byte[] datagramGetBytes(DatagramState state)
+    {
+        return state.datagram.getBytes();
+    }
+}
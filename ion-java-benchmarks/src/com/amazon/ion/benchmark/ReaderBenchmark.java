@@ -0,0 +1,154 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.benchmark;
+
+import com.amazon.ion.IonReader;
+import com.amazon.ion.IonType;
+import com.amazon.ion.system.IonReaderBuilder;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures full traversal of the corpus through the streaming readers, which
+ * are {@code IonReaderBinaryUserX} for binary data and
+ * {@code IonReaderTextUserX} for text.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+public class ReaderBenchmark
+{
+    private static final IonReaderBuilder READER_BUILDER = IonReaderBuilder.standard();
+
+    /**
+     * Visits every value, materializing each scalar as its natural Java type.
+     */
+    @Benchmark
+    public void traverseBytes(CorpusState state, Blackhole bh)
+        throws IOException
+    {
+        IonReader reader = READER_BUILDER.build(state.data);
+        try
+        {
+            traverse(reader, bh);
+        }
+        finally
+        {
+            reader.close();
+        }
+    }
+
+    /**
+     * Like {@link #traverseBytes} but through the {@code InputStream} path,
+     * which adds the buffering done by {@code UnifiedInputStreamX}.
+     */
+    @Benchmark
+    public void traverseStream(CorpusState state, Blackhole bh)
+        throws IOException
+    {
+        IonReader reader = READER_BUILDER.build(new ByteArrayInputStream(state.data));
+        try
+        {
+            traverse(reader, bh);
+        }
+        finally
+        {
+            reader.close();
+        }
+    }
+
+    /**
+     * Visits only the top-level values, skipping over their contents.
+     */
+    @Benchmark
+    public void skipTopLevel(CorpusState state, Blackhole bh)
+        throws IOException
+    {
+        IonReader reader = READER_BUILDER.build(state.data);
+        try
+        {
+            int count = 0;
+            while (reader.next() != null)
+            {
+                count++;
+            }
+            bh.consume(count);
+        }
+        finally
+        {
+            reader.close();
+        }
+    }
+
+    static void traverse(IonReader reader, Blackhole bh)
+    {
+        IonType type;
+        while ((type = reader.next()) != null)
+        {
+            bh.consume(reader.getFieldName());
+            if (reader.isNullValue())
+            {
+                continue;
+            }
+            switch (type)
+            {
+                case BOOL:
+                    bh.consume(reader.booleanValue());
+                    break;
+                case INT:
+                    bh.consume(reader.bigIntegerValue());
+                    break;
+                case FLOAT:
+                    bh.consume(reader.doubleValue());
+                    break;
+                case DECIMAL:
+                    bh.consume(reader.decimalValue());
+                    break;
+                case TIMESTAMP:
+                    bh.consume(reader.timestampValue());
+                    break;
+                case SYMBOL:
+                case STRING:
+                    bh.consume(reader.stringValue());
+                    break;
+                case CLOB:
+                case BLOB:
+                    bh.consume(reader.newBytes());
+                    break;
+                case LIST:
+                case SEXP:
+                case STRUCT:
+                    reader.stepIn();
+                    traverse(reader, bh);
+                    reader.stepOut();
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.benchmark;
+
+import com.amazon.ion.IonDatagram;
+import com.amazon.ion.IonReader;
+import com.amazon.ion.IonSystem;
+import com.amazon.ion.IonWriter;
+import com.amazon.ion.benchmark.Corpus.IonFormat;
+import com.amazon.ion.system.IonReaderBuilder;
+import com.amazon.ion.system.IonSystemBuilder;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures encoding of the corpus through the writers, which are
+ * {@code IonManagedBinaryWriter} for binary output and
+ * {@code IonWriterSystemText} for text. The corpus parameter of
+ * {@link CorpusState} selects the source encoding, while {@code output}
+ * selects the encoding that is written.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+public class WriterBenchmark
+{
+    private static final IonSystem SYSTEM = IonSystemBuilder.standard().build();
+
+    @State(Scope.Thread)
+    public static class WriterState
+    {
+        @Param({"ION_BINARY", "ION_TEXT"})
+        public IonFormat output;
+
+        IonDatagram datagram;
+        ByteArrayOutputStream out;
+
+        @Setup(Level.Trial)
+        public void load(CorpusState corpus)
+        {
+            datagram = SYSTEM.getLoader().load(corpus.data);
+            out = new ByteArrayOutputStream(corpus.data.length * 2);
+        }
+    }
+
+    /**
+     * Writes the corpus from its DOM representation.
+     */
+    @Benchmark
+    public int writeFromDom(WriterState state)
+        throws IOException
+    {
+        state.out.reset();
+        IonWriter writer = state.output.newWriter(state.out);
+        try
+        {
+            state.datagram.writeTo(writer);
+        }
+        finally
+        {
+            writer.close();
+        }
+        return state.out.size();
+    }
+
+    /**
+     * Writes the corpus by streaming it from a reader over its encoded form.
+     */
+    @Benchmark
+    public int writeFromReader(CorpusState corpus, WriterState state)
+        throws IOException
+    {
+        state.out.reset();
+        IonReader reader = IonReaderBuilder.standard().build(corpus.data);
+        IonWriter writer = state.output.newWriter(state.out);
+        try
+        {
+            writer.writeValues(reader);
+        }
+        finally
+        {
+            writer.close();
+            reader.close();
+        }
+        return state.out.size();
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion;
+
+/**
+ * Provides access to the current {@code decimal} value as a {@code long}
+ * coefficient and an {@code int} exponent, without materializing a
+ * {@link java.math.BigDecimal}.
+ * <p>
+ * An Ion decimal is the value <code>coefficient &times; 10<sup>exponent</sup></code>.
+ * Binary readers decode it from its encoding straight into primitives whenever
+ * the coefficient fits in a {@code long}, which is the case for all
+ * coefficients of up to 18 decimal digits. For example, {@code 12.34} has the
+ * coefficient {@code 1234} and the exponent {@code -2}, equivalent to
+ * {@code BigDecimal.valueOf(1234, 2)}.
+ * <p>
+ * All methods operate on the reader's current value and fail with an
+ * {@link IllegalStateException} unless that value is a {@code decimal}, or with
+ * a {@link NullValueException} if it is {@code null.decimal}.
+ * <p>
+ * <b>WARNING:</b> This interface should not be implemented or extended by
+ * code outside of this library.
+ * <p>
+ * This functionality may be accessed as a facet of binary {@link IonReader}s.
+ * The facet instance is owned by the reader and may be retained and reused
+ * for the reader's lifetime.
+ *
+ * @see IonWriter#writeDecimal(long, int)
+ */
+public interface DecimalValueReader
+{
+    /**
+     * Determines whether the current value can be represented exactly by
+     * {@link #decimalUnscaledValue()} and {@link #decimalExponent()}.
+     * This is false when the coefficient does not fit in a {@code long}, and
+     * for negative zero, which has no {@code long} coefficient.
+     *
+     * @return true if {@link #decimalUnscaledValue()} may be called.
+     */
+    public boolean isDecimalLongRepresentable();
+
+    /**
+     * Gets the coefficient of the current value.
+     *
+     * @return the coefficient, which is also the unscaled value of the
+     * equivalent {@link java.math.BigDecimal}.
+     *
+     * @throws IllegalStateException if the value is not
+     * {@linkplain #isDecimalLongRepresentable() long-representable}.
+     */
+    public long decimalUnscaledValue();
+
+    /**
+     * Gets the exponent of the current value. This is available even when
+     * the coefficient is not {@linkplain #isDecimalLongRepresentable()
+     * long-representable}.
+     *
+     * @return the exponent, which is the negation of the scale of the
+     * equivalent {@link java.math.BigDecimal}.
+     */
+    public int decimalExponent();
+}
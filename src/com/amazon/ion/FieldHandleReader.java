@@ -0,0 +1,68 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion;
+
+/**
+ * Matches the field names of struct members against a set of registered
+ * names by symbol ID, so that scanning a struct for known fields doesn't
+ * need to resolve and compare each field name as a {@link String}.
+ * <p>
+ * Each registered name is assigned a small integer <em>field handle</em>.
+ * The reader maps the registered names to symbol IDs of its current symbol
+ * table, and redoes that mapping automatically whenever the symbol table
+ * changes, so every handle lookup after the first for a given table is a
+ * single array access.
+ * <p>
+ * Matching is by the text of the field name, so a name is matched even if
+ * the symbol table declares it at more than one symbol ID.
+ * <p>
+ * <b>WARNING:</b> This interface should not be implemented or extended by
+ * code outside of this library.
+ * <p>
+ * This functionality may be accessed as a facet of binary {@link IonReader}s.
+ * The facet instance is owned by the reader and keeps its registrations for
+ * the reader's lifetime.
+ */
+public interface FieldHandleReader
+{
+    /**
+     * The value returned by {@link #getFieldHandle()} when the current value
+     * has no field name or its field name isn't registered.
+     */
+    public static final int NO_FIELD_HANDLE = -1;
+
+    /**
+     * Registers a field name to be matched.
+     * <p>
+     * Handles are assigned sequentially starting at zero, so they can be used
+     * directly as indexes or {@code switch} labels.
+     *
+     * @param fieldName the field name; not null.
+     *
+     * @return the handle for the field name. Registering the same name more
+     * than once returns the same handle.
+     */
+    public int registerFieldName(String fieldName);
+
+    /**
+     * Gets the handle of the current value's field name.
+     *
+     * @return the handle that {@link #registerFieldName(String)} returned for
+     * the current field name, or {@link #NO_FIELD_HANDLE} if the reader is not
+     * positioned on a struct field or the field name is not registered.
+     */
+    public int getFieldHandle();
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion;
+
+/**
+ * An {@link IonReader} over Ion binary data that the application supplies
+ * incrementally, rather than data pulled from a blocking source.
+ * <p>
+ * <b>WARNING:</b> This interface should not be implemented or extended by
+ * code outside of this library.
+ * <p>
+ * Data is appended with {@link #feed(byte[], int, int)} as it arrives, for
+ * example from a non-blocking channel. At top-level, {@link #next()} only
+ * positions the reader on a value once that entire value has been fed; until
+ * then it returns null and {@link #isAwaitingData()} returns true. The caller
+ * should feed more data and call {@code next()} again. Once positioned on a
+ * top-level value, the reader never needs more data to read or step into it,
+ * so no call on this reader will block or fail due to a value that was split
+ * across chunks.
+ * <p>
+ * When the source is exhausted the caller must call {@link #endOfInput()},
+ * after which this reader behaves like any other: {@code next()} returns null
+ * at the end of the stream, and truncated data is reported as an error.
+ * <p>
+ * Instances of this interface are not thread-safe.
+ *
+ * @see com.amazon.ion.system.IonReaderBuilder#buildIncremental()
+ */
+public interface IonIncrementalReader
+    extends IonReader
+{
+    /**
+     * Appends Ion binary data to the input of this reader. The data is copied,
+     * so the caller may reuse the given array as soon as this method returns.
+     *
+     * @param bytes the data to append. Must not be null.
+     * @param offset the offset of the first byte to append.
+     * @param length the number of bytes to append.
+     *
+     * @throws IllegalStateException if {@link #endOfInput()} has been called.
+     */
+    public void feed(byte[] bytes, int offset, int length);
+
+
+    /**
+     * Declares that no more data will be {@linkplain #feed fed} to this
+     * reader.
+     */
+    public void endOfInput();
+
+
+    /**
+     * Determines whether the most recent call to {@link #next()} returned
+     * null because the next top-level value hasn't been fully fed, rather than
+     * because the end of the input or of a container was reached.
+     *
+     * @return true if more data must be fed before the next top-level value
+     * can be read.
+     */
+    public boolean isAwaitingData();
+}
@@ -53,6 +53,61 @@ public interface IonLoader
     public IonCatalog getCatalog();
 
 
+    /**
+     * Returns a loader that keeps only the given field paths of the structs
+     * it loads. Fields outside the projection are skipped by the underlying
+     * reader and never materialized, which saves time and memory when only a
+     * few fields of wide records are needed.
+     * <p>
+     * Each path is a dot-separated sequence of field names, such as
+     * {@code "order.customer.id"}. A name containing dots or quotes may be
+     * written in single quotes, using backslash to escape characters, and a
+     * bare {@code *} matches any field name. A field matching the last name of
+     * a path is kept whole, while a struct matching an earlier name is itself
+     * projected. Elements of lists and sexps are projected like their
+     * container, so {@code "items.sku"} keeps the {@code sku} of each struct
+     * in an {@code items} list. Values that a path needs to descend into but
+     * can't, such as scalars and nulls, are dropped. Top-level values are
+     * always kept, and if no paths are given each top-level struct, list or
+     * sexp is loaded empty.
+     * <p>
+     * Field names and annotations of the kept values are preserved.
+     *
+     * @param fieldPaths the paths to keep; must not be null or contain nulls.
+     *
+     * @return a new loader using the same system and catalog as this one;
+     * not null.
+     *
+     * @throws IllegalArgumentException if a path is malformed.
+     */
+    public IonLoader withProjection(String... fieldPaths);
+
+
+    /**
+     * Returns a loader that materializes the content of containers only when
+     * it's first accessed. This applies to binary data loaded from a byte
+     * array, stream or file; text is always loaded eagerly, as is everything
+     * when a {@linkplain #withProjection projection} is set.
+     * <p>
+     * Each lazy container refers to its encoded range of the input buffer.
+     * Children are loaded one level at a time, so documents that are read
+     * sparsely avoid building most of their values. Containers that are never
+     * accessed are written back out by copying their encoded bytes when the
+     * destination can use the original symbol table, such as
+     * {@link IonDatagram#getBytes()} on the loaded datagram. Making a value
+     * {@linkplain IonValue#makeReadOnly() read-only} materializes it fully.
+     * <p>
+     * The caller must not modify a byte array passed to
+     * {@link #load(byte[])} while values loaded from it are in use.
+     *
+     * @param lazy whether to load lazily.
+     *
+     * @return a new loader using the same system, catalog and projection as
+     * this one; not null.
+     */
+    public IonLoader withLazyMaterialization(boolean lazy);
+
+
     /**
      * Loads an entire file of Ion data into a single datagram,
      * detecting whether it's text or binary data.
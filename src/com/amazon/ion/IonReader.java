@@ -92,6 +92,38 @@ import java.util.Iterator;
  * It allows the user to reposition the reader to a {@link Span} over the
  * same reader instance or another reader with the same source.
  *
+ * <h3>The {@link Utf8ValueReader} Facet</h3>
+ * This facet is available on all readers of Ion binary data.
+ * It provides the text of the current {@code string} or {@code symbol} value
+ * as UTF-8 bytes or as a reusable {@link CharSequence}, and compares it
+ * against caller-supplied text, without allocating a {@link String}.
+ *
+ * <h3>The {@link FieldHandleReader} Facet</h3>
+ * This facet is available on all readers of Ion binary data.
+ * It matches struct field names against pre-registered names by symbol ID,
+ * reporting a small integer handle for each recognized field.
+ *
+ * <h3>The {@link DecimalValueReader} Facet</h3>
+ * This facet is available on all readers of Ion binary data.
+ * It provides the current {@code decimal} value as a {@code long} coefficient
+ * and an {@code int} exponent, without allocating a
+ * {@link java.math.BigDecimal}.
+ *
+ * <h3>The {@link TimestampValueReader} Facet</h3>
+ * This facet is available on all readers of Ion binary data.
+ * It provides the current {@code timestamp} value as seconds and nanoseconds
+ * from the epoch plus a local offset, without allocating a {@link Timestamp}.
+ *
+ * <h3>The {@link LobValueReader} Facet</h3>
+ * This facet is available on all readers of Ion binary data.
+ * It streams the content of the current {@code blob} or {@code clob} value
+ * without materializing it as a single array.
+ *
+ * <h3>The {@link ListValueReader} Facet</h3>
+ * This facet is available on all readers of Ion binary data.
+ * It decodes a {@code list} or {@code sexp} of ints, floats or bools into a
+ * primitive array in one call.
+ *
  * <h2>Span Facets</h2>
  * Readers that support the {@link SpanProvider} facet vend {@link Span}s that
  * are also faceted.
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion;
+
+/**
+ * An {@link IonReader} over Ion binary data in byte arrays that can be
+ * re-targeted at new data, so that applications reading many small messages
+ * don't pay the cost of constructing a reader for each one.
+ * <p>
+ * <b>WARNING:</b> This interface should not be implemented or extended by
+ * code outside of this library.
+ * <p>
+ * Calling {@link #reset(byte[], int, int)} discards all state related to the
+ * previous data, including its symbol tables, and leaves the reader as if it
+ * had just been built over the new data. The reader's internal buffers,
+ * catalog, and facets are kept, so facets obtained from
+ * {@link #asFacet(Class)} may be retained across resets.
+ * <p>
+ * A newly built reader has no data; it behaves like a reader over an empty
+ * stream until it's first reset. Closing the reader doesn't prevent it from
+ * being reset.
+ * <p>
+ * Instances of this interface are not thread-safe.
+ *
+ * @see com.amazon.ion.system.IonReaderBuilder#buildResettable()
+ */
+public interface IonResettableReader
+    extends IonReader
+{
+    /**
+     * Re-targets this reader at the given Ion binary data, which is read in
+     * place and must not be modified while it's being read.
+     *
+     * @param ionBinary the data; must be empty or start with an Ion version
+     * marker. GZIPped data is not supported.
+     *
+     * @throws IllegalArgumentException if the data isn't Ion binary.
+     */
+    public void reset(byte[] ionBinary);
+
+    /**
+     * Re-targets this reader at a range of the given Ion binary data.
+     *
+     * @param ionBinary the buffer containing the data.
+     * @param offset the position of the first byte of data.
+     * @param length the number of bytes of data.
+     *
+     * @throws IllegalArgumentException if the data isn't Ion binary.
+     * @throws IndexOutOfBoundsException if the range is outside the buffer.
+     *
+     * @see #reset(byte[])
+     */
+    public void reset(byte[] ionBinary, int offset, int length);
+}
@@ -22,6 +22,7 @@ import java.io.ByteArrayOutputStream;
 import java.io.Closeable;
 import java.io.Flushable;
 import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.Date;
@@ -406,6 +407,21 @@ public interface IonWriter
      */
     public void writeDecimal(BigDecimal value) throws IOException;
 
+    /**
+     * Writes an Ion decimal from its coefficient and exponent, the value
+     * <code>unscaledValue &times; 10<sup>exponent</sup></code>. This is
+     * equivalent to {@code writeDecimal(BigDecimal.valueOf(unscaledValue,
+     * -exponent))}, but binary writers encode it without creating a
+     * {@link BigDecimal}.
+     *
+     * @param unscaledValue the coefficient.
+     * @param exponent the power of ten; for example, {@code 12.34} is written
+     * with the coefficient {@code 1234} and the exponent {@code -2}.
+     *
+     * @see DecimalValueReader
+     */
+    public void writeDecimal(long unscaledValue, int exponent) throws IOException;
+
 
     /**
      * Writes a timestamp value.
@@ -414,6 +430,47 @@ public interface IonWriter
      */
     public void writeTimestamp(Timestamp value) throws IOException;
 
+    /**
+     * Writes a timestamp precise to the millisecond from its distance to the
+     * epoch. This is equivalent to {@code writeTimestamp(Timestamp.forMillis(
+     * epochMillis, localOffset))}, with {@code null} in place of
+     * {@link TimestampValueReader#UNKNOWN_LOCAL_OFFSET}, but binary writers
+     * encode it without creating a {@link Timestamp}.
+     *
+     * @param epochMillis the number of milliseconds from the epoch
+     * (1970-01-01T00:00:00.000Z), in UTC regardless of the local offset.
+     * @param localOffset the local offset from UTC, in minutes; or
+     * {@link TimestampValueReader#UNKNOWN_LOCAL_OFFSET}.
+     *
+     * @throws IllegalArgumentException if the point in time is not within
+     * the years 0001 to 9999 in UTC, or the local offset is not between
+     * -23:59 and +23:59.
+     *
+     * @see TimestampValueReader
+     */
+    public void writeTimestamp(long epochMillis, int localOffset) throws IOException;
+
+    /**
+     * Writes a timestamp precise to the nanosecond from its distance to the
+     * epoch. This is equivalent to {@code writeTimestamp(Timestamp.forEpochSecond(
+     * epochSecond, nanos, localOffset))}, with {@code null} in place of
+     * {@link TimestampValueReader#UNKNOWN_LOCAL_OFFSET}, but binary writers
+     * encode it without creating a {@link Timestamp}.
+     *
+     * @param epochSecond the number of seconds from the epoch
+     * (1970-01-01T00:00:00Z), in UTC regardless of the local offset.
+     * @param nanos the fractional second, from 0 to 999,999,999 nanoseconds.
+     * @param localOffset the local offset from UTC, in minutes; or
+     * {@link TimestampValueReader#UNKNOWN_LOCAL_OFFSET}.
+     *
+     * @throws IllegalArgumentException if the point in time is not within
+     * the years 0001 to 9999 in UTC, {@code nanos} is out of range, or the
+     * local offset is not between -23:59 and +23:59.
+     *
+     * @see TimestampValueReader
+     */
+    public void writeTimestamp(long epochSecond, int nanos, int localOffset) throws IOException;
+
     /**
      * writes the passed in Date (in milliseconds since the epoch) as an
      * IonTimestamp.  The Date value is treated as a UTC value with an
@@ -519,4 +576,38 @@ public interface IonWriter
      */
     public void writeBlob(byte[] value, int start, int len)
         throws IOException;
+
+    /**
+     * Writes an IonClob value whose content is read from a stream.
+     * Binary writers copy the content directly into their output buffers,
+     * so the lob is never held in a single array.
+     *
+     * @param source supplies exactly {@code length} bytes, which are read
+     * but not closed. May be {@code null} to represent {@code null.clob}.
+     * @param length the number of bytes in the lob.
+     *
+     * @throws java.io.EOFException if the source ends early, after which
+     * this writer should be discarded.
+     *
+     * @see LobValueReader
+     */
+    public void writeClob(InputStream source, int length)
+        throws IOException;
+
+    /**
+     * Writes an IonBlob value whose content is read from a stream.
+     * Binary writers copy the content directly into their output buffers,
+     * so the lob is never held in a single array.
+     *
+     * @param source supplies exactly {@code length} bytes, which are read
+     * but not closed. May be {@code null} to represent {@code null.blob}.
+     * @param length the number of bytes in the lob.
+     *
+     * @throws java.io.EOFException if the source ends early, after which
+     * this writer should be discarded.
+     *
+     * @see LobValueReader
+     */
+    public void writeBlob(InputStream source, int length)
+        throws IOException;
 }
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion;
+
+import com.amazon.ion.util.IonStreamUtils;
+
+/**
+ * Reads the current {@code list} or {@code sexp} as an array of primitives,
+ * as written by {@link IonStreamUtils#writeIntList(IonWriter, int[])} and its
+ * siblings.
+ * <p>
+ * When the reader's input is a byte array the elements are decoded directly
+ * from their encoding, without stepping into the sequence, which is much
+ * faster than calling {@link IonReader#next()} for each element.
+ * <p>
+ * Every method consumes the sequence: afterwards the reader must be moved on
+ * with {@link IonReader#next()} or {@link IonReader#stepOut()}, which behave
+ * as if the sequence had been skipped. This is also the case when an
+ * exception is thrown for an invalid element.
+ * Element annotations are ignored.
+ * <p>
+ * <b>WARNING:</b> This interface should not be implemented or extended by
+ * code outside of this library.
+ * <p>
+ * This functionality may be accessed as a facet of binary {@link IonReader}s.
+ * The facet instance is owned by the reader and may be retained and reused
+ * for the reader's lifetime.
+ */
+public interface ListValueReader
+{
+    /**
+     * Reads a sequence of {@code int} values that fit in a Java {@code int}.
+     *
+     * @return a new array holding the elements; not null.
+     *
+     * @throws IllegalStateException if the current value is not a
+     * {@code list} or {@code sexp}.
+     * @throws NullValueException if the current value is null.
+     * @throws IonException if an element is null, isn't an {@code int}, or is
+     * out of range.
+     */
+    public int[] intListValue();
+
+    /**
+     * Reads a sequence of {@code int} values that fit in a Java {@code long}.
+     *
+     * @return a new array holding the elements; not null.
+     *
+     * @throws IllegalStateException if the current value is not a
+     * {@code list} or {@code sexp}.
+     * @throws NullValueException if the current value is null.
+     * @throws IonException if an element is null, isn't an {@code int}, or is
+     * out of range.
+     */
+    public long[] longListValue();
+
+    /**
+     * Reads a sequence of {@code float} values.
+     *
+     * @return a new array holding the elements; not null.
+     *
+     * @throws IllegalStateException if the current value is not a
+     * {@code list} or {@code sexp}.
+     * @throws NullValueException if the current value is null.
+     * @throws IonException if an element is null or isn't a {@code float}.
+     */
+    public double[] doubleListValue();
+
+    /**
+     * Reads a sequence of {@code bool} values.
+     *
+     * @return a new array holding the elements; not null.
+     *
+     * @throws IllegalStateException if the current value is not a
+     * {@code list} or {@code sexp}.
+     * @throws NullValueException if the current value is null.
+     * @throws IonException if an element is null or isn't a {@code bool}.
+     */
+    public boolean[] booleanListValue();
+
+    /**
+     * Reads a sequence of {@code int} values into a caller-provided array,
+     * as for {@link #intListValue()}.
+     * Only the first {@code len} elements are stored if there are more.
+     *
+     * @param dst the array to fill.
+     * @param offset the index of {@code dst} at which to store the first
+     * element.
+     * @param len the maximum number of elements to store.
+     *
+     * @return the number of elements in the sequence, which may be more
+     * than {@code len}.
+     */
+    public int getInts(int[] dst, int offset, int len);
+
+    /**
+     * Reads a sequence of {@code int} values into a caller-provided array,
+     * as for {@link #longListValue()}.
+     * Only the first {@code len} elements are stored if there are more.
+     *
+     * @return the number of elements in the sequence, which may be more
+     * than {@code len}.
+     *
+     * @see #getInts(int[], int, int)
+     */
+    public int getLongs(long[] dst, int offset, int len);
+
+    /**
+     * Reads a sequence of {@code float} values into a caller-provided array,
+     * as for {@link #doubleListValue()}.
+     * Only the first {@code len} elements are stored if there are more.
+     *
+     * @return the number of elements in the sequence, which may be more
+     * than {@code len}.
+     *
+     * @see #getInts(int[], int, int)
+     */
+    public int getDoubles(double[] dst, int offset, int len);
+
+    /**
+     * Reads a sequence of {@code bool} values into a caller-provided array,
+     * as for {@link #booleanListValue()}.
+     * Only the first {@code len} elements are stored if there are more.
+     *
+     * @return the number of elements in the sequence, which may be more
+     * than {@code len}.
+     *
+     * @see #getInts(int[], int, int)
+     */
+    public int getBooleans(boolean[] dst, int offset, int len);
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion;
+
+import java.io.InputStream;
+
+/**
+ * Provides incremental access to the content of the current {@code blob} or
+ * {@code clob} value, so that arbitrarily large lobs can be processed in
+ * bounded memory.
+ * <p>
+ * The stream reads straight from the reader's input, sharing its position
+ * with {@link IonReader#getBytes(byte[], int, int)}. Bytes consumed through
+ * the stream are not returned again by {@link IonReader#newBytes()}.
+ * Whatever remains unread when the reader moves on is skipped without being
+ * read into memory.
+ * <p>
+ * <b>WARNING:</b> This interface should not be implemented or extended by
+ * code outside of this library.
+ * <p>
+ * This functionality may be accessed as a facet of binary {@link IonReader}s.
+ * The facet instance is owned by the reader and may be retained and reused
+ * for the reader's lifetime.
+ *
+ * @see IonWriter#writeBlob(InputStream, int)
+ * @see IonWriter#writeClob(InputStream, int)
+ */
+public interface LobValueReader
+{
+    /**
+     * Opens a stream over the remaining content of the current lob.
+     * <p>
+     * The stream is only usable while the reader is positioned on the lob;
+     * once {@link IonReader#next()}, {@link IonReader#stepIn()} or
+     * {@link IonReader#stepOut()} is called, it fails with an
+     * {@link java.io.IOException}. Closing the stream has no effect on the
+     * reader.
+     *
+     * @return a new stream, which reports end of stream at the end of the lob.
+     *
+     * @throws IllegalStateException if the current value is not a
+     * {@code blob} or {@code clob}.
+     * @throws NullValueException if the current value is null.
+     */
+    public InputStream newInputStream();
+}
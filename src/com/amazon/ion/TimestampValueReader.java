@@ -0,0 +1,94 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion;
+
+import com.amazon.ion.Timestamp.Precision;
+
+/**
+ * Provides access to the current {@code timestamp} value as a point in time
+ * relative to the epoch (1970-01-01T00:00:00Z) and a local offset, without
+ * materializing a {@link Timestamp}.
+ * <p>
+ * Binary readers decode these primitives straight from the encoded UTC
+ * fields, and text readers parse them in a single pass over the timestamp's
+ * text. The point in time is the same one reported by
+ * {@link Timestamp#getMillis()} and the offset is the one reported by
+ * {@link Timestamp#getLocalOffset()}; for example, the timestamp
+ * {@code 1970-01-02T00:00:01.5+01:00} has the epoch second {@code 82801},
+ * {@code 500000000} nanoseconds and the local offset {@code 60}.
+ * Timestamps with less than second precision start at the beginning of the
+ * period they name, so {@code 2000T} is at midnight UTC on January 1, 2000.
+ * <p>
+ * All methods operate on the reader's current value and fail with an
+ * {@link IllegalStateException} unless that value is a {@code timestamp}, or
+ * with a {@link NullValueException} if it is {@code null.timestamp}.
+ * <p>
+ * <b>WARNING:</b> This interface should not be implemented or extended by
+ * code outside of this library.
+ * <p>
+ * This functionality may be accessed as a facet of binary and text
+ * {@link IonReader}s.
+ * The facet instance is owned by the reader and may be retained and reused
+ * for the reader's lifetime.
+ *
+ * @see IonWriter#writeTimestamp(long, int)
+ * @see IonWriter#writeTimestamp(long, int, int)
+ */
+public interface TimestampValueReader
+{
+    /**
+     * The value returned by {@link #timestampLocalOffset()} when the local
+     * offset is unknown, which is always the case for timestamps with less
+     * than minute precision.
+     */
+    public static final int UNKNOWN_LOCAL_OFFSET = Integer.MIN_VALUE;
+
+    /**
+     * Gets the number of milliseconds from the epoch to the current value.
+     * Fractional seconds finer than milliseconds are truncated, as they are
+     * by {@link Timestamp#getMillis()}.
+     */
+    public long timestampEpochMillis();
+
+    /**
+     * Gets the number of whole seconds from the epoch to the current value.
+     * This is negative for values before 1970; see {@link #timestampNanos()}
+     * for the remainder.
+     */
+    public long timestampEpochSecond();
+
+    /**
+     * Gets the fractional seconds of the current value as a number of
+     * nanoseconds, from 0 to 999,999,999, to be added to
+     * {@link #timestampEpochSecond()}. Fractional seconds finer than
+     * nanoseconds are truncated.
+     */
+    public int timestampNanos();
+
+    /**
+     * Gets the local offset of the current value.
+     *
+     * @return the offset from UTC in minutes, or
+     * {@link #UNKNOWN_LOCAL_OFFSET} if it is unknown.
+     */
+    public int timestampLocalOffset();
+
+    /**
+     * Gets the precision of the current value, as reported by
+     * {@link Timestamp#getPrecision()}.
+     */
+    public Precision timestampPrecision();
+}
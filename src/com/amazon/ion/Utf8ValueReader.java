@@ -0,0 +1,94 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion;
+
+/**
+ * Provides access to the text of the current {@code string} or
+ * {@code symbol} value without materializing a {@link String}.
+ * <p>
+ * Binary readers hold string values in their UTF-8 encoding, so callers that
+ * only need to copy the encoded bytes or compare the text against a known
+ * value can avoid the cost of decoding and allocating a {@link String} for
+ * every value.
+ * <p>
+ * All methods operate on the reader's current value and fail with an
+ * {@link IllegalStateException} unless that value is a non-null
+ * {@code string} or {@code symbol}. Symbols with unknown text cause an
+ * {@link UnknownSymbolException}.
+ * <p>
+ * <b>WARNING:</b> This interface should not be implemented or extended by
+ * code outside of this library.
+ * <p>
+ * This functionality may be accessed as a facet of binary {@link IonReader}s.
+ * The facet instance is owned by the reader and may be retained and reused
+ * for the reader's lifetime.
+ */
+public interface Utf8ValueReader
+{
+    /**
+     * Gets the length of the UTF-8 encoding of the current value's text.
+     *
+     * @return the number of bytes that {@link #getUtf8Bytes(byte[], int)}
+     * will copy.
+     */
+    public int utf8Length();
+
+    /**
+     * Copies the UTF-8 encoding of the current value's text into the given
+     * buffer.
+     *
+     * @param buffer the destination; must have at least
+     * {@link #utf8Length()} bytes available after {@code offset}.
+     * @param offset the first position in {@code buffer} to write.
+     *
+     * @return the number of bytes written.
+     *
+     * @throws IndexOutOfBoundsException if {@code buffer} is too small.
+     */
+    public int getUtf8Bytes(byte[] buffer, int offset);
+
+    /**
+     * Gets the current value's text as a character sequence. The returned
+     * object may be reused by the reader, so it is only valid until the
+     * reader is next moved; callers that need to keep the text must call
+     * {@link CharSequence#toString()}.
+     *
+     * @return the text of the current value; not null.
+     */
+    public CharSequence textValue();
+
+    /**
+     * Determines whether the current value's text is equal to the given
+     * UTF-8 encoded text.
+     *
+     * @param utf8 the buffer containing the encoded text to compare.
+     * @param offset the first byte of the text in {@code utf8}.
+     * @param length the number of bytes of encoded text.
+     *
+     * @return true if the text is equal.
+     */
+    public boolean textValueEquals(byte[] utf8, int offset, int length);
+
+    /**
+     * Determines whether the current value's text is equal to the given
+     * characters.
+     *
+     * @param text the text to compare; not null.
+     *
+     * @return true if the text is equal.
+     */
+    public boolean textValueEquals(CharSequence text);
+}
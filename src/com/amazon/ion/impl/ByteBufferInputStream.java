@@ -0,0 +1,178 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * An {@link InputStream} over the contents of a {@link ByteBuffer}, or over
+ * a {@link FileChannel} that is memory-mapped a region at a time.
+ * <p>
+ * This lets {@link UnifiedInputStreamX} fill its pages with bulk gets straight
+ * from (possibly off-heap) buffer memory, without the system calls and the
+ * extra buffering of a stream over the file. Binary data that fits in one
+ * buffer needn't be paged at all, see {@link #remainingBuffer()}.
+ */
+final class ByteBufferInputStream
+    extends InputStream
+{
+    /**
+     * The largest region of a file that is mapped at once. Files larger than
+     * this are mapped in consecutive regions as the reader advances, since a
+     * single {@link ByteBuffer} can't exceed 2 GB.
+     */
+    static final long MAX_MAPPED_REGION_SIZE = 1L << 30;
+
+    private final long  _region_size;
+    private ByteBuffer  _buffer;
+    private FileChannel _channel;
+    private long        _next_region_position;
+    private long        _end_position;
+
+    /**
+     * Streams the remaining bytes of the given buffer. The buffer's position
+     * is not modified.
+     */
+    ByteBufferInputStream(ByteBuffer buffer)
+    {
+        _region_size = 0;
+        _buffer = buffer.duplicate();
+    }
+
+    /**
+     * Streams the contents of the given channel from its current position
+     * to its end, memory-mapping it read-only. The channel is closed when
+     * this stream is closed.
+     */
+    ByteBufferInputStream(FileChannel channel)
+        throws IOException
+    {
+        this(channel, MAX_MAPPED_REGION_SIZE);
+    }
+
+    ByteBufferInputStream(FileChannel channel, long regionSize)
+        throws IOException
+    {
+        _region_size = regionSize;
+        _channel = channel;
+        _next_region_position = channel.position();
+        _end_position = channel.size();
+        _buffer = ByteBuffer.allocate(0);
+        map_next_region();
+    }
+
+    private boolean map_next_region()
+        throws IOException
+    {
+        if (_channel == null || _next_region_position >= _end_position) {
+            return false;
+        }
+        long size = Math.min(_region_size, _end_position - _next_region_position);
+        _buffer = _channel.map(FileChannel.MapMode.READ_ONLY, _next_region_position, size);
+        _next_region_position += size;
+        return true;
+    }
+
+    @Override
+    public int read()
+        throws IOException
+    {
+        if (!_buffer.hasRemaining() && !map_next_region()) {
+            return -1;
+        }
+        return _buffer.get() & 0xff;
+    }
+
+    @Override
+    public int read(byte[] dst, int offset, int length)
+        throws IOException
+    {
+        if (length == 0) {
+            return 0;
+        }
+        if (!_buffer.hasRemaining() && !map_next_region()) {
+            return -1;
+        }
+        int count = Math.min(length, _buffer.remaining());
+        _buffer.get(dst, offset, count);
+        return count;
+    }
+
+    @Override
+    public long skip(long n)
+        throws IOException
+    {
+        long skipped = 0;
+        while (skipped < n) {
+            if (!_buffer.hasRemaining() && !map_next_region()) {
+                break;
+            }
+            int count = (int) Math.min(n - skipped, _buffer.remaining());
+            _buffer.position(_buffer.position() + count);
+            skipped += count;
+        }
+        return skipped;
+    }
+
+    @Override
+    public int available()
+    {
+        return _buffer.remaining();
+    }
+
+    @Override
+    public void close()
+        throws IOException
+    {
+        _buffer = ByteBuffer.allocate(0);
+        if (_channel != null) {
+            _channel.close();
+            _channel = null;
+        }
+    }
+
+    /**
+     * @return the rest of this stream as a single buffer positioned at the
+     * next byte, which must not be modified; or null if the rest spans more
+     * than one mapped region.
+     */
+    ByteBuffer remainingBuffer()
+    {
+        if (_channel != null && _next_region_position < _end_position) {
+            return null;
+        }
+        return _buffer;
+    }
+
+    /**
+     * Copies the next bytes of this stream (up to the length of the given
+     * array, but not beyond the current region) without consuming them.
+     *
+     * @return the number of bytes copied.
+     */
+    int peek(byte[] dst)
+    {
+        int count = Math.min(dst.length, _buffer.remaining());
+        int pos = _buffer.position();
+        for (int ii = 0; ii < count; ii++) {
+            dst[ii] = _buffer.get(pos + ii);
+        }
+        return count;
+    }
+}
@@ -0,0 +1,342 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl;
+
+import static com.amazon.ion.SystemSymbols.ION_1_0_SID;
+import static com.amazon.ion.SystemSymbols.ION_SYMBOL_TABLE_SID;
+import static com.amazon.ion.impl._Private_IonConstants.BINARY_VERSION_MARKER_1_0;
+import static com.amazon.ion.impl._Private_IonConstants.BINARY_VERSION_MARKER_SIZE;
+
+import com.amazon.ion.IonCatalog;
+import com.amazon.ion.IonException;
+import com.amazon.ion.IonIncrementalReader;
+import java.io.InputStream;
+
+/**
+ * A binary user reader that is fed its input in chunks.
+ * <p>
+ * The raw reader pulls bytes through {@link UnifiedInputStreamX}, which
+ * treats a short read as end-of-stream. So before letting the reader advance
+ * at top-level, this class scans the buffered (but not yet read) bytes to
+ * verify that the next user value, and any system values preceding it, are
+ * complete. Only the type descriptors and lengths are decoded, so the scan
+ * is cheap relative to reading the value. Once a top-level value is known to
+ * be complete the reader can step in and read anything within it without
+ * running out of data.
+ */
+final class IonReaderBinaryIncrementalX
+    extends IonReaderBinaryUserX
+    implements IonIncrementalReader
+{
+    private final ChunkStream _chunks;
+
+    /**
+     * The position of the first byte that hasn't been verified to belong to
+     * a complete top-level value.
+     */
+    private long _scan_position;
+    private boolean _awaiting_data;
+
+    IonReaderBinaryIncrementalX(IonCatalog catalog,
+                                _Private_LocalSymbolTableFactory lstFactory)
+    {
+        this(catalog, lstFactory, new ChunkStream());
+    }
+
+    private IonReaderBinaryIncrementalX(IonCatalog catalog,
+                                        _Private_LocalSymbolTableFactory lstFactory,
+                                        ChunkStream chunks)
+    {
+        super(catalog, lstFactory, UnifiedInputStreamX.makeLazyStream(chunks), 0);
+        _chunks = chunks;
+    }
+
+    public void feed(byte[] bytes, int offset, int length)
+    {
+        if (offset < 0 || length < 0 || offset + length > bytes.length) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (_chunks._finished) {
+            throw new IllegalStateException("input has already ended");
+        }
+        _chunks.append(bytes, offset, length, _scan_position);
+    }
+
+    public void endOfInput()
+    {
+        _chunks._finished = true;
+        _awaiting_data = false;
+    }
+
+    public boolean isAwaitingData()
+    {
+        return _awaiting_data;
+    }
+
+    @Override
+    public boolean hasNext()
+    {
+        if (!_eof && _has_next_needed && getDepth() == 0) {
+            _awaiting_data = !scan_to_next_user_value();
+            if (_awaiting_data) {
+                // Leave the input untouched, but don't present the
+                // previous value as current.
+                clear_value();
+                return false;
+            }
+        }
+        return super.hasNext();
+    }
+
+    /**
+     * Advances {@link #_scan_position} past any complete system values and
+     * the following complete user value.
+     *
+     * @return true if a complete user value was found, or if the input has
+     * ended, in which case the reader will report EOF or truncation itself.
+     */
+    private boolean scan_to_next_user_value()
+    {
+        if (_chunks._finished) {
+            return true;
+        }
+        for (;;) {
+            long pos = _scan_position;
+            if (pos == 0) {
+                if (!_chunks.isAvailable(BINARY_VERSION_MARKER_SIZE)) {
+                    return false;
+                }
+                if (!is_version_marker(0)) {
+                    throw new IonException("Incremental reading requires Ion binary data");
+                }
+                _scan_position = BINARY_VERSION_MARKER_SIZE;
+                continue;
+            }
+
+            int td = _chunks.peek(pos);
+            if (td < 0) {
+                return false;
+            }
+            int tid = _Private_IonConstants.getTypeCode(td);
+            int ln  = _Private_IonConstants.getLowNibble(td);
+            long value_start = pos + 1;
+            long len;
+            if (td == (BINARY_VERSION_MARKER_1_0[0] & 0xff)) {
+                if (!_chunks.isAvailable(pos + BINARY_VERSION_MARKER_SIZE)) {
+                    return false;
+                }
+                // Anything else is rejected by the raw reader.
+                len = BINARY_VERSION_MARKER_SIZE - 1;
+            }
+            else if (ln == _Private_IonConstants.lnIsNull
+                  || tid == _Private_IonConstants.tidBoolean) {
+                len = 0;
+            }
+            else if (ln == _Private_IonConstants.lnIsVarLen
+                  || (tid == _Private_IonConstants.tidStruct
+                      && ln == _Private_IonConstants.lnIsOrderedStruct)) {
+                len = peek_var_uint(value_start);
+                if (len < 0) {
+                    return false;
+                }
+                value_start = _var_uint_end;
+            }
+            else {
+                len = ln;
+            }
+
+            long value_end = value_start + len;
+            if (!_chunks.isAvailable(value_end)) {
+                return false;
+            }
+            _scan_position = value_end;
+            if (!is_system_value(td, value_start, len)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Determines whether the complete top-level value with the given type
+     * descriptor will be consumed by the user reader rather than returned to
+     * the application; this mirrors the checks made in
+     * {@link IonReaderBinaryUserX}.
+     */
+    private boolean is_system_value(int td, long value_start, long len)
+    {
+        int tid = _Private_IonConstants.getTypeCode(td);
+        int ln  = _Private_IonConstants.getLowNibble(td);
+        if (td == (BINARY_VERSION_MARKER_1_0[0] & 0xff)) {
+            return true;
+        }
+        if (tid == _Private_IonConstants.tidNull) {
+            // NOP padding, unless it's null.null
+            return ln != _Private_IonConstants.lnIsNull;
+        }
+        if (ln == _Private_IonConstants.lnIsNull) {
+            return false;
+        }
+        if (tid == _Private_IonConstants.tidSymbol) {
+            if (len > 8) {
+                return false;
+            }
+            long sid = 0;
+            for (long p = value_start; p < value_start + len; p++) {
+                sid = (sid << 8) | _chunks.peek(p);
+            }
+            return sid == ION_1_0_SID;
+        }
+        if (tid == _Private_IonConstants.tidTypedecl) {
+            long annotations_length = peek_var_uint(value_start);
+            long annotations_start = _var_uint_end;
+            long first_annotation = peek_var_uint(annotations_start);
+            if (annotations_length <= 0 || first_annotation != ION_SYMBOL_TABLE_SID) {
+                return false;
+            }
+            int wrapped_td = _chunks.peek(annotations_start + annotations_length);
+            return wrapped_td >= 0
+                && _Private_IonConstants.getTypeCode(wrapped_td) == _Private_IonConstants.tidStruct
+                && _Private_IonConstants.getLowNibble(wrapped_td) != _Private_IonConstants.lnIsNull;
+        }
+        return false;
+    }
+
+    private boolean is_version_marker(long pos)
+    {
+        for (int ii = 0; ii < BINARY_VERSION_MARKER_SIZE; ii++) {
+            if (_chunks.peek(pos + ii) != (BINARY_VERSION_MARKER_1_0[ii] & 0xff)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** The position following the VarUInt most recently decoded by {@link #peek_var_uint}. */
+    private long _var_uint_end;
+
+    /**
+     * Decodes a VarUInt from the buffered input without consuming it.
+     *
+     * @return the value, or -1 if the VarUInt isn't fully buffered.
+     */
+    private long peek_var_uint(long pos)
+    {
+        long value = 0;
+        for (int ii = 0; ii < 5; ii++) {
+            int b = _chunks.peek(pos + ii);
+            if (b < 0) {
+                return -1;
+            }
+            value = (value << 7) | (b & 0x7F);
+            if ((b & 0x80) != 0) {
+                _var_uint_end = pos + ii + 1;
+                return value;
+            }
+        }
+        throw new IonException("int in stream is too long for a Java int 32 at position " + pos);
+    }
+
+
+    /**
+     * The input source of the underlying {@link UnifiedInputStreamX}. Bytes
+     * are retained after they're read until the scanner has moved past them.
+     */
+    private static final class ChunkStream
+        extends InputStream
+    {
+        private static final int INITIAL_CAPACITY = 1024;
+
+        private byte[]  _bytes = new byte[INITIAL_CAPACITY];
+        /** The stream position of {@code _bytes[0]}. */
+        private long    _start;
+        /** The index of the next byte to hand to the reader. */
+        private int     _read_idx;
+        /** The index following the last buffered byte. */
+        private int     _limit;
+        boolean         _finished;
+
+        boolean isAvailable(long end)
+        {
+            return end <= _start + _limit;
+        }
+
+        /**
+         * @return the unsigned byte at the given stream position, or -1 if
+         * it hasn't been buffered.
+         */
+        int peek(long position)
+        {
+            long idx = position - _start;
+            if (idx < 0 || idx >= _limit) {
+                return -1;
+            }
+            return _bytes[(int) idx] & 0xff;
+        }
+
+        void append(byte[] bytes, int offset, int length, long retain_from)
+        {
+            if (_limit + length > _bytes.length) {
+                int discard = (int) Math.min(_read_idx, retain_from - _start);
+                if (discard > 0) {
+                    System.arraycopy(_bytes, discard, _bytes, 0, _limit - discard);
+                    _start    += discard;
+                    _read_idx -= discard;
+                    _limit    -= discard;
+                }
+                if (_limit + length > _bytes.length) {
+                    int capacity = Math.max(_bytes.length * 2, _limit + length);
+                    byte[] temp = new byte[capacity];
+                    System.arraycopy(_bytes, 0, temp, 0, _limit);
+                    _bytes = temp;
+                }
+            }
+            System.arraycopy(bytes, offset, _bytes, _limit, length);
+            _limit += length;
+        }
+
+        @Override
+        public int read()
+        {
+            if (_read_idx >= _limit) {
+                return -1;
+            }
+            return _bytes[_read_idx++] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] dst, int offset, int length)
+        {
+            int available = _limit - _read_idx;
+            if (available <= 0) {
+                // Only reached after endOfInput(), since the scanner
+                // guarantees that the reader never needs unfed data.
+                return _finished ? -1 : 0;
+            }
+            if (length > available) {
+                length = available;
+            }
+            System.arraycopy(_bytes, _read_idx, dst, offset, length);
+            _read_idx += length;
+            return length;
+        }
+
+        @Override
+        public int available()
+        {
+            return _limit - _read_idx;
+        }
+    }
+}
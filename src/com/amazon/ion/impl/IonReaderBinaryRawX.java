@@ -24,6 +24,7 @@ import com.amazon.ion.IonType;
 import com.amazon.ion.SymbolTable;
 import com.amazon.ion.Timestamp;
 import com.amazon.ion.Timestamp.Precision;
+import com.amazon.ion.TimestampValueReader;
 import com.amazon.ion.impl.UnifiedSavePointManagerX.SavePoint;
 import com.amazon.ion.impl._Private_ScalarConversions.AS_TYPE;
 import com.amazon.ion.impl._Private_ScalarConversions.ValueVariant;
@@ -88,6 +89,9 @@ abstract class IonReaderBinaryRawX
     long                _value_start;
     int                 _value_lob_remaining;
     boolean             _value_lob_is_ready;
+    // Changes whenever the reader moves to another value, so that streams
+    // over a lob can tell that it is no longer current.
+    int                 _value_generation;
 
     long                _position_start;
     long                _position_len;
@@ -117,6 +121,32 @@ abstract class IonReaderBinaryRawX
     // A reusable scratch space to hold the decoded bytes as they're read from the utf8InputBuffer.
     private CharBuffer utf8DecodingBuffer = CharBuffer.allocate(UTF8_BUFFER_SIZE_IN_BYTES);
 
+    // The undecoded UTF-8 of the current string value, filled by readUtf8().
+    // The scratch array starts out shared with utf8InputBuffer and is only
+    // replaced when a longer string is read this way.
+    byte[]  _utf8_bytes = utf8InputBuffer.array();
+    int     _utf8_length;
+    boolean _utf8_is_loaded;
+
+    // The current decimal as a long coefficient and an exponent, filled by
+    // readDecimalPrimitive() when the coefficient fits.
+    long    _decimal_unscaled;
+    int     _decimal_exponent;
+    boolean _decimal_is_loaded;
+
+    // The current timestamp relative to the epoch, filled by
+    // readTimestampPrimitive() when its fractional seconds fit in a long
+    // coefficient. The fraction is kept as encoded so that the equivalent
+    // Timestamp can be rebuilt exactly.
+    long      _timestamp_epoch_second;
+    int       _timestamp_nanos;
+    int       _timestamp_offset;
+    Precision _timestamp_precision;
+    long      _timestamp_fraction_unscaled;
+    int       _timestamp_fraction_exponent;
+    boolean   _timestamp_has_fraction;
+    boolean   _timestamp_is_loaded;
+
     protected IonReaderBinaryRawX() {
     }
 
@@ -156,6 +186,10 @@ abstract class IonReaderBinaryRawX
         _value_start = 0;
         _value_lob_remaining = 0;
         _value_lob_is_ready = false;
+        _value_generation++;
+        _utf8_is_loaded = false;
+        _decimal_is_loaded = false;
+        _timestamp_is_loaded = false;
 
         _annotation_count = 0;
 
@@ -358,6 +392,10 @@ abstract class IonReaderBinaryRawX
         // _value_type = IonType.SYMBOL;  we do this in the caller so it's easier to see
         _value_is_null = false;
         _value_lob_is_ready = false;
+        _value_generation++;
+        _utf8_is_loaded = false;
+        _decimal_is_loaded = false;
+        _timestamp_is_loaded = false;
         _annotations.clear();
         _value_field_id = SymbolTable.UNKNOWN_SYMBOL_ID;
         _state = State.S_AFTER_VALUE;
@@ -443,12 +481,16 @@ abstract class IonReaderBinaryRawX
         }
         _annotation_ids[_annotation_count++] =  a;
     }
-    private final void clear_value()
+    final void clear_value()
     {
         _value_type = null;
         _value_tid  = -1;
         _value_is_null = false;
         _value_lob_is_ready = false;
+        _value_generation++;
+        _utf8_is_loaded = false;
+        _decimal_is_loaded = false;
+        _timestamp_is_loaded = false;
         _annotations.clear();
         _v.clear();
         _annotation_count = 0;
@@ -757,6 +799,28 @@ abstract class IonReaderBinaryRawX
         }
         return read_len;
     }
+    /**
+     * Skips over part of the current lob, as though it had been read by
+     * {@link #readBytes(byte[], int, int)}.
+     *
+     * @param len must not exceed the remaining length of the lob.
+     */
+    protected final void skipLobBytes(int len)
+    {
+        try {
+            skip(len);
+            _value_lob_remaining -= len;
+        }
+        catch (IOException e) {
+            error(e);
+        }
+        if (_value_lob_remaining == 0) {
+            _state = State.S_AFTER_VALUE;
+        }
+        else {
+            _value_len = _value_lob_remaining;
+        }
+    }
     public int getDepth()
     {
         return (_container_top / POS_STACK_STEP);
@@ -1087,38 +1151,94 @@ abstract class IonReaderBinaryRawX
             }
             _local_remaining = len;
             int  exponent = readVarInt();
-            BigInteger value;
-            int signum;
-            if (_local_remaining > 0)
+            bd = readDecimalCoefficient(exponent);
+            _local_remaining = save_limit;
+        }
+        return bd;
+    }
+
+    /**
+     * Reads the rest of the current decimal, which is its coefficient, as
+     * a {@link Decimal} with the given exponent.
+     */
+    private Decimal readDecimalCoefficient(int exponent) throws IOException
+    {
+        MathContext mathContext = MathContext.UNLIMITED;
+        BigInteger value;
+        int signum;
+        if (_local_remaining > 0)
+        {
+            byte[] bits = new byte[_local_remaining];
+            readAll(bits, 0, _local_remaining);
+            signum = 1;
+            if (bits[0] < 0)
             {
-                byte[] bits = new byte[_local_remaining];
-                readAll(bits, 0, _local_remaining);
-                signum = 1;
-                if (bits[0] < 0)
-                {
-                    // value is negative, clear the sign
-                    bits[0] &= 0x7F;
-                    signum = -1;
-                }
-                value = new BigInteger(signum, bits);
+                // value is negative, clear the sign
+                bits[0] &= 0x7F;
+                signum = -1;
             }
-            else {
-                signum = 0;
-                value = BigInteger.ZERO;
+            value = new BigInteger(signum, bits);
+        }
+        else {
+            signum = 0;
+            value = BigInteger.ZERO;
+        }
+        // Ion stores exponent, BigDecimal uses the negation "scale"
+        int scale = -exponent;
+        if (value.signum() == 0 && signum == -1)
+        {
+            assert value.equals(BigInteger.ZERO);
+            return Decimal.negativeZero(scale, mathContext);
+        }
+        return Decimal.valueOf(value, scale, mathContext);
+    }
+
+    /**
+     * Reads the current decimal into {@link #_decimal_unscaled} and
+     * {@link #_decimal_exponent} when its coefficient fits in a long,
+     * which is always the case for coefficients of up to 8 bytes.
+     *
+     * @return null if the primitive fields were loaded; otherwise, such as
+     * for negative zero, the value as a {@link Decimal}.
+     */
+    protected final Decimal readDecimalPrimitive(int len) throws IOException
+    {
+        if (len == 0) {
+            _decimal_unscaled = 0;
+            _decimal_exponent = 0;
+            _decimal_is_loaded = true;
+            return null;
+        }
+        int save_limit = NO_LIMIT;
+        if (_local_remaining != NO_LIMIT) {
+            save_limit = _local_remaining - len;
+        }
+        _local_remaining = len;
+        int exponent = readVarInt();
+        int length = _local_remaining;
+        Decimal bd = null;
+        if (length > 8) {
+            bd = readDecimalCoefficient(exponent);
+        }
+        else {
+            long value = 0;
+            boolean is_negative = false;
+            if (length > 0) {
+                int b = read();
+                if (b < 0) throwUnexpectedEOFException();
+                is_negative = ((b & 0x80) != 0);
+                value = ((long)(b & 0x7F) << ((length - 1) * 8)) | readULong(length - 1);
             }
-            // Ion stores exponent, BigDecimal uses the negation "scale"
-            int scale = -exponent;
-            if (value.signum() == 0 && signum == -1)
-            {
-                assert value.equals(BigInteger.ZERO);
-                bd = Decimal.negativeZero(scale, mathContext);
+            if (is_negative && value == 0) {
+                bd = Decimal.negativeZero(-exponent, MathContext.UNLIMITED);
             }
-            else
-            {
-                bd = Decimal.valueOf(value, scale, mathContext);
+            else {
+                _decimal_unscaled = is_negative ? -value : value;
+                _decimal_exponent = exponent;
+                _decimal_is_loaded = true;
             }
-            _local_remaining = save_limit;
         }
+        _local_remaining = save_limit;
         return bd;
     }
 
@@ -1185,6 +1305,13 @@ abstract class IonReaderBinaryRawX
         // restore out outer limit(s)
         _local_remaining  = save_limit;
         // now we let timestamp put it all together
+        return newTimestamp(p, year, month, day, hour, minute, second, frac, offset);
+    }
+
+    private Timestamp newTimestamp(Precision p, int year, int month, int day,
+                                   int hour, int minute, int second,
+                                   BigDecimal frac, Integer offset)
+    {
         try {
             Timestamp val =
                 Timestamp.createFromUtcFields(p, year, month, day, hour,
@@ -1198,6 +1325,169 @@ abstract class IonReaderBinaryRawX
         }
     }
 
+    private static final long[] LONG_POWERS_OF_TEN = new long[19];
+    static {
+        LONG_POWERS_OF_TEN[0] = 1;
+        for (int ii = 1; ii < LONG_POWERS_OF_TEN.length; ii++) {
+            LONG_POWERS_OF_TEN[ii] = LONG_POWERS_OF_TEN[ii - 1] * 10;
+        }
+    }
+
+    /**
+     * Reads a timestamp into {@link #_timestamp_epoch_second} and its sibling
+     * fields, without creating a {@link Timestamp}. The fields are validated
+     * as {@link #readTimestamp(int)} would validate them.
+     *
+     * @param len the length of the timestamp, which must be at least one.
+     *
+     * @return null if the primitive fields hold the value; otherwise the
+     * value as a Timestamp, because its fractional seconds do not fit in a
+     * long coefficient or are negative zero.
+     */
+    protected final Timestamp readTimestampPrimitive(int len) throws IOException
+    {
+        int year, month = 1, day = 1, hour = 0, minute = 0, second = 0;
+        Decimal frac = null;
+        boolean has_fraction = false;
+        int save_limit = NO_LIMIT;
+        if (_local_remaining != NO_LIMIT) {
+            save_limit = _local_remaining - len;
+        }
+        _local_remaining = len;  // > 0
+
+        // the offset is a VarInt where -0 means unknown, read without boxing
+        int offset = TimestampValueReader.UNKNOWN_LOCAL_OFFSET;
+        int b = read();
+        if (b != 0xC0) {
+            offset = readVarInt(b);
+        }
+
+        year = readVarUInt();
+        Precision p = Precision.YEAR;
+        if (_local_remaining > 0) {
+            month = readVarUInt();
+            p = Precision.MONTH;
+            if (_local_remaining > 0) {
+                day = readVarUInt();
+                p = Precision.DAY;
+                if (_local_remaining > 0) {
+                    hour   = readVarUInt();
+                    minute = readVarUInt();
+                    p = Precision.MINUTE;
+                    if (_local_remaining > 0) {
+                        second = readVarUInt();
+                        p = Precision.SECOND;
+                        if (_local_remaining > 0) {
+                            frac = readDecimalPrimitive(_local_remaining);
+                            has_fraction = true;
+                        }
+                    }
+                }
+            }
+        }
+        _local_remaining = save_limit;
+
+        if (frac != null) {
+            // too long for the primitive fields, let Timestamp validate it
+            if (frac.signum() < 0 || frac.compareTo(BigDecimal.ONE) >= 0) {
+                throwErrorAt(
+                        "The fractional seconds value in a timestamp must be greater than or "
+                              + "equal to zero and less than one."
+                );
+            }
+            Integer boxed_offset =
+                (offset == TimestampValueReader.UNKNOWN_LOCAL_OFFSET) ? null : Integer.valueOf(offset);
+            return newTimestamp(p, year, month, day, hour, minute, second, frac, boxed_offset);
+        }
+
+        if (year < 1 || year > 9999) {
+            throwErrorAt("Invalid timestamp encoding: year " + year + " must be between 1 and 9999");
+        }
+        if (month < 1 || month > 12) {
+            throwErrorAt("Invalid timestamp encoding: month " + month + " must be between 1 and 12");
+        }
+        if (day < 1 || day > _Private_EpochTime.daysInMonth(year, month)) {
+            throwErrorAt("Invalid timestamp encoding: day " + day + " is not in "
+                         + year + "-" + month);
+        }
+        if (hour > 23 || minute > 59 || second > 59) {
+            throwErrorAt("Invalid timestamp encoding: time " + hour + ":" + minute
+                         + ":" + second + " is out of range");
+        }
+
+        int nanos = 0;
+        if (has_fraction) {
+            long unscaled = _decimal_unscaled;
+            int exponent = _decimal_exponent;
+            _decimal_is_loaded = false;
+            boolean in_range;
+            if (exponent >= 0) {
+                in_range = (unscaled == 0);
+            }
+            else {
+                in_range = unscaled >= 0
+                    && (exponent <= -LONG_POWERS_OF_TEN.length || unscaled < LONG_POWERS_OF_TEN[-exponent]);
+            }
+            if (!in_range) {
+                throwErrorAt(
+                        "The fractional seconds value in a timestamp must be greater than or "
+                              + "equal to zero and less than one."
+                );
+            }
+            if (unscaled != 0) {
+                if (exponent >= -9) {
+                    nanos = (int) (unscaled * LONG_POWERS_OF_TEN[9 + exponent]);
+                }
+                else if (exponent > -9 - LONG_POWERS_OF_TEN.length) {
+                    nanos = (int) (unscaled / LONG_POWERS_OF_TEN[-exponent - 9]);
+                }
+            }
+            _timestamp_fraction_unscaled = unscaled;
+            _timestamp_fraction_exponent = exponent;
+        }
+        if (p.ordinal() < Precision.MINUTE.ordinal()) {
+            // as with Timestamp, only times have an offset
+            offset = TimestampValueReader.UNKNOWN_LOCAL_OFFSET;
+        }
+
+        _timestamp_epoch_second =
+            _Private_EpochTime.epochDay(year, month, day) * _Private_EpochTime.SECONDS_PER_DAY
+            + hour * 3600 + minute * 60 + second;
+        _timestamp_nanos = nanos;
+        _timestamp_offset = offset;
+        _timestamp_precision = p;
+        _timestamp_has_fraction = has_fraction;
+        _timestamp_is_loaded = true;
+        return null;
+    }
+
+    /**
+     * Creates the Timestamp held by the fields that
+     * {@link #readTimestampPrimitive(int)} filled.
+     */
+    protected final Timestamp timestampFromPrimitive()
+    {
+        long epoch_day = _Private_EpochTime.epochDayOf(_timestamp_epoch_second);
+        int second_of_day = (int) (_timestamp_epoch_second - epoch_day * _Private_EpochTime.SECONDS_PER_DAY);
+        int date = _Private_EpochTime.dateOf(epoch_day);
+        BigDecimal frac = null;
+        if (_timestamp_has_fraction) {
+            frac = BigDecimal.valueOf(_timestamp_fraction_unscaled, -_timestamp_fraction_exponent);
+        }
+        Integer offset = null;
+        if (_timestamp_offset != TimestampValueReader.UNKNOWN_LOCAL_OFFSET) {
+            offset = Integer.valueOf(_timestamp_offset);
+        }
+        return newTimestamp(_timestamp_precision,
+                            _Private_EpochTime.yearOf(date),
+                            _Private_EpochTime.monthOf(date),
+                            _Private_EpochTime.dayOf(date),
+                            second_of_day / 3600,
+                            (second_of_day / 60) % 60,
+                            second_of_day % 60,
+                            frac, offset);
+    }
+
     protected final String readString(int numberOfBytes) throws IOException
     {
         // If the string we're reading is small enough to fit in our reusable buffer, we can avoid the overhead
@@ -1283,19 +1573,243 @@ abstract class IonReaderBinaryRawX
         readAll(utf8InputBuffer.array(), 0, numberOfBytes);
         _local_remaining = save_limit;
 
-        utf8InputBuffer.position(0);
-        utf8InputBuffer.limit(numberOfBytes);
+        return decodeString(utf8InputBuffer, numberOfBytes, utf8DecodingBuffer);
+    }
 
-        utf8DecodingBuffer.position(0);
-        utf8DecodingBuffer.limit(utf8DecodingBuffer.capacity());
+    /**
+     * Reads the UTF-8 bytes of the current string value into
+     * {@link #_utf8_bytes} without decoding them. Afterwards the string can
+     * be materialized with {@link #decodeUtf8()}.
+     */
+    protected final void readUtf8(int numberOfBytes) throws IOException
+    {
+        if (numberOfBytes > _utf8_bytes.length) {
+            _utf8_bytes = new byte[numberOfBytes];
+        }
+        int save_limit = NO_LIMIT;
+        if (_local_remaining != NO_LIMIT) {
+            save_limit = _local_remaining - numberOfBytes;
+        }
+        _local_remaining = numberOfBytes;
+        readAll(_utf8_bytes, 0, numberOfBytes);
+        _local_remaining = save_limit;
+
+        _utf8_length = numberOfBytes;
+        _utf8_is_loaded = true;
+    }
+
+    /**
+     * Decodes the bytes previously loaded by {@link #readUtf8(int)}.
+     */
+    protected final String decodeUtf8()
+    {
+        assert _utf8_is_loaded;
+        ByteBuffer input = (_utf8_bytes == utf8InputBuffer.array())
+            ? utf8InputBuffer
+            : ByteBuffer.wrap(_utf8_bytes);
+        CharBuffer output = (_utf8_length <= utf8DecodingBuffer.capacity())
+            ? utf8DecodingBuffer
+            : CharBuffer.allocate(_utf8_length);
+        return decodeString(input, _utf8_length, output);
+    }
+
+    private String decodeString(ByteBuffer input, int numberOfBytes, CharBuffer output)
+    {
+        input.position(0);
+        input.limit(numberOfBytes);
+
+        output.position(0);
+        output.limit(output.capacity());
 
         utf8CharsetDecoder.reset();
-        CoderResult coderResult = utf8CharsetDecoder.decode(utf8InputBuffer, utf8DecodingBuffer, true);
+        CoderResult coderResult = utf8CharsetDecoder.decode(input, output, true);
         if (coderResult.isError()) {
             throw new IonException("Illegal value encountered while validating UTF-8 data in input stream. " + coderResult.toString());
         }
-        utf8DecodingBuffer.flip();
-        return utf8DecodingBuffer.toString();
+        output.flip();
+        return output.toString();
+    }
+
+    //
+    // Bulk decoding of primitive sequences.  These read the content of the
+    // current list or sexp straight out of a byte array source without
+    // consuming it, and return -1 for anything they don't handle so that the
+    // caller can fall back to reading element by element, which reports
+    // errors properly.
+    //
+
+    /**
+     * @return whether the content of the current, non-null sequence can be
+     * decoded by the bulk methods: it must be entirely present in the input
+     * array. Truncated input is left to the element-by-element path, which
+     * reports it.
+     */
+    protected final boolean isDirectlyDecodable() {
+        return _state == State.S_BEFORE_VALUE
+            && _input instanceof UnifiedInputStreamX.FromByteArray
+            && _value_len <= _input._limit - _input._pos;
+    }
+
+    /**
+     * Counts the elements of the current sequence by scanning their type
+     * descriptors.
+     *
+     * @return the element count, or -1 if an element has a variable length
+     * or runs past the end of the sequence.
+     */
+    protected final int countSequenceElements() {
+        final byte[] bytes = _input._bytes;
+        int pos = _input._pos;
+        final int end = pos + _value_len;
+        int count = 0;
+        while (pos < end) {
+            int ln = bytes[pos] & 0xf;
+            if (ln >= _Private_IonConstants.lnIsVarLen) {
+                return -1;
+            }
+            pos += 1 + ln;
+            count++;
+        }
+        if (pos > end) {
+            return -1;
+        }
+        return count;
+    }
+
+    protected final int decodeIntSequence(int[] dst, int offset, int len) {
+        final byte[] bytes = _input._bytes;
+        int pos = _input._pos;
+        final int end = pos + _value_len;
+        int count = 0;
+        while (pos < end) {
+            int td = bytes[pos++] & 0xff;
+            int tid = td >>> 4;
+            int ln = td & 0xf;
+            if ((tid != _Private_IonConstants.tidPosInt && tid != _Private_IonConstants.tidNegInt)
+                || ln > 4 || pos + ln > end) {
+                return -1;
+            }
+            long magnitude = 0;
+            for (int ii = 0; ii < ln; ii++) {
+                magnitude = (magnitude << 8) | (bytes[pos++] & 0xff);
+            }
+            long value;
+            if (tid == _Private_IonConstants.tidPosInt) {
+                value = magnitude;
+            }
+            else {
+                if (magnitude == 0) return -1; // negative zero is invalid
+                value = -magnitude;
+            }
+            if (value > Integer.MAX_VALUE || value < Integer.MIN_VALUE) {
+                return -1;
+            }
+            if (count < len) {
+                dst[offset + count] = (int) value;
+            }
+            count++;
+        }
+        return count;
+    }
+
+    protected final int decodeLongSequence(long[] dst, int offset, int len) {
+        final byte[] bytes = _input._bytes;
+        int pos = _input._pos;
+        final int end = pos + _value_len;
+        int count = 0;
+        while (pos < end) {
+            int td = bytes[pos++] & 0xff;
+            int tid = td >>> 4;
+            int ln = td & 0xf;
+            if ((tid != _Private_IonConstants.tidPosInt && tid != _Private_IonConstants.tidNegInt)
+                || ln > 8 || pos + ln > end) {
+                return -1;
+            }
+            long magnitude = 0;
+            for (int ii = 0; ii < ln; ii++) {
+                magnitude = (magnitude << 8) | (bytes[pos++] & 0xff);
+            }
+            if (magnitude < 0) {
+                return -1; // more than 63 bits, leave Long.MIN_VALUE to the slow path
+            }
+            if (tid == _Private_IonConstants.tidNegInt) {
+                if (magnitude == 0) return -1; // negative zero is invalid
+                magnitude = -magnitude;
+            }
+            if (count < len) {
+                dst[offset + count] = magnitude;
+            }
+            count++;
+        }
+        return count;
+    }
+
+    protected final int decodeDoubleSequence(double[] dst, int offset, int len) {
+        final byte[] bytes = _input._bytes;
+        int pos = _input._pos;
+        final int end = pos + _value_len;
+        int count = 0;
+        while (pos < end) {
+            int td = bytes[pos++] & 0xff;
+            if (td >>> 4 != _Private_IonConstants.tidFloat) {
+                return -1;
+            }
+            int ln = td & 0xf;
+            if (pos + ln > end) {
+                return -1;
+            }
+            double value;
+            if (ln == 8) {
+                long bits = 0;
+                for (int ii = 0; ii < 8; ii++) {
+                    bits = (bits << 8) | (bytes[pos++] & 0xff);
+                }
+                value = Double.longBitsToDouble(bits);
+            }
+            else if (ln == 4) {
+                int bits = 0;
+                for (int ii = 0; ii < 4; ii++) {
+                    bits = (bits << 8) | (bytes[pos++] & 0xff);
+                }
+                value = Float.intBitsToFloat(bits);
+            }
+            else if (ln == 0) {
+                value = 0.0;
+            }
+            else {
+                return -1;
+            }
+            if (count < len) {
+                dst[offset + count] = value;
+            }
+            count++;
+        }
+        return count;
+    }
+
+    protected final int decodeBooleanSequence(boolean[] dst, int offset, int len) {
+        final byte[] bytes = _input._bytes;
+        int pos = _input._pos;
+        final int end = pos + _value_len;
+        int count = 0;
+        while (pos < end) {
+            int td = bytes[pos++] & 0xff;
+            boolean value;
+            if (td == ((_Private_IonConstants.tidBoolean << 4) | _Private_IonConstants.lnBooleanTrue)) {
+                value = true;
+            }
+            else if (td == ((_Private_IonConstants.tidBoolean << 4) | _Private_IonConstants.lnBooleanFalse)) {
+                value = false;
+            }
+            else {
+                return -1;
+            }
+            if (count < len) {
+                dst[offset + count] = value;
+            }
+            count++;
+        }
+        return count;
     }
 
     private final void throwUnexpectedEOFException() throws IOException {
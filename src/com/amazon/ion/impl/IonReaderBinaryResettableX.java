@@ -0,0 +1,58 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl;
+
+import static com.amazon.ion.impl._Private_Utils.EMPTY_BYTE_ARRAY;
+import static com.amazon.ion.util.IonStreamUtils.isIonBinary;
+
+import com.amazon.ion.IonCatalog;
+import com.amazon.ion.IonResettableReader;
+
+/**
+ * A binary user reader over byte arrays that can be re-targeted at new
+ * data. Everything the reader allocates on construction (the input stream
+ * and its page, the UTF-8 decoder and buffers, the container and annotation
+ * stacks, and the value variant) is reused across resets.
+ */
+final class IonReaderBinaryResettableX
+    extends IonReaderBinaryUserX
+    implements IonResettableReader
+{
+    IonReaderBinaryResettableX(IonCatalog catalog,
+                               _Private_LocalSymbolTableFactory lstFactory)
+    {
+        super(catalog,
+              lstFactory,
+              UnifiedInputStreamX.makeStream(EMPTY_BYTE_ARRAY, 0, 0),
+              0);
+    }
+
+    public void reset(byte[] ionBinary)
+    {
+        reset(ionBinary, 0, ionBinary.length);
+    }
+
+    public void reset(byte[] ionBinary, int offset, int length)
+    {
+        if (offset < 0 || length < 0 || offset + length > ionBinary.length) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (length != 0 && !isIonBinary(ionBinary, offset, length)) {
+            throw new IllegalArgumentException("Data is not Ion binary");
+        }
+        re_init_user(ionBinary, offset, length);
+    }
+}
@@ -19,18 +19,26 @@ import static com.amazon.ion.IonType.SYMBOL;
 import static com.amazon.ion.SymbolTable.UNKNOWN_SYMBOL_ID;
 
 import com.amazon.ion.Decimal;
+import com.amazon.ion.DecimalValueReader;
 import com.amazon.ion.IntegerSize;
 import com.amazon.ion.IonType;
+import com.amazon.ion.ListValueReader;
+import com.amazon.ion.LobValueReader;
 import com.amazon.ion.NullValueException;
 import com.amazon.ion.SymbolTable;
 import com.amazon.ion.SymbolToken;
 import com.amazon.ion.Timestamp;
+import com.amazon.ion.TimestampValueReader;
 import com.amazon.ion.UnknownSymbolException;
+import com.amazon.ion.Utf8ValueReader;
 import com.amazon.ion.impl._Private_ScalarConversions.AS_TYPE;
 import com.amazon.ion.impl._Private_ScalarConversions.ValueVariant;
+import java.io.EOFException;
 import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.Iterator;
 
@@ -239,13 +247,17 @@ class IonReaderBinarySystemX
             _v.setAuthoritativeType(AS_TYPE.double_value);
             break;
         case DECIMAL:
-            Decimal dec = readDecimal(_value_len);
+            Decimal dec = _decimal_is_loaded
+                ? Decimal.valueOf(BigInteger.valueOf(_decimal_unscaled), -_decimal_exponent)
+                : readDecimal(_value_len);
             _v.setValue(dec);
             _v.setAuthoritativeType(AS_TYPE.decimal_value);
             break;
         case TIMESTAMP:
             // TODO: it looks like a 0 length return a null timestamp - is that right?
-            Timestamp t = readTimestamp(_value_len);
+            Timestamp t = _timestamp_is_loaded
+                ? timestampFromPrimitive()
+                : readTimestamp(_value_len);
             _v.setValue(t);
             _v.setAuthoritativeType(AS_TYPE.timestamp_value);
             break;
@@ -265,7 +277,7 @@ class IonReaderBinarySystemX
             _v.setAuthoritativeType(AS_TYPE.int_value);
             break;
         case STRING:
-            String s = readString(_value_len);
+            String s = _utf8_is_loaded ? decodeUtf8() : readString(_value_len);
             _v.setValue(s);
             _v.setAuthoritativeType(AS_TYPE.string_value);
             break;
@@ -483,6 +495,721 @@ class IonReaderBinarySystemX
         return null;
     }
 
+    //
+    // undecoded text access, see Utf8ValueReader
+    //
+
+    private Utf8ValueReaderFacet    _utf8_facet;
+    private DecimalValueReaderFacet _decimal_facet;
+    private TimestampValueReaderFacet _timestamp_facet;
+    private LobValueReaderFacet     _lob_facet;
+    private ListValueReaderFacet    _list_facet;
+    private char[]               _text_chars;
+    private CharArrayView        _text_view;
+
+    @Override
+    public <T> T asFacet(Class<T> facetType)
+    {
+        if (facetType == Utf8ValueReader.class)
+        {
+            if (_utf8_facet == null) {
+                _utf8_facet = new Utf8ValueReaderFacet();
+            }
+            return facetType.cast(_utf8_facet);
+        }
+        if (facetType == DecimalValueReader.class)
+        {
+            if (_decimal_facet == null) {
+                _decimal_facet = new DecimalValueReaderFacet();
+            }
+            return facetType.cast(_decimal_facet);
+        }
+        if (facetType == TimestampValueReader.class)
+        {
+            if (_timestamp_facet == null) {
+                _timestamp_facet = new TimestampValueReaderFacet();
+            }
+            return facetType.cast(_timestamp_facet);
+        }
+        if (facetType == LobValueReader.class)
+        {
+            if (_lob_facet == null) {
+                _lob_facet = new LobValueReaderFacet();
+            }
+            return facetType.cast(_lob_facet);
+        }
+        if (facetType == ListValueReader.class)
+        {
+            if (_list_facet == null) {
+                _list_facet = new ListValueReaderFacet();
+            }
+            return facetType.cast(_list_facet);
+        }
+        return super.asFacet(facetType);
+    }
+
+    /**
+     * Returns the text of the current symbol, or null if the current value
+     * is a string whose UTF-8 bytes have been loaded into the scratch buffer.
+     */
+    private String load_text()
+    {
+        if (! IonType.isText(_value_type)) throw new IllegalStateException("Unexpected value type: " + _value_type);
+        if (_value_is_null) throw new NullValueException();
+
+        if (_value_type == SYMBOL) {
+            int sid = getSymbolId();
+            String text = _symbols.findKnownSymbol(sid);
+            if (text == null) {
+                throw new UnknownSymbolException(sid);
+            }
+            return text;
+        }
+
+        if (!_utf8_is_loaded) {
+            if (_v.hasValueOfType(AS_TYPE.string_value)) {
+                // Already materialized, so re-encode rather than re-read.
+                String text = _v.getString();
+                int length = IonUTF8.getUTF8Length(text);
+                if (length > _utf8_bytes.length) {
+                    _utf8_bytes = new byte[length];
+                }
+                _utf8_length = IonUTF8.convertToUTF8Bytes(text, _utf8_bytes, 0);
+                _utf8_is_loaded = true;
+            }
+            else {
+                try {
+                    readUtf8(_value_len);
+                }
+                catch (IOException e) {
+                    error(e);
+                }
+                _state = State.S_AFTER_VALUE;
+            }
+        }
+        return null;
+    }
+
+    private class Utf8ValueReaderFacet implements Utf8ValueReader
+    {
+        public int utf8Length()
+        {
+            String symbol = load_text();
+            if (symbol != null) {
+                return IonUTF8.getUTF8Length(symbol);
+            }
+            return _utf8_length;
+        }
+
+        public int getUtf8Bytes(byte[] buffer, int offset)
+        {
+            String symbol = load_text();
+            if (symbol != null) {
+                int length = IonUTF8.getUTF8Length(symbol);
+                if (offset < 0 || offset + length > buffer.length) {
+                    throw new IndexOutOfBoundsException();
+                }
+                return IonUTF8.convertToUTF8Bytes(symbol, buffer, offset);
+            }
+            System.arraycopy(_utf8_bytes, 0, buffer, offset, _utf8_length);
+            return _utf8_length;
+        }
+
+        public CharSequence textValue()
+        {
+            String symbol = load_text();
+            if (symbol != null) {
+                return symbol;
+            }
+            if (_v.hasValueOfType(AS_TYPE.string_value)) {
+                return _v.getString();
+            }
+            if (_text_chars == null || _text_chars.length < _utf8_length) {
+                _text_chars = new char[Math.max(_utf8_length, 64)];
+                _text_view = new CharArrayView(_text_chars);
+            }
+            _text_view._length =
+                IonUTF8.convertToChars(_utf8_bytes, 0, _utf8_length, _text_chars);
+            return _text_view;
+        }
+
+        public boolean textValueEquals(byte[] utf8, int offset, int length)
+        {
+            String symbol = load_text();
+            if (symbol != null) {
+                return IonUTF8.equalsUTF8(symbol, utf8, offset, length);
+            }
+            if (length != _utf8_length) {
+                return false;
+            }
+            for (int ii = 0; ii < length; ii++) {
+                if (_utf8_bytes[ii] != utf8[offset + ii]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        public boolean textValueEquals(CharSequence text)
+        {
+            String symbol = load_text();
+            if (symbol != null) {
+                return symbol.contentEquals(text);
+            }
+            return IonUTF8.equalsUTF8(text, _utf8_bytes, 0, _utf8_length);
+        }
+    }
+
+    //
+    // primitive decimal access, see DecimalValueReader
+    //
+
+    /**
+     * Loads the current decimal, as primitives when its coefficient fits in
+     * a long.
+     *
+     * @return true if {@link #_decimal_unscaled} and
+     * {@link #_decimal_exponent} hold the value; false if it is only
+     * available as a {@link Decimal}.
+     */
+    private boolean load_decimal()
+    {
+        if (_value_type != IonType.DECIMAL) throw new IllegalStateException("Unexpected value type: " + _value_type);
+        if (_value_is_null) throw new NullValueException();
+
+        if (!_decimal_is_loaded) {
+            if (_v.isEmpty()) {
+                try {
+                    Decimal dec = readDecimalPrimitive(_value_len);
+                    if (dec != null) {
+                        _v.setValue(dec);
+                        _v.setAuthoritativeType(AS_TYPE.decimal_value);
+                    }
+                }
+                catch (IOException e) {
+                    error(e);
+                }
+                _state = State.S_AFTER_VALUE;
+            }
+            if (!_decimal_is_loaded) {
+                // Already materialized, or too long to read directly, such
+                // as a coefficient of Long.MIN_VALUE.
+                Decimal dec = _v.getDecimal();
+                BigInteger unscaled = dec.unscaledValue();
+                if (unscaled.bitLength() < 64 && !dec.isNegativeZero()) {
+                    _decimal_unscaled = unscaled.longValue();
+                    _decimal_exponent = -dec.scale();
+                    _decimal_is_loaded = true;
+                }
+            }
+        }
+        return _decimal_is_loaded;
+    }
+
+    private class DecimalValueReaderFacet implements DecimalValueReader
+    {
+        public boolean isDecimalLongRepresentable()
+        {
+            return load_decimal();
+        }
+
+        public long decimalUnscaledValue()
+        {
+            if (!load_decimal()) {
+                throw new IllegalStateException("decimal coefficient does not fit in a long");
+            }
+            return _decimal_unscaled;
+        }
+
+        public int decimalExponent()
+        {
+            if (load_decimal()) {
+                return _decimal_exponent;
+            }
+            return -_v.getDecimal().scale();
+        }
+    }
+
+    //
+    // primitive timestamp access, see TimestampValueReader
+    //
+
+    /**
+     * Loads the current timestamp into {@link #_timestamp_epoch_second} and
+     * its sibling fields.
+     */
+    private void load_timestamp()
+    {
+        if (_value_type != IonType.TIMESTAMP) throw new IllegalStateException("Unexpected value type: " + _value_type);
+        if (_value_is_null || _value_len < 1) throw new NullValueException();
+
+        if (_timestamp_is_loaded) {
+            return;
+        }
+        if (_v.isEmpty()) {
+            try {
+                Timestamp t = readTimestampPrimitive(_value_len);
+                if (t != null) {
+                    _v.setValue(t);
+                    _v.setAuthoritativeType(AS_TYPE.timestamp_value);
+                }
+            }
+            catch (IOException e) {
+                error(e);
+            }
+            _state = State.S_AFTER_VALUE;
+        }
+        if (!_timestamp_is_loaded) {
+            // Already materialized, or with fractional seconds too long to
+            // read directly.
+            Timestamp t = _v.getTimestamp();
+            long millis = t.getMillis();
+            long second = millis / 1000;
+            if (millis % 1000 < 0) {
+                second--;
+            }
+            BigDecimal frac = t.getZDecimalSecond().subtract(BigDecimal.valueOf(t.getZSecond()));
+            Integer offset = t.getLocalOffset();
+            _timestamp_epoch_second = second;
+            _timestamp_nanos = frac.movePointRight(9).intValue();
+            _timestamp_offset = (offset == null)
+                ? TimestampValueReader.UNKNOWN_LOCAL_OFFSET
+                : offset.intValue();
+            _timestamp_precision = t.getPrecision();
+            _timestamp_is_loaded = true;
+        }
+    }
+
+    private class TimestampValueReaderFacet implements TimestampValueReader
+    {
+        public long timestampEpochMillis()
+        {
+            load_timestamp();
+            return _timestamp_epoch_second * 1000 + _timestamp_nanos / 1000000;
+        }
+
+        public long timestampEpochSecond()
+        {
+            load_timestamp();
+            return _timestamp_epoch_second;
+        }
+
+        public int timestampNanos()
+        {
+            load_timestamp();
+            return _timestamp_nanos;
+        }
+
+        public int timestampLocalOffset()
+        {
+            load_timestamp();
+            return _timestamp_offset;
+        }
+
+        public Timestamp.Precision timestampPrecision()
+        {
+            load_timestamp();
+            return _timestamp_precision;
+        }
+    }
+
+    //
+    // streaming lob access, see LobValueReader
+    //
+
+    private class LobValueReaderFacet implements LobValueReader
+    {
+        public InputStream newInputStream()
+        {
+            if (!IonType.isLob(_value_type)) throw new IllegalStateException("Unexpected value type: " + _value_type);
+            if (_value_is_null) throw new NullValueException();
+            byteSize(); // makes the remaining length available
+            return new LobInputStream(_value_generation);
+        }
+    }
+
+    /**
+     * Reads the current lob directly from the input, for as long as the
+     * reader stays on it.
+     */
+    private final class LobInputStream extends InputStream
+    {
+        private final int    _generation;
+        private final byte[] _single = new byte[1];
+
+        LobInputStream(int generation)
+        {
+            _generation = generation;
+        }
+
+        private void check_current() throws IOException
+        {
+            if (_generation != _value_generation) {
+                throw new IOException("The reader is no longer positioned on this lob");
+            }
+        }
+
+        @Override
+        public int read() throws IOException
+        {
+            check_current();
+            if (_value_lob_remaining == 0) {
+                return -1;
+            }
+            if (readBytes(_single, 0, 1) != 1) {
+                throw new EOFException("Unexpected end of input in lob");
+            }
+            return _single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException
+        {
+            if (off < 0 || len < 0 || len > b.length - off) {
+                throw new IndexOutOfBoundsException();
+            }
+            check_current();
+            if (len == 0) {
+                return 0;
+            }
+            if (_value_lob_remaining == 0) {
+                return -1;
+            }
+            int read_len = readBytes(b, off, Math.min(len, _value_lob_remaining));
+            if (read_len <= 0) {
+                throw new EOFException("Unexpected end of input in lob");
+            }
+            return read_len;
+        }
+
+        @Override
+        public long skip(long n) throws IOException
+        {
+            check_current();
+            if (n <= 0) {
+                return 0;
+            }
+            int skip_len = (int) Math.min(n, _value_lob_remaining);
+            if (skip_len > 0) {
+                skipLobBytes(skip_len);
+            }
+            return skip_len;
+        }
+    }
+
+    /**
+     * A reusable {@link CharSequence} over the prefix of a char array.
+     */
+    private static final class CharArrayView implements CharSequence
+    {
+        private final char[] _chars;
+        int                  _length;
+
+        CharArrayView(char[] chars)
+        {
+            _chars = chars;
+        }
+
+        public int length()
+        {
+            return _length;
+        }
+
+        public char charAt(int index)
+        {
+            if (index < 0 || index >= _length) {
+                throw new IndexOutOfBoundsException(Integer.toString(index));
+            }
+            return _chars[index];
+        }
+
+        public CharSequence subSequence(int start, int end)
+        {
+            if (start < 0 || end > _length || start > end) {
+                throw new IndexOutOfBoundsException();
+            }
+            return new String(_chars, start, end - start);
+        }
+
+        @Override
+        public String toString()
+        {
+            return new String(_chars, 0, _length);
+        }
+    }
+
+    /**
+     * Decodes the current sequence directly from the input where possible,
+     * otherwise steps through it checking each element.
+     */
+    private class ListValueReaderFacet implements ListValueReader
+    {
+        private static final int INITIAL_CAPACITY = 16;
+
+        /**
+         * @return whether the content can be decoded in bulk.
+         */
+        private boolean check_sequence()
+        {
+            if (_value_type != IonType.LIST && _value_type != IonType.SEXP) {
+                throw new IllegalStateException("Unexpected value type: " + _value_type);
+            }
+            if (_value_is_null) throw new NullValueException();
+            return isDirectlyDecodable();
+        }
+
+        private void check_range(int length, int offset, int len)
+        {
+            if (offset < 0 || len < 0 || offset > length - len) {
+                throw new IndexOutOfBoundsException();
+            }
+        }
+
+        private void check_element(IonType expected)
+        {
+            if (_value_type != expected || _value_is_null) {
+                String found = (_value_is_null ? "null." : "") + _value_type;
+                throw newErrorAt("Expected " + expected + " element but found " + found);
+            }
+        }
+
+        private int int_element()
+        {
+            check_element(IonType.INT);
+            if (getIntegerSize() != IntegerSize.INT) {
+                throw newErrorAt("int element is out of range for a Java int");
+            }
+            return intValue();
+        }
+
+        private long long_element()
+        {
+            check_element(IonType.INT);
+            if (getIntegerSize() == IntegerSize.BIG_INTEGER) {
+                throw newErrorAt("int element is out of range for a Java long");
+            }
+            return longValue();
+        }
+
+        private double double_element()
+        {
+            check_element(IonType.FLOAT);
+            return doubleValue();
+        }
+
+        private boolean boolean_element()
+        {
+            check_element(IonType.BOOL);
+            return booleanValue();
+        }
+
+        public int[] intListValue()
+        {
+            if (check_sequence()) {
+                int count = countSequenceElements();
+                if (count >= 0) {
+                    int[] values = new int[count];
+                    if (decodeIntSequence(values, 0, count) == count) {
+                        return values;
+                    }
+                }
+            }
+            int[] values = new int[INITIAL_CAPACITY];
+            int count = 0;
+            stepIn();
+            try {
+                while (next() != null) {
+                    if (count == values.length) {
+                        values = Arrays.copyOf(values, count * 2);
+                    }
+                    values[count++] = int_element();
+                }
+            }
+            finally {
+                stepOut();
+            }
+            return Arrays.copyOf(values, count);
+        }
+
+        public long[] longListValue()
+        {
+            if (check_sequence()) {
+                int count = countSequenceElements();
+                if (count >= 0) {
+                    long[] values = new long[count];
+                    if (decodeLongSequence(values, 0, count) == count) {
+                        return values;
+                    }
+                }
+            }
+            long[] values = new long[INITIAL_CAPACITY];
+            int count = 0;
+            stepIn();
+            try {
+                while (next() != null) {
+                    if (count == values.length) {
+                        values = Arrays.copyOf(values, count * 2);
+                    }
+                    values[count++] = long_element();
+                }
+            }
+            finally {
+                stepOut();
+            }
+            return Arrays.copyOf(values, count);
+        }
+
+        public double[] doubleListValue()
+        {
+            if (check_sequence()) {
+                int count = countSequenceElements();
+                if (count >= 0) {
+                    double[] values = new double[count];
+                    if (decodeDoubleSequence(values, 0, count) == count) {
+                        return values;
+                    }
+                }
+            }
+            double[] values = new double[INITIAL_CAPACITY];
+            int count = 0;
+            stepIn();
+            try {
+                while (next() != null) {
+                    if (count == values.length) {
+                        values = Arrays.copyOf(values, count * 2);
+                    }
+                    values[count++] = double_element();
+                }
+            }
+            finally {
+                stepOut();
+            }
+            return Arrays.copyOf(values, count);
+        }
+
+        public boolean[] booleanListValue()
+        {
+            if (check_sequence()) {
+                // every boolean is a single octet
+                boolean[] values = new boolean[_value_len];
+                if (decodeBooleanSequence(values, 0, _value_len) == _value_len) {
+                    return values;
+                }
+            }
+            boolean[] values = new boolean[INITIAL_CAPACITY];
+            int count = 0;
+            stepIn();
+            try {
+                while (next() != null) {
+                    if (count == values.length) {
+                        values = Arrays.copyOf(values, count * 2);
+                    }
+                    values[count++] = boolean_element();
+                }
+            }
+            finally {
+                stepOut();
+            }
+            return Arrays.copyOf(values, count);
+        }
+
+        public int getInts(int[] dst, int offset, int len)
+        {
+            check_range(dst.length, offset, len);
+            if (check_sequence()) {
+                int count = decodeIntSequence(dst, offset, len);
+                if (count >= 0) return count;
+            }
+            int count = 0;
+            stepIn();
+            try {
+                while (next() != null) {
+                    int value = int_element();
+                    if (count < len) {
+                        dst[offset + count] = value;
+                    }
+                    count++;
+                }
+            }
+            finally {
+                stepOut();
+            }
+            return count;
+        }
+
+        public int getLongs(long[] dst, int offset, int len)
+        {
+            check_range(dst.length, offset, len);
+            if (check_sequence()) {
+                int count = decodeLongSequence(dst, offset, len);
+                if (count >= 0) return count;
+            }
+            int count = 0;
+            stepIn();
+            try {
+                while (next() != null) {
+                    long value = long_element();
+                    if (count < len) {
+                        dst[offset + count] = value;
+                    }
+                    count++;
+                }
+            }
+            finally {
+                stepOut();
+            }
+            return count;
+        }
+
+        public int getDoubles(double[] dst, int offset, int len)
+        {
+            check_range(dst.length, offset, len);
+            if (check_sequence()) {
+                int count = decodeDoubleSequence(dst, offset, len);
+                if (count >= 0) return count;
+            }
+            int count = 0;
+            stepIn();
+            try {
+                while (next() != null) {
+                    double value = double_element();
+                    if (count < len) {
+                        dst[offset + count] = value;
+                    }
+                    count++;
+                }
+            }
+            finally {
+                stepOut();
+            }
+            return count;
+        }
+
+        public int getBooleans(boolean[] dst, int offset, int len)
+        {
+            check_range(dst.length, offset, len);
+            if (check_sequence()) {
+                int count = decodeBooleanSequence(dst, offset, len);
+                if (count >= 0) return count;
+            }
+            int count = 0;
+            stepIn();
+            try {
+                while (next() != null) {
+                    boolean value = boolean_element();
+                    if (count < len) {
+                        dst[offset + count] = value;
+                    }
+                    count++;
+                }
+            }
+            finally {
+                stepOut();
+            }
+            return count;
+        }
+    }
+
     private void throwIllegalNegativeZeroException() {
         throw newErrorAt("negative zero is illegal in the binary format");
     }
@@ -20,6 +20,7 @@ import static com.amazon.ion.SymbolTable.UNKNOWN_SYMBOL_ID;
 import static com.amazon.ion.SystemSymbols.ION_1_0_SID;
 import static com.amazon.ion.SystemSymbols.ION_SYMBOL_TABLE_SID;
 
+import com.amazon.ion.FieldHandleReader;
 import com.amazon.ion.IonCatalog;
 import com.amazon.ion.IonType;
 import com.amazon.ion.OffsetSpan;
@@ -34,9 +35,12 @@ import com.amazon.ion.impl.UnifiedInputStreamX.FromByteArray;
 import com.amazon.ion.impl.UnifiedSavePointManagerX.SavePoint;
 import com.amazon.ion.impl._Private_ScalarConversions.AS_TYPE;
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.Map;
 
-final class IonReaderBinaryUserX
+class IonReaderBinaryUserX
     extends IonReaderBinarySystemX
     implements _Private_ReaderWriter
 {
@@ -45,7 +49,7 @@ final class IonReaderBinaryUserX
      * It must be subtracted from the logical offsets exposed by
      * {@link OffsetSpan}s.
      */
-    private final int _physical_start_offset;
+    private int _physical_start_offset;
     private final _Private_LocalSymbolTableFactory _lstFactory;
 
     IonCatalog  _catalog;
@@ -102,6 +106,22 @@ final class IonReaderBinaryUserX
         _catalog = catalog;
     }
 
+    /**
+     * Re-targets this reader at new data in a byte array, restoring the state
+     * of a newly constructed reader while keeping its buffers, catalog, and
+     * facets. The reader must have been constructed over a byte array.
+     */
+    final void re_init_user(byte[] bytes, int offset, int length)
+    {
+        ((FromByteArray) _input).reset(bytes, offset, length);
+        re_init_raw();
+        clear_value();
+        _position_start = -1;
+        _physical_start_offset = offset;
+        _symbols = SharedSymbolTable.getSystemSymbolTable(1);
+        clear_system_value_stack();
+    }
+
     /**
      * Determines the abstract position of the reader, such that one can
      * later {@link #seek} back to it.
@@ -335,6 +355,8 @@ final class IonReaderBinaryUserX
     // Facet support
 
 
+    private FieldHandleReaderFacet _field_handles;
+
     @Override
     public <T> T asFacet(Class<T> facetType)
     {
@@ -343,6 +365,15 @@ final class IonReaderBinaryUserX
             return facetType.cast(new SpanProviderFacet());
         }
 
+        if (facetType == FieldHandleReader.class)
+        {
+            if (_field_handles == null)
+            {
+                _field_handles = new FieldHandleReaderFacet();
+            }
+            return facetType.cast(_field_handles);
+        }
+
         // TODO amzn/ion-java/issues/17 support seeking over InputStream
         if (_input instanceof FromByteArray)
         {
@@ -378,6 +409,113 @@ final class IonReaderBinaryUserX
     }
 
 
+    private class FieldHandleReaderFacet implements FieldHandleReader
+    {
+        private final Map<String, Integer> _handles = new HashMap<String, Integer>();
+
+        // Maps SIDs of _resolved_symtab to handles; slots beyond the array
+        // have no handle.
+        private int[]       _sid_to_handle = new int[0];
+        private SymbolTable _resolved_symtab;
+
+        public int registerFieldName(String fieldName)
+        {
+            if (fieldName == null)
+            {
+                throw new NullPointerException("fieldName");
+            }
+            Integer handle = _handles.get(fieldName);
+            if (handle == null)
+            {
+                handle = _handles.size();
+                _handles.put(fieldName, handle);
+                _resolved_symtab = null;
+            }
+            return handle;
+        }
+
+        public int getFieldHandle()
+        {
+            int sid = _value_field_id;
+            if (sid <= 0)
+            {
+                return NO_FIELD_HANDLE;
+            }
+            if (_resolved_symtab != _symbols)
+            {
+                resolve();
+            }
+            return (sid < _sid_to_handle.length) ? _sid_to_handle[sid] : NO_FIELD_HANDLE;
+        }
+
+        /**
+         * Maps the SIDs of the current symbol table whose text is registered
+         * to the corresponding handle. The system symbols, each import and
+         * the local symbols are all walked, so that a name declared at more
+         * than one SID is matched at each of them. This is only done once
+         * per symbol table.
+         */
+        private void resolve()
+        {
+            SymbolTable symtab = _symbols;
+            _sid_to_handle = new int[0];
+            if (! _handles.isEmpty())
+            {
+                SymbolTable system = symtab.getSystemSymbolTable();
+                if (system != null && system != symtab)
+                {
+                    int sid = mapDeclaredSymbols(system, 0);
+                    SymbolTable[] imports = symtab.getImportedTables();
+                    if (imports != null)
+                    {
+                        for (SymbolTable imported : imports)
+                        {
+                            sid = mapDeclaredSymbols(imported, sid);
+                        }
+                    }
+                }
+                mapDeclaredSymbols(symtab, symtab.getImportedMaxId());
+            }
+            _resolved_symtab = symtab;
+        }
+
+        /**
+         * Maps the symbols declared by {@code table}, which start after
+         * {@code sid}.
+         *
+         * @return the last SID of {@code table}.
+         */
+        private int mapDeclaredSymbols(SymbolTable table, int sid)
+        {
+            int maxId = sid + table.getMaxId() - table.getImportedMaxId();
+            Iterator<String> names = table.iterateDeclaredSymbolNames();
+            while (sid < maxId && names.hasNext())
+            {
+                sid++;
+                String text = names.next();
+                if (text == null) continue;
+                Integer handle = _handles.get(text);
+                if (handle == null) continue;
+                map(sid, handle);
+            }
+            return maxId;
+        }
+
+        private void map(int sid, int handle)
+        {
+            int[] sidToHandle = _sid_to_handle;
+            if (sid >= sidToHandle.length)
+            {
+                int oldLength = sidToHandle.length;
+                sidToHandle = Arrays.copyOf(sidToHandle, Math.max(sid + 1, oldLength * 2));
+                Arrays.fill(sidToHandle, oldLength, sidToHandle.length, NO_FIELD_HANDLE);
+                _sid_to_handle = sidToHandle;
+            }
+            sidToHandle[sid] = handle;
+        }
+    }
+
+
     private class SpanProviderFacet implements SpanProvider
     {
         public Span currentSpan()
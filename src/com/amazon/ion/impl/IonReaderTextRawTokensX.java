@@ -107,6 +107,14 @@ final class IonReaderTextRawTokensX
      */
     private int                 _base64_prefetch_stack;
 
+    /**
+     * true when only JSON is accepted: tokens are recognized by
+     * {@link #next_json_token(int)}, numbers by
+     * {@link #load_json_number(StringBuilder)}, and comments are errors.
+     */
+    private boolean             _json_only;
+    private CommentStrategy     _comment_strategy = CommentStrategy.IGNORE;
+
 
     /**
      * IonTokenReader constructor requires a UnifiedInputStream
@@ -142,6 +150,14 @@ final class IonReaderTextRawTokensX
 
     UnifiedInputStreamX getSourceStream() { return this._stream; }
 
+    /**
+     * Restricts this tokenizer to JSON, see {@link #next_json_token(int)}.
+     */
+    final void setJsonOnly() {
+        _json_only = true;
+        _comment_strategy = CommentStrategy.ERROR;
+    }
+
     public final boolean isBufferedInput()
     {
         boolean is_buffered = ! _stream._is_stream;
@@ -613,6 +629,10 @@ final class IonReaderTextRawTokensX
         }
         _unfinished_token = true;
 
+        if (_json_only) {
+            return next_json_token(c);
+        }
+
         switch (c) {
         case -1:
             return next_token_finish(IonTokenConstsX.TOKEN_EOF, true);
@@ -717,6 +737,47 @@ final class IonReaderTextRawTokensX
         }
         throw new IonException("invalid state: next token switch shouldn't exit");
     }
+    /**
+     * The JSON variant of {@link #nextToken()}, which takes only the
+     * punctuation, strings, numbers and keywords of JSON and doesn't look
+     * ahead for Ion's double braces, double colons, long strings, inf or
+     * timestamps. Numbers are always {@link IonTokenConstsX#TOKEN_UNKNOWN_NUMERIC},
+     * as {@link #load_json_number(StringBuilder)} determines their type.
+     *
+     * @param c the first character of the token.
+     */
+    private final int next_json_token(int c) throws IOException {
+        switch (c) {
+        case -1:
+            return next_token_finish(IonTokenConstsX.TOKEN_EOF, true);
+        case ':':
+            return next_token_finish(IonTokenConstsX.TOKEN_COLON, true);
+        case '{':
+            return next_token_finish(IonTokenConstsX.TOKEN_OPEN_BRACE, true);
+        case '}':
+            return next_token_finish(IonTokenConstsX.TOKEN_CLOSE_BRACE, false);
+        case '[':
+            return next_token_finish(IonTokenConstsX.TOKEN_OPEN_SQUARE, true);
+        case ']':
+            return next_token_finish(IonTokenConstsX.TOKEN_CLOSE_SQUARE, false);
+        case ',':
+            return next_token_finish(IonTokenConstsX.TOKEN_COMMA, false);
+        case '"':
+            return next_token_finish(IonTokenConstsX.TOKEN_STRING_DOUBLE_QUOTE, true);
+        case 't': case 'f': case 'n':
+            // the raw reader rejects anything but true, false and null
+            unread_char(c);
+            return next_token_finish(IonTokenConstsX.TOKEN_SYMBOL_IDENTIFIER, true);
+        case '0': case '1': case '2': case '3': case '4':
+        case '5': case '6': case '7': case '8': case '9':
+        case '-':
+            unread_char(c);
+            return next_token_finish(IonTokenConstsX.TOKEN_UNKNOWN_NUMERIC, true);
+        default:
+            bad_token_start(c); // throws
+        }
+        throw new IonException("invalid state: next token switch shouldn't exit");
+    }
     private final int next_token_finish(int token, boolean content_is_waiting) {
         _token = token;
         _unfinished_token = content_is_waiting;
@@ -806,7 +867,7 @@ final class IonReaderTextRawTokensX
      */
     private final int skip_over_whitespace() throws IOException
     {
-        return skip_over_whitespace(CommentStrategy.IGNORE);
+        return skip_over_whitespace(_comment_strategy);
     }
 
     /**
@@ -863,7 +924,7 @@ final class IonReaderTextRawTokensX
      */
     protected final boolean skip_whitespace() throws IOException
     {
-        return skip_whitespace(CommentStrategy.IGNORE);
+        return skip_whitespace(_comment_strategy);
     }
 
     /**
@@ -879,6 +940,9 @@ final class IonReaderTextRawTokensX
         int c;
 
         loop: for (;;) {
+            if (_stream.skipCharacterRun(IonTokenConstsX.CC_BLANK) > 0) {
+                any_whitespace = true;
+            }
             c = read_char();
             switch (c) {
             case -1:
@@ -1108,15 +1172,20 @@ final class IonReaderTextRawTokensX
     private final boolean is_value_terminating_character(int c)
         throws IOException
     {
+        if ((IonTokenConstsX.characterClass(c) & IonTokenConstsX.CC_NUMERIC_STOP) != 0) {
+            return true;
+        }
+
         boolean isTerminator;
 
         switch (c) {
-            case '/':
+        case '/':
             // this is terminating only if it starts a comment of some sort
             c = read_char();
             unread_char(c);  // we never "keep" this character
             isTerminator = (c == '/' || c == '*');
             break;
+        case -1:
         // new line normalization and counting is handled in read_char
         case CharacterSequence.CHAR_SEQ_NEWLINE_SEQUENCE_1:
         case CharacterSequence.CHAR_SEQ_NEWLINE_SEQUENCE_2:
@@ -1127,7 +1196,7 @@ final class IonReaderTextRawTokensX
             isTerminator = true;
             break;
         default:
-            isTerminator = IonTextUtils.isNumericStop(c);
+            isTerminator = false;
             break;
         }
 
@@ -1336,6 +1405,7 @@ final class IonReaderTextRawTokensX
     private int skip_over_digits(int c) throws IOException
     {
         while (IonTokenConstsX.isDigit(c)) {
+            _stream.skipCharacterRun(IonTokenConstsX.CC_DIGIT);
             c = read_char();
         }
         return c;
@@ -1528,6 +1598,10 @@ final class IonReaderTextRawTokensX
     }
     protected IonType load_number(StringBuilder sb) throws IOException
     {
+        if (_json_only) {
+            return load_json_number(sb);
+        }
+
         boolean has_sign = false;
         int     t, c;
 
@@ -1636,6 +1710,72 @@ final class IonReaderTextRawTokensX
         return load_finish_number(sb, c, t);
     }
 
+    /**
+     * Loads a JSON number: an optional minus sign, an integer part without
+     * leading zeros, and optional fraction and exponent parts. Integers are
+     * ints, numbers with only a fraction are decimals and numbers with an
+     * exponent are floats, as when Ion text holds the same characters.
+     */
+    private final IonType load_json_number(StringBuilder sb) throws IOException
+    {
+        int c = read_char();
+        if (c == '-') {
+            sb.append((char)c);
+            c = read_char();
+        }
+        if (!IonTokenConstsX.isDigit(c)) {
+            bad_token(c);
+        }
+        if (c == '0') {
+            sb.append((char)c);
+            c = read_char();
+        }
+        else {
+            c = load_json_digits(sb, c);
+        }
+
+        int t = IonTokenConstsX.TOKEN_INT;
+        if (c == '.') {
+            sb.append((char)c);
+            c = read_char();
+            if (!IonTokenConstsX.isDigit(c)) {
+                bad_token(c);
+            }
+            c = load_json_digits(sb, c);
+            t = IonTokenConstsX.TOKEN_DECIMAL;
+        }
+        if (c == 'e' || c == 'E') {
+            sb.append((char)c);
+            c = read_char();
+            if (c == '-' || c == '+') {
+                sb.append((char)c);
+                c = read_char();
+            }
+            if (!IonTokenConstsX.isDigit(c)) {
+                bad_token(c);
+            }
+            c = load_json_digits(sb, c);
+            t = IonTokenConstsX.TOKEN_FLOAT;
+        }
+        return load_finish_number(sb, c, t);
+    }
+
+    /**
+     * Accumulates a run of digits, without the underscores Ion allows.
+     *
+     * @param c the first digit.
+     * @return the first character after the digits.
+     */
+    private final int load_json_digits(StringBuilder sb, int c) throws IOException
+    {
+        while (IonTokenConstsX.isDigit(c)) {
+            sb.append((char)c);
+            _stream.appendCharacterRun(sb, IonTokenConstsX.CC_DIGIT);
+            c = read_char();
+        }
+        return c;
+    }
+
     private final IonType load_finish_number(CharSequence numericText, int c,
                                              int token)
     throws IOException
@@ -1842,6 +1982,7 @@ final class IonReaderTextRawTokensX
         int c = read_char();
 
         while(IonTokenConstsX.isValidSymbolCharacter(c)) {
+            _stream.skipCharacterRun(IonTokenConstsX.CC_SYMBOL);
             c = read_char();
         }
 
@@ -1856,6 +1997,7 @@ final class IonReaderTextRawTokensX
         int c = read_char();
         while(IonTokenConstsX.isValidSymbolCharacter(c)) {
             sb.append((char)c);
+            _stream.appendCharacterRun(sb, IonTokenConstsX.CC_SYMBOL);
             c = read_char();
         }
         unread_char(c);
@@ -1917,6 +2059,7 @@ final class IonReaderTextRawTokensX
         // quoted symbol
 
         for (;;) {
+            _stream.skipCharacterRun(IonTokenConstsX.CC_PLAIN_TEXT);
             c = read_string_char(ProhibitedCharacters.NONE);
             switch (c) {
             case -1: unexpected_eof();
@@ -1939,6 +2082,9 @@ final class IonReaderTextRawTokensX
         boolean expectLowSurrogate = false;
 
         for (;;) {
+            if (!is_clob && !expectLowSurrogate) {
+                _stream.appendTextRun(sb, true);
+            }
             c = read_string_char(ProhibitedCharacters.NONE);
             switch (c) {
             case CharacterSequence.CHAR_SEQ_ESCAPED_NEWLINE_SEQUENCE_1:
@@ -1998,7 +2144,10 @@ final class IonReaderTextRawTokensX
     {
         int c;
         for (;;) {
-            c = read_string_char(ProhibitedCharacters.NONE);
+            _stream.skipCharacterRun(IonTokenConstsX.CC_PLAIN_TEXT);
+            c = read_string_char(_json_only
+                                 ? ProhibitedCharacters.JSON_CHAR
+                                 : ProhibitedCharacters.NONE);
             switch (c) {
             case -1:
                 unexpected_eof(); // throws
@@ -2007,10 +2156,20 @@ final class IonReaderTextRawTokensX
             case CharacterSequence.CHAR_SEQ_NEWLINE_SEQUENCE_2:
             case CharacterSequence.CHAR_SEQ_NEWLINE_SEQUENCE_3:
                 bad_token(c); // throws
+            case CharacterSequence.CHAR_SEQ_ESCAPED_NEWLINE_SEQUENCE_1:
+            case CharacterSequence.CHAR_SEQ_ESCAPED_NEWLINE_SEQUENCE_2:
+            case CharacterSequence.CHAR_SEQ_ESCAPED_NEWLINE_SEQUENCE_3:
+                if (_json_only) {
+                    bad_escape_sequence(); // throws
+                }
+                break;
             case '"':
                 return;
             case '\\':
                 c = read_char();
+                if (_json_only && !IonTokenConstsX.isValidJsonEscapeStart(c)) {
+                    bad_escape_sequence(c); // throws
+                }
                 break;
             }
         }
@@ -2023,11 +2182,19 @@ final class IonReaderTextRawTokensX
         boolean expectLowSurrogate = false;
 
         for (;;) {
-            c = read_string_char(ProhibitedCharacters.SHORT_CHAR);
+            if (!expectLowSurrogate) {
+                _stream.appendTextRun(sb, !is_clob);
+            }
+            c = read_string_char(_json_only
+                                 ? ProhibitedCharacters.JSON_CHAR
+                                 : ProhibitedCharacters.SHORT_CHAR);
             switch (c) {
             case CharacterSequence.CHAR_SEQ_ESCAPED_NEWLINE_SEQUENCE_1:
             case CharacterSequence.CHAR_SEQ_ESCAPED_NEWLINE_SEQUENCE_2:
             case CharacterSequence.CHAR_SEQ_ESCAPED_NEWLINE_SEQUENCE_3:
+                if (_json_only) {
+                    bad_escape_sequence(); // JSON has no line continuations
+                }
                 continue;
             case -1:
             case '"':
@@ -2134,6 +2301,7 @@ final class IonReaderTextRawTokensX
         // starts AFTER the 3 quotes have been consumed
         int c;
         for (;;) {
+            _stream.skipCharacterRun(IonTokenConstsX.CC_PLAIN_TEXT);
             c = read_char();
             switch (c) {
             case -1:
@@ -2171,6 +2339,9 @@ final class IonReaderTextRawTokensX
         boolean expectLowSurrogate = false;
 
         for (;;) {
+            if (!expectLowSurrogate) {
+                _stream.appendTextRun(sb, !is_clob);
+            }
             c = read_triple_quoted_char(is_clob);
             switch(c) {
             case CharacterSequence.CHAR_SEQ_STRING_TERMINATOR:
@@ -2455,6 +2626,9 @@ final class IonReaderTextRawTokensX
     private final int read_escaped_char_content_helper(int c1, boolean is_clob)
         throws IOException
     {
+        if (_json_only && !IonTokenConstsX.isValidJsonEscapeStart(c1)) {
+            bad_escape_sequence(c1);
+        }
         if (c1 < 0) {
             switch (c1) {
             // new line normalization and counting is handled in read_char
@@ -2745,6 +2919,14 @@ final class IonReaderTextRawTokensX
             }
         },
 
+        JSON_CHAR
+        {
+            boolean includes(int c)
+            {
+                return isControlCharacter(c);
+            }
+        },
+
         NONE
         {
             boolean includes(int c)
@@ -2855,6 +3037,19 @@ final class IonReaderTextRawTokensX
 
         for (;;)
         {
+            if (state == NumericState.DIGIT && radix == Radix.DECIMAL)
+            {
+                // Take the rest of a run of digits straight from the page.
+                if (buffer instanceof StringBuilder)
+                {
+                    _stream.appendCharacterRun((StringBuilder) buffer,
+                                               IonTokenConstsX.CC_DIGIT);
+                }
+                else if (buffer == NULL_APPENDABLE)
+                {
+                    _stream.skipCharacterRun(IonTokenConstsX.CC_DIGIT);
+                }
+            }
             int c = read_char();
             switch (state)
             {
@@ -237,20 +237,62 @@ abstract class IonReaderTextRawX
          return actions;
     }
 
-    static final int[] TransitionActions2 = makeTransition2ActionArray();
-    static int[] makeTransition2ActionArray() {
+    static final int[] TransitionActions2 = makeTransition2ActionArray(TransitionActions);
+    static int[] makeTransition2ActionArray(int[][] actions) {
         int   s, s_count = STATE_MAX + 1;
         int   t, t_count = IonTokenConstsX.TOKEN_MAX + 1;
         int[] a = new int[s_count * t_count];
         for (s = 0; s < s_count; s++) {
             for (t=0; t < t_count; t++) {
                 int ii = s * IonTokenConstsX.TOKEN_count + t;
-                a[ii] = TransitionActions[s][t];
+                a[ii] = actions[s][t];
             }
         }
         return a;
     }
 
+    /**
+     * The transitions of JSON-only readers. Values can't be annotated, so
+     * identifiers are loaded as scalars (the keywords true, false and null)
+     * without looking ahead for a double colon, and field names must be
+     * double-quoted strings. The JSON tokenizer never produces the tokens of
+     * Ion-only values, so only the JSON states are filled in.
+     */
+    static final int[][] JsonTransitionActions = makeJsonTransitionActionArray();
+    static final int[][] makeJsonTransitionActionArray()
+    {
+        int[][] actions = new int[STATE_MAX + 1][IonTokenConstsX.TOKEN_MAX + 1];
+        int[] value_states = { STATE_BEFORE_ANNOTATION_DATAGRAM, STATE_BEFORE_ANNOTATION_CONTAINED };
+        int[] value_tokens = {
+            IonTokenConstsX.TOKEN_EOF,
+            IonTokenConstsX.TOKEN_UNKNOWN_NUMERIC,
+            IonTokenConstsX.TOKEN_STRING_DOUBLE_QUOTE,
+            IonTokenConstsX.TOKEN_OPEN_BRACE,
+            IonTokenConstsX.TOKEN_OPEN_SQUARE,
+            IonTokenConstsX.TOKEN_CLOSE_SQUARE,
+        };
+        for (int state : value_states) {
+            for (int token : value_tokens) {
+                actions[state][token] = TransitionActions[state][token];
+            }
+            actions[state][IonTokenConstsX.TOKEN_SYMBOL_IDENTIFIER] = ACTION_LOAD_SCALAR;
+        }
+
+        actions[STATE_BEFORE_FIELD_NAME][IonTokenConstsX.TOKEN_STRING_DOUBLE_QUOTE]  = ACTION_LOAD_FIELD_NAME;
+        actions[STATE_BEFORE_FIELD_NAME][IonTokenConstsX.TOKEN_CLOSE_BRACE]          = ACTION_FINISH_CONTAINER;
+
+        actions[STATE_AFTER_VALUE_CONTENTS][IonTokenConstsX.TOKEN_COMMA]             = ACTION_EAT_COMMA;
+        actions[STATE_AFTER_VALUE_CONTENTS][IonTokenConstsX.TOKEN_CLOSE_BRACE]       = ACTION_FINISH_CONTAINER;
+        actions[STATE_AFTER_VALUE_CONTENTS][IonTokenConstsX.TOKEN_CLOSE_SQUARE]      = ACTION_FINISH_CONTAINER;
+
+        for (int ii=0; ii<IonTokenConstsX.TOKEN_MAX+1; ii++) {
+            actions[STATE_EOF][ii] =  ACTION_EOF;
+        }
+        return actions;
+    }
+
+    static final int[] JsonTransitionActions2 = makeTransition2ActionArray(JsonTransitionActions);
+
     //
     //  actual class members (preceding values are just parsing
     //  control constants).
@@ -258,6 +300,10 @@ abstract class IonReaderTextRawX
 
     IonReaderTextRawTokensX  _scanner;
 
+    /** true when only JSON is accepted, see {@link #setJsonOnly()} */
+    boolean             _json_only;
+    int[]               _transition_actions = TransitionActions2;
+
     boolean             _eof;
     int                 _state;
 
@@ -281,6 +327,11 @@ abstract class IonReaderTextRawX
     StringBuilder       _current_value_buffer;
 
     ValueVariant        _v = new ValueVariant();
+    /**
+     * True when the current timestamp has been parsed into primitive fields
+     * by the system reader, whether or not {@link #_v} holds it.
+     */
+    boolean             _timestamp_is_loaded;
 
     long                _value_start_offset;
     long                _value_start_line;
@@ -302,6 +353,19 @@ abstract class IonReaderTextRawX
     }
 
 
+    /**
+     * Restricts this reader to JSON, rejecting annotations, s-expressions,
+     * lobs, symbols, timestamps, typed nulls, long strings, comments,
+     * trailing commas and the Ion-only forms of numbers. This must be called
+     * before the first value is read.
+     */
+    final void setJsonOnly()
+    {
+        _json_only = true;
+        _transition_actions = JsonTransitionActions2;
+        _scanner.setJsonOnly();
+    }
+
     /**
      * @return This implementation always returns null.
      */
@@ -330,6 +394,9 @@ abstract class IonReaderTextRawX
 
         assert(parent != null);
         _scanner = new IonReaderTextRawTokensX(iis, start_line, start_column);
+        if (_json_only) {
+            _scanner.setJsonOnly();
+        }
         _value_start_line = start_line;
         _value_start_column = start_column;
         _current_value_save_point = iis.savePointAllocate();
@@ -543,6 +610,7 @@ abstract class IonReaderTextRawX
         clear_annotation_list();
         clear_fieldname();
         _v.clear();
+        _timestamp_is_loaded = false;
         _value_start_offset = -1;
     }
 
@@ -798,7 +866,7 @@ abstract class IonReaderTextRawX
 
         for (;;) {
             int idx = get_state_int() * IonTokenConstsX.TOKEN_count + t;
-            action = TransitionActions2[idx];
+            action = _transition_actions[idx];
             // this used to be (but the 2d array is 9072ms vs 8786ms
             // timing, 3% of total file parse time!):
             // action = TransitionActions[get_state_int()][t];
@@ -946,10 +1014,23 @@ abstract class IonReaderTextRawX
                 if (t == IonTokenConstsX.TOKEN_SYMBOL_IDENTIFIER) {
                     sb = token_contents_load(t);
                     _value_keyword = IonTokenConstsX.keyword(sb, 0, sb.length());
+                    if (_json_only) {
+                        switch (_value_keyword) {
+                        case IonTokenConstsX.KEYWORD_NULL:
+                        case IonTokenConstsX.KEYWORD_TRUE:
+                        case IonTokenConstsX.KEYWORD_FALSE:
+                            break;
+                        default:
+                            parse_error("expected true, false or null, not the symbol " + sb);
+                        }
+                    }
                     switch (_value_keyword) {
                     case IonTokenConstsX.KEYWORD_NULL:
                     {
-                        int kwt = trailing_whitespace ? IonTokenConstsX.KEYWORD_none : _scanner.peekNullTypeSymbol();
+                        // JSON has no typed nulls, so there's nothing to peek at
+                        int kwt = (trailing_whitespace || _json_only)
+                            ? IonTokenConstsX.KEYWORD_none
+                            : _scanner.peekNullTypeSymbol();
                         switch (kwt) {
                         case IonTokenConstsX.KEYWORD_NULL:      _null_type = IonType.NULL;       break;
                         case IonTokenConstsX.KEYWORD_BOOL:      _null_type = IonType.BOOL;       break;
@@ -1043,6 +1124,11 @@ abstract class IonReaderTextRawX
                 // isn't part of the span when it's hoisted
                 _value_start_offset = _scanner.getStartingOffset();
                 t = _scanner.nextToken();
+                if (_json_only && (t == IonTokenConstsX.TOKEN_CLOSE_BRACE
+                                   || t == IonTokenConstsX.TOKEN_CLOSE_SQUARE)) {
+                    parse_error("JSON doesn't allow a comma after the last value in a "
+                                + getContainerType().toString());
+                }
                 break;
             case ACTION_FINISH_CONTAINER:
                 new_state = get_state_after_container(t);
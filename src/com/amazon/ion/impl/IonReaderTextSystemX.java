@@ -30,9 +30,11 @@ import com.amazon.ion.IonSystem;
 import com.amazon.ion.IonTimestamp;
 import com.amazon.ion.IonType;
 import com.amazon.ion.IonValue;
+import com.amazon.ion.NullValueException;
 import com.amazon.ion.SymbolTable;
 import com.amazon.ion.SymbolToken;
 import com.amazon.ion.Timestamp;
+import com.amazon.ion.TimestampValueReader;
 import com.amazon.ion.UnknownSymbolException;
 import com.amazon.ion.impl.IonReaderTextRawTokensX.IonReaderTextTokenException;
 import com.amazon.ion.impl.IonTokenConstsX.CharacterSequence;
@@ -62,6 +64,10 @@ class IonReaderTextSystemX
 
     SymbolTable _system_symtab;
 
+    private final TextNumberParser _number_parser = new TextNumberParser();
+    private final TextTimestampParser _timestamp_parser = new TextTimestampParser();
+    private TimestampValueReaderFacet _timestamp_facet;
+
     protected IonReaderTextSystemX(UnifiedInputStreamX iis)
     {
         _system_symtab = _Private_Utils.systemSymtab(1); // TODO check IVM to determine version: amzn/ion-java/issues/19
@@ -221,10 +227,26 @@ class IonReaderTextSystemX
             return;
         }
 
+        if (_timestamp_is_loaded) {
+            // the TimestampValueReader facet has already parsed the text
+            _v.setValue(_timestamp_parser.toTimestamp());
+            return;
+        }
+
         StringBuilder cs = token_contents_load(_scanner.getToken());
 
         int token_type = _scanner.getToken();
 
+        if (load_common_number(cs, token_type)) {
+            clear_current_value_buffer();
+            return;
+        }
+        if (load_common_timestamp(cs, token_type)) {
+            clear_current_value_buffer();
+            _v.setValue(_timestamp_parser.toTimestamp());
+            return;
+        }
+
         if (_value_type == IonType.DECIMAL) {
             // we do this here (instead of in the case below
             // so that we can modify the value while it's not
@@ -428,6 +450,80 @@ class IonReaderTextSystemX
             parse_error("scalar token "+IonTokenConstsX.getTokenName(_scanner.getToken())+"isn't a recognized type");
         }
     }
+    /**
+     * Converts common int, decimal and float images directly from the
+     * buffer, without making a String of them.
+     *
+     * @return false if the value must be parsed from a String, as when it's
+     *  too large, in another radix, or malformed.
+     */
+    private final boolean load_common_number(CharSequence cs, int token_type)
+    {
+        switch (token_type) {
+        case IonTokenConstsX.TOKEN_UNKNOWN_NUMERIC:
+        case IonTokenConstsX.TOKEN_INT:
+        case IonTokenConstsX.TOKEN_DECIMAL:
+        case IonTokenConstsX.TOKEN_FLOAT:
+            break;
+        default:
+            return false;
+        }
+
+        TextNumberParser parser = _number_parser;
+        switch (_value_type) {
+        case INT:
+            if (!parser.parseLong(cs)) {
+                return false;
+            }
+            long value = parser.longValue;
+            if (value == (int) value) {
+                _v.setValue((int) value);
+            }
+            else {
+                _v.setValue(value);
+            }
+            return true;
+        case DECIMAL:
+            Decimal decimal = parser.parseDecimal(cs);
+            if (decimal == null) {
+                return false;
+            }
+            _v.setValue(decimal);
+            return true;
+        case FLOAT:
+            if (!parser.parseDouble(cs)) {
+                return false;
+            }
+            _v.setValue(parser.doubleValue);
+            return true;
+        default:
+            return false;
+        }
+    }
+
+    /**
+     * Parses a timestamp image from the buffer into
+     * {@link #_timestamp_parser} in a single pass, without making a String
+     * of it.
+     *
+     * @return false if the value must be parsed by
+     *  {@link Timestamp#valueOf(CharSequence)}, as when it has very long
+     *  fractional seconds or is malformed.
+     */
+    private final boolean load_common_timestamp(CharSequence cs, int token_type)
+    {
+        if (_value_type != IonType.TIMESTAMP) {
+            return false;
+        }
+        switch (token_type) {
+        case IonTokenConstsX.TOKEN_UNKNOWN_NUMERIC:
+        case IonTokenConstsX.TOKEN_TIMESTAMP:
+            return _timestamp_parser.parse(cs);
+        default:
+            return false;
+        }
+    }
+
     private final void cast_cached_value(int new_type)
     {
         // this should only be called when it actually has to do some work
@@ -589,6 +685,89 @@ class IonReaderTextSystemX
         return _v.getTimestamp();
     }
 
+    @Override
+    public <T> T asFacet(Class<T> facetType)
+    {
+        if (facetType == TimestampValueReader.class)
+        {
+            if (_timestamp_facet == null) {
+                _timestamp_facet = new TimestampValueReaderFacet();
+            }
+            return facetType.cast(_timestamp_facet);
+        }
+        return super.asFacet(facetType);
+    }
+
+    //
+    // primitive timestamp access, see TimestampValueReader
+    //
+
+    /**
+     * Loads the current timestamp into {@link #_timestamp_parser}, parsing
+     * it straight from the token buffer unless a Timestamp has already been
+     * made from it.
+     */
+    private void load_timestamp()
+    {
+        if (_value_type != IonType.TIMESTAMP) throw new IllegalStateException("Unexpected value type: " + _value_type);
+        if (_v.isNull()) throw new NullValueException();
+
+        if (_timestamp_is_loaded) {
+            return;
+        }
+        if (_v.isEmpty()) {
+            try {
+                int token_type = _scanner.getToken();
+                StringBuilder cs = token_contents_load(token_type);
+                if (load_common_timestamp(cs, token_type)) {
+                    clear_current_value_buffer();
+                    _timestamp_is_loaded = true;
+                    return;
+                }
+            }
+            catch (IOException e) {
+                throw new IonException(e);
+            }
+            // very long fractional seconds, or an error to report
+            load_once();
+        }
+        _timestamp_parser.load(_v.getTimestamp());
+        _timestamp_is_loaded = true;
+    }
+
+    private class TimestampValueReaderFacet implements TimestampValueReader
+    {
+        public long timestampEpochMillis()
+        {
+            load_timestamp();
+            return _timestamp_parser.epochSecond * 1000 + _timestamp_parser.nanos / 1000000;
+        }
+
+        public long timestampEpochSecond()
+        {
+            load_timestamp();
+            return _timestamp_parser.epochSecond;
+        }
+
+        public int timestampNanos()
+        {
+            load_timestamp();
+            return _timestamp_parser.nanos;
+        }
+
+        public int timestampLocalOffset()
+        {
+            load_timestamp();
+            return _timestamp_parser.localOffset;
+        }
+
+        public Timestamp.Precision timestampPrecision()
+        {
+            load_timestamp();
+            return _timestamp_parser.precision;
+        }
+    }
+
     public final String stringValue()
     {
         if (! IonType.isText(_value_type)) throw new IllegalStateException("Unexpected value type: " + _value_type);
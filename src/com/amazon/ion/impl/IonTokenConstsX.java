@@ -18,6 +18,7 @@ package com.amazon.ion.impl;
 import com.amazon.ion.IonException;
 import com.amazon.ion.IonType;
 import com.amazon.ion.impl._Private_ScalarConversions.CantConvertException;
+import com.amazon.ion.util.IonTextUtils;
 
 
 /**
@@ -352,6 +353,20 @@ final class IonTokenConstsX
         return (escapeCharactersValues[c & 0xff] != ESCAPE_NOT_DEFINED)
          && is8bitValue(c);
     }
+    /**
+     * @return whether {@code c} may follow a backslash in a JSON string,
+     *  which allows only a subset of the Ion escapes.
+     */
+    public final static boolean isValidJsonEscapeStart(int c) {
+        switch (c) {
+        case '"': case '\\': case '/':
+        case 'b': case 'f': case 'n': case 'r': case 't':
+        case 'u':
+            return true;
+        default:
+            return false;
+        }
+    }
     public final static int escapeReplacementCharacter(int c) {
         if (!isValidEscapeStart(c)) {
             throw new IllegalArgumentException("not a valid escape sequence character: "+c);
@@ -505,6 +520,71 @@ final class IonTokenConstsX
         return (isValidStartSymbolCharacter[c & 0xff] && is8bitValue(c));
     }
 
+    /*
+     * Character classes of the ASCII characters, as bits of
+     * characterClass(c), so the tokenizer can test or scan for several
+     * classes with a single table lookup instead of a chain of branches.
+     */
+
+    /** Blanks and tabs. Newlines are excluded because they're counted. */
+    public static final int CC_BLANK           = 0x01;
+    /** Decimal digits. */
+    public static final int CC_DIGIT           = 0x02;
+    /** Characters of identifier symbols. */
+    public static final int CC_SYMBOL          = 0x04;
+    /** Characters of operator symbols. */
+    public static final int CC_OPERATOR        = 0x08;
+    /**
+     * Characters that end a number, as for
+     * {@link IonTextUtils#isNumericStop(int)}.
+     */
+    public static final int CC_NUMERIC_STOP    = 0x10;
+    /**
+     * Printable characters that stand for themselves in quoted text: all
+     * but quotes and backslash.
+     */
+    public static final int CC_PLAIN_TEXT      = 0x20;
+
+    private static final byte[] characterClasses = makeCharacterClassArray();
+    private static final byte[] makeCharacterClassArray() {
+        byte[] classes = new byte[128];
+
+        for (int ii=0; ii<128; ii++) {
+            int cc = 0;
+            if (ii == ' ' || ii == '\t') {
+                cc |= CC_BLANK;
+            }
+            if (isDigit(ii)) {
+                cc |= CC_DIGIT;
+            }
+            if (isValidSymbolCharacter(ii)) {
+                cc |= CC_SYMBOL;
+            }
+            if (isValidExtendedSymbolCharacter(ii)) {
+                cc |= CC_OPERATOR;
+            }
+            if (IonTextUtils.isNumericStop(ii)) {
+                cc |= CC_NUMERIC_STOP;
+            }
+            if (ii >= 0x20 && ii < 0x7F
+                && ii != '"' && ii != '\'' && ii != '\\') {
+                cc |= CC_PLAIN_TEXT;
+            }
+            classes[ii] = (byte) cc;
+        }
+
+        return classes;
+    }
+
+    /**
+     * @return the {@code CC_} bits of the given character; 0 for non-ASCII
+     *  characters, EOF and the pseudo-characters of
+     *  {@link CharacterSequence}.
+     */
+    public static final int characterClass(int c) {
+        return is7bitValue(c) ? characterClasses[c] : 0;
+    }
+
     public static int decodeSid(CharSequence sidToken)
     {
         assert sidToken.charAt(0) == '$';
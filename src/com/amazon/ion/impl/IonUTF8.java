@@ -403,6 +403,181 @@ class IonUTF8 {
         return scalar;
     }
 
+    /**
+     * this helper returns the number of bytes needed to encode the text
+     * as UTF8.  It will throw InvalidUnicodeCodePoint if the text contains
+     * an unpaired surrogate, since that has no UTF8 encoding.
+     * @param text characters to measure
+     * @return the length of the UTF8 encoding of text
+     */
+    public final static int getUTF8Length(CharSequence text)
+    {
+        int utf8Length = 0;
+        int length = text.length();
+        for (int ii = 0; ii < length; ii++) {
+            int c = text.charAt(ii);
+            if (c <= UNICODE_MAX_ONE_BYTE_SCALAR) {
+                utf8Length += 1;
+            }
+            else if (c <= UNICODE_MAX_TWO_BYTE_SCALAR) {
+                utf8Length += 2;
+            }
+            else if (isSurrogate(c)) {
+                getScalarFromSurrogatesAt(text, ii, length);
+                utf8Length += 4;
+                ii++;
+            }
+            else {
+                utf8Length += 3;
+            }
+        }
+        return utf8Length;
+    }
+    /**
+     * this helper converts the text to UTF8 and copies the bytes into the
+     * supplied outputBytes array.  It will throw an
+     * ArrayIndexOutOfBoundsException if the array is too small and an
+     * InvalidUnicodeCodePoint if the text contains an unpaired surrogate.
+     * @param text characters to convert
+     * @param outputBytes user output array to fill with UTF8 bytes
+     * @param offset first array element to fill
+     * @return number of bytes written to the output array
+     */
+    public final static int convertToUTF8Bytes(CharSequence text, byte[] outputBytes, int offset)
+    {
+        int dst = offset;
+        int length = text.length();
+        for (int ii = 0; ii < length; ii++) {
+            int c = text.charAt(ii);
+            if (c <= UNICODE_MAX_ONE_BYTE_SCALAR) {
+                outputBytes[dst++] = (byte)c;
+                continue;
+            }
+            if (isSurrogate(c)) {
+                c = getScalarFromSurrogatesAt(text, ii, length);
+                ii++;
+            }
+            dst += convertToUTF8Bytes(c, outputBytes, dst, outputBytes.length - dst);
+        }
+        return dst - offset;
+    }
+    /**
+     * this helper compares the text against UTF8 encoded bytes without
+     * decoding the bytes or encoding the text into a temporary buffer.
+     * Text containing an unpaired surrogate is never equal to any bytes.
+     * @param text characters to compare
+     * @param bytes UTF8 bytes in an array
+     * @param offset first array element to compare
+     * @param length number of UTF8 bytes to compare
+     * @return true if the bytes are exactly the UTF8 encoding of the text
+     */
+    public final static boolean equalsUTF8(CharSequence text, byte[] bytes, int offset, int length)
+    {
+        int src = offset;
+        int end = offset + length;
+        int textLength = text.length();
+        for (int ii = 0; ii < textLength; ii++) {
+            int c = text.charAt(ii);
+            if (c <= UNICODE_MAX_ONE_BYTE_SCALAR) {
+                if (src >= end || bytes[src++] != (byte)c) return false;
+            }
+            else if (c <= UNICODE_MAX_TWO_BYTE_SCALAR) {
+                if (src + 2 > end
+                    || bytes[src++] != getByte1Of2(c)
+                    || bytes[src++] != getByte2Of2(c)) return false;
+            }
+            else if (!isSurrogate(c)) {
+                if (src + 3 > end
+                    || bytes[src++] != getByte1Of3(c)
+                    || bytes[src++] != getByte2Of3(c)
+                    || bytes[src++] != getByte3Of3(c)) return false;
+            }
+            else {
+                if (!isHighSurrogate(c) || ii + 1 >= textLength) return false;
+                int c2 = text.charAt(++ii);
+                if (!isLowSurrogate(c2)) return false;
+                c = getUnicodeScalarFromSurrogates(c, c2);
+                if (src + 4 > end
+                    || bytes[src++] != getByte1Of4(c)
+                    || bytes[src++] != getByte2Of4(c)
+                    || bytes[src++] != getByte3Of4(c)
+                    || bytes[src++] != getByte4Of4(c)) return false;
+            }
+        }
+        return src == end;
+    }
+    /**
+     * this helper decodes UTF8 bytes into UTF-16 chars, validating the
+     * encoding as it goes.  Unlike getScalarFromBytes this rejects overlong
+     * sequences, encoded surrogates, and scalars beyond U+10FFFF, throwing
+     * InvalidUnicodeCodePoint.  The output array must have room for at
+     * least length chars, which is the most that length bytes can decode to.
+     * @param bytes UTF8 bytes in an array
+     * @param offset first array element to decode
+     * @param length number of UTF8 bytes to decode
+     * @param outputChars user output array to fill with chars
+     * @return number of chars written to the output array
+     */
+    public final static int convertToChars(byte[] bytes, int offset, int length, char[] outputChars)
+    {
+        int src = offset;
+        int end = offset + length;
+        int dst = 0;
+        while (src < end) {
+            int c = bytes[src++] & 0xff;
+            if (isOneByteUTF8(c)) {
+                outputChars[dst++] = (char)c;
+                continue;
+            }
+            if (isTwoByteUTF8(c)) {
+                if (src + 1 > end) throw new InvalidUnicodeCodePoint();
+                c = ((c & UNICODE_TWO_BYTE_MASK) << 6)
+                  | continuationBits(bytes[src++]);
+                if (c <= UNICODE_MAX_ONE_BYTE_SCALAR) throw new InvalidUnicodeCodePoint();
+            }
+            else if (isThreeByteUTF8(c)) {
+                if (src + 2 > end) throw new InvalidUnicodeCodePoint();
+                c = ((c & UNICODE_THREE_BYTE_MASK) << 12)
+                  | (continuationBits(bytes[src++]) << 6)
+                  | continuationBits(bytes[src++]);
+                if (c <= UNICODE_MAX_TWO_BYTE_SCALAR || isSurrogate(c)) throw new InvalidUnicodeCodePoint();
+            }
+            else if (isFourByteUTF8(c)) {
+                if (src + 3 > end) throw new InvalidUnicodeCodePoint();
+                c = ((c & UNICODE_FOUR_BYTE_MASK) << 18)
+                  | (continuationBits(bytes[src++]) << 12)
+                  | (continuationBits(bytes[src++]) << 6)
+                  | continuationBits(bytes[src++]);
+                if (c <= UNICODE_MAX_THREE_BYTE_SCALAR || c > UNICODE_MAX_FOUR_BYTE_SCALAR) throw new InvalidUnicodeCodePoint();
+                outputChars[dst++] = highSurrogate(c);
+                outputChars[dst++] = lowSurrogate(c);
+                continue;
+            }
+            else {
+                throw new InvalidUnicodeCodePoint();
+            }
+            outputChars[dst++] = (char)c;
+        }
+        return dst;
+    }
+    private final static int continuationBits(byte b)
+    {
+        int c = b & 0xff;
+        if (!isContinueByteUTF8(c)) throw new InvalidUnicodeCodePoint();
+        return c & UNICODE_CONTINUATION_BYTE_MASK;
+    }
+    private final static int getScalarFromSurrogatesAt(CharSequence text, int index, int length)
+    {
+        int c = text.charAt(index);
+        if (isHighSurrogate(c) && index + 1 < length) {
+            int c2 = text.charAt(index + 1);
+            if (isLowSurrogate(c2)) {
+                return getUnicodeScalarFromSurrogates(c, c2);
+            }
+        }
+        throw new InvalidUnicodeCodePoint("unpaired surrogate at index " + index);
+    }
+
     public static class InvalidUnicodeCodePoint extends IonException
     {
         private static final long serialVersionUID = -3200811216940328945L;
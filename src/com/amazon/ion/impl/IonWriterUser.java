@@ -27,6 +27,7 @@ import com.amazon.ion.SymbolToken;
 import com.amazon.ion.Timestamp;
 import com.amazon.ion.ValueFactory;
 import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 
@@ -420,12 +421,30 @@ class IonWriterUser
         _current_writer.writeClob(value, start, len);
     }
 
+    @Override
+    public void writeBlob(InputStream source, int length) throws IOException
+    {
+        _current_writer.writeBlob(source, length);
+    }
+
+    @Override
+    public void writeClob(InputStream source, int length) throws IOException
+    {
+        _current_writer.writeClob(source, length);
+    }
+
     @Override
     public void writeDecimal(BigDecimal value) throws IOException
     {
         _current_writer.writeDecimal(value);
     }
 
+    @Override
+    public void writeDecimal(long unscaledValue, int exponent) throws IOException
+    {
+        _current_writer.writeDecimal(unscaledValue, exponent);
+    }
+
     public void writeFloat(double value) throws IOException
     {
         _current_writer.writeFloat(value);
@@ -487,4 +506,16 @@ class IonWriterUser
     {
         _current_writer.writeTimestamp(value);
     }
+
+    @Override
+    public void writeTimestamp(long epochMillis, int localOffset) throws IOException
+    {
+        _current_writer.writeTimestamp(epochMillis, localOffset);
+    }
+
+    @Override
+    public void writeTimestamp(long epochSecond, int nanos, int localOffset) throws IOException
+    {
+        _current_writer.writeTimestamp(epochSecond, nanos, localOffset);
+    }
 }
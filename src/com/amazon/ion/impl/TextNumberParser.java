@@ -0,0 +1,241 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl;
+
+import com.amazon.ion.Decimal;
+import java.math.BigInteger;
+
+/**
+ * Converts the text of Ion int, decimal and float literals, as accumulated
+ * by the text tokenizer, directly into values, without first making a
+ * {@link String} of it.
+ * <p>
+ * Each method handles the common cases only and returns false (or null)
+ * for anything else, including malformed text, in which case the caller
+ * falls back to the general-purpose JDK parsers that also report errors.
+ * <p>
+ * Instances hold the result of the last successful parse and are reused by
+ * their reader, so the common cases allocate nothing.
+ */
+final class TextNumberParser
+{
+    /** The largest integer such that all smaller integers are doubles. */
+    private static final long MAX_EXACT_DOUBLE_INTEGER = 1L << 53;
+
+    /** The powers of ten that are exactly representable as doubles. */
+    private static final double[] EXACT_POWERS_OF_TEN = {
+        1e0,  1e1,  1e2,  1e3,  1e4,  1e5,  1e6,  1e7,
+        1e8,  1e9,  1e10, 1e11, 1e12, 1e13, 1e14, 1e15,
+        1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private static final long MANTISSA_OVERFLOW = (Long.MAX_VALUE - 9) / 10;
+
+    /** Exponents with more digits than this aren't handled. */
+    private static final int MAX_EXPONENT_DIGITS = 9;
+
+    /** The result of {@link #parseLong(CharSequence)}. */
+    long   longValue;
+
+    /** The result of {@link #parseDouble(CharSequence)}. */
+    double doubleValue;
+
+    // The components of the last decimal or float parsed by scan().
+    private boolean myNegative;
+    private long    myMantissa;
+    private long    myExponent;
+    private int     myFractionDigits;
+    private boolean myHasExponent;
+
+    /**
+     * Parses an optionally negative string of decimal digits that fits in a
+     * {@code long}, setting {@link #longValue}.
+     */
+    boolean parseLong(CharSequence text)
+    {
+        int len = text.length();
+        int pos = 0;
+        boolean negative = false;
+        if (len > 0 && text.charAt(0) == '-')
+        {
+            negative = true;
+            pos++;
+        }
+        if (pos == len) return false;
+
+        // Accumulate negatively, since MIN_VALUE has the larger magnitude.
+        long limit = (negative ? Long.MIN_VALUE : -Long.MAX_VALUE);
+        long multiplyMin = limit / 10;
+        long result = 0;
+        for (; pos < len; pos++)
+        {
+            int digit = text.charAt(pos) - '0';
+            if (digit < 0 || digit > 9) return false;
+            if (result < multiplyMin) return false;
+            result *= 10;
+            if (result < limit + digit) return false;
+            result -= digit;
+        }
+        longValue = (negative ? result : -result);
+        return true;
+    }
+
+    /**
+     * Parses an Ion decimal whose coefficient fits in a {@code long}.
+     *
+     * @return the value, or null if the text isn't handled.
+     */
+    Decimal parseDecimal(CharSequence text)
+    {
+        if (!scan(text, 'd', 'D')) return null;
+
+        long scale = myFractionDigits - myExponent;
+        if (scale != (int) scale) return null;
+
+        if (myMantissa == 0 && myNegative)
+        {
+            return Decimal.negativeZero((int) scale);
+        }
+        long unscaled = (myNegative ? -myMantissa : myMantissa);
+        return Decimal.valueOf(BigInteger.valueOf(unscaled), (int) scale);
+    }
+
+    /**
+     * Parses an Ion float whose value can be computed exactly from a
+     * {@code long} mantissa with a single correctly-rounded multiplication
+     * or division by a power of ten (Clinger's fast path), setting
+     * {@link #doubleValue}.
+     */
+    boolean parseDouble(CharSequence text)
+    {
+        if (!scan(text, 'e', 'E') || !myHasExponent) return false;
+
+        long mantissa = myMantissa;
+        if (mantissa > MAX_EXACT_DOUBLE_INTEGER) return false;
+
+        long exponent = myExponent - myFractionDigits;
+        double value;
+        if (mantissa == 0)
+        {
+            value = 0d;
+        }
+        else if (exponent < 0)
+        {
+            if (exponent < -22) return false;
+            value = (double) mantissa / EXACT_POWERS_OF_TEN[(int) -exponent];
+        }
+        else if (exponent <= 22)
+        {
+            value = (double) mantissa * EXACT_POWERS_OF_TEN[(int) exponent];
+        }
+        else
+        {
+            // Shift surplus powers into the mantissa while it stays exact,
+            // as in 123e25 = 123000e22.
+            if (exponent > 22 + 15) return false;
+            for (long e = exponent; e > 22; e--)
+            {
+                mantissa *= 10;
+                if (mantissa > MAX_EXACT_DOUBLE_INTEGER) return false;
+            }
+            value = (double) mantissa * EXACT_POWERS_OF_TEN[22];
+        }
+        doubleValue = (myNegative ? -value : value);
+        return true;
+    }
+
+    /**
+     * Splits {@code -?digits(.digits*)?([marker][+-]?digits)?} into its
+     * components.
+     *
+     * @return false if the text has any other form, or if its coefficient
+     *  or exponent is too large.
+     */
+    private boolean scan(CharSequence text, char marker, char upperMarker)
+    {
+        int len = text.length();
+        int pos = 0;
+        myNegative = false;
+        if (len > 0 && text.charAt(0) == '-')
+        {
+            myNegative = true;
+            pos++;
+        }
+
+        long mantissa = 0;
+        int integerDigits = 0;
+        for (; pos < len; pos++)
+        {
+            int digit = text.charAt(pos) - '0';
+            if (digit < 0 || digit > 9) break;
+            if (mantissa > MANTISSA_OVERFLOW) return false;
+            mantissa = mantissa * 10 + digit;
+            integerDigits++;
+        }
+        if (integerDigits == 0) return false;
+
+        int fractionDigits = 0;
+        if (pos < len && text.charAt(pos) == '.')
+        {
+            for (pos++; pos < len; pos++)
+            {
+                int digit = text.charAt(pos) - '0';
+                if (digit < 0 || digit > 9) break;
+                if (mantissa > MANTISSA_OVERFLOW) return false;
+                mantissa = mantissa * 10 + digit;
+                fractionDigits++;
+            }
+        }
+
+        long exponent = 0;
+        boolean hasExponent = false;
+        if (pos < len)
+        {
+            char c = text.charAt(pos++);
+            if (c != marker && c != upperMarker) return false;
+            hasExponent = true;
+
+            boolean negativeExponent = false;
+            if (pos < len)
+            {
+                c = text.charAt(pos);
+                if (c == '-' || c == '+')
+                {
+                    negativeExponent = (c == '-');
+                    pos++;
+                }
+            }
+            int exponentDigits = len - pos;
+            if (exponentDigits == 0 || exponentDigits > MAX_EXPONENT_DIGITS)
+            {
+                return false;
+            }
+            for (; pos < len; pos++)
+            {
+                int digit = text.charAt(pos) - '0';
+                if (digit < 0 || digit > 9) return false;
+                exponent = exponent * 10 + digit;
+            }
+            if (negativeExponent) exponent = -exponent;
+        }
+
+        myMantissa = mantissa;
+        myFractionDigits = fractionDigits;
+        myExponent = exponent;
+        myHasExponent = hasExponent;
+        return true;
+    }
+}
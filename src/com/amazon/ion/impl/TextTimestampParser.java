@@ -0,0 +1,307 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl;
+
+import static com.amazon.ion.TimestampValueReader.UNKNOWN_LOCAL_OFFSET;
+
+import com.amazon.ion.Timestamp;
+import com.amazon.ion.Timestamp.Precision;
+import java.math.BigDecimal;
+
+/**
+ * Converts the text of Ion timestamps, as accumulated by the text tokenizer,
+ * into their components in a single pass, without first making a
+ * {@link String} of it.
+ * <p>
+ * {@link #parse(CharSequence)} handles well-formed timestamps with up to
+ * {@value #MAX_FRACTION_DIGITS} digits of fractional seconds and returns
+ * false for anything else, including malformed text, in which case the
+ * caller falls back to {@link Timestamp#valueOf(CharSequence)}, which also
+ * reports errors.
+ * <p>
+ * Instances hold the result of the last successful parse and are reused by
+ * their reader, so the primitive results allocate nothing.
+ */
+final class TextTimestampParser
+{
+    /**
+     * Fractions with more digits than this aren't handled, so that the
+     * seconds and the fraction together fit in a long.
+     */
+    static final int MAX_FRACTION_DIGITS = 17;
+
+    private static final long[] LONG_POWERS_OF_TEN = new long[MAX_FRACTION_DIGITS + 1];
+    static
+    {
+        LONG_POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < LONG_POWERS_OF_TEN.length; i++)
+        {
+            LONG_POWERS_OF_TEN[i] = LONG_POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    /** The number of whole seconds from the epoch to the timestamp. */
+    long      epochSecond;
+
+    /** The fractional seconds, truncated to nanoseconds. */
+    int       nanos;
+
+    /**
+     * The local offset in minutes, or
+     * {@link com.amazon.ion.TimestampValueReader#UNKNOWN_LOCAL_OFFSET}.
+     */
+    int       localOffset;
+
+    Precision precision;
+
+    // The local fields of the last timestamp parsed, for toTimestamp().
+    private int  myYear;
+    private int  myMonth;
+    private int  myDay;
+    private int  myHour;
+    private int  myMinute;
+    private int  mySecond;
+    private long myFraction;
+    private int  myFractionDigits;
+
+    /**
+     * Parses the text of a timestamp, setting the public fields and the
+     * local fields used by {@link #toTimestamp()}.
+     *
+     * @return false if the text must be parsed by
+     * {@link Timestamp#valueOf(CharSequence)}, as when it's malformed or has
+     * too many fractional digits.
+     */
+    boolean parse(CharSequence text)
+    {
+        int len = text.length();
+        if (len < 5) return false;
+
+        int month = 1, day = 1, hour = 0, minute = 0, second = 0;
+        long fraction = 0;
+        int fractionDigits = 0;
+        int offset = UNKNOWN_LOCAL_OFFSET;
+        Precision p;
+        int pos;
+
+        int year = digits(text, 0, 4);
+        char c = text.charAt(4);
+        if (c == 'T')
+        {
+            p = Precision.YEAR;
+            pos = 5;
+        }
+        else
+        {
+            if (c != '-' || len < 8) return false;
+            month = digits(text, 5, 2);
+            c = text.charAt(7);
+            if (c == 'T')
+            {
+                p = Precision.MONTH;
+                pos = 8;
+            }
+            else
+            {
+                if (c != '-' || len < 10) return false;
+                day = digits(text, 8, 2);
+                p = Precision.DAY;
+                pos = 10;
+                if (len > 10)
+                {
+                    if (text.charAt(10) != 'T') return false;
+                    pos = 11;
+                    if (len > 11)
+                    {
+                        // A time must be followed by a local offset.
+                        if (len < 17 || text.charAt(13) != ':') return false;
+                        hour = digits(text, 11, 2);
+                        minute = digits(text, 14, 2);
+                        p = Precision.MINUTE;
+                        pos = 16;
+                        if (text.charAt(16) == ':')
+                        {
+                            if (len < 20) return false;
+                            second = digits(text, 17, 2);
+                            p = Precision.SECOND;
+                            pos = 19;
+                            if (text.charAt(19) == '.')
+                            {
+                                int start = ++pos;
+                                while (pos < len)
+                                {
+                                    int d = text.charAt(pos) - '0';
+                                    if (d < 0 || d > 9) break;
+                                    if (pos - start == MAX_FRACTION_DIGITS) return false;
+                                    fraction = fraction * 10 + d;
+                                    pos++;
+                                }
+                                fractionDigits = pos - start;
+                                if (fractionDigits == 0) return false;
+                            }
+                        }
+
+                        if (pos == len) return false;
+                        c = text.charAt(pos);
+                        if (c == 'Z')
+                        {
+                            offset = 0;
+                            pos++;
+                        }
+                        else if (c == '+' || c == '-')
+                        {
+                            if (len < pos + 6 || text.charAt(pos + 3) != ':') return false;
+                            int offsetHours = digits(text, pos + 1, 2);
+                            int offsetMinutes = digits(text, pos + 4, 2);
+                            if (offsetHours < 0 || offsetHours > 23
+                                || offsetMinutes < 0 || offsetMinutes > 59)
+                            {
+                                return false;
+                            }
+                            offset = offsetHours * 60 + offsetMinutes;
+                            if (c == '-')
+                            {
+                                // -00:00 is the unknown offset
+                                offset = (offset == 0) ? UNKNOWN_LOCAL_OFFSET : -offset;
+                            }
+                            pos += 6;
+                        }
+                        else
+                        {
+                            return false;
+                        }
+                    }
+                }
+            }
+        }
+        if (pos != len) return false;
+
+        // digits() is negative when there's a non-digit, so these also check
+        // the syntax of each field.
+        if (year < 1
+            || month < 1 || month > 12
+            || day < 1 || day > _Private_EpochTime.daysInMonth(year, month)
+            || hour < 0 || hour > 23
+            || minute < 0 || minute > 59
+            || second < 0 || second > 59)
+        {
+            return false;
+        }
+
+        long local_second =
+            _Private_EpochTime.epochDay(year, month, day) * _Private_EpochTime.SECONDS_PER_DAY
+            + hour * 3600 + minute * 60 + second;
+        long epoch_second = local_second;
+        if (offset != UNKNOWN_LOCAL_OFFSET)
+        {
+            epoch_second -= offset * 60L;
+        }
+        int fraction_nanos = 0;
+        if (fractionDigits <= 9)
+        {
+            fraction_nanos = (int) (fraction * LONG_POWERS_OF_TEN[9 - fractionDigits]);
+        }
+        else
+        {
+            fraction_nanos = (int) (fraction / LONG_POWERS_OF_TEN[fractionDigits - 9]);
+        }
+        try
+        {
+            _Private_EpochTime.checkTimestamp(epoch_second, fraction_nanos, offset);
+        }
+        catch (IllegalArgumentException e)
+        {
+            // Out of range in UTC, or near the Julian calendar's leap days;
+            // let Timestamp decide.
+            return false;
+        }
+
+        epochSecond = epoch_second;
+        nanos = fraction_nanos;
+        localOffset = offset;
+        precision = p;
+        myYear = year;
+        myMonth = month;
+        myDay = day;
+        myHour = hour;
+        myMinute = minute;
+        mySecond = second;
+        myFraction = fraction;
+        myFractionDigits = fractionDigits;
+        return true;
+    }
+
+    /**
+     * Sets the public fields from an already materialized timestamp, which
+     * makes {@link #toTimestamp()} unusable until the next parse.
+     */
+    void load(Timestamp value)
+    {
+        long millis = value.getMillis();
+        BigDecimal frac = value.getZDecimalSecond().subtract(BigDecimal.valueOf(value.getZSecond()));
+        Integer offset = value.getLocalOffset();
+        epochSecond = _Private_EpochTime.floorDiv(millis, 1000);
+        nanos = frac.movePointRight(9).intValue();
+        localOffset = (offset == null) ? UNKNOWN_LOCAL_OFFSET : offset.intValue();
+        precision = value.getPrecision();
+    }
+
+    /**
+     * Creates the Timestamp whose text was last given to
+     * {@link #parse(CharSequence)}.
+     */
+    Timestamp toTimestamp()
+    {
+        Integer offset = (localOffset == UNKNOWN_LOCAL_OFFSET) ? null : Integer.valueOf(localOffset);
+        switch (precision)
+        {
+            case YEAR:
+                return Timestamp.forYear(myYear);
+            case MONTH:
+                return Timestamp.forMonth(myYear, myMonth);
+            case DAY:
+                return Timestamp.forDay(myYear, myMonth, myDay);
+            case MINUTE:
+                return Timestamp.forMinute(myYear, myMonth, myDay, myHour, myMinute, offset);
+            default:
+                if (myFractionDigits == 0)
+                {
+                    return Timestamp.forSecond(myYear, myMonth, myDay, myHour, myMinute, mySecond, offset);
+                }
+                long unscaled = mySecond * LONG_POWERS_OF_TEN[myFractionDigits] + myFraction;
+                BigDecimal seconds = BigDecimal.valueOf(unscaled, myFractionDigits);
+                return Timestamp.forSecond(myYear, myMonth, myDay, myHour, myMinute, seconds, offset);
+        }
+    }
+
+    /**
+     * Reads a fixed number of decimal digits.
+     *
+     * @return the value of the digits, or -1 if any character is not an
+     * ASCII digit.
+     */
+    private static int digits(CharSequence text, int start, int count)
+    {
+        int value = 0;
+        for (int i = start; i < start + count; i++)
+        {
+            int d = text.charAt(i) - '0';
+            if (d < 0 || d > 9) return -1;
+            value = value * 10 + d;
+        }
+        return value;
+    }
+}
@@ -18,6 +18,8 @@ package com.amazon.ion.impl;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
 
 /**
  * this base class and it's two children (below) manage
@@ -35,6 +37,7 @@ abstract class UnifiedDataPageX
 
     protected byte[]    _bytes;
     protected char[]    _characters;
+    protected ByteBuffer _nio_buffer; // set instead of _bytes by BufferBytes
 
 
     public static final UnifiedDataPageX makePage(byte[] bytes, int offset, int length) {
@@ -62,17 +65,31 @@ abstract class UnifiedDataPageX
     public final    PageType getPageType() { return _page_type; }
     public final    char[]   getCharBuffer() { return _characters; }
     public final    byte[]   getByteBuffer() { return _bytes; }
+    public final    ByteBuffer getNioBuffer() { return _nio_buffer; }
 
     private final boolean isBytes() {
         return (_page_type == PageType.BYTES);
     }
 
-    int load(Reader reader, int start_offset, long file_position) throws IOException
+    /**
+     * Fills this page from the reader, calling it repeatedly until at least
+     * {@code read_ahead} characters have arrived, the page is full, or the
+     * reader is exhausted.
+     */
+    int load(Reader reader, int start_offset, long file_position, int read_ahead) throws IOException
     {
         if (isBytes()) {
             throw new UnsupportedOperationException("byte pages can't load characters");
         }
-        int read = reader.read(_characters, start_offset, _characters.length - start_offset);
+        int limit = _characters.length;
+        int wanted = Math.min(start_offset + read_ahead, limit);
+        int pos = start_offset;
+        int len;
+        do {
+            len = reader.read(_characters, pos, limit - pos);
+            if (len > 0) pos += len;
+        } while (len > 0 && pos < wanted);
+        int read = (pos > start_offset) ? pos - start_offset : len;
         if (read > 0) {
             _page_limit = start_offset + read;
             _base_offset = start_offset;
@@ -82,12 +99,25 @@ abstract class UnifiedDataPageX
         return read;
     }
 
-    int load(InputStream stream, int start_offset, long file_position) throws IOException
+    /**
+     * Fills this page from the stream, calling it repeatedly until at least
+     * {@code read_ahead} bytes have arrived, the page is full, or the
+     * stream is exhausted.
+     */
+    int load(InputStream stream, int start_offset, long file_position, int read_ahead) throws IOException
     {
         if (!isBytes()) {
             throw new UnsupportedOperationException("character pages can't load bytes");
         }
-        int read = stream.read(_bytes, start_offset, _bytes.length - start_offset);
+        int limit = _bytes.length;
+        int wanted = Math.min(start_offset + read_ahead, limit);
+        int pos = start_offset;
+        int len;
+        do {
+            len = stream.read(_bytes, pos, limit - pos);
+            if (len > 0) pos += len;
+        } while (len > 0 && pos < wanted);
+        int read = (pos > start_offset) ? pos - start_offset : len;
         if (read > 0) {
             _base_offset = start_offset;
             _unread_count = 0;
@@ -177,6 +207,18 @@ abstract class UnifiedDataPageX
             _page_limit  = offset + len;
         }
 
+        /**
+         * Re-targets this page at a new array, leaving it as if it had just
+         * been constructed over it.
+         */
+        final void reset(byte[] bytes, int offset, int len) {
+            _bytes        = bytes;
+            _base_offset  = offset;
+            _page_limit   = offset + len;
+            _unread_count = 0;
+            _file_offset  = 0;
+        }
+
         @Override
         public int getValue(int offset) {
             return (_bytes[offset] & 0xff);
@@ -205,6 +247,49 @@ abstract class UnifiedDataPageX
         }
     }
 
+    /**
+     * A byte page over the remaining bytes of a {@link ByteBuffer}, read in
+     * place rather than copied into an array. Page offsets are the buffer's
+     * own indexes. Like a page over a user's byte array, it's never refilled.
+     */
+    static final class BufferBytes extends UnifiedDataPageX
+    {
+        BufferBytes(ByteBuffer buffer) {
+            _page_type   = PageType.BYTES;
+            _nio_buffer  = buffer.duplicate();
+            _base_offset = buffer.position();
+            _page_limit  = buffer.limit();
+        }
+
+        @Override
+        public int getValue(int offset) {
+            return (_nio_buffer.get(offset) & 0xff);
+        }
+
+        @Override
+        public void putValue(int offset, int b) {
+            throw new UnsupportedOperationException("buffer pages are read-only");
+        }
+
+        @Override
+        public final int readFrom(int pageOffset, byte[] bytes, int offset, int length) {
+            int bytes_read = length;
+            if (pageOffset >= _page_limit) return -1;
+
+            if (bytes_read > _page_limit - pageOffset) {
+                bytes_read = _page_limit - pageOffset;
+            }
+            ((Buffer) _nio_buffer).position(pageOffset);
+            _nio_buffer.get(bytes, offset, bytes_read);
+
+            return bytes_read;
+        }
+        @Override
+        public final int readFrom(int pageOffset, char[] chars, int offset, int length) {
+            throw new UnsupportedOperationException("byte pages can't read characters");
+        }
+    }
+
     // FIXME: remove "public" when UnifiedOutputBufferX is
     //        integrated back into ion.impl
     public static final class Chars extends UnifiedDataPageX
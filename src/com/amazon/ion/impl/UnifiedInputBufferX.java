@@ -15,6 +15,7 @@
 
 package com.amazon.ion.impl;
 
+import java.nio.ByteBuffer;
 
 abstract class UnifiedInputBufferX
 {
@@ -30,6 +31,11 @@ abstract class UnifiedInputBufferX
         UnifiedInputBufferX buf = new UnifiedInputBufferX.Bytes(bytes, offset, length);
         return buf;
     }
+    /** Reads the remaining bytes of the buffer in place, as a single page. */
+    public static UnifiedInputBufferX makePageBuffer(ByteBuffer buffer) {
+        UnifiedInputBufferX buf = new UnifiedInputBufferX.Bytes(buffer);
+        return buf;
+    }
     public static UnifiedInputBufferX makePageBuffer(char[] chars, int offset, int length) {
         UnifiedInputBufferX buf = new UnifiedInputBufferX.Chars(chars, offset, length);
         return buf;
@@ -268,6 +274,12 @@ abstract class UnifiedInputBufferX
             _buffer_current = 0;
             _buffer_count = 1;
         }
+        protected Bytes(ByteBuffer buffer) {
+            super(buffer.remaining());
+            _buffers[0] = new UnifiedDataPageX.BufferBytes(buffer);
+            _buffer_current = 0;
+            _buffer_count = 1;
+        }
         @Override
         public final BufferType getType() { return BufferType.BYTES; }
 
@@ -21,6 +21,8 @@ import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
 
 /**
  * This is a local stream abstraction, and implementation, that
@@ -79,6 +81,7 @@ abstract class UnifiedInputStreamX
     int                     _max_char_value;
     int                     _pos;
     int                     _limit;
+    int                     _read_ahead;
 
     // only 1 of these will be filled in depending on whether this is a byte
     // source or a character source
@@ -86,6 +89,9 @@ abstract class UnifiedInputStreamX
     InputStream             _stream;
     byte[]                  _bytes;
     char[]                  _chars;
+    // set instead of _bytes when a byte source is read in place from a
+    // ByteBuffer, see FromByteBuffer
+    ByteBuffer              _nio_bytes;
 
 
     UnifiedSavePointManagerX _save_points;
@@ -106,7 +112,16 @@ abstract class UnifiedInputStreamX
         return new FromCharArray(chars, offset, length);
     }
     public static UnifiedInputStreamX makeStream(Reader reader) throws IOException {
-        return new FromCharStream(reader);
+        return new FromCharStream(reader, DEFAULT_PAGE_SIZE, 0);
+    }
+    /**
+     * @param pageSize the size, in characters, of each buffer page, or 0 for
+     *  the default.
+     * @param readAhead the minimum number of characters each refill waits
+     *  for before returning, unless the page fills or the reader ends.
+     */
+    public static UnifiedInputStreamX makeStream(Reader reader, int pageSize, int readAhead) throws IOException {
+        return new FromCharStream(reader, pageSize > 0 ? pageSize : DEFAULT_PAGE_SIZE, readAhead);
     }
     public static UnifiedInputStreamX makeStream(byte[] buffer) {
         return new FromByteArray(buffer, 0, buffer.length);
@@ -114,8 +129,34 @@ abstract class UnifiedInputStreamX
     public static UnifiedInputStreamX makeStream(byte[] buffer, int offset, int length) {
         return new FromByteArray(buffer, offset, length);
     }
+    /**
+     * Makes a stream over the remaining bytes of the buffer that reads them
+     * in place, for binary data only; see {@link FromByteBuffer}.
+     *
+     * @param source closed when the stream is closed; may be null.
+     */
+    public static UnifiedInputStreamX makeStream(ByteBuffer buffer, Closeable source) {
+        return new FromByteBuffer(buffer, source);
+    }
     public static UnifiedInputStreamX makeStream(InputStream stream) throws IOException {
-        return new FromByteStream(stream);
+        return new FromByteStream(stream, DEFAULT_PAGE_SIZE, 0);
+    }
+    /**
+     * @param pageSize the size, in bytes, of each buffer page, or 0 for
+     *  the default.
+     * @param readAhead the minimum number of bytes each refill waits for
+     *  before returning, unless the page fills or the stream ends.
+     */
+    public static UnifiedInputStreamX makeStream(InputStream stream, int pageSize, int readAhead) throws IOException {
+        return new FromByteStream(stream, pageSize > 0 ? pageSize : DEFAULT_PAGE_SIZE, readAhead);
+    }
+    /**
+     * Makes a stream that doesn't read from the given source until the
+     * first byte is requested, so it may be created before any data is
+     * available.
+     */
+    public static UnifiedInputStreamX makeLazyStream(InputStream stream) {
+        return new FromLazyByteStream(stream);
     }
     public final InputStream getInputStream() { return _stream; }
     public final Reader      getReader()      { return _reader; }
@@ -192,6 +233,7 @@ abstract class UnifiedInputStreamX
         _eof = false;
         if (is_byte_data()) {
             _bytes = curr.getByteBuffer();
+            _nio_bytes = curr.getNioBuffer();
         }
         else {
             _chars = curr.getCharBuffer();
@@ -297,10 +339,201 @@ abstract class UnifiedInputStreamX
 
     public final int read() throws IOException {
         if (_pos >= _limit) return read_helper();
+        return read_current();
+    }
+
+    private final int read_current() {
         // both bytes and chars might be null if this is empty input
         // otherwise we should have 1, and only 1, of these buffers set
-        assert((_bytes == null) ^ (_chars == null));
-        return (_is_byte_data) ? (_bytes[_pos++] & 0xff) : _chars[_pos++];
+        assert((_bytes == null && _nio_bytes == null) ^ (_chars == null));
+        if (!_is_byte_data) {
+            return _chars[_pos++];
+        }
+        if (_bytes != null) {
+            return _bytes[_pos++] & 0xff;
+        }
+        return _nio_bytes.get(_pos++) & 0xff;
+    }
+
+    /**
+     * Skips the run of ASCII characters, starting at the current position,
+     * whose {@link IonTokenConstsX#characterClass(int)} has any of the given
+     * bits. The run is scanned straight from the current page and ends at
+     * its limit, so callers must continue with {@link #read()}, which
+     * refills, to handle runs that cross pages.
+     *
+     * @return the number of characters skipped.
+     */
+    public final int skipCharacterRun(int classes) {
+        int pos = _pos;
+        int limit = _limit;
+        if (_is_byte_data) {
+            byte[] bytes = _bytes;
+            while (pos < limit
+                && (IonTokenConstsX.characterClass(bytes[pos] & 0xff) & classes) != 0) {
+                pos++;
+            }
+        }
+        else {
+            char[] chars = _chars;
+            while (pos < limit
+                && (IonTokenConstsX.characterClass(chars[pos]) & classes) != 0) {
+                pos++;
+            }
+        }
+        int count = pos - _pos;
+        _pos = pos;
+        return count;
+    }
+
+    /**
+     * Like {@link #skipCharacterRun(int)}, but also appends the run to the
+     * given buffer.
+     */
+    public final int appendCharacterRun(StringBuilder sb, int classes) {
+        int start = _pos;
+        int count = skipCharacterRun(classes);
+        if (count > 0) {
+            if (_is_byte_data) {
+                for (int ii = start; ii < _pos; ii++) {
+                    sb.append((char) _bytes[ii]);
+                }
+            }
+            else {
+                sb.append(_chars, start, count);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Appends the run of quoted-text content starting at the current
+     * position, up to the first character that needs the tokenizer's
+     * attention: a quote, backslash, control character or, unless
+     * {@code decodeNonAscii}, any non-ASCII character. Like
+     * {@link #skipCharacterRun(int)} the run ends at the page limit.
+     * <p>
+     * Over byte data, ASCII bytes are appended as they are and UTF-8
+     * sequences are decoded in place, without first reading each byte
+     * through {@link #read()}. Sequences that are malformed, that encode
+     * surrogates, or that cross the page limit end the run so that the
+     * tokenizer can handle or report them.
+     *
+     * @return the number of bytes or chars consumed.
+     */
+    public final int appendTextRun(StringBuilder sb, boolean decodeNonAscii) {
+        int start = _pos;
+        int pos = start;
+        int limit = _limit;
+        if (_is_byte_data) {
+            byte[] bytes = _bytes;
+            while (pos < limit) {
+                int b = bytes[pos];
+                if (b >= 0) {
+                    if ((IonTokenConstsX.characterClass(b) & IonTokenConstsX.CC_PLAIN_TEXT) == 0) {
+                        break;
+                    }
+                    sb.append((char) b);
+                    pos++;
+                    continue;
+                }
+                if (!decodeNonAscii) {
+                    break;
+                }
+                int len = utf8_sequence_length(bytes, pos, limit);
+                if (len == 0) {
+                    break;
+                }
+                int cp;
+                switch (len) {
+                case 2:
+                    cp = ((b & 0x1F) << 6) | (bytes[pos+1] & 0x3F);
+                    break;
+                case 3:
+                    cp = ((b & 0x0F) << 12) | ((bytes[pos+1] & 0x3F) << 6)
+                       | (bytes[pos+2] & 0x3F);
+                    break;
+                default:
+                    cp = ((b & 0x07) << 18) | ((bytes[pos+1] & 0x3F) << 12)
+                       | ((bytes[pos+2] & 0x3F) << 6) | (bytes[pos+3] & 0x3F);
+                    break;
+                }
+                if (cp < 0x10000) {
+                    sb.append((char) cp);
+                }
+                else {
+                    sb.append((char) _Private_IonConstants.makeHighSurrogate(cp));
+                    sb.append((char) _Private_IonConstants.makeLowSurrogate(cp));
+                }
+                pos += len;
+            }
+        }
+        else {
+            char[] chars = _chars;
+            while (pos < limit) {
+                char c = chars[pos];
+                if (c < 0x80) {
+                    if ((IonTokenConstsX.characterClass(c) & IonTokenConstsX.CC_PLAIN_TEXT) == 0) {
+                        break;
+                    }
+                }
+                else if (!decodeNonAscii || _Private_IonConstants.isSurrogate(c)) {
+                    break;
+                }
+                pos++;
+            }
+            sb.append(chars, start, pos - start);
+        }
+        _pos = pos;
+        return pos - start;
+    }
+
+    /**
+     * @return the length of the well-formed, shortest-form UTF-8 sequence
+     *  of a non-surrogate scalar that starts at {@code pos} and ends before
+     *  {@code limit}; otherwise 0.
+     */
+    private static int utf8_sequence_length(byte[] bytes, int pos, int limit) {
+        int b = bytes[pos] & 0xff;
+        int len;
+        int min2, max2; // the valid range of the second byte
+        if (b >= 0xC2 && b <= 0xDF) {
+            len = 2; min2 = 0x80; max2 = 0xBF;
+        }
+        else if (b == 0xE0) {
+            len = 3; min2 = 0xA0; max2 = 0xBF;
+        }
+        else if (b == 0xED) {
+            len = 3; min2 = 0x80; max2 = 0x9F;
+        }
+        else if (b >= 0xE1 && b <= 0xEF) {
+            len = 3; min2 = 0x80; max2 = 0xBF;
+        }
+        else if (b == 0xF0) {
+            len = 4; min2 = 0x90; max2 = 0xBF;
+        }
+        else if (b == 0xF4) {
+            len = 4; min2 = 0x80; max2 = 0x8F;
+        }
+        else if (b >= 0xF1 && b <= 0xF3) {
+            len = 4; min2 = 0x80; max2 = 0xBF;
+        }
+        else {
+            return 0;
+        }
+        if (limit - pos < len) {
+            return 0;
+        }
+        int b2 = bytes[pos+1] & 0xff;
+        if (b2 < min2 || b2 > max2) {
+            return 0;
+        }
+        for (int ii = 2; ii < len; ii++) {
+            if ((bytes[pos+ii] & 0xC0) != 0x80) {
+                return 0;
+            }
+        }
+        return len;
     }
 
     protected final int read_helper() throws IOException
@@ -312,8 +545,7 @@ abstract class UnifiedInputStreamX
             return EOF;
         }
 
-        int c = (is_byte_data()) ? (_bytes[_pos++] & 0xff) : _chars[_pos++];
-        return c;
+        return read_current();
     }
 
     private final boolean refill_helper() throws IOException
@@ -373,7 +605,13 @@ abstract class UnifiedInputStreamX
             if (ready > remaining) {
                 ready = remaining;
             }
-            System.arraycopy(_bytes, _pos, dst, offset, ready);
+            if (_bytes != null) {
+                System.arraycopy(_bytes, _pos, dst, offset, ready);
+            }
+            else {
+                ((Buffer) _nio_bytes).position(_pos);
+                _nio_bytes.get(dst, offset, ready);
+            }
             _pos += ready;
             offset += ready;
             remaining -= ready;
@@ -522,10 +760,10 @@ abstract class UnifiedInputStreamX
         int read = 0;
         if (can_fill_new_page()) {
             if (is_byte_data()) {
-                read = curr.load(_stream, start_pos, file_position);
+                read = curr.load(_stream, start_pos, file_position, _read_ahead);
             }
             else {
-                read = curr.load(_reader, start_pos, file_position);
+                read = curr.load(_reader, start_pos, file_position, _read_ahead);
             }
         }
         return read;
@@ -559,12 +797,13 @@ abstract class UnifiedInputStreamX
 
     private static class FromCharStream extends UnifiedInputStreamX
     {
-        FromCharStream(Reader reader) throws IOException
+        FromCharStream(Reader reader, int pageSize, int readAhead) throws IOException
         {
             _is_byte_data = false;
             _is_stream = true;
             _reader = reader;
-            _buffer = UnifiedInputBufferX.makePageBuffer(UnifiedInputBufferX.BufferType.CHARS, DEFAULT_PAGE_SIZE);
+            _read_ahead = readAhead;
+            _buffer = UnifiedInputBufferX.makePageBuffer(UnifiedInputBufferX.BufferType.CHARS, pageSize);
             super.init();
             _limit = refill();
         }
@@ -592,16 +831,61 @@ static class FromByteArray extends UnifiedInputStreamX
             make_page_current(curr, 0, offset, offset+length);
             super.init();
         }
+
+        /**
+         * Re-targets this stream at new data, reusing its page buffer and
+         * save point manager.
+         */
+        void reset(byte[] bytes, int offset, int length)
+        {
+            // page 0 survives close(), which only drops the page count
+            UnifiedDataPageX.Bytes curr = (UnifiedDataPageX.Bytes) _buffer._buffers[0];
+            curr.reset(bytes, offset, length);
+            make_page_current(curr, 0, offset, offset+length);
+        }
+    }
+
+    /**
+     * Reads the remaining bytes of a {@link ByteBuffer}, such as a direct or
+     * memory-mapped one, in place as a single page, without copying them
+     * into page arrays first. This is only suitable for binary data: the
+     * character runs scanned by the text tokenizer need the page array.
+     */
+    static class FromByteBuffer extends UnifiedInputStreamX
+    {
+        private final Closeable _source;
+
+        FromByteBuffer(ByteBuffer buffer, Closeable source)
+        {
+            _is_byte_data = true;
+            _is_stream = false;
+            _source = source;
+            _buffer = UnifiedInputBufferX.makePageBuffer(buffer);
+            UnifiedDataPageX curr = _buffer.getCurrentPage();
+            make_page_current(curr, 0, buffer.position(), buffer.limit());
+            super.init();
+        }
+
+        @Override
+        public void close()
+            throws IOException
+        {
+            super.close();
+            if (_source != null) {
+                _source.close();
+            }
+        }
     }
 
     private static class FromByteStream extends UnifiedInputStreamX
     {
-        FromByteStream(InputStream stream) throws IOException
+        FromByteStream(InputStream stream, int pageSize, int readAhead) throws IOException
         {
             _is_byte_data = true;
             _is_stream = true;
             _stream = stream;
-            _buffer = UnifiedInputBufferX.makePageBuffer(UnifiedInputBufferX.BufferType.BYTES, DEFAULT_PAGE_SIZE);
+            _read_ahead = readAhead;
+            _buffer = UnifiedInputBufferX.makePageBuffer(UnifiedInputBufferX.BufferType.BYTES, pageSize);
             super.init();
             _limit = refill();
         }
@@ -614,4 +898,25 @@ static class FromByteArray extends UnifiedInputStreamX
             _stream.close();
         }
     }
+
+    private static class FromLazyByteStream extends UnifiedInputStreamX
+    {
+        FromLazyByteStream(InputStream stream)
+        {
+            _is_byte_data = true;
+            _is_stream = true;
+            _stream = stream;
+            _buffer = UnifiedInputBufferX.makePageBuffer(UnifiedInputBufferX.BufferType.BYTES, DEFAULT_PAGE_SIZE);
+            super.init();
+            // _pos == _limit, so the first read() will refill.
+        }
+
+        @Override
+        public void close()
+            throws IOException
+        {
+            super.close();
+            _stream.close();
+        }
+    }
 }
@@ -0,0 +1,217 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl;
+
+import com.amazon.ion.TimestampValueReader;
+
+/**
+ * NOT FOR APPLICATION USE!
+ * <p>
+ * Allocation-free conversions between the UTC fields of a timestamp and
+ * its distance from the epoch.
+ * <p>
+ * Like {@link com.amazon.ion.Timestamp#getMillis()} and
+ * {@link com.amazon.ion.Timestamp#forMillis(long, Integer)}, which go through
+ * {@link java.util.Date}, these use the Julian calendar for dates before
+ * 1582-10-15 and the Gregorian calendar from then on.
+ */
+public final class _Private_EpochTime
+{
+    public static final int SECONDS_PER_DAY = 24 * 60 * 60;
+
+    /** The epoch day of 0001-01-01, the first day an Ion timestamp can have. */
+    public static final long MIN_EPOCH_DAY = -719164;
+
+    /** The epoch day of 9999-12-31, the last day an Ion timestamp can have. */
+    public static final long MAX_EPOCH_DAY = 2932896;
+
+    /** The epoch day of 1582-10-15, the first day of the Gregorian calendar. */
+    private static final long GREGORIAN_CUTOVER_EPOCH_DAY = -141427;
+
+    /** The largest magnitude of a local offset, in minutes (23:59). */
+    public static final int MAX_LOCAL_OFFSET = 24 * 60 - 1;
+
+    private _Private_EpochTime()
+    {
+    }
+
+    /**
+     * Gets the epoch day that contains the given second from the epoch,
+     * rounding toward negative infinity.
+     */
+    public static long epochDayOf(long epochSecond)
+    {
+        return floorDiv(epochSecond, SECONDS_PER_DAY);
+    }
+
+    /**
+     * Divides two longs, rounding toward negative infinity rather than
+     * toward zero.
+     *
+     * @param divisor must be positive.
+     */
+    public static long floorDiv(long dividend, long divisor)
+    {
+        long quotient = dividend / divisor;
+        if (dividend % divisor < 0) {
+            quotient--;
+        }
+        return quotient;
+    }
+
+    /**
+     * Verifies that a point in time can be written as an Ion timestamp, in
+     * UTC and in its local time.
+     *
+     * @param epochSecond the number of seconds from the epoch.
+     * @param nanos the fractional second, in nanoseconds.
+     * @param localOffset the local offset in minutes, or
+     * {@link com.amazon.ion.TimestampValueReader#UNKNOWN_LOCAL_OFFSET}.
+     *
+     * @throws IllegalArgumentException if any of the values is out of range.
+     */
+    public static void checkTimestamp(long epochSecond, int nanos, int localOffset)
+    {
+        if (nanos < 0 || nanos > 999999999)
+        {
+            throw new IllegalArgumentException("nanos must be between 0 and 999,999,999: " + nanos);
+        }
+        long localSecond = epochSecond;
+        if (localOffset != TimestampValueReader.UNKNOWN_LOCAL_OFFSET)
+        {
+            if (localOffset < -MAX_LOCAL_OFFSET || localOffset > MAX_LOCAL_OFFSET)
+            {
+                throw new IllegalArgumentException("local offset must be between -23:59 and +23:59: "
+                                                   + localOffset);
+            }
+            localSecond += localOffset * 60;
+        }
+        long epochDay = epochDayOf(epochSecond);
+        long localDay = epochDayOf(localSecond);
+        if (epochDay < MIN_EPOCH_DAY || epochDay > MAX_EPOCH_DAY
+            || localDay < MIN_EPOCH_DAY || localDay > MAX_EPOCH_DAY)
+        {
+            throw new IllegalArgumentException("timestamp must be between 0001-01-01T00:00"
+                                               + " and 9999-12-31T23:59:59.999999999,"
+                                               + " in UTC and in local time");
+        }
+        int date = dateOf(epochDay);
+        if (dayOf(date) > daysInMonth(yearOf(date), monthOf(date)))
+        {
+            // A Julian leap day, such as 1500-02-29, that Timestamp rejects.
+            throw new IllegalArgumentException("timestamp falls on a day that does not exist in"
+                                               + " the Gregorian calendar: " + yearOf(date) + "-02-29");
+        }
+    }
+
+    /**
+     * Gets the number of days from 1970-01-01 to the given date.
+     *
+     * @param year must be between 1 and 9999.
+     * @param month 1 to 12.
+     * @param day 1 to 31.
+     */
+    public static long epochDay(int year, int month, int day)
+    {
+        if (year < 1582 || (year == 1582 && (month < 10 || (month == 10 && day < 15))))
+        {
+            // Count from March so the leap day is the last day of the year.
+            int a = (14 - month) / 12;
+            int y = year + 4800 - a;
+            int m = month + 12 * a - 3;
+            int julianDayNumber = day + (153 * m + 2) / 5 + 365 * y + y / 4 - 32083;
+            return julianDayNumber - 2440588L;
+        }
+        int y = (month <= 2) ? year - 1 : year;
+        int era = y / 400;
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097L + dayOfEra - 719468;
+    }
+
+    /**
+     * Gets the date of the given epoch day, packed into an int as
+     * {@code (year << 9) | (month << 5) | day}.
+     *
+     * @param epochDay must be between {@link #MIN_EPOCH_DAY} and
+     * {@link #MAX_EPOCH_DAY}.
+     *
+     * @see #yearOf(int)
+     * @see #monthOf(int)
+     * @see #dayOf(int)
+     */
+    public static int dateOf(long epochDay)
+    {
+        if (epochDay < GREGORIAN_CUTOVER_EPOCH_DAY)
+        {
+            int c = (int) (epochDay + 2440588L) + 32082;
+            int d = (4 * c + 3) / 1461;
+            int e = c - 1461 * d / 4;
+            int m = (5 * e + 2) / 153;
+            int day = e - (153 * m + 2) / 5 + 1;
+            int month = m + 3 - 12 * (m / 10);
+            int year = d - 4800 + m / 10;
+            return (year << 9) | (month << 5) | day;
+        }
+        long z = epochDay + 719468;
+        int era = (int) (z / 146097);
+        int dayOfEra = (int) (z - era * 146097L);
+        int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        int mp = (5 * dayOfYear + 2) / 153;
+        int day = dayOfYear - (153 * mp + 2) / 5 + 1;
+        int month = (mp < 10) ? mp + 3 : mp - 9;
+        int year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        return (year << 9) | (month << 5) | day;
+    }
+
+    public static int yearOf(int date)
+    {
+        return date >>> 9;
+    }
+
+    public static int monthOf(int date)
+    {
+        return (date >>> 5) & 0xF;
+    }
+
+    public static int dayOf(int date)
+    {
+        return date & 0x1F;
+    }
+
+    public static boolean isLeapYear(int year)
+    {
+        return (year % 4 == 0) && (year % 100 != 0 || year % 400 == 0);
+    }
+
+    public static int daysInMonth(int year, int month)
+    {
+        switch (month)
+        {
+            case 2:
+                return isLeapYear(year) ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+}
@@ -32,6 +32,7 @@ import com.amazon.ion.system.IonBinaryWriterBuilder;
 import com.amazon.ion.system.IonSystemBuilder;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.channels.WritableByteChannel;
 
 /**
  * NOT FOR APPLICATION USE!
@@ -372,6 +373,21 @@ public class _Private_IonBinaryWriterBuilder
     }
 
 
+    @Override
+    public final IonWriter build(WritableByteChannel out)
+    {
+        _Private_IonBinaryWriterBuilder b = fillDefaults();
+        try
+        {
+            return b.myBinaryWriterBuilder.newWriter(out);
+        }
+        catch (final IOException e)
+        {
+            throw new IonException("I/O Error", e);
+        }
+    }
+
+
     @Deprecated
     public final IonBinaryWriter buildLegacy()
     {
@@ -21,15 +21,22 @@ import static com.amazon.ion.util.IonStreamUtils.isIonBinary;
 
 import com.amazon.ion.IonCatalog;
 import com.amazon.ion.IonException;
+import com.amazon.ion.IonIncrementalReader;
 import com.amazon.ion.IonReader;
+import com.amazon.ion.IonResettableReader;
 import com.amazon.ion.IonSystem;
 import com.amazon.ion.IonTextReader;
 import com.amazon.ion.IonValue;
+import com.amazon.ion.SymbolTable;
+import com.amazon.ion.system.StreamDecompressor;
 import com.amazon.ion.util.IonStreamUtils;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.PushbackInputStream;
 import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.util.zip.GZIPInputStream;
 
 /**
@@ -74,6 +81,39 @@ public final class _Private_IonReaderFactory
         }
     }
 
+    /**
+     * @param decompressors the formats to detect and decompress, or null to
+     * detect GZIP only.
+     */
+    public static final IonReader makeReader(IonCatalog catalog,
+                                             byte[] bytes,
+                                             int offset,
+                                             int length,
+                                             StreamDecompressor[] decompressors)
+    {
+        if (decompressors == null) {
+            return makeReader(catalog, bytes, offset, length);
+        }
+        try
+        {
+            UnifiedInputStreamX uis;
+            StreamDecompressor d =
+                findDecompressor(decompressors, bytes, offset, length);
+            if (d == null) {
+                uis = UnifiedInputStreamX.makeStream(bytes, offset, length);
+            }
+            else {
+                InputStream in = new ByteArrayInputStream(bytes, offset, length);
+                uis = UnifiedInputStreamX.makeStream(d.newInputStream(in));
+            }
+            return makeReader(catalog, uis, offset, LocalSymbolTable.DEFAULT_LST_FACTORY);
+        }
+        catch (IOException e)
+        {
+            throw new IonException(e);
+        }
+    }
+
     public static final IonReader makeReader(IonCatalog catalog,
                                              byte[] bytes,
                                              int offset,
@@ -107,6 +147,199 @@ public final class _Private_IonReaderFactory
     }
 
 
+    /**
+     * Heap buffers are read in place, like byte arrays. Other buffers are
+     * read in place too when they hold binary Ion, and otherwise paged into
+     * the reader with bulk gets.
+     */
+    public static final IonReader makeReader(IonCatalog catalog,
+                                             ByteBuffer buffer)
+    {
+        return makeReader(catalog, buffer, 0, 0);
+    }
+
+    /**
+     * @param bufferSize the page size used for buffers that are not read in
+     * place, or 0 for the default.
+     * @param readAhead the minimum number of bytes each refill copies.
+     */
+    public static final IonReader makeReader(IonCatalog catalog,
+                                             ByteBuffer buffer,
+                                             int bufferSize,
+                                             int readAhead)
+    {
+        return makeReader(catalog, buffer, bufferSize, readAhead, null);
+    }
+
+    /**
+     * @param decompressors the formats to detect and decompress, or null to
+     * detect GZIP only.
+     */
+    public static final IonReader makeReader(IonCatalog catalog,
+                                             ByteBuffer buffer,
+                                             int bufferSize,
+                                             int readAhead,
+                                             StreamDecompressor[] decompressors)
+    {
+        if (buffer.hasArray()) {
+            return makeReader(catalog,
+                              buffer.array(),
+                              buffer.arrayOffset() + buffer.position(),
+                              buffer.remaining(),
+                              decompressors);
+        }
+        try {
+            ByteBufferInputStream in = new ByteBufferInputStream(buffer);
+            UnifiedInputStreamX uis = makeInPlaceBinaryStream(in);
+            int offset = buffer.position();
+            if (uis == null) {
+                uis = makeUnifiedStream(in, bufferSize, readAhead, decompressors);
+                offset = 0;
+            }
+            return makeReader(catalog, uis, offset, LocalSymbolTable.DEFAULT_LST_FACTORY);
+        }
+        catch (IOException e) {
+            throw new IonException(e);
+        }
+    }
+
+    /**
+     * Memory-maps the channel from its current position to its end. Binary
+     * Ion is read straight from the mapping when it fits in one region. The
+     * channel is closed when the reader is closed.
+     */
+    public static final IonReader makeReader(IonCatalog catalog,
+                                             FileChannel channel)
+    {
+        return makeReader(catalog, channel, 0, 0);
+    }
+
+    /**
+     * @param bufferSize the page size, or 0 for the default.
+     * @param readAhead the minimum number of bytes each refill copies.
+     */
+    public static final IonReader makeReader(IonCatalog catalog,
+                                             FileChannel channel,
+                                             int bufferSize,
+                                             int readAhead)
+    {
+        return makeReader(catalog, channel, bufferSize, readAhead, null);
+    }
+
+    /**
+     * @param decompressors the formats to detect and decompress, or null to
+     * detect GZIP only.
+     */
+    public static final IonReader makeReader(IonCatalog catalog,
+                                             FileChannel channel,
+                                             int bufferSize,
+                                             int readAhead,
+                                             StreamDecompressor[] decompressors)
+    {
+        try {
+            ByteBufferInputStream in = new ByteBufferInputStream(channel);
+            UnifiedInputStreamX uis = makeInPlaceBinaryStream(in);
+            if (uis == null) {
+                uis = makeUnifiedStream(in, bufferSize, readAhead, decompressors);
+            }
+            return makeReader(catalog, uis, 0, LocalSymbolTable.DEFAULT_LST_FACTORY);
+        }
+        catch (IOException e) {
+            try {
+                channel.close();
+            }
+            catch (IOException suppressed) {
+                // The original failure is more informative.
+            }
+            throw new IonException(e);
+        }
+    }
+
+
+    /**
+     * Creates a binary reader over data that starts in the middle of a
+     * stream, at a top-level value that was encoded in the context of the
+     * given symbol table. The data need not begin with an IVM and must not
+     * be GZIPped.
+     *
+     * @param symbols the symbol table in effect at the start of the data;
+     * null means the system symbol table.
+     */
+    public static final IonReader makeBinaryReader(IonCatalog catalog,
+                                                   byte[] bytes,
+                                                   int offset,
+                                                   int length,
+                                                   SymbolTable symbols)
+    {
+        UnifiedInputStreamX uis = makeStream(bytes, offset, length);
+        return makeBinaryReader(catalog, uis, offset, symbols);
+    }
+
+    /**
+     * Like {@link #makeBinaryReader(IonCatalog, byte[], int, int, SymbolTable)}
+     * but memory-maps the channel from its current position to its end. The
+     * channel is closed when the reader is closed.
+     */
+    public static final IonReader makeBinaryReader(IonCatalog catalog,
+                                                   FileChannel channel,
+                                                   SymbolTable symbols)
+    {
+        try {
+            ByteBufferInputStream in = new ByteBufferInputStream(channel);
+            ByteBuffer mapped = in.remainingBuffer();
+            UnifiedInputStreamX uis = (mapped == null)
+                ? UnifiedInputStreamX.makeStream(in)
+                : UnifiedInputStreamX.makeStream(mapped, in);
+            return makeBinaryReader(catalog, uis, 0, symbols);
+        }
+        catch (IOException e) {
+            try {
+                channel.close();
+            }
+            catch (IOException suppressed) {
+                // The original failure is more informative.
+            }
+            throw new IonException(e);
+        }
+    }
+
+    /**
+     * Like {@link #makeBinaryReader(IonCatalog, byte[], int, int, SymbolTable)}
+     * but reads the remaining bytes of the buffer in place. The buffer's
+     * position is not modified.
+     */
+    public static final IonReader makeBinaryReader(IonCatalog catalog,
+                                                   ByteBuffer buffer,
+                                                   SymbolTable symbols)
+    {
+        if (buffer.hasArray()) {
+            return makeBinaryReader(catalog,
+                                    buffer.array(),
+                                    buffer.arrayOffset() + buffer.position(),
+                                    buffer.remaining(),
+                                    symbols);
+        }
+        UnifiedInputStreamX uis = UnifiedInputStreamX.makeStream(buffer, null);
+        return makeBinaryReader(catalog, uis, buffer.position(), symbols);
+    }
+
+    private static IonReader makeBinaryReader(IonCatalog catalog,
+                                              UnifiedInputStreamX uis,
+                                              int offset,
+                                              SymbolTable symbols)
+    {
+        IonReaderBinaryUserX r =
+            new IonReaderBinaryUserX(catalog,
+                                     LocalSymbolTable.DEFAULT_LST_FACTORY,
+                                     uis,
+                                     offset);
+        if (symbols != null) {
+            r._symbols = symbols;
+        }
+        return r;
+    }
+
+
     public static final IonTextReader makeReader(IonCatalog catalog,
                                                  char[] chars)
     {
@@ -152,6 +385,20 @@ public final class _Private_IonReaderFactory
         return new IonReaderTextUserX(catalog, lstFactory, in);
     }
 
+    /**
+     * Creates a reader over text that must be JSON, see
+     * {@link IonReaderTextRawX#setJsonOnly()}.
+     */
+    public static final IonTextReader makeJsonReader(IonCatalog catalog,
+                                                     CharSequence chars)
+    {
+        UnifiedInputStreamX in = makeStream(chars);
+        IonReaderTextUserX r =
+            new IonReaderTextUserX(catalog, LocalSymbolTable.DEFAULT_LST_FACTORY, in);
+        r.setJsonOnly();
+        return r;
+    }
+
     public static final IonReader makeSystemReader(CharSequence chars)
     {
         UnifiedInputStreamX in = makeStream(chars);
@@ -183,6 +430,38 @@ public final class _Private_IonReaderFactory
         return makeReader(catalog, is, LocalSymbolTable.DEFAULT_LST_FACTORY);
     }
 
+    /**
+     * @param bufferSize the page size, or 0 for the default.
+     * @param readAhead the minimum number of bytes each refill waits for.
+     */
+    public static final IonReader makeReader(IonCatalog catalog,
+                                             InputStream is,
+                                             int bufferSize,
+                                             int readAhead)
+    {
+        return makeReader(catalog, is, bufferSize, readAhead, null);
+    }
+
+    /**
+     * @param decompressors the formats to detect and decompress, or null to
+     * detect GZIP only.
+     */
+    public static final IonReader makeReader(IonCatalog catalog,
+                                             InputStream is,
+                                             int bufferSize,
+                                             int readAhead,
+                                             StreamDecompressor[] decompressors)
+    {
+        try {
+            UnifiedInputStreamX uis =
+                makeUnifiedStream(is, bufferSize, readAhead, decompressors);
+            return makeReader(catalog, uis, 0, LocalSymbolTable.DEFAULT_LST_FACTORY);
+        }
+        catch (IOException e) {
+            throw new IonException(e);
+        }
+    }
+
     public static final IonReader makeReader(IonCatalog catalog,
                                              InputStream is,
                                              _Private_LocalSymbolTableFactory lstFactory)
@@ -214,6 +493,50 @@ public final class _Private_IonReaderFactory
         return makeReader(catalog, chars, LocalSymbolTable.DEFAULT_LST_FACTORY);
     }
 
+    /**
+     * @param bufferSize the page size in characters, or 0 for the default.
+     * @param readAhead the minimum number of characters each refill waits
+     * for.
+     */
+    public static final IonTextReader makeReader(IonCatalog catalog,
+                                                 Reader chars,
+                                                 int bufferSize,
+                                                 int readAhead)
+    {
+        try {
+            UnifiedInputStreamX in = makeStream(chars, bufferSize, readAhead);
+            return new IonReaderTextUserX(catalog, LocalSymbolTable.DEFAULT_LST_FACTORY, in);
+        }
+        catch (IOException e) {
+            throw new IonException(e);
+        }
+    }
+
+    /**
+     * Creates a reader over text that must be JSON, see
+     * {@link IonReaderTextRawX#setJsonOnly()}.
+     *
+     * @param bufferSize the page size in characters, or 0 for the default.
+     * @param readAhead the minimum number of characters each refill waits
+     * for.
+     */
+    public static final IonTextReader makeJsonReader(IonCatalog catalog,
+                                                     Reader chars,
+                                                     int bufferSize,
+                                                     int readAhead)
+    {
+        try {
+            UnifiedInputStreamX in = makeStream(chars, bufferSize, readAhead);
+            IonReaderTextUserX r =
+                new IonReaderTextUserX(catalog, LocalSymbolTable.DEFAULT_LST_FACTORY, in);
+            r.setJsonOnly();
+            return r;
+        }
+        catch (IOException e) {
+            throw new IonException(e);
+        }
+    }
+
     public static final IonTextReader makeReader(IonCatalog catalog,
                                                  Reader chars,
                                                  _Private_LocalSymbolTableFactory lstFactory)
@@ -254,6 +577,23 @@ public final class _Private_IonReaderFactory
     }
 
 
+    public static final IonIncrementalReader makeIncrementalReader(IonCatalog catalog)
+    {
+        return makeIncrementalReader(catalog, LocalSymbolTable.DEFAULT_LST_FACTORY);
+    }
+
+    public static final IonIncrementalReader makeIncrementalReader(IonCatalog catalog,
+                                                                   _Private_LocalSymbolTableFactory lstFactory)
+    {
+        return new IonReaderBinaryIncrementalX(catalog, lstFactory);
+    }
+
+    public static final IonResettableReader makeResettableReader(IonCatalog catalog)
+    {
+        return new IonReaderBinaryResettableX(catalog, LocalSymbolTable.DEFAULT_LST_FACTORY);
+    }
+
+
     //=========================================================================
 
 
@@ -315,15 +655,122 @@ public final class _Private_IonReaderFactory
 
     private static UnifiedInputStreamX makeUnifiedStream(InputStream in)
         throws IOException
+    {
+        return makeUnifiedStream(in, 0, 0, null);
+    }
+
+    private static UnifiedInputStreamX makeUnifiedStream(InputStream in,
+                                                         int bufferSize,
+                                                         int readAhead,
+                                                         StreamDecompressor[] decompressors)
+        throws IOException
     {
         in.getClass(); // Force NPE
 
         // TODO avoid multiple wrapping streams, use the UIS for the pushback
-        in = IonStreamUtils.unGzip(in);
-        UnifiedInputStreamX uis = UnifiedInputStreamX.makeStream(in);
+        if (decompressors == null) {
+            in = IonStreamUtils.unGzip(in);
+        }
+        else {
+            int headerLength = maxHeaderLength(decompressors);
+            if (headerLength > 0) {
+                PushbackInputStream pushback =
+                    new PushbackInputStream(in, headerLength);
+                byte[] header = new byte[headerLength];
+                int len = _Private_Utils.readFully(pushback, header);
+                if (len > 0) {
+                    pushback.unread(header, 0, len);
+                }
+                StreamDecompressor d =
+                    findDecompressor(decompressors, header, 0, len);
+                in = (d == null ? pushback : d.newInputStream(pushback));
+            }
+        }
+        UnifiedInputStreamX uis =
+            UnifiedInputStreamX.makeStream(in, bufferSize, readAhead);
         return uis;
     }
 
+    /**
+     * Makes a stream that reads binary Ion straight from the stream's buffer,
+     * with no intermediate copy into pages.
+     *
+     * @return the stream, or null if the data isn't binary Ion (text and
+     * compressed data are paged as usual) or spans more than one mapped
+     * region.
+     */
+    private static UnifiedInputStreamX makeInPlaceBinaryStream(ByteBufferInputStream in)
+    {
+        ByteBuffer buffer = in.remainingBuffer();
+        if (buffer == null)
+        {
+            return null;
+        }
+        byte[] header = new byte[BINARY_VERSION_MARKER_SIZE];
+        int len = in.peek(header);
+        if (!IonStreamUtils.isIonBinary(header, 0, len))
+        {
+            return null;
+        }
+        return UnifiedInputStreamX.makeStream(buffer, in);
+    }
+
+    private static UnifiedInputStreamX makeUnifiedStream(ByteBufferInputStream in,
+                                                         int bufferSize,
+                                                         int readAhead,
+                                                         StreamDecompressor[] decompressors)
+        throws IOException
+    {
+        InputStream stream = in;
+        if (decompressors == null)
+        {
+            byte[] header = new byte[BINARY_VERSION_MARKER_SIZE];
+            int len = in.peek(header);
+            if (IonStreamUtils.isGzip(header, 0, len))
+            {
+                stream = new GZIPInputStream(in);
+            }
+        }
+        else
+        {
+            byte[] header = new byte[maxHeaderLength(decompressors)];
+            int len = in.peek(header);
+            StreamDecompressor d =
+                findDecompressor(decompressors, header, 0, len);
+            if (d != null)
+            {
+                stream = d.newInputStream(in);
+            }
+        }
+        return UnifiedInputStreamX.makeStream(stream, bufferSize, readAhead);
+    }
+
+    private static int maxHeaderLength(StreamDecompressor[] decompressors)
+    {
+        int max = 0;
+        for (StreamDecompressor d : decompressors) {
+            max = Math.max(max, d.getHeaderLength());
+        }
+        return max;
+    }
+
+    /**
+     * @return the first decompressor that matches the header, or null if
+     * the data isn't compressed in any of their formats.
+     */
+    private static StreamDecompressor findDecompressor(StreamDecompressor[] decompressors,
+                                                       byte[] header,
+                                                       int offset,
+                                                       int length)
+    {
+        for (StreamDecompressor d : decompressors) {
+            if (d.matches(header, offset, Math.min(length, d.getHeaderLength()))) {
+                return d;
+            }
+        }
+        return null;
+    }
+
     private static final boolean has_binary_cookie(UnifiedInputStreamX uis)
         throws IOException
     {
@@ -22,8 +22,11 @@ import com.amazon.ion.IonWriter;
 import com.amazon.ion.SymbolTable;
 import com.amazon.ion.SymbolToken;
 import com.amazon.ion.Timestamp;
+import com.amazon.ion.TimestampValueReader;
 import com.amazon.ion.UnknownSymbolException;
+import java.io.EOFException;
 import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
 import java.util.Date;
 
@@ -205,9 +208,47 @@ public abstract class _Private_IonWriterBase
         }
         return;
     }
+    public void writeBlob(InputStream source, int length) throws IOException
+    {
+        if (source == null) {
+            this.writeNull(IonType.BLOB);
+        }
+        else {
+            this.writeBlob(readLob(source, length), 0, length);
+        }
+    }
+    public void writeClob(InputStream source, int length) throws IOException
+    {
+        if (source == null) {
+            this.writeNull(IonType.CLOB);
+        }
+        else {
+            this.writeClob(readLob(source, length), 0, length);
+        }
+    }
+
+    /**
+     * Reads the content of a lob for writers that need all of it at once.
+     */
+    private static byte[] readLob(InputStream source, int length) throws IOException
+    {
+        if (length < 0) {
+            throw new IllegalArgumentException("negative lob length: " + length);
+        }
+        byte[] bytes = new byte[length];
+        if (_Private_Utils.readFully(source, bytes) < length) {
+            throw new EOFException("lob source ended before " + length + " bytes");
+        }
+        return bytes;
+    }
 
     abstract public void writeDecimal(BigDecimal value) throws IOException;
 
+    public void writeDecimal(long unscaledValue, int exponent) throws IOException
+    {
+        writeDecimal(BigDecimal.valueOf(unscaledValue, -exponent));
+    }
+
 
     public void writeFloat(float value) throws IOException
     {
@@ -255,6 +296,26 @@ public abstract class _Private_IonWriterBase
         writeTimestamp(time);
     }
 
+    public void writeTimestamp(long epochMillis, int localOffset) throws IOException
+    {
+        _Private_EpochTime.checkTimestamp(_Private_EpochTime.floorDiv(epochMillis, 1000), 0, localOffset);
+        writeTimestamp(Timestamp.forMillis(epochMillis, boxLocalOffset(localOffset)));
+    }
+
+    public void writeTimestamp(long epochSecond, int nanos, int localOffset) throws IOException
+    {
+        _Private_EpochTime.checkTimestamp(epochSecond, nanos, localOffset);
+        writeTimestamp(Timestamp.forEpochSecond(epochSecond, nanos, boxLocalOffset(localOffset)));
+    }
+
+    private static Integer boxLocalOffset(int localOffset)
+    {
+        if (localOffset == TimestampValueReader.UNKNOWN_LOCAL_OFFSET) {
+            return null;
+        }
+        return Integer.valueOf(localOffset);
+    }
+
 
 
     //
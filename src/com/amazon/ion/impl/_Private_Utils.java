@@ -29,6 +29,7 @@ import static com.amazon.ion.SystemSymbols.VERSION;
 import static com.amazon.ion.SystemSymbols.VERSION_SID;
 import static com.amazon.ion.util.IonStreamUtils.isIonBinary;
 
+import com.amazon.ion.IonCatalog;
 import com.amazon.ion.IonException;
 import com.amazon.ion.IonReader;
 import com.amazon.ion.IonStruct;
@@ -833,6 +834,17 @@ public final class _Private_Utils
         return new LocalSymbolTableAsStruct.Factory(imageFactory);
     }
 
+    /**
+     * Trampoline to {@link LocalSymbolTable#DEFAULT_LST_FACTORY}, reading a
+     * local symbol table from the {@code $ion_symbol_table} struct that the
+     * reader is positioned on. The struct needn't be at top level.
+     */
+    public static SymbolTable newLocalSymtab(IonCatalog catalog,
+                                             IonReader reader)
+    {
+        return LocalSymbolTable.DEFAULT_LST_FACTORY.newLocalSymtab(catalog, reader, true);
+    }
+
     /**
      * Returns a minimal symtab that, either system or local depending on the
      * given values, that supports representation as an IonStruct. If the
@@ -16,11 +16,13 @@
 package com.amazon.ion.impl.bin;
 
 import com.amazon.ion.Decimal;
+import com.amazon.ion.DecimalValueReader;
 import com.amazon.ion.IonDatagram;
 import com.amazon.ion.IonReader;
 import com.amazon.ion.IonType;
 import com.amazon.ion.IonValue;
 import com.amazon.ion.IonWriter;
+import com.amazon.ion.LobValueReader;
 import com.amazon.ion.SymbolToken;
 import com.amazon.ion.Timestamp;
 import com.amazon.ion.impl._Private_ByteTransferReader;
@@ -135,6 +137,12 @@ import java.util.Date;
                 writeFloat(doubleValue);
                 break;
             case DECIMAL:
+                final DecimalValueReader decimals = reader.asFacet(DecimalValueReader.class);
+                if (decimals != null && decimals.isDecimalLongRepresentable())
+                {
+                    writeDecimal(decimals.decimalUnscaledValue(), decimals.decimalExponent());
+                    break;
+                }
                 final Decimal decimalValue = reader.decimalValue();
                 writeDecimal(decimalValue);
                 break;
@@ -151,10 +159,25 @@ import java.util.Date;
                 writeString(stringValue);
                 break;
             case CLOB:
+                final LobValueReader clobs = reader.asFacet(LobValueReader.class);
+                if (clobs != null)
+                {
+                    // stream it so that large lobs are never held in one array
+                    final int clobLength = reader.byteSize();
+                    writeClob(clobs.newInputStream(), clobLength);
+                    break;
+                }
                 final byte[] clobValue = reader.newBytes();
                 writeClob(clobValue);
                 break;
             case BLOB:
+                final LobValueReader blobs = reader.asFacet(LobValueReader.class);
+                if (blobs != null)
+                {
+                    final int blobLength = reader.byteSize();
+                    writeBlob(blobs.newInputStream(), blobLength);
+                    break;
+                }
                 final byte[] blobValue = reader.newBytes();
                 writeBlob(blobValue);
                 break;
@@ -16,6 +16,7 @@
 package com.amazon.ion.impl.bin;
 
 import java.io.Closeable;
+import java.nio.ByteBuffer;
 
 
 /**
@@ -26,12 +27,20 @@ import java.io.Closeable;
  */
 /*package*/ abstract class Block implements Closeable
 {
-    /** The data backing this block. */
-    public final byte[] data;
+    /**
+     * The data backing this block, either a heap buffer or a direct (off-heap) one.
+     * Only absolute accessors should be used on it--its position and limit are scratch state.
+     */
+    public final ByteBuffer data;
     /** The first index for which data has not been written to or read from. */
     public int limit;
 
     /*package*/ Block(final byte[] data)
+    {
+        this(ByteBuffer.wrap(data));
+    }
+
+    /*package*/ Block(final ByteBuffer data)
     {
         this.data = data;
         this.limit = 0;
@@ -43,16 +52,16 @@ import java.io.Closeable;
         limit = 0;
     }
 
-    /** Returns the unused amount of bytes from the limit to the capacity of the data array. */
+    /** Returns the unused amount of bytes from the limit to the capacity of the data buffer. */
     public final int remaining()
     {
-        return data.length - limit;
+        return data.capacity() - limit;
     }
 
-    /** Returns the underlying data array's capacity. */
+    /** Returns the underlying data buffer's capacity. */
     public final int capacity()
     {
-        return data.length;
+        return data.capacity();
     }
 
     /**
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl.bin;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Collects segments of {@link Block} data as {@link ByteBuffer} views and writes them to a
+ * {@link WritableByteChannel} without copying them.
+ * <p>
+ * A {@link GatheringByteChannel} receives everything queued since the last {@link #write()} in one gathering
+ * write. The views alias the blocks, so callers must write before the blocks are returned to their allocator.
+ * <p>
+ * This implementation is not thread-safe.
+ */
+/*package*/ final class ChannelOutput implements Closeable
+{
+    private static final int INITIAL_VIEW_CAPACITY = 16;
+
+    private final WritableByteChannel channel;
+    private final List<ByteBuffer> views;
+    private ByteBuffer[] gatherViews;
+
+    public ChannelOutput(final WritableByteChannel channel)
+    {
+        if (channel == null) { throw new NullPointerException(); }
+        if (channel instanceof SelectableChannel && !((SelectableChannel) channel).isBlocking())
+        {
+            throw new IllegalArgumentException("Channel must be in blocking mode");
+        }
+        this.channel = channel;
+        this.views = new ArrayList<ByteBuffer>(INITIAL_VIEW_CAPACITY);
+        this.gatherViews = new ByteBuffer[INITIAL_VIEW_CAPACITY];
+    }
+
+    /** Queues a view of the given segment. */
+    public void add(final ByteBuffer data, final int offset, final int length)
+    {
+        if (length > 0)
+        {
+            final ByteBuffer view = data.duplicate();
+            // go through Buffer so the calls link against the Java 6 signatures
+            ((Buffer) view).limit(offset + length);
+            ((Buffer) view).position(offset);
+            views.add(view);
+        }
+    }
+
+    /** Writes all of the queued views fully to the channel and clears the queue. */
+    public void write() throws IOException
+    {
+        final int count = views.size();
+        if (count == 0)
+        {
+            return;
+        }
+        try
+        {
+            if (channel instanceof GatheringByteChannel)
+            {
+                gatherTo((GatheringByteChannel) channel, count);
+            }
+            else
+            {
+                for (final ByteBuffer view : views)
+                {
+                    while (view.hasRemaining())
+                    {
+                        channel.write(view);
+                    }
+                }
+            }
+        }
+        finally
+        {
+            views.clear();
+        }
+    }
+
+    private void gatherTo(final GatheringByteChannel gathering, final int count) throws IOException
+    {
+        if (gatherViews.length < count)
+        {
+            gatherViews = new ByteBuffer[Math.max(count, gatherViews.length * 2)];
+        }
+        views.toArray(gatherViews);
+        try
+        {
+            int offset = 0;
+            while (offset < count)
+            {
+                gathering.write(gatherViews, offset, count - offset);
+                // a channel may stop short of draining all of the views--resume from the first one with data left
+                while (offset < count && !gatherViews[offset].hasRemaining())
+                {
+                    offset++;
+                }
+            }
+        }
+        finally
+        {
+            // don't pin the blocks' arrays once they are recycled
+            Arrays.fill(gatherViews, 0, count, null);
+        }
+    }
+
+    public void close() throws IOException
+    {
+        channel.close();
+    }
+}
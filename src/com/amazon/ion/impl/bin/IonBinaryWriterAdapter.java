@@ -25,6 +25,7 @@ import com.amazon.ion.SymbolToken;
 import com.amazon.ion.Timestamp;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.math.BigInteger;
@@ -215,11 +216,26 @@ import java.util.Date;
         delegate.writeDecimal(value);
     }
 
+    public void writeDecimal(long unscaledValue, int exponent) throws IOException
+    {
+        delegate.writeDecimal(unscaledValue, exponent);
+    }
+
     public void writeTimestamp(Timestamp value) throws IOException
     {
         delegate.writeTimestamp(value);
     }
 
+    public void writeTimestamp(long epochMillis, int localOffset) throws IOException
+    {
+        delegate.writeTimestamp(epochMillis, localOffset);
+    }
+
+    public void writeTimestamp(long epochSecond, int nanos, int localOffset) throws IOException
+    {
+        delegate.writeTimestamp(epochSecond, nanos, localOffset);
+    }
+
     public void writeTimestampUTC(Date value) throws IOException
     {
         delegate.writeTimestampUTC(value);
@@ -260,6 +276,16 @@ import java.util.Date;
         delegate.writeBlob(value, start, len);
     }
 
+    public void writeClob(InputStream source, int length) throws IOException
+    {
+        delegate.writeClob(source, length);
+    }
+
+    public void writeBlob(InputStream source, int length) throws IOException
+    {
+        delegate.writeBlob(source, length);
+    }
+
     public <T> T asFacet(Class<T> facetType)
     {
         // This implementation has no facets.
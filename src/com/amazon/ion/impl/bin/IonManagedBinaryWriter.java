@@ -40,6 +40,7 @@ import com.amazon.ion.UnknownSymbolException;
 import com.amazon.ion.impl.bin.IonRawBinaryWriter.StreamCloseMode;
 import com.amazon.ion.impl.bin.IonRawBinaryWriter.StreamFlushMode;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.math.BigInteger;
@@ -650,6 +651,7 @@ import java.util.Map;
 
     private final IonRawBinaryWriter            symbols;
     private final IonRawBinaryWriter            user;
+    private final ChannelOutput                 channelOut;
 
     private UserState                           userState;
     private SymbolState                         symbolState;
@@ -667,12 +669,32 @@ import java.util.Map;
     /*package*/ IonManagedBinaryWriter(final _Private_IonManagedBinaryWriterBuilder builder,
                                        final OutputStream out)
                                        throws IOException
+    {
+        this(builder, out, null);
+    }
+
+    /**
+     * Constructs a writer that hands the symbol table and user data of each flush to the channel
+     * in a single write, as views of the blocks holding them.
+     */
+    /*package*/ IonManagedBinaryWriter(final _Private_IonManagedBinaryWriterBuilder builder,
+                                       final ChannelOutput out)
+                                       throws IOException
+    {
+        this(builder, null, out);
+    }
+
+    private IonManagedBinaryWriter(final _Private_IonManagedBinaryWriterBuilder builder,
+                                   final OutputStream out,
+                                   final ChannelOutput channelOut)
+                                   throws IOException
     {
         super(builder.optimization);
         this.symbols = new IonRawBinaryWriter(
             builder.provider,
             builder.symbolsBlockSize,
             out,
+            channelOut,
             WriteValueOptimization.NONE, // optimization is not relevant for the nested raw writer
             StreamCloseMode.NO_CLOSE,
             StreamFlushMode.NO_FLUSH,
@@ -683,12 +705,14 @@ import java.util.Map;
             builder.provider,
             builder.userBlockSize,
             out,
+            channelOut,
             WriteValueOptimization.NONE, // optimization is not relevant for the nested raw writer
             StreamCloseMode.CLOSE,
             StreamFlushMode.FLUSH,
             builder.preallocationMode,
             builder.isFloatBinary32Enabled
         );
+        this.channelOut = channelOut;
 
         this.catalog = builder.catalog;
         this.bootstrapImports = builder.imports;
@@ -1022,11 +1046,26 @@ import java.util.Map;
         user.writeDecimal(value);
     }
 
+    public void writeDecimal(final long unscaledValue, final int exponent) throws IOException
+    {
+        user.writeDecimal(unscaledValue, exponent);
+    }
+
     public void writeTimestamp(final Timestamp value) throws IOException
     {
         user.writeTimestamp(value);
     }
 
+    public void writeTimestamp(final long epochMillis, final int localOffset) throws IOException
+    {
+        user.writeTimestamp(epochMillis, localOffset);
+    }
+
+    public void writeTimestamp(final long epochSecond, final int nanos, final int localOffset) throws IOException
+    {
+        user.writeTimestamp(epochSecond, nanos, localOffset);
+    }
+
     public void writeSymbol(String content) throws IOException
     {
         writeSymbolToken(intern(content));
@@ -1088,6 +1127,16 @@ import java.util.Map;
         user.writeBlob(data, offset, length);
     }
 
+    public void writeClob(final InputStream source, final int length) throws IOException
+    {
+        user.writeClob(source, length);
+    }
+
+    public void writeBlob(final InputStream source, final int length) throws IOException
+    {
+        user.writeBlob(source, length);
+    }
+
     @Override
     public void writeString(byte[] data, int offset, int length) throws IOException
     {
@@ -1121,8 +1170,20 @@ import java.util.Map;
             symbolState = SymbolState.LOCAL_SYMBOLS_FLUSHED;
         }
         // push the data out
-        symbols.finish();
-        user.finish();
+        if (channelOut != null)
+        {
+            // gather the symbol table and user data into one channel write before the blocks are recycled
+            symbols.emitFinishedData();
+            user.emitFinishedData();
+            channelOut.write();
+            symbols.resetFinishedData();
+            user.resetFinishedData();
+        }
+        else
+        {
+            symbols.finish();
+            user.finish();
+        }
     }
 
     public void finish() throws IOException
@@ -46,7 +46,10 @@ import com.amazon.ion.IonWriter;
 import com.amazon.ion.SymbolTable;
 import com.amazon.ion.SymbolToken;
 import com.amazon.ion.Timestamp;
+import com.amazon.ion.TimestampValueReader;
+import com.amazon.ion.impl._Private_EpochTime;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.math.BigInteger;
@@ -566,6 +569,7 @@ import java.util.NoSuchElementException;
 
     private final BlockAllocator                allocator;
     private final OutputStream                  out;
+    private final ChannelOutput                 channelOut;
     private final StreamCloseMode               streamCloseMode;
     private final StreamFlushMode               streamFlushMode;
     private final PreallocationMode             preallocationMode;
@@ -594,13 +598,32 @@ import java.util.NoSuchElementException;
                                    final PreallocationMode preallocationMode,
                                    final boolean isFloatBinary32Enabled)
                                    throws IOException
+    {
+        this(provider, blockSize, out, null, optimization, streamCloseMode, streamFlushMode, preallocationMode, isFloatBinary32Enabled);
+    }
+
+    /**
+     * Constructs a writer over either a stream or, when {@code out} is null, a {@link ChannelOutput} that
+     * is handed views of our blocks instead of a copy of their contents.
+     */
+    /*package*/ IonRawBinaryWriter(final BlockAllocatorProvider provider,
+                                   final int blockSize,
+                                   final OutputStream out,
+                                   final ChannelOutput channelOut,
+                                   final WriteValueOptimization optimization,
+                                   final StreamCloseMode streamCloseMode,
+                                   final StreamFlushMode streamFlushMode,
+                                   final PreallocationMode preallocationMode,
+                                   final boolean isFloatBinary32Enabled)
+                                   throws IOException
     {
         super(optimization);
 
-        if (out == null) { throw new NullPointerException(); }
+        if (out == null && channelOut == null) { throw new NullPointerException(); }
 
         this.allocator         = provider.vendAllocator(blockSize);
         this.out               = out;
+        this.channelOut        = channelOut;
         this.streamCloseMode   = streamCloseMode;
         this.streamFlushMode   = streamFlushMode;
         this.preallocationMode = preallocationMode;
@@ -1139,6 +1162,24 @@ import java.util.NoSuchElementException;
         buffer.writeBytes(data, offset, length);
     }
 
+    private void writeTypedBytes(final int type, final InputStream source, final int length) throws IOException
+    {
+        int totalLength = 1 + length;
+        if (length < 14)
+        {
+            buffer.writeUInt8(type | length);
+        }
+        else
+        {
+            // need to specify length explicitly
+            buffer.writeUInt8(type | 0xE);
+            final int sizeLength = buffer.writeVarUInt(length);
+            totalLength += sizeLength;
+        }
+        updateLength(totalLength);
+        buffer.writeBytes(source, length);
+    }
+
     public void writeInt(BigInteger value) throws IOException
     {
         if (value == null)
@@ -1199,64 +1240,15 @@ import java.util.NoSuchElementException;
         if (mantissaBigInt.compareTo(BIG_INT_LONG_MIN_VALUE) >= 0 && mantissaBigInt.compareTo(BIG_INT_LONG_MAX_VALUE) <= 0)
         {
             // we can fit into the long space
-            final long mantissa = mantissaBigInt.longValue();
-            if (signum == 0 && !isNegZero)
-            {
-                // positive zero does not need to be encoded
-            }
-            else if (isNegZero)
+            if (isNegZero)
             {
                 // XXX special case for negative zero, we have to encode as a signed zero in the Int format
                 updateLength(1);
                 buffer.writeByte(DECIMAL_NEGATIVE_ZERO_MANTISSA);
             }
-            else if (mantissa == Long.MIN_VALUE)
-            {
-                // XXX special case for min value -- we need 64-bits to store the magnitude and we need a bit for sign
-                updateLength(9);
-                buffer.writeUInt8(0x80);
-                buffer.writeUInt64(mantissa);
-            }
-            else if (mantissa >= 0xFFFFFFFFFFFFFF81L && mantissa <= 0x000000000000007FL)
-            {
-                updateLength(1);
-                buffer.writeInt8(mantissa);
-            }
-            else if (mantissa >= 0xFFFFFFFFFFFF8001L && mantissa <= 0x0000000000007FFFL)
-            {
-                updateLength(2);
-                buffer.writeInt16(mantissa);
-            }
-            else if (mantissa >= 0xFFFFFFFFFF800001L && mantissa <= 0x00000000007FFFFFL)
-            {
-                updateLength(3);
-                buffer.writeInt24(mantissa);
-            }
-            else if (mantissa >= 0xFFFFFFFF80000001L && mantissa <= 0x000000007FFFFFFFL)
-            {
-                updateLength(4);
-                buffer.writeInt32(mantissa);
-            }
-            else if (mantissa >= 0xFFFFFF8000000001L && mantissa <= 0x0000007FFFFFFFFFL)
-            {
-                updateLength(5);
-                buffer.writeInt40(mantissa);
-            }
-            else if (mantissa >= 0xFFFF800000000001L && mantissa <= 0x00007FFFFFFFFFFFL)
-            {
-                updateLength(6);
-                buffer.writeInt48(mantissa);
-            }
-            else if (mantissa >= 0xFF80000000000001L && mantissa <= 0x007FFFFFFFFFFFFFL)
-            {
-                updateLength(7);
-                buffer.writeInt56(mantissa);
-            }
             else
             {
-                // TODO consider being more space efficient for integers that can be written with 6/7 bytes.
-                updateLength(8);
-                buffer.writeInt64(mantissa);
+                writeDecimalMantissa(mantissaBigInt.longValue());
             }
         }
         else
@@ -1281,6 +1273,63 @@ import java.util.NoSuchElementException;
         }
     }
 
+    /** Encodes the coefficient of a decimal as a signed Int, writing nothing for zero. */
+    private void writeDecimalMantissa(final long mantissa)
+    {
+        if (mantissa == 0)
+        {
+            // positive zero does not need to be encoded
+        }
+        else if (mantissa == Long.MIN_VALUE)
+        {
+            // XXX special case for min value -- we need 64-bits to store the magnitude and we need a bit for sign
+            updateLength(9);
+            buffer.writeUInt8(0x80);
+            buffer.writeUInt64(mantissa);
+        }
+        else if (mantissa >= 0xFFFFFFFFFFFFFF81L && mantissa <= 0x000000000000007FL)
+        {
+            updateLength(1);
+            buffer.writeInt8(mantissa);
+        }
+        else if (mantissa >= 0xFFFFFFFFFFFF8001L && mantissa <= 0x0000000000007FFFL)
+        {
+            updateLength(2);
+            buffer.writeInt16(mantissa);
+        }
+        else if (mantissa >= 0xFFFFFFFFFF800001L && mantissa <= 0x00000000007FFFFFL)
+        {
+            updateLength(3);
+            buffer.writeInt24(mantissa);
+        }
+        else if (mantissa >= 0xFFFFFFFF80000001L && mantissa <= 0x000000007FFFFFFFL)
+        {
+            updateLength(4);
+            buffer.writeInt32(mantissa);
+        }
+        else if (mantissa >= 0xFFFFFF8000000001L && mantissa <= 0x0000007FFFFFFFFFL)
+        {
+            updateLength(5);
+            buffer.writeInt40(mantissa);
+        }
+        else if (mantissa >= 0xFFFF800000000001L && mantissa <= 0x00007FFFFFFFFFFFL)
+        {
+            updateLength(6);
+            buffer.writeInt48(mantissa);
+        }
+        else if (mantissa >= 0xFF80000000000001L && mantissa <= 0x007FFFFFFFFFFFFFL)
+        {
+            updateLength(7);
+            buffer.writeInt56(mantissa);
+        }
+        else
+        {
+            // TODO consider being more space efficient for integers that can be written with 6/7 bytes.
+            updateLength(8);
+            buffer.writeInt64(mantissa);
+        }
+    }
+
     private void patchSingleByteTypedOptimisticValue(final byte type, final ContainerInfo info)
     {
         if (info.length <= 0xD)
@@ -1326,6 +1375,30 @@ import java.util.NoSuchElementException;
         finishValue();
     }
 
+    public void writeDecimal(final long unscaledValue, final int exponent) throws IOException
+    {
+        prepareValue();
+
+        if (unscaledValue == 0 && exponent == 0)
+        {
+            // 0d0 can be written in one byte
+            updateLength(1);
+            buffer.writeUInt8(DECIMAL_POS_ZERO);
+        }
+        else
+        {
+            updateLength(1);
+            pushContainer(ContainerType.VALUE);
+            buffer.writeByte(DECIMAL_TYPE);
+            writeVarInt(exponent);
+            writeDecimalMantissa(unscaledValue);
+            final ContainerInfo info = popContainer();
+            patchSingleByteTypedOptimisticValue(DECIMAL_TYPE, info);
+        }
+
+        finishValue();
+    }
+
     public void writeTimestamp(final Timestamp value) throws IOException
     {
         if (value == null)
@@ -1397,6 +1470,71 @@ import java.util.NoSuchElementException;
         finishValue();
     }
 
+    public void writeTimestamp(final long epochMillis, final int localOffset) throws IOException
+    {
+        final long epochSecond = _Private_EpochTime.floorDiv(epochMillis, 1000);
+        _Private_EpochTime.checkTimestamp(epochSecond, 0, localOffset);
+        // as with Timestamp.forMillis, there are always three digits of fractional seconds
+        writeTimestampValue(epochSecond, (int) (epochMillis - epochSecond * 1000), -3, localOffset);
+    }
+
+    public void writeTimestamp(final long epochSecond, final int nanos, final int localOffset) throws IOException
+    {
+        _Private_EpochTime.checkTimestamp(epochSecond, nanos, localOffset);
+        // as with Timestamp.forEpochSecond, nanoseconds are only written when there are any
+        if (nanos == 0)
+        {
+            writeTimestampValue(epochSecond, 0, -3, localOffset);
+        }
+        else
+        {
+            writeTimestampValue(epochSecond, nanos, -9, localOffset);
+        }
+    }
+
+    /** Encodes a timestamp with fractional seconds from its UTC epoch second, without creating a Timestamp. */
+    private void writeTimestampValue(final long epochSecond,
+                                     final int fraction,
+                                     final int fractionExponent,
+                                     final int localOffset) throws IOException
+    {
+        prepareValue();
+
+        // optimistically try to fit a timestamp length in low nibble (most should)
+        updateLength(1);
+        pushContainer(ContainerType.VALUE);
+        buffer.writeByte(TIMESTAMP_TYPE);
+
+        // OFFSET
+        if (localOffset == TimestampValueReader.UNKNOWN_LOCAL_OFFSET)
+        {
+            // special case for unknown -00:00
+            updateLength(1);
+            buffer.writeByte(VARINT_NEG_ZERO);
+        }
+        else
+        {
+            writeVarInt(localOffset);
+        }
+
+        final long epochDay = _Private_EpochTime.epochDayOf(epochSecond);
+        final int date = _Private_EpochTime.dateOf(epochDay);
+        final int secondOfDay = (int) (epochSecond - epochDay * _Private_EpochTime.SECONDS_PER_DAY);
+        writeVarUInt(_Private_EpochTime.yearOf(date));
+        writeVarUInt(_Private_EpochTime.monthOf(date));
+        writeVarUInt(_Private_EpochTime.dayOf(date));
+        writeVarUInt(secondOfDay / 3600);
+        writeVarUInt((secondOfDay / 60) % 60);
+        writeVarUInt(secondOfDay % 60);
+        writeVarInt(fractionExponent);
+        writeDecimalMantissa(fraction);
+
+        final ContainerInfo info = popContainer();
+        patchSingleByteTypedOptimisticValue(TIMESTAMP_TYPE, info);
+
+        finishValue();
+    }
+
     public void writeSymbol(String content) throws IOException
     {
         throw new UnsupportedOperationException("Symbol writing via string is not supported in low-level binary writer");
@@ -1573,6 +1711,40 @@ import java.util.NoSuchElementException;
         finishValue();
     }
 
+    public void writeClob(final InputStream source, final int length) throws IOException
+    {
+        if (source == null)
+        {
+            writeNull(IonType.CLOB);
+            return;
+        }
+        checkLobLength(length);
+        prepareValue();
+        writeTypedBytes(CLOB_TYPE, source, length);
+        finishValue();
+    }
+
+    public void writeBlob(final InputStream source, final int length) throws IOException
+    {
+        if (source == null)
+        {
+            writeNull(IonType.BLOB);
+            return;
+        }
+        checkLobLength(length);
+        prepareValue();
+        writeTypedBytes(BLOB_TYPE, source, length);
+        finishValue();
+    }
+
+    private static void checkLobLength(final int length)
+    {
+        if (length < 0)
+        {
+            throw new IllegalArgumentException("negative lob length: " + length);
+        }
+    }
+
     @Override
     public void writeString(byte[] data, int offset, int length) throws IOException
     {
@@ -1625,6 +1797,22 @@ import java.util.NoSuchElementException;
         {
             return;
         }
+        emitFinishedData();
+        if (channelOut != null)
+        {
+            channelOut.write();
+        }
+        resetFinishedData();
+    }
+
+    /**
+     * Hands everything written since the last finish to the output, with the container lengths patched in.
+     * <p>
+     * A {@link ChannelOutput} only queues views of our blocks, so {@link ChannelOutput#write()} must be called
+     * before {@link #resetFinishedData()} returns the blocks to the allocator.
+     */
+    /*package*/ void emitFinishedData() throws IOException
+    {
         if (!containers.isEmpty() || depth > 0)
         {
             throw new IllegalStateException("Cannot finish within container: " + containers);
@@ -1633,7 +1821,14 @@ import java.util.NoSuchElementException;
         if (patchPoints.isEmpty())
         {
             // nothing to patch--write 'em out!
-            buffer.writeTo(out);
+            if (channelOut != null)
+            {
+                buffer.writeTo(channelOut);
+            }
+            else
+            {
+                buffer.writeTo(out);
+            }
         }
         else
         {
@@ -1642,22 +1837,39 @@ import java.util.NoSuchElementException;
             {
                 // write up to the thing to be patched
                 final long bufferLength = patch.oldPosition - bufferPosition;
-                buffer.writeTo(out, bufferPosition, bufferLength);
+                emit(buffer, bufferPosition, bufferLength);
 
                 // write out the patch
-                patchBuffer.writeTo(out, patch.patchPosition, patch.patchLength);
+                emit(patchBuffer, patch.patchPosition, patch.patchLength);
 
                 // skip over the preallocated varuint field
                 bufferPosition = patch.oldPosition;
                 bufferPosition += patch.oldLength;
             }
-            buffer.writeTo(out, bufferPosition, buffer.position() - bufferPosition);
+            emit(buffer, bufferPosition, buffer.position() - bufferPosition);
+        }
+    }
+
+    private void emit(final WriteBuffer source, final long position, final long length) throws IOException
+    {
+        if (channelOut != null)
+        {
+            source.writeTo(channelOut, position, length);
         }
+        else
+        {
+            source.writeTo(out, position, length);
+        }
+    }
+
+    /** Discards the data handed out by {@link #emitFinishedData()} and flushes the stream if configured to. */
+    /*package*/ void resetFinishedData() throws IOException
+    {
         patchPoints.clear();
         patchBuffer.reset();
         buffer.reset();
 
-        if (streamFlushMode == StreamFlushMode.FLUSH)
+        if (streamFlushMode == StreamFlushMode.FLUSH && out != null)
         {
             out.flush();
         }
@@ -1693,7 +1905,14 @@ import java.util.NoSuchElementException;
             if (streamCloseMode == StreamCloseMode.CLOSE)
             {
                 // release the stream
-                out.close();
+                if (channelOut != null)
+                {
+                    channelOut.close();
+                }
+                else
+                {
+                    out.close();
+                }
             }
         }
     }
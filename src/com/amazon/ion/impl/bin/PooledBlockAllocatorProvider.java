@@ -15,14 +15,21 @@
 
 package com.amazon.ion.impl.bin;
 
+import java.nio.ByteBuffer;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * A simple pooling implementation of {@link BlockAllocatorProvider} with a global thread-safe free block list
  * for each block size.
  * <p>
+ * Blocks are backed by heap arrays by default. A provider constructed for direct blocks backs them with direct
+ * (off-heap) buffers instead, so large amounts of buffered data stay out of the garbage collected heap and can be
+ * handed to NIO channels without being copied into a temporary direct buffer first. Direct memory is costly to
+ * allocate, which makes pooling it all the more important.
+ * <p>
  * This implementation is thread-safe.
  */
 /*package*/ final class PooledBlockAllocatorProvider extends BlockAllocatorProvider
@@ -36,12 +43,15 @@ import java.util.concurrent.ConcurrentMap;
     {
         private final int blockSize, blockLimit;
         private final ConcurrentLinkedQueue<Block> freeBlocks;
+        // ConcurrentLinkedQueue.size() walks the whole queue, so the free list size is tracked separately
+        private final AtomicInteger freeCount;
         static final int FREE_CAPACITY = 1024 * 1024 * 64; // 64MB
 
         public PooledBlockAllocator(final int blockSize)
         {
             this.blockSize = blockSize;
             this.freeBlocks = new ConcurrentLinkedQueue<Block>();
+            this.freeCount = new AtomicInteger();
             this.blockLimit = FREE_CAPACITY / blockSize;
         }
 
@@ -49,17 +59,25 @@ import java.util.concurrent.ConcurrentMap;
         public Block allocateBlock()
         {
             Block block = freeBlocks.poll();
-            if (block == null)
+            if (block != null)
+            {
+                freeCount.decrementAndGet();
+            }
+            else
             {
-                block = new Block(new byte[blockSize])
+                block = new Block(direct ? ByteBuffer.allocateDirect(blockSize) : ByteBuffer.wrap(new byte[blockSize]))
                 {
                     @Override
                     public void close()
                     {
-                        if (freeBlocks.size() < blockLimit) {
+                        // reserve a slot before publishing the block so the free list never exceeds its limit
+                        if (freeCount.incrementAndGet() <= blockLimit) {
                             reset();
                             freeBlocks.add(this);
                         }
+                        else {
+                            freeCount.decrementAndGet();
+                        }
                     }
                 };
             }
@@ -77,10 +95,20 @@ import java.util.concurrent.ConcurrentMap;
     }
 
     private final ConcurrentMap<Integer, BlockAllocator> allocators;
+    private final boolean direct;
 
     public PooledBlockAllocatorProvider()
+    {
+        this(false);
+    }
+
+    /**
+     * @param direct whether blocks are backed by direct (off-heap) buffers rather than heap arrays.
+     */
+    public PooledBlockAllocatorProvider(final boolean direct)
     {
         allocators = new ConcurrentHashMap<Integer, BlockAllocator>();
+        this.direct = direct;
     }
 
     @Override
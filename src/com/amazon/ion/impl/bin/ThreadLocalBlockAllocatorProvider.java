@@ -0,0 +1,172 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl.bin;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A pooling implementation of {@link BlockAllocatorProvider} that keeps a small cache of free blocks per thread
+ * in front of a bounded global free list for each block size.
+ * <p>
+ * Writers generally allocate and release their blocks on one thread, so most allocations are served from the
+ * thread's own cache without touching shared state. Blocks released while that cache is full overflow into the
+ * global free list, whose size is tracked by a counter rather than by walking the queue; blocks released while
+ * the global free list is full are left to the garbage collector.
+ * <p>
+ * This implementation is thread-safe.
+ */
+/*package*/ final class ThreadLocalBlockAllocatorProvider extends BlockAllocatorProvider
+{
+    /** The default capacity of each thread's cache for a block size. */
+    static final int LOCAL_CAPACITY = 1024 * 1024; // 1MB
+    /** The default capacity of the global free list for a block size. */
+    static final int GLOBAL_CAPACITY = 1024 * 1024 * 64; // 64MB
+
+    /**
+     * A {@link BlockAllocator} for a particular size with a free list per thread backed by a global one.
+     * <p>
+     * This implementation is thread-safe.
+     */
+    private final class ThreadLocalBlockAllocator extends BlockAllocator
+    {
+        private final int blockSize, localLimit, globalLimit;
+        private final ThreadLocal<ArrayDeque<Block>> localBlocks;
+        private final ConcurrentLinkedQueue<Block> globalBlocks;
+        private final AtomicInteger globalCount;
+
+        public ThreadLocalBlockAllocator(final int blockSize)
+        {
+            this.blockSize = blockSize;
+            this.localLimit = Math.max(1, localCapacity / blockSize);
+            this.globalLimit = globalCapacity / blockSize;
+            this.localBlocks = new ThreadLocal<ArrayDeque<Block>>()
+            {
+                @Override
+                protected ArrayDeque<Block> initialValue()
+                {
+                    return new ArrayDeque<Block>();
+                }
+            };
+            this.globalBlocks = new ConcurrentLinkedQueue<Block>();
+            this.globalCount = new AtomicInteger();
+        }
+
+        @Override
+        public Block allocateBlock()
+        {
+            // most recently released first, as it is the most likely to still be in the CPU cache
+            Block block = localBlocks.get().pollLast();
+            if (block == null)
+            {
+                block = globalBlocks.poll();
+                if (block != null)
+                {
+                    globalCount.decrementAndGet();
+                }
+                else
+                {
+                    block = new Block(new byte[blockSize])
+                    {
+                        @Override
+                        public void close()
+                        {
+                            reset();
+                            release(this);
+                        }
+                    };
+                }
+            }
+            return block;
+        }
+
+        private void release(final Block block)
+        {
+            final ArrayDeque<Block> local = localBlocks.get();
+            if (local.size() < localLimit)
+            {
+                local.addLast(block);
+            }
+            // reserve a slot before publishing the block so the global list never exceeds its limit
+            else if (globalCount.incrementAndGet() <= globalLimit)
+            {
+                globalBlocks.add(block);
+            }
+            else
+            {
+                globalCount.decrementAndGet();
+            }
+        }
+
+        @Override
+        public int getBlockSize()
+        {
+            return blockSize;
+        }
+
+        @Override
+        public void close() {}
+    }
+
+    private final ConcurrentMap<Integer, BlockAllocator> allocators;
+    private final int localCapacity;
+    private final int globalCapacity;
+
+    public ThreadLocalBlockAllocatorProvider()
+    {
+        this(LOCAL_CAPACITY, GLOBAL_CAPACITY);
+    }
+
+    /**
+     * @param localCapacity the number of bytes of free blocks each thread may cache per block size;
+     *                      at least one block is always cached.
+     * @param globalCapacity the number of bytes of free blocks the global free list may hold per block size.
+     */
+    public ThreadLocalBlockAllocatorProvider(final int localCapacity, final int globalCapacity)
+    {
+        if (localCapacity < 0 || globalCapacity < 0)
+        {
+            throw new IllegalArgumentException("Invalid capacity: " + localCapacity + ", " + globalCapacity);
+        }
+        this.allocators = new ConcurrentHashMap<Integer, BlockAllocator>();
+        this.localCapacity = localCapacity;
+        this.globalCapacity = globalCapacity;
+    }
+
+    @Override
+    public BlockAllocator vendAllocator(final int blockSize)
+    {
+        if (blockSize <= 0)
+        {
+            throw new IllegalArgumentException("Invalid block size: " + blockSize);
+        }
+
+        BlockAllocator allocator = allocators.get(blockSize);
+        if (allocator == null)
+        {
+            allocator = new ThreadLocalBlockAllocator(blockSize);
+            final BlockAllocator existingAllocator = allocators.putIfAbsent(blockSize, allocator);
+            if (existingAllocator != null)
+            {
+                allocator = existingAllocator;
+            }
+        }
+        return allocator;
+    }
+}
@@ -16,8 +16,12 @@
 package com.amazon.ion.impl.bin;
 
 import java.io.Closeable;
+import java.io.EOFException;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -30,6 +34,7 @@ import java.util.List;
     private final List<Block> blocks;
     private Block current;
     private int index;
+    private byte[] transferArray;
 
     public WriteBuffer(final BlockAllocator allocator)
     {
@@ -48,6 +53,18 @@ import java.util.List;
         blocks.add(allocator.allocateBlock());
     }
 
+    private static final int MAX_TRANSFER_SIZE = 8192;
+
+    /** Returns a scratch array for moving data between streams and off-heap blocks. */
+    private byte[] transferBuffer()
+    {
+        if (transferArray == null)
+        {
+            transferArray = new byte[Math.min(allocator.getBlockSize(), MAX_TRANSFER_SIZE)];
+        }
+        return transferArray;
+    }
+
     /** Returns the block index for the given position. */
     private int index(final long position)
     {
@@ -112,7 +129,7 @@ import java.util.List;
         final int index = index(position);
         final int offset = offset(position);
         final Block block = blocks.get(index);
-        return block.data[offset] & OCTET_MASK;
+        return block.data.get(offset) & OCTET_MASK;
     }
 
     /** Writes a single octet to the buffer, expanding if necessary. */
@@ -128,10 +145,23 @@ import java.util.List;
             current = blocks.get(index);
         }
         final Block block = current;
-        block.data[block.limit] = octet;
+        block.data.put(block.limit, octet);
         block.limit++;
     }
 
+    private static void putBytes(final Block block, final byte[] bytes, final int off, final int len)
+    {
+        final ByteBuffer data = block.data;
+        if (data.hasArray())
+        {
+            System.arraycopy(bytes, off, data.array(), data.arrayOffset() + block.limit, len);
+            return;
+        }
+        // go through Buffer so the call links against the Java 6 signature
+        ((Buffer) data).position(block.limit);
+        data.put(bytes, off, len);
+    }
+
     // slow in the sense that we do all kind of block boundary checking
     private void writeBytesSlow(final byte[] bytes, int off, int len)
     {
@@ -139,7 +169,7 @@ import java.util.List;
         {
             final Block block = current;
             final int amount = Math.min(len, block.remaining());
-            System.arraycopy(bytes, off, block.data, block.limit, amount);
+            putBytes(block, bytes, off, amount);
             block.limit += amount;
             off += amount;
             len -= amount;
@@ -166,7 +196,7 @@ import java.util.List;
         }
 
         final Block block = current;
-        System.arraycopy(bytes, off, block.data, block.limit, len);
+        putBytes(block, bytes, off, len);
         block.limit += len;
     }
 
@@ -176,6 +206,47 @@ import java.util.List;
         writeBytes(bytes, 0, bytes.length);
     }
 
+    /** Reads exactly {@code len} bytes from a stream directly into the buffer, expanding if necessary. */
+    public void writeBytes(final InputStream in, int len) throws IOException
+    {
+        while (len > 0)
+        {
+            if (current.remaining() == 0)
+            {
+                if (index == blocks.size() - 1)
+                {
+                    allocateNewBlock();
+                }
+                index++;
+                current = blocks.get(index);
+            }
+            final Block block = current;
+            final int amount = readBytes(in, block, Math.min(len, block.remaining()));
+            if (amount < 0)
+            {
+                throw new EOFException("stream ended with " + len + " bytes left to read");
+            }
+            block.limit += amount;
+            len -= amount;
+        }
+    }
+
+    private int readBytes(final InputStream in, final Block block, final int len) throws IOException
+    {
+        final ByteBuffer data = block.data;
+        if (data.hasArray())
+        {
+            return in.read(data.array(), data.arrayOffset() + block.limit, len);
+        }
+        final byte[] transfer = transferBuffer();
+        final int amount = in.read(transfer, 0, Math.min(len, transfer.length));
+        if (amount > 0)
+        {
+            putBytes(block, transfer, 0, amount);
+        }
+        return amount;
+    }
+
     // UTF-8 character writing
 
     private static final char HIGH_SURROGATE_FIRST      = 0xD800;
@@ -270,6 +341,7 @@ import java.util.List;
         }
 
         final Block block = current;
+        final ByteBuffer data = block.data;
         int limit = block.limit;
         int octets = 0;
         while (len > 0)
@@ -287,20 +359,20 @@ import java.util.List;
 
             if (ch < UTF8_2_OCTET_MIN_VALUE)
             {
-                block.data[limit++] = (byte) ch;
+                data.put(limit++, (byte) ch);
                 octets++;
             }
             else if (ch < UTF8_3_OCTET_MIN_VALUE)
             {
-                block.data[limit++] = (byte) (UTF8_2_OCTET_PREFIX_MASK | (ch >> UTF8_2_OCTET_SHIFT)                    );
-                block.data[limit++] = (byte) (UTF8_FOLLOW_PREFIX_MASK  | (ch                        & UTF8_FOLLOW_MASK));
+                data.put(limit++, (byte) (UTF8_2_OCTET_PREFIX_MASK | (ch >> UTF8_2_OCTET_SHIFT)                    ));
+                data.put(limit++, (byte) (UTF8_FOLLOW_PREFIX_MASK  | (ch                        & UTF8_FOLLOW_MASK)));
                 octets += 2;
             }
             else
             {
-                block.data[limit++] = (byte) (UTF8_3_OCTET_PREFIX_MASK | ( ch >> UTF8_3_OCTET_SHIFT)                    );
-                block.data[limit++] = (byte) (UTF8_FOLLOW_PREFIX_MASK  | ((ch >> UTF8_2_OCTET_SHIFT) & UTF8_FOLLOW_MASK));
-                block.data[limit++] = (byte) (UTF8_FOLLOW_PREFIX_MASK  | ( ch                        & UTF8_FOLLOW_MASK));
+                data.put(limit++, (byte) (UTF8_3_OCTET_PREFIX_MASK | ( ch >> UTF8_3_OCTET_SHIFT)                    ));
+                data.put(limit++, (byte) (UTF8_FOLLOW_PREFIX_MASK  | ((ch >> UTF8_2_OCTET_SHIFT) & UTF8_FOLLOW_MASK)));
+                data.put(limit++, (byte) (UTF8_FOLLOW_PREFIX_MASK  | ( ch                        & UTF8_FOLLOW_MASK)));
                 octets += 3;
             }
             off++;
@@ -325,6 +397,7 @@ import java.util.List;
         }
 
         final Block block = current;
+        final ByteBuffer data = block.data;
         int limit = block.limit;
         char ch = '\0';
         int octets = 0;
@@ -339,13 +412,13 @@ import java.util.List;
 
             if (ch < UTF8_2_OCTET_MIN_VALUE)
             {
-                block.data[limit++] = (byte) ch;
+                data.put(limit++, (byte) ch);
                 octets++;
             }
             else
             {
-                block.data[limit++] = (byte) (UTF8_2_OCTET_PREFIX_MASK | (ch >> UTF8_2_OCTET_SHIFT)                    );
-                block.data[limit++] = (byte) (UTF8_FOLLOW_PREFIX_MASK  | (ch                        & UTF8_FOLLOW_MASK));
+                data.put(limit++, (byte) (UTF8_2_OCTET_PREFIX_MASK | (ch >> UTF8_2_OCTET_SHIFT)                    ));
+                data.put(limit++, (byte) (UTF8_FOLLOW_PREFIX_MASK  | (ch                        & UTF8_FOLLOW_MASK)));
                 octets += 2;
             }
             off++;
@@ -371,36 +444,61 @@ import java.util.List;
         return octets;
     }
 
-    /** Returns the number of octets written. */
-    public int writeUTF8(final CharSequence chars, int off, int len)
+    /** Writes the leading run of ASCII characters into the block, which must have room for all of them. */
+    private static int writeASCIIRun(final Block block, final CharSequence chars, final int off, final int len)
     {
-        // fast path if we fit in the block assuming optimistically for all ASCII
-        if (len > remaining())
+        final ByteBuffer data = block.data;
+        final int limit = block.limit;
+        int count = 0;
+        if (data.hasArray())
         {
-            return writeUTF8Slow(chars, off, len);
+            // this loop dominates text heavy data, so heap blocks skip the buffer's per-byte index checks
+            final byte[] array = data.array();
+            final int base = data.arrayOffset() + limit;
+            while (count < len)
+            {
+                final char ch = chars.charAt(off + count);
+                if (ch >= UTF8_2_OCTET_MIN_VALUE)
+                {
+                    break;
+                }
+                array[base + count] = (byte) ch;
+                count++;
+            }
         }
-        final Block block = current;
-        int limit = block.limit;
-        char ch = '\0';
-        int octets = 0;
-        while (len > 0)
+        else
         {
-            ch = chars.charAt(off);
-            if (ch >= UTF8_2_OCTET_MIN_VALUE)
+            while (count < len)
             {
-                // we lost the ASCII bet
-                break;
+                final char ch = chars.charAt(off + count);
+                if (ch >= UTF8_2_OCTET_MIN_VALUE)
+                {
+                    break;
+                }
+                data.put(limit + count, (byte) ch);
+                count++;
             }
+        }
+        block.limit = limit + count;
+        return count;
+    }
 
-            block.data[limit++] = (byte) ch;
-            octets++;
-            off++;
-            len--;
+    /** Returns the number of octets written. */
+    public int writeUTF8(final CharSequence chars, int off, int len)
+    {
+        // fast path if we fit in the block assuming optimistically for all ASCII
+        if (len > remaining())
+        {
+            return writeUTF8Slow(chars, off, len);
         }
-        block.limit = limit;
+        final int octets = writeASCIIRun(current, chars, off, len);
+        off += octets;
+        len -= octets;
 
         if (len > 0)
         {
+            // we lost the ASCII bet
+            final char ch = chars.charAt(off);
             if (ch < UTF8_3_OCTET_MIN_VALUE)
             {
                 return octets + writeUTF8UpTo2Byte(chars, off, len);
@@ -458,11 +556,10 @@ import java.util.List;
         }
 
         final Block block = current;
-        final byte[] data = block.data;
-        int limit = block.limit;
-        data[limit++] = (byte) (value >> UINT_2_OCTET_SHIFT);
-        data[limit++] = (byte) (value                      );
-        block.limit = limit;
+        final ByteBuffer data = block.data;
+        final int limit = block.limit;
+        data.putShort(limit, (short) value);
+        block.limit = limit + 2;
     }
 
     private void writeUInt24Slow(long value)
@@ -481,12 +578,11 @@ import java.util.List;
         }
 
         final Block block = current;
-        final byte[] data = block.data;
-        int limit = block.limit;
-        data[limit++] = (byte) (value >> UINT_3_OCTET_SHIFT);
-        data[limit++] = (byte) (value >> UINT_2_OCTET_SHIFT);
-        data[limit++] = (byte) (value                      );
-        block.limit = limit;
+        final ByteBuffer data = block.data;
+        final int limit = block.limit;
+        data.put(limit, (byte) (value >> UINT_3_OCTET_SHIFT));
+        data.putShort(limit + 1, (short) value);
+        block.limit = limit + 3;
     }
 
     private void writeUInt32Slow(long value)
@@ -506,13 +602,10 @@ import java.util.List;
         }
 
         final Block block = current;
-        final byte[] data = block.data;
-        int limit = block.limit;
-        data[limit++] = (byte) (value >> UINT_4_OCTET_SHIFT);
-        data[limit++] = (byte) (value >> UINT_3_OCTET_SHIFT);
-        data[limit++] = (byte) (value >> UINT_2_OCTET_SHIFT);
-        data[limit++] = (byte) (value                      );
-        block.limit = limit;
+        final ByteBuffer data = block.data;
+        final int limit = block.limit;
+        data.putInt(limit, (int) value);
+        block.limit = limit + 4;
     }
 
     private void writeUInt40Slow(long value)
@@ -533,14 +626,11 @@ import java.util.List;
         }
 
         final Block block = current;
-        final byte[] data = block.data;
-        int limit = block.limit;
-        data[limit++] = (byte) (value >> UINT_5_OCTET_SHIFT);
-        data[limit++] = (byte) (value >> UINT_4_OCTET_SHIFT);
-        data[limit++] = (byte) (value >> UINT_3_OCTET_SHIFT);
-        data[limit++] = (byte) (value >> UINT_2_OCTET_SHIFT);
-        data[limit++] = (byte) (value                      );
-        block.limit = limit;
+        final ByteBuffer data = block.data;
+        final int limit = block.limit;
+        data.put(limit, (byte) (value >> UINT_5_OCTET_SHIFT));
+        data.putInt(limit + 1, (int) value);
+        block.limit = limit + 5;
     }
 
     private void writeUInt48Slow(long value)
@@ -562,15 +652,11 @@ import java.util.List;
         }
 
         final Block block = current;
-        final byte[] data = block.data;
-        int limit = block.limit;
-        data[limit++] = (byte) (value >> UINT_6_OCTET_SHIFT);
-        data[limit++] = (byte) (value >> UINT_5_OCTET_SHIFT);
-        data[limit++] = (byte) (value >> UINT_4_OCTET_SHIFT);
-        data[limit++] = (byte) (value >> UINT_3_OCTET_SHIFT);
-        data[limit++] = (byte) (value >> UINT_2_OCTET_SHIFT);
-        data[limit++] = (byte) ( value                     );
-        block.limit = limit;
+        final ByteBuffer data = block.data;
+        final int limit = block.limit;
+        data.putShort(limit, (short) (value >> UINT_5_OCTET_SHIFT));
+        data.putInt(limit + 2, (int) value);
+        block.limit = limit + 6;
     }
 
     private void writeUInt56Slow(long value)
@@ -593,16 +679,12 @@ import java.util.List;
         }
 
         final Block block = current;
-        final byte[] data = block.data;
-        int limit = block.limit;
-        data[limit++] = (byte) (value >> UINT_7_OCTET_SHIFT);
-        data[limit++] = (byte) (value >> UINT_6_OCTET_SHIFT);
-        data[limit++] = (byte) (value >> UINT_5_OCTET_SHIFT);
-        data[limit++] = (byte) (value >> UINT_4_OCTET_SHIFT);
-        data[limit++] = (byte) (value >> UINT_3_OCTET_SHIFT);
-        data[limit++] = (byte) (value >> UINT_2_OCTET_SHIFT);
-        data[limit++] = (byte) (value                      );
-        block.limit = limit;
+        final ByteBuffer data = block.data;
+        final int limit = block.limit;
+        data.put(limit, (byte) (value >> UINT_7_OCTET_SHIFT));
+        data.putShort(limit + 1, (short) (value >> UINT_5_OCTET_SHIFT));
+        data.putInt(limit + 3, (int) value);
+        block.limit = limit + 7;
     }
 
     private void writeUInt64Slow(long value)
@@ -626,17 +708,10 @@ import java.util.List;
         }
 
         final Block block = current;
-        final byte[] data = block.data;
-        int limit = block.limit;
-        data[limit++] = (byte) (value >> UINT_8_OCTET_SHIFT);
-        data[limit++] = (byte) (value >> UINT_7_OCTET_SHIFT);
-        data[limit++] = (byte) (value >> UINT_6_OCTET_SHIFT);
-        data[limit++] = (byte) (value >> UINT_5_OCTET_SHIFT);
-        data[limit++] = (byte) (value >> UINT_4_OCTET_SHIFT);
-        data[limit++] = (byte) (value >> UINT_3_OCTET_SHIFT);
-        data[limit++] = (byte) (value >> UINT_2_OCTET_SHIFT);
-        data[limit++] = (byte) ( value                      );
-        block.limit = limit;
+        final ByteBuffer data = block.data;
+        final int limit = block.limit;
+        data.putLong(limit, value);
+        block.limit = limit + 8;
 
 
     }
@@ -811,10 +886,10 @@ import java.util.List;
     private int writeVarUIntDirect2(final long value)
     {
         final Block block = current;
-        final byte[] data = block.data;
+        final ByteBuffer data = block.data;
         int limit = block.limit;
-        data[limit++] = (byte)  ((value >> VAR_UINT_2_OCTET_SHIFT) & VAR_INT_MASK);
-        data[limit++] = (byte) (((value)                           & VAR_INT_MASK) | VAR_INT_FINAL_OCTET_SIGNAL_MASK);
+        data.put(limit++, (byte)  ((value >> VAR_UINT_2_OCTET_SHIFT) & VAR_INT_MASK));
+        data.put(limit++, (byte) (((value)                           & VAR_INT_MASK) | VAR_INT_FINAL_OCTET_SIGNAL_MASK));
 
         block.limit = limit;
         return 2;
@@ -823,11 +898,11 @@ import java.util.List;
     private int writeVarUIntDirect3(final long value)
     {
         final Block block = current;
-        final byte[] data = block.data;
+        final ByteBuffer data = block.data;
         int limit = block.limit;
-        data[limit++] = (byte)  ((value >> VAR_UINT_3_OCTET_SHIFT) & VAR_INT_MASK);
-        data[limit++] = (byte)  ((value >> VAR_UINT_2_OCTET_SHIFT) & VAR_INT_MASK);
-        data[limit++] = (byte) (((value)                           & VAR_INT_MASK) | VAR_INT_FINAL_OCTET_SIGNAL_MASK);
+        data.put(limit++, (byte)  ((value >> VAR_UINT_3_OCTET_SHIFT) & VAR_INT_MASK));
+        data.put(limit++, (byte)  ((value >> VAR_UINT_2_OCTET_SHIFT) & VAR_INT_MASK));
+        data.put(limit++, (byte) (((value)                           & VAR_INT_MASK) | VAR_INT_FINAL_OCTET_SIGNAL_MASK));
 
         block.limit = limit;
         return 3;
@@ -836,12 +911,12 @@ import java.util.List;
     private int writeVarUIntDirect4(final long value)
     {
         final Block block = current;
-        final byte[] data = block.data;
+        final ByteBuffer data = block.data;
         int limit = block.limit;
-        data[limit++] = (byte)  ((value >> VAR_UINT_4_OCTET_SHIFT) & VAR_INT_MASK);
-        data[limit++] = (byte)  ((value >> VAR_UINT_3_OCTET_SHIFT) & VAR_INT_MASK);
-        data[limit++] = (byte)  ((value >> VAR_UINT_2_OCTET_SHIFT) & VAR_INT_MASK);
-        data[limit++] = (byte) (((value)                           & VAR_INT_MASK) | VAR_INT_FINAL_OCTET_SIGNAL_MASK);
+        data.put(limit++, (byte)  ((value >> VAR_UINT_4_OCTET_SHIFT) & VAR_INT_MASK));
+        data.put(limit++, (byte)  ((value >> VAR_UINT_3_OCTET_SHIFT) & VAR_INT_MASK));
+        data.put(limit++, (byte)  ((value >> VAR_UINT_2_OCTET_SHIFT) & VAR_INT_MASK));
+        data.put(limit++, (byte) (((value)                           & VAR_INT_MASK) | VAR_INT_FINAL_OCTET_SIGNAL_MASK));
 
         block.limit = limit;
         return 4;
@@ -850,13 +925,13 @@ import java.util.List;
     private int writeVarUIntDirect5(final long value)
     {
         final Block block = current;
-        final byte[] data = block.data;
+        final ByteBuffer data = block.data;
         int limit = block.limit;
-        data[limit++] = (byte)  ((value >> VAR_UINT_5_OCTET_SHIFT) & VAR_INT_MASK);
-        data[limit++] = (byte)  ((value >> VAR_UINT_4_OCTET_SHIFT) & VAR_INT_MASK);
-        data[limit++] = (byte)  ((value >> VAR_UINT_3_OCTET_SHIFT) & VAR_INT_MASK);
-        data[limit++] = (byte)  ((value >> VAR_UINT_2_OCTET_SHIFT) & VAR_INT_MASK);
-        data[limit++] = (byte) (((value)                           & VAR_INT_MASK) | VAR_INT_FINAL_OCTET_SIGNAL_MASK);
+        data.put(limit++, (byte)  ((value >> VAR_UINT_5_OCTET_SHIFT) & VAR_INT_MASK));
+        data.put(limit++, (byte)  ((value >> VAR_UINT_4_OCTET_SHIFT) & VAR_INT_MASK));
+        data.put(limit++, (byte)  ((value >> VAR_UINT_3_OCTET_SHIFT) & VAR_INT_MASK));
+        data.put(limit++, (byte)  ((value >> VAR_UINT_2_OCTET_SHIFT) & VAR_INT_MASK));
+        data.put(limit++, (byte) (((value)                           & VAR_INT_MASK) | VAR_INT_FINAL_OCTET_SIGNAL_MASK));
 
         block.limit = limit;
         return 5;
@@ -1038,9 +1113,9 @@ import java.util.List;
     {
         // XXX we're stradling a block
         final Block block1 = blocks.get(index);
-        block1.data[offset] = (byte) ((value >> VAR_UINT_2_OCTET_SHIFT) & VAR_INT_MASK);
+        block1.data.put(offset, (byte) ((value >> VAR_UINT_2_OCTET_SHIFT) & VAR_INT_MASK));
         final Block block2 = blocks.get(index + 1);
-        block2.data[0]      = (byte) ((value                            & VAR_INT_MASK) | VAR_INT_FINAL_OCTET_SIGNAL_MASK);
+        block2.data.put(0,           (byte) ((value                            & VAR_INT_MASK) | VAR_INT_FINAL_OCTET_SIGNAL_MASK));
     }
 
     public void writeVarUIntDirect2At(long position, long value)
@@ -1055,8 +1130,8 @@ import java.util.List;
         }
 
         final Block block = blocks.get(index);
-        block.data[offset    ] = (byte) ((value >> VAR_UINT_2_OCTET_SHIFT) & VAR_INT_MASK);
-        block.data[offset + 1] = (byte) ((value                            & VAR_INT_MASK) | VAR_INT_FINAL_OCTET_SIGNAL_MASK);
+        block.data.put(offset,     (byte) ((value >> VAR_UINT_2_OCTET_SHIFT) & VAR_INT_MASK));
+        block.data.put(offset + 1, (byte) ((value                            & VAR_INT_MASK) | VAR_INT_FINAL_OCTET_SIGNAL_MASK));
     }
 
     public void writeUInt8At(final long position, final long value)
@@ -1066,7 +1141,7 @@ import java.util.List;
 
         // XXX we'll never overrun a block unless we're given a position past our block array
         final Block block = blocks.get(index);
-        block.data[offset] = (byte) value;
+        block.data.put(offset, (byte) value);
     }
 
     /** Write the entire buffer to output stream. */
@@ -1075,7 +1150,28 @@ import java.util.List;
         for (int i = 0; i <= index; i++)
         {
             Block block = blocks.get(i);
-            out.write(block.data, 0, block.limit);
+            writeBlockTo(out, block, 0, block.limit);
+        }
+    }
+
+    private void writeBlockTo(final OutputStream out, final Block block, int offset, int length) throws IOException
+    {
+        final ByteBuffer data = block.data;
+        if (data.hasArray())
+        {
+            out.write(data.array(), data.arrayOffset() + offset, length);
+            return;
+        }
+        // off-heap blocks have to be staged through the heap for a stream
+        final byte[] transfer = transferBuffer();
+        while (length > 0)
+        {
+            final int amount = Math.min(length, transfer.length);
+            ((Buffer) data).position(offset);
+            data.get(transfer, 0, amount);
+            out.write(transfer, 0, amount);
+            offset += amount;
+            length -= amount;
         }
     }
 
@@ -1087,8 +1183,34 @@ import java.util.List;
             final int index = index(position);
             final int offset = offset(position);
             final Block block = blocks.get(index);
-            final int amount = (int) Math.min(block.data.length - offset, length);
-            out.write(block.data, offset, amount);
+            final int amount = (int) Math.min(block.capacity() - offset, length);
+            writeBlockTo(out, block, offset, amount);
+
+            position += amount;
+            length -= amount;
+        }
+    }
+
+    /** Queue all of the data in the buffer as views on a channel output. */
+    public void writeTo(final ChannelOutput out)
+    {
+        for (int i = 0; i <= index; i++)
+        {
+            Block block = blocks.get(i);
+            out.add(block.data, 0, block.limit);
+        }
+    }
+
+    /** Queue a specific segment of data from the buffer as views on a channel output. */
+    public void writeTo(final ChannelOutput out, long position, long length)
+    {
+        while (length > 0)
+        {
+            final int index = index(position);
+            final int offset = offset(position);
+            final Block block = blocks.get(index);
+            final int amount = (int) Math.min(block.capacity() - offset, length);
+            out.add(block.data, offset, amount);
 
             position += amount;
             length -= amount;
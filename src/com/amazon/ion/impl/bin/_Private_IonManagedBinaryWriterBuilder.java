@@ -32,6 +32,7 @@ import com.amazon.ion.impl.bin.IonRawBinaryWriter.PreallocationMode;
 import com.amazon.ion.system.SimpleCatalog;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.channels.WritableByteChannel;
 import java.util.Arrays;
 import java.util.List;
 
@@ -55,6 +56,27 @@ public final class _Private_IonManagedBinaryWriterBuilder
                 return new PooledBlockAllocatorProvider();
             }
         },
+        /** Pools blocks of direct (off-heap) memory, keeping the writer's buffered data out of the heap. */
+        POOLED_DIRECT
+        {
+            @Override
+            BlockAllocatorProvider createAllocatorProvider()
+            {
+                return new PooledBlockAllocatorProvider(true);
+            }
+        },
+        /**
+         * Pools blocks in a cache per thread backed by a bounded global pool, which scales better than
+         * {@link #POOLED} when many threads write concurrently.
+         */
+        THREAD_LOCAL
+        {
+            @Override
+            BlockAllocatorProvider createAllocatorProvider()
+            {
+                return new ThreadLocalBlockAllocatorProvider();
+            }
+        },
         BASIC
         {
             @Override
@@ -260,6 +282,11 @@ public final class _Private_IonManagedBinaryWriterBuilder
         return new IonManagedBinaryWriter(this, out);
     }
 
+    public IonWriter newWriter(final WritableByteChannel out) throws IOException
+    {
+        return new IonManagedBinaryWriter(this, new ChannelOutput(out));
+    }
+
     public IonBinaryWriter newLegacyWriter()
     {
         try
@@ -24,7 +24,8 @@
  * in this context.
  *
  * <h2>Block API</h2>
- * A generalized interface for blocks of heap memory are provided via the {@link com.amazon.ion.impl.bin.Block} API.
+ * A generalized interface for blocks of heap or direct (off-heap) memory are provided via the
+ * {@link com.amazon.ion.impl.bin.Block} API.
  * There are two factory type APIs to actually get a {@link com.amazon.ion.impl.bin.Block} instance:
  * {@link com.amazon.ion.impl.bin.BlockAllocator} which vend blocks of a particular fixed size
  * and {@link com.amazon.ion.impl.bin.BlockAllocatorProvider} which creates {@link com.amazon.ion.impl.bin.BlockAllocator}
@@ -0,0 +1,259 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl.lite;
+
+import com.amazon.ion.IonReader;
+import com.amazon.ion.IonType;
+import com.amazon.ion.IonWriter;
+import com.amazon.ion.util.IonTextUtils;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A set of field paths to keep when loading structs.
+ * <p>
+ * Each path is a dot-separated sequence of field names, where a name may be
+ * quoted with single quotes (with backslash escapes) and a bare {@code *}
+ * matches any field. A struct reached at some step of a path keeps only the
+ * fields named by the next step; a field matching the last step of a path is
+ * kept whole. Lists and sexps are transparent: their elements are projected
+ * with the same step as the container. Values that a path needs to descend
+ * into but can't (scalars and nulls) are dropped, while top-level values are
+ * always kept.
+ * <p>
+ * Fields outside the projection are skipped by the reader without being
+ * materialized.
+ * <p>
+ * Instances are immutable and safe for use by multiple threads.
+ */
+final class FieldProjection
+{
+    /** A step of the projected paths. */
+    private static final class Step
+    {
+        final Map<String, Step> children = new HashMap<String, Step>();
+
+        /** Step matching any field name, or null. */
+        Step anyField;
+
+        /** True if a path ends here, so the whole value is kept. */
+        boolean isLeaf;
+
+        Step child(String fieldName)
+        {
+            Step child = children.get(fieldName);
+            return (child != null ? child : anyField);
+        }
+    }
+
+    private final Step myRoot = new Step();
+
+    /**
+     * @param fieldPaths must not be null or contain nulls.
+     *
+     * @throws IllegalArgumentException if a path is malformed.
+     */
+    FieldProjection(String... fieldPaths)
+    {
+        for (String path : fieldPaths)
+        {
+            addPath(path);
+        }
+    }
+
+    private void addPath(String path)
+    {
+        if (path == null)
+        {
+            throw new NullPointerException("fieldPaths contains null");
+        }
+        Step step = myRoot;
+        int pos = 0;
+        int length = path.length();
+        do
+        {
+            if (pos != 0)
+            {
+                if (path.charAt(pos) != '.')
+                {
+                    throw badPath(path, "expected '.' at " + pos);
+                }
+                pos++;
+            }
+            StringBuilder name = new StringBuilder();
+            boolean quoted = pos < length && path.charAt(pos) == '\'';
+            pos = parseName(path, pos, name);
+            Step child;
+            if (!quoted && name.length() == 1 && name.charAt(0) == '*')
+            {
+                if (step.anyField == null)
+                {
+                    step.anyField = new Step();
+                }
+                child = step.anyField;
+            }
+            else
+            {
+                String key = name.toString();
+                child = step.children.get(key);
+                if (child == null)
+                {
+                    child = new Step();
+                    step.children.put(key, child);
+                }
+            }
+            step = child;
+        }
+        while (pos < length);
+        step.isLeaf = true;
+    }
+
+    /**
+     * Parses a plain or quoted field name starting at {@code pos}.
+     *
+     * @return the position after the name.
+     */
+    private static int parseName(String path, int pos, StringBuilder name)
+    {
+        int length = path.length();
+        if (pos < length && path.charAt(pos) == '\'')
+        {
+            pos++;
+            while (true)
+            {
+                if (pos >= length)
+                {
+                    throw badPath(path, "unterminated quoted field name");
+                }
+                char c = path.charAt(pos++);
+                if (c == '\'')
+                {
+                    return pos;
+                }
+                if (c == '\\')
+                {
+                    if (pos >= length)
+                    {
+                        throw badPath(path, "unterminated quoted field name");
+                    }
+                    c = path.charAt(pos++);
+                }
+                name.append(c);
+            }
+        }
+        while (pos < length)
+        {
+            char c = path.charAt(pos);
+            if (c == '.')
+            {
+                break;
+            }
+            if (c == '\'')
+            {
+                throw badPath(path, "unexpected quote at " + pos);
+            }
+            name.append(c);
+            pos++;
+        }
+        if (name.length() == 0)
+        {
+            throw badPath(path, "empty field name at " + pos);
+        }
+        return pos;
+    }
+
+    private static IllegalArgumentException badPath(String path, String reason)
+    {
+        return new IllegalArgumentException("Invalid field path "
+                                            + IonTextUtils.printString(path)
+                                            + ": " + reason);
+    }
+
+
+    /**
+     * Writes the projection of the reader's remaining top-level values,
+     * starting with the current one if any.
+     */
+    void writeValues(IonReader reader, IonWriter writer)
+        throws IOException
+    {
+        if (reader.getType() == null) reader.next();
+
+        while (reader.getType() != null)
+        {
+            if (myRoot.isLeaf || reader.isNullValue())
+            {
+                writer.writeValue(reader);
+            }
+            else
+            {
+                switch (reader.getType())
+                {
+                    case STRUCT:
+                    case LIST:
+                    case SEXP:
+                        writeContainer(reader, writer, myRoot);
+                        break;
+                    default:
+                        writer.writeValue(reader);
+                        break;
+                }
+            }
+            reader.next();
+        }
+    }
+
+    /**
+     * Writes the current container, keeping only the children selected by
+     * {@code step}. The field name and annotations are copied as-is.
+     */
+    private void writeContainer(IonReader reader, IonWriter writer, Step step)
+        throws IOException
+    {
+        IonType containerType = reader.getType();
+        if (reader.isInStruct())
+        {
+            writer.setFieldNameSymbol(reader.getFieldNameSymbol());
+        }
+        writer.setTypeAnnotationSymbols(reader.getTypeAnnotationSymbols());
+        writer.stepIn(containerType);
+        reader.stepIn();
+        IonType t;
+        while ((t = reader.next()) != null)
+        {
+            Step next = step;
+            if (containerType == IonType.STRUCT)
+            {
+                String fieldName = reader.getFieldNameSymbol().getText();
+                next = (fieldName == null ? step.anyField : step.child(fieldName));
+                if (next == null) continue;
+                if (next.isLeaf)
+                {
+                    writer.writeValue(reader);
+                    continue;
+                }
+            }
+            if (!reader.isNullValue()
+                && (t == IonType.STRUCT || t == IonType.LIST || t == IonType.SEXP))
+            {
+                writeContainer(reader, writer, next);
+            }
+        }
+        reader.stepOut();
+        writer.stepOut();
+    }
+}
@@ -41,6 +41,12 @@ abstract class IonContainerLite
     protected IonValueLite[] _children;
     protected int            structuralModificationCount;
 
+    /**
+     * The encoded children of a lazily loaded container, or null once they
+     * have been materialized (or if this container was never lazy).
+     */
+    private LazyContent      _lazy;
+
     protected IonContainerLite(ContainerlessContext context, boolean isNull)
     {
         // we'll let IonValueLite handle this work as we always need to know
@@ -50,6 +56,8 @@ abstract class IonContainerLite
 
     IonContainerLite(IonContainerLite existing, IonContext context, boolean isStruct) {
         super(existing, context);
+        // the encoded content is immutable, so the copy can stay lazy too
+        this._lazy = existing._lazy;
         boolean retainingSIDs = false;
         int childCount = existing._child_count;
         this._child_count = childCount;
@@ -149,6 +157,40 @@ abstract class IonContainerLite
         return listIterator(0);
     }
 
+    /**
+     * Defers loading this empty container's children to the first time
+     * they're needed.
+     */
+    final void setLazyContent(LazyContent lazy)
+    {
+        assert _child_count == 0 && !_isNullValue();
+        _lazy = lazy;
+    }
+
+    /**
+     * @return the encoded content of this container if its children have not
+     * been materialized; otherwise null.
+     */
+    final LazyContent getLazyContent()
+    {
+        return _lazy;
+    }
+
+    /**
+     * Loads the children of a lazy container. Any access to the child array
+     * must be preceded by this, which is done by {@link #get_child_count()},
+     * {@link #get_child(int)} and the iterators.
+     */
+    final void materialize()
+    {
+        LazyContent lazy = _lazy;
+        if (lazy != null)
+        {
+            _lazy = null;
+            lazy.loadChildren(this);
+        }
+    }
+
     public ListIterator<IonValue> listIterator(int index)
     {
         if (isNullValue())
@@ -186,6 +228,7 @@ abstract class IonContainerLite
             if (_isLocked() && !readOnly) {
                 throw new IllegalStateException("you can't open an updatable iterator on a read only value");
             }
+            materialize();
             if (index < 0 || index > _child_count) {
                 throw new IndexOutOfBoundsException(Integer.toString(index));
             }
@@ -394,6 +437,9 @@ abstract class IonContainerLite
     {
         if (_isLocked()) return;
 
+        // read-only values must be safe for concurrent reads, so they can't
+        // be materialized on demand
+        materialize();
         if (_children != null) {
             for (int ii=0; ii<_child_count; ii++) {
                 IonValueLite child = _children[ii];
@@ -462,9 +508,10 @@ abstract class IonContainerLite
     {
         boolean symbolIDsAllCleared = super.attemptClearSymbolIDValues();
 
-        for (int ii = 0; ii < get_child_count(); ii++)
+        // children that haven't been materialized have no SIDs
+        for (int ii = 0; ii < _child_count; ii++)
         {
-            IonValueLite child = get_child(ii);
+            IonValueLite child = _children[ii];
             // NOTE: recursion is done to #clearSymbolIDValues rather than #attemptClearSymbolIDValues in order to
             // set the SYMBOL ID PRESENT status flag correctly.
             symbolIDsAllCleared &= child.clearSymbolIDValues();
@@ -640,10 +687,12 @@ abstract class IonContainerLite
     }
 
     public final int get_child_count() {
+        if (_lazy != null) materialize();
         return _child_count;
     }
 
     public final IonValueLite get_child(int idx) {
+        if (_lazy != null) materialize();
         if (idx < 0 || idx >= _child_count) {
             throw new IndexOutOfBoundsException(Integer.toString(idx));
         }
@@ -24,8 +24,11 @@ import com.amazon.ion.IonLoader;
 import com.amazon.ion.IonReader;
 import com.amazon.ion.IonSystem;
 import com.amazon.ion.IonWriter;
+import com.amazon.ion.SymbolTable;
 import com.amazon.ion.impl._Private_IonWriterFactory;
 import com.amazon.ion.impl._Private_LocalSymbolTableFactory;
+import com.amazon.ion.impl._Private_Utils;
+import com.amazon.ion.util.IonStreamUtils;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
@@ -43,11 +46,23 @@ final class IonLoaderLite
 
     private final _Private_LocalSymbolTableFactory _lstFactory;
 
+    /** The fields to keep, or null to load everything. */
+    private final FieldProjection _projection;
+
+    /** Whether containers loaded from binary buffers are materialized lazily. */
+    private final boolean _lazy;
+
     /**
      * @param system must not be null.
      * @param catalog must not be null.
      */
     public IonLoaderLite(IonSystemLite system, IonCatalog catalog)
+    {
+        this(system, catalog, null, false);
+    }
+
+    private IonLoaderLite(IonSystemLite system, IonCatalog catalog,
+                          FieldProjection projection, boolean lazy)
     {
         assert system != null;
         assert catalog != null;
@@ -55,6 +70,8 @@ final class IonLoaderLite
         _system = system;
         _catalog = catalog;
         _lstFactory = _system.getLstFactory();
+        _projection = projection;
+        _lazy = lazy;
     }
 
     public IonSystem getSystem()
@@ -67,6 +84,60 @@ final class IonLoaderLite
         return _catalog;
     }
 
+    public IonLoader withProjection(String... fieldPaths)
+    {
+        FieldProjection projection = new FieldProjection(fieldPaths);
+        return new IonLoaderLite(_system, _catalog, projection, _lazy);
+    }
+
+    public IonLoader withLazyMaterialization(boolean lazy)
+    {
+        return new IonLoaderLite(_system, _catalog, _projection, lazy);
+    }
+
+    /**
+     * @return whether the binary data in a buffer should be loaded lazily.
+     */
+    private boolean load_lazily(byte[] ionData, int offset, int length)
+    {
+        return _lazy && _projection == null
+            && IonStreamUtils.isIonBinary(ionData, offset, length);
+    }
+
+    /**
+     * Loads the top-level values of binary data, leaving the children of
+     * containers encoded until they're needed.
+     */
+    private IonDatagramLite load_lazy_helper(byte[] ionData, int offset, int length)
+    {
+        LazyContent.Source source =
+            new LazyContent.Source(_catalog, _lstFactory, ionData, offset, length);
+        IonDatagramLite datagram = new IonDatagramLite(_system, _catalog);
+        IonReader reader = source.newReader();
+        try {
+            // The datagram already starts with the system symbol table, so
+            // only later changes need to be recorded, as the eager path does.
+            SymbolTable symbols = _system.getSystemSymbolTable();
+            while (reader.next() != null) {
+                SymbolTable current = reader.getSymbolTable();
+                if (current != symbols) {
+                    datagram.appendTrailingSymbolTable(current);
+                    symbols = current;
+                }
+                datagram.add(_system.newLazyValue(reader, source));
+            }
+        }
+        finally {
+            try {
+                reader.close();
+            }
+            catch (IOException e) {
+                throw new IonException(e);
+            }
+        }
+        return datagram;
+    }
+
 
     /**
      * This doesn't wrap IOException because some callers need to propagate it.
@@ -78,7 +149,12 @@ final class IonLoaderLite
     {
         IonDatagramLite datagram = new IonDatagramLite(_system, _catalog);
         IonWriter writer = _Private_IonWriterFactory.makeWriter(datagram);
-        writer.writeValues(reader);
+        if (_projection == null) {
+            writer.writeValues(reader);
+        }
+        else {
+            _projection.writeValues(reader, writer);
+        }
         return datagram;
     }
 
@@ -124,6 +200,9 @@ final class IonLoaderLite
 
     public IonDatagram load(byte[] ionData) throws IonException
     {
+        if (load_lazily(ionData, 0, ionData.length)) {
+            return load_lazy_helper(ionData, 0, ionData.length);
+        }
         IonReader reader = makeReader(_catalog, ionData, 0, ionData.length, _lstFactory);
         try {
             return load(reader);
@@ -142,6 +221,10 @@ final class IonLoaderLite
     public IonDatagram load(InputStream ionData)
         throws IonException, IOException
     {
+        if (_lazy && _projection == null) {
+            // lazy values need a buffer to refer back to
+            return load(_Private_Utils.loadStreamBytes(ionData));
+        }
         try {
             IonReader reader = makeReader(_catalog, ionData, _lstFactory);
             return load(reader);
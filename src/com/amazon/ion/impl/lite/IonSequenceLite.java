@@ -414,6 +414,11 @@ abstract class IonSequenceLite
         {
             writer.writeNull(type);
         }
+        else if (getLazyContent() != null
+                 && getLazyContent().writeTo(writer, hasTypeAnnotations()))
+        {
+            // the unmodified encoding was copied
+        }
         else
         {
             writer.stepIn(type);
@@ -803,6 +803,11 @@ final class IonStructLite
         {
             writer.writeNull(IonType.STRUCT);
         }
+        else if (getLazyContent() != null
+                 && getLazyContent().writeTo(writer, hasTypeAnnotations()))
+        {
+            // the unmodified encoding was copied
+        }
         else
         {
             writer.stepIn(IonType.STRUCT);
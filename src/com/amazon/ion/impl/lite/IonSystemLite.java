@@ -314,14 +314,42 @@ final class IonSystemLite
 
     public IonValueLite newValue(IonReader reader)
     {
-        IonValueLite value = load_value_helper(reader, /*isTopLevel*/ true);
+        IonValueLite value = load_value_helper(reader, /*isTopLevel*/ true,
+                                               /*lazySource*/ null);
         if (value == null) {
             throw new IonException("No value available");
         }
         return value;
     }
 
-    private IonValueLite load_value_helper(IonReader reader, boolean isTopLevel)
+    /**
+     * Loads the reader's current value, which must be a child of a container,
+     * deferring the children of any nested containers.
+     *
+     * @param lazySource the buffer that the reader is reading.
+     */
+    IonValueLite newValue(IonReader reader, LazyContent.Source lazySource)
+    {
+        return load_value_helper(reader, /*isTopLevel*/ false, lazySource);
+    }
+
+    /**
+     * Loads the reader's current top-level value, deferring the children of
+     * containers.
+     *
+     * @param lazySource the buffer that the reader is reading.
+     */
+    IonValueLite newLazyValue(IonReader reader, LazyContent.Source lazySource)
+    {
+        return load_value_helper(reader, /*isTopLevel*/ true, lazySource);
+    }
+
+    /**
+     * @param lazySource if not null, the children of containers are not
+     * loaded until they're needed.
+     */
+    private IonValueLite load_value_helper(IonReader reader, boolean isTopLevel,
+                                           LazyContent.Source lazySource)
     {
         boolean symbol_is_present = false;
 
@@ -425,7 +453,14 @@ final class IonSystemLite
             case STRUCT:
                 // we have to load the children after we grabbed the
                 // fieldname and annotations off of the parent container
-                if (load_children((IonContainerLite)v, reader)) {
+                LazyContent lazy = (lazySource == null ? null
+                    : lazySource.contentOf(reader, annotations));
+                if (lazy != null) {
+                    ((IonContainerLite)v).setLazyContent(lazy);
+                    // we can't tell without loading the children
+                    symbol_is_present = true;
+                }
+                else if (load_children((IonContainerLite)v, reader, lazySource)) {
                     symbol_is_present = true;
                 }
                 break;
@@ -443,7 +478,8 @@ final class IonSystemLite
      * @return true iff any child contains a symbol
      * (including field names and annotations)
      */
-    private boolean load_children(IonContainerLite container, IonReader reader)
+    private boolean load_children(IonContainerLite container, IonReader reader,
+                                  LazyContent.Source lazySource)
     {
         boolean symbol_is_present = false;
 
@@ -453,7 +489,8 @@ final class IonSystemLite
             if (t == null) {
                 break;
             }
-            IonValueLite child = load_value_helper(reader, /*isTopLevel*/ false);
+            IonValueLite child = load_value_helper(reader, /*isTopLevel*/ false,
+                                                   lazySource);
 
             container.add(child);
 
@@ -654,6 +654,16 @@ abstract class IonValueLite
         throw new UnsupportedOperationException("this type "+this.getClass().getSimpleName()+" should not be instanciated, there is not IonType associated with it");
     }
 
+    /**
+     * @return whether this value has any annotations.
+     */
+    final boolean hasTypeAnnotations()
+    {
+        // annotations are packed at the start of the array
+        return _annotations != null && _annotations.length != 0
+            && _annotations[0] != null;
+    }
+
     public SymbolToken[] getTypeAnnotationSymbols()
     {
         return getTypeAnnotationSymbols(new LazySymbolTableProvider(this));
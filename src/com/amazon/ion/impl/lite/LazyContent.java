@@ -0,0 +1,266 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl.lite;
+
+import static com.amazon.ion.SystemSymbols.ION_SYMBOL_TABLE;
+import static com.amazon.ion.impl._Private_IonReaderFactory.makeReader;
+
+import com.amazon.ion.IonCatalog;
+import com.amazon.ion.IonException;
+import com.amazon.ion.IonReader;
+import com.amazon.ion.IonType;
+import com.amazon.ion.IonWriter;
+import com.amazon.ion.OffsetSpan;
+import com.amazon.ion.SeekableReader;
+import com.amazon.ion.Span;
+import com.amazon.ion.SymbolTable;
+import com.amazon.ion.SymbolToken;
+import com.amazon.ion.impl._Private_LocalSymbolTableFactory;
+import java.io.IOException;
+
+/**
+ * The still-encoded content of a container loaded lazily from Ion binary.
+ * <p>
+ * A lazy container holds one of these instead of its children until they're
+ * first needed, at which point a new reader is seeked to the container and
+ * the children are loaded. Child containers are themselves lazy, so only the
+ * parts of a document that are actually touched get materialized.
+ * <p>
+ * Instances are immutable, so clones of a lazy container share them.
+ */
+final class LazyContent
+{
+    /**
+     * The buffer that lazy containers are loaded from, shared by all of the
+     * containers of one load.
+     */
+    static final class Source
+    {
+        private final IonCatalog                       myCatalog;
+        private final _Private_LocalSymbolTableFactory myLstFactory;
+        private final byte[]                           myBytes;
+        private final int                              myOffset;
+        private final int                              myLength;
+
+        Source(IonCatalog catalog,
+               _Private_LocalSymbolTableFactory lstFactory,
+               byte[] bytes, int offset, int length)
+        {
+            myCatalog = catalog;
+            myLstFactory = lstFactory;
+            myBytes = bytes;
+            myOffset = offset;
+            myLength = length;
+        }
+
+        IonReader newReader()
+        {
+            return makeReader(myCatalog, myBytes, myOffset, myLength, myLstFactory);
+        }
+
+        /**
+         * Captures the content of the reader's current container, or returns
+         * null if it can't be loaded lazily.
+         *
+         * @param annotations the container's annotations.
+         */
+        LazyContent contentOf(IonReader reader, SymbolToken[] annotations)
+        {
+            for (SymbolToken annotation : annotations)
+            {
+                // Seeking to such a value would read it as a symbol table.
+                if (ION_SYMBOL_TABLE.equals(annotation.getText())) return null;
+            }
+            SeekableReader seekable = reader.asFacet(SeekableReader.class);
+            if (seekable == null) return null;
+
+            Span position = seekable.currentSpan();
+            OffsetSpan offsets = position.asFacet(OffsetSpan.class);
+            int finish = (int) offsets.getFinishOffset() + myOffset;
+            int start = skipHeaders((int) offsets.getStartOffset() + myOffset);
+            return new LazyContent(this, position,
+                                   reader.getSymbolTable(), start, finish - start,
+                                   annotations.length != 0);
+        }
+
+        /**
+         * Skips the annotation wrapper, if any, and the type descriptor and
+         * length of the value starting at {@code pos}. The reader has already
+         * validated these octets, so they're decoded without checks.
+         *
+         * @return the position of the value's body.
+         */
+        private int skipHeaders(int pos)
+        {
+            int td = myBytes[pos] & 0xFF;
+            if ((td >> 4) == 0xE)
+            {
+                pos = skipLength(td, pos + 1);
+                int annotationsLength = 0;
+                int b;
+                do
+                {
+                    b = myBytes[pos++] & 0xFF;
+                    annotationsLength = (annotationsLength << 7) | (b & 0x7F);
+                }
+                while ((b & 0x80) == 0);
+                pos += annotationsLength;
+                td = myBytes[pos] & 0xFF;
+            }
+            return skipLength(td, pos + 1);
+        }
+
+        /**
+         * Skips the VarUInt length following a type descriptor, if it has one.
+         * Sorted structs ({@code 0xD1}) always do.
+         */
+        private int skipLength(int td, int pos)
+        {
+            if ((td & 0x0F) == 0x0E || td == 0xD1)
+            {
+                while ((myBytes[pos++] & 0x80) == 0) { }
+            }
+            return pos;
+        }
+    }
+
+
+    private final Source      mySource;
+    /** Seekable position of the container, including any annotations. */
+    private final Span        myPosition;
+    /** The symbol table that the encoded content refers to. */
+    private final SymbolTable mySymbolTable;
+    /** Position of the children, after the type descriptor and length. */
+    private final int         myBodyStart;
+    private final int         myBodyLength;
+    private final boolean     myIsAnnotated;
+
+    private LazyContent(Source source, Span position, SymbolTable symbols,
+                        int bodyStart, int bodyLength, boolean isAnnotated)
+    {
+        mySource = source;
+        myPosition = position;
+        mySymbolTable = symbols;
+        myBodyStart = bodyStart;
+        myBodyLength = bodyLength;
+        myIsAnnotated = isAnnotated;
+    }
+
+    Source getSource()
+    {
+        return mySource;
+    }
+
+    SymbolTable getSymbolTable()
+    {
+        return mySymbolTable;
+    }
+
+    boolean isEmpty()
+    {
+        return myBodyLength == 0;
+    }
+
+    /**
+     * @return a new reader positioned on the container.
+     */
+    private IonReader newReaderOnValue()
+    {
+        IonReader reader = mySource.newReader();
+        reader.asFacet(SeekableReader.class).hoist(myPosition);
+        reader.next();
+        return reader;
+    }
+
+    /**
+     * Loads the children into the given, empty container.
+     */
+    void loadChildren(IonContainerLite container)
+    {
+        IonSystemLite system = container.getSystem();
+        IonReader reader = newReaderOnValue();
+        try
+        {
+            reader.stepIn();
+            while (reader.next() != null)
+            {
+                container.add(system.newValue(reader, mySource));
+            }
+        }
+        finally
+        {
+            close(reader);
+        }
+    }
+
+    /**
+     * Writes the container by copying its encoding when the writer can use
+     * it as-is.
+     *
+     * @return true if the container was written.
+     */
+    boolean writeTo(IonWriter writer, boolean isAnnotated)
+        throws IOException
+    {
+        // Copying the encoding would repeat or drop the annotations.
+        if (isAnnotated || myIsAnnotated) return false;
+
+        IonReader reader = newReaderOnValue();
+        try
+        {
+            writer.writeValue(reader);
+        }
+        finally
+        {
+            close(reader);
+        }
+        return true;
+    }
+
+    /**
+     * Copies the encoded children, which don't include the type descriptor.
+     */
+    void copyBody(byte[] dst, int dstOffset)
+    {
+        System.arraycopy(mySource.myBytes, myBodyStart, dst, dstOffset, myBodyLength);
+    }
+
+    int getBodyLength()
+    {
+        return myBodyLength;
+    }
+
+    private static void close(IonReader reader)
+    {
+        try
+        {
+            reader.close();
+        }
+        catch (IOException e)
+        {
+            throw new IonException(e);
+        }
+    }
+
+
+    /**
+     * @return whether a value of the given type may be loaded lazily.
+     */
+    static boolean isLazyType(IonType type)
+    {
+        return type == IonType.STRUCT || type == IonType.LIST || type == IonType.SEXP;
+    }
+}
@@ -47,6 +47,7 @@ import com.amazon.ion.Decimal;
 import com.amazon.ion.IonBlob;
 import com.amazon.ion.IonBool;
 import com.amazon.ion.IonClob;
+import com.amazon.ion.IonContainer;
 import com.amazon.ion.IonDatagram;
 import com.amazon.ion.IonDecimal;
 import com.amazon.ion.IonException;
@@ -1128,11 +1129,14 @@ class ReverseBinaryEncoder
     private void writeIonSequenceContent(IonSequence seq)
     {
         final int originalOffset = myBuffer.length - myOffset;
-        IonValue[] values = seq.toArray();
-
-        for (int i = values.length; --i >= 0;)
+        if (! writeLazyChildren(seq))
         {
-            writeIonValue(values[i]);
+            IonValue[] values = seq.toArray();
+
+            for (int i = values.length; --i >= 0;)
+            {
+                writeIonValue(values[i]);
+            }
         }
 
         switch (seq.getType())
@@ -1161,25 +1165,28 @@ class ReverseBinaryEncoder
         {
             final int originalOffset = myBuffer.length - myOffset;
 
-            // TODO amzn/ion-java/issues/31 should not preserve the ordering of fields
-            ArrayList<IonValue> values = new ArrayList<IonValue>();
-
-            // Fill ArrayList with IonValues, the add() just copies the
-            // references of the IonValues
-            for (IonValue curr : val)
+            if (! writeLazyChildren(val))
             {
-                values.add(curr);
-            }
+                // TODO amzn/ion-java/issues/31 should not preserve the ordering of fields
+                ArrayList<IonValue> values = new ArrayList<IonValue>();
 
-            for (int i = values.size(); --i >= 0; )
-            {
-                IonValue v = values.get(i);
-                SymbolToken symToken = v.getFieldNameSymbol();
+                // Fill ArrayList with IonValues, the add() just copies the
+                // references of the IonValues
+                for (IonValue curr : val)
+                {
+                    values.add(curr);
+                }
 
-                writeIonValue(v);
+                for (int i = values.size(); --i >= 0; )
+                {
+                    IonValue v = values.get(i);
+                    SymbolToken symToken = v.getFieldNameSymbol();
 
-                int sid = findSid(symToken);
-                writeVarUInt(sid);
+                    writeIonValue(v);
+
+                    int sid = findSid(symToken);
+                    writeVarUInt(sid);
+                }
             }
 
             // TODO amzn/ion-java/issues/41 Detect if the struct fields are sorted in ascending
@@ -1191,6 +1198,32 @@ class ReverseBinaryEncoder
         }
     }
 
+    /**
+     * Copies the encoded children of a lazily loaded container that hasn't
+     * been materialized, provided that they refer to the current symbol table.
+     *
+     * @return true if the children were written.
+     */
+    private boolean writeLazyChildren(IonContainer container)
+    {
+        if (! (container instanceof IonContainerLite)) return false;
+
+        LazyContent lazy = ((IonContainerLite) container).getLazyContent();
+        if (lazy == null || lazy.getSymbolTable() != mySymbolTable)
+        {
+            return false;
+        }
+
+        int length = lazy.getBodyLength();
+        int offset = myOffset;
+        if ((offset -= length) < 0) {
+            offset = growBuffer(offset);
+        }
+        lazy.copyBody(myBuffer, offset);
+        myOffset = offset;
+        return true;
+    }
+
     private void writeIonDatagramContent(IonDatagram dg)
     {
         ListIterator<IonValue> reverseIter = dg.listIterator(dg.size());
@@ -21,6 +21,8 @@ import com.amazon.ion.IonWriter;
 import com.amazon.ion.SubstituteSymbolTableException;
 import com.amazon.ion.SymbolTable;
 import com.amazon.ion.impl._Private_IonBinaryWriterBuilder;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.WritableByteChannel;
 
 
 /**
@@ -249,6 +251,30 @@ public abstract class IonBinaryWriterBuilder
      */
     public abstract IonBinaryWriterBuilder withFloatBinary32Disabled();
 
+
+    /**
+     * Builds a new writer that sends its Ion data to a channel.
+     * <p>
+     * Rather than copying its buffered data into a stream, the writer hands
+     * the channel views of its internal buffers whenever it flushes. When the
+     * channel is a {@link GatheringByteChannel} (for example a
+     * {@link java.nio.channels.FileChannel} or a
+     * {@link java.nio.channels.SocketChannel}), the symbol table and values of
+     * each flush are sent in a single gathering write.
+     * <p>
+     * The writer blocks until each flush has been written fully, so the
+     * channel must be in blocking mode. Closing the writer closes the channel.
+     *
+     * @param out the channel that will receive Ion data.
+     * Must not be null.
+     *
+     * @return a new {@link IonWriter} instance; not {@code null}.
+     *
+     * @throws IllegalArgumentException if {@code out} is a
+     * {@link java.nio.channels.SelectableChannel} in non-blocking mode.
+     */
+    public abstract IonWriter build(WritableByteChannel out);
+
     //=========================================================================
 
 
@@ -15,18 +15,27 @@
 
 package com.amazon.ion.system;
 
+import static com.amazon.ion.impl._Private_IonReaderFactory.makeIncrementalReader;
+import static com.amazon.ion.impl._Private_IonReaderFactory.makeJsonReader;
 import static com.amazon.ion.impl._Private_IonReaderFactory.makeReader;
+import static com.amazon.ion.impl._Private_IonReaderFactory.makeResettableReader;
 
 import com.amazon.ion.IonCatalog;
 import com.amazon.ion.IonException;
+import com.amazon.ion.IonIncrementalReader;
 import com.amazon.ion.IonReader;
+import com.amazon.ion.IonResettableReader;
 import com.amazon.ion.IonStruct;
 import com.amazon.ion.IonSystem;
 import com.amazon.ion.IonTextReader;
 import com.amazon.ion.IonValue;
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 
 /**
  * Build a new {@link IonReader} from the given {@link IonCatalog} and data
@@ -41,7 +50,16 @@ import java.io.Reader;
 public class IonReaderBuilder
 {
 
+    /**
+     * The smallest buffer size accepted by {@link #setBufferSize(int)}.
+     */
+    public static final int MINIMUM_BUFFER_SIZE = 32;
+
     private IonCatalog catalog = null;
+    private int bufferSize = 0;
+    private int readAhead = 0;
+    private StreamDecompressor[] decompressors = null;
+    private boolean jsonOnly = false;
 
     private IonReaderBuilder()
     {
@@ -49,7 +67,11 @@ public class IonReaderBuilder
 
     private IonReaderBuilder(IonReaderBuilder that)
     {
-        this.catalog = that.catalog;
+        this.catalog    = that.catalog;
+        this.bufferSize = that.bufferSize;
+        this.readAhead  = that.readAhead;
+        this.decompressors = that.decompressors;
+        this.jsonOnly   = that.jsonOnly;
     }
 
     /**
@@ -151,6 +173,271 @@ public class IonReaderBuilder
         return catalog;
     }
 
+    /**
+     * Declares the size of the buffer pages used when building readers over
+     * streamed data, returning a new mutable builder if the current one is
+     * immutable.
+     *
+     * @param bufferSize the page size in bytes (or characters, for
+     *  {@link Reader}s), or 0 for the library default of 32K.
+     *
+     * @return this builder instance, if mutable;
+     * otherwise a mutable copy of this builder.
+     *
+     * @see #setBufferSize(int)
+     */
+    public IonReaderBuilder withBufferSize(int bufferSize)
+    {
+        IonReaderBuilder b = mutable();
+        b.setBufferSize(bufferSize);
+        return b;
+    }
+
+    /**
+     * Sets the size of the buffer pages used when building readers over an
+     * {@link InputStream} or a {@link Reader}, and over text or compressed
+     * data in a {@link FileChannel} or a direct {@link ByteBuffer}. Readers
+     * over byte arrays and heap buffers, and over binary Ion in a direct
+     * buffer or a mapped file, read the data in place and are unaffected;
+     * see {@link #build(ByteBuffer)}.
+     * <p>
+     * Larger pages mean fewer refills, and so fewer calls to the source, when
+     * scanning large inputs. Smaller pages reduce the memory held by each
+     * open reader, which matters when many streams are read concurrently.
+     * A value larger than a page is read across several pages, so this does
+     * not limit the size of the data.
+     *
+     * @param bufferSize the page size in bytes (or characters, for
+     *  {@link Reader}s), or 0 for the library default of 32K.
+     *
+     * @see #getBufferSize()
+     * @see #withBufferSize(int)
+     *
+     * @throws IllegalArgumentException if {@code bufferSize} is neither 0
+     *  nor at least {@link #MINIMUM_BUFFER_SIZE}.
+     * @throws UnsupportedOperationException if this builder is immutable.
+     */
+    public void setBufferSize(int bufferSize)
+    {
+        mutationCheck();
+        if (bufferSize != 0 && bufferSize < MINIMUM_BUFFER_SIZE)
+        {
+            throw new IllegalArgumentException("bufferSize must be 0 or at least "
+                                               + MINIMUM_BUFFER_SIZE);
+        }
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * Gets the size of the buffer pages used by readers over streamed data,
+     * or 0 if the library default is used.
+     *
+     * @see #setBufferSize(int)
+     * @see #withBufferSize(int)
+     */
+    public int getBufferSize()
+    {
+        return bufferSize;
+    }
+
+    /**
+     * Declares the read-ahead used when building readers over streamed data,
+     * returning a new mutable builder if the current one is immutable.
+     *
+     * @param readAhead the minimum number of bytes (or characters) to
+     *  gather on each refill; 0 disables read-ahead.
+     *
+     * @return this builder instance, if mutable;
+     * otherwise a mutable copy of this builder.
+     *
+     * @see #setReadAhead(int)
+     */
+    public IonReaderBuilder withReadAhead(int readAhead)
+    {
+        IonReaderBuilder b = mutable();
+        b.setReadAhead(readAhead);
+        return b;
+    }
+
+    /**
+     * Sets the read-ahead used by readers over streamed data: the minimum
+     * number of bytes (or characters) each buffer refill gathers before
+     * parsing resumes, capped by the buffer size.
+     * <p>
+     * By default a refill makes a single call to the source and accepts
+     * whatever it returns. Sources such as sockets and decompressors often
+     * return far less than was asked for, so a large read-ahead reduces the
+     * number of refills. The cost is that a refill may block waiting for
+     * data the parser does not need yet, so it should not be used for
+     * interactive protocols where a message may be followed by silence.
+     *
+     * @param readAhead the minimum number of bytes (or characters) to
+     *  gather on each refill; 0 disables read-ahead.
+     *
+     * @see #getReadAhead()
+     * @see #withReadAhead(int)
+     *
+     * @throws IllegalArgumentException if {@code readAhead} is negative.
+     * @throws UnsupportedOperationException if this builder is immutable.
+     */
+    public void setReadAhead(int readAhead)
+    {
+        mutationCheck();
+        if (readAhead < 0)
+        {
+            throw new IllegalArgumentException("readAhead must not be negative");
+        }
+        this.readAhead = readAhead;
+    }
+
+    /**
+     * Gets the read-ahead used by readers over streamed data.
+     *
+     * @see #setReadAhead(int)
+     * @see #withReadAhead(int)
+     */
+    public int getReadAhead()
+    {
+        return readAhead;
+    }
+
+    /**
+     * Declares the compressed formats that built readers detect and
+     * decompress, returning a new mutable builder if the current one is
+     * immutable.
+     *
+     * @param decompressors the formats to detect, in order of precedence.
+     *
+     * @return this builder instance, if mutable;
+     * otherwise a mutable copy of this builder.
+     *
+     * @see #setDecompressors(StreamDecompressor...)
+     */
+    public IonReaderBuilder withDecompressors(StreamDecompressor... decompressors)
+    {
+        IonReaderBuilder b = mutable();
+        b.setDecompressors(decompressors);
+        return b;
+    }
+
+    /**
+     * Sets the compressed formats that built readers detect and decompress.
+     * Each reader checks the leading bytes of its data against the
+     * decompressors in order, and reads the data through the first one that
+     * matches. Data matching none of them is read as-is.
+     * <p>
+     * By default, readers detect GZIP and decompress it with a new
+     * {@link java.util.zip.GZIPInputStream} per reader. Applications that
+     * read many small GZIPped inputs should use
+     * {@link PooledGzipDecompressor#standard()} instead, which reuses
+     * inflaters across readers. Other formats can be supported by
+     * implementing {@link StreamDecompressor}.
+     * <p>
+     * Readers built by {@link #buildIncremental()} and
+     * {@link #buildResettable()} don't support compressed data and are
+     * unaffected.
+     *
+     * @param decompressors the formats to detect, in order of precedence.
+     *  An empty array disables decompression; null restores the default.
+     *
+     * @see #getDecompressors()
+     * @see #withDecompressors(StreamDecompressor...)
+     *
+     * @throws NullPointerException if any element is null.
+     * @throws UnsupportedOperationException if this builder is immutable.
+     */
+    public void setDecompressors(StreamDecompressor... decompressors)
+    {
+        mutationCheck();
+        if (decompressors != null)
+        {
+            decompressors = decompressors.clone();
+            for (StreamDecompressor d : decompressors)
+            {
+                d.getClass(); // Force NPE
+            }
+        }
+        this.decompressors = decompressors;
+    }
+
+    /**
+     * Gets the compressed formats that built readers detect, or null if
+     * the default GZIP detection is used.
+     *
+     * @return a copy of the decompressors; may be null.
+     *
+     * @see #setDecompressors(StreamDecompressor...)
+     * @see #withDecompressors(StreamDecompressor...)
+     */
+    public StreamDecompressor[] getDecompressors()
+    {
+        return (decompressors == null ? null : decompressors.clone());
+    }
+
+    /**
+     * Declares whether readers built over character data accept only JSON,
+     * returning a new mutable builder if the current one is immutable.
+     *
+     * @param jsonOnly true to accept only JSON.
+     *
+     * @return this builder instance, if mutable;
+     * otherwise a mutable copy of this builder.
+     *
+     * @see #setJsonOnly(boolean)
+     */
+    public IonReaderBuilder withJsonOnly(boolean jsonOnly)
+    {
+        IonReaderBuilder b = mutable();
+        b.setJsonOnly(jsonOnly);
+        return b;
+    }
+
+    /**
+     * Sets whether readers built by {@link #build(String)} and
+     * {@link #build(Reader)} accept only JSON.
+     * <p>
+     * JSON-only readers present JSON text through the same {@link IonReader}
+     * interface, with the values Ion text would give: {@code 1} is an int,
+     * {@code 1.5} a decimal and {@code 1e5} a float. They use a tokenizer
+     * that recognizes only JSON's punctuation, strings, numbers and the
+     * keywords {@code true}, {@code false} and {@code null}, and skip the
+     * lookahead Ion text needs for annotations, typed nulls, long strings
+     * and timestamps, so they do less work per token on JSON input.
+     * <p>
+     * Ion-only syntax is rejected with an {@link IonException} where it's
+     * read. This includes annotations, s-expressions, lobs, symbols,
+     * timestamps, typed nulls, long strings, comments, trailing commas,
+     * unquoted field names and the Ion-only forms of numbers. As with Ion
+     * text, the input may hold any number of top-level values.
+     * <p>
+     * Readers built over byte data are unaffected, since that data may be
+     * binary Ion.
+     *
+     * @param jsonOnly true to accept only JSON; false (the default) accepts
+     *  all Ion text.
+     *
+     * @see #isJsonOnly()
+     * @see #withJsonOnly(boolean)
+     *
+     * @throws UnsupportedOperationException if this builder is immutable.
+     */
+    public void setJsonOnly(boolean jsonOnly)
+    {
+        mutationCheck();
+        this.jsonOnly = jsonOnly;
+    }
+
+    /**
+     * Gets whether readers built over character data accept only JSON.
+     *
+     * @see #setJsonOnly(boolean)
+     * @see #withJsonOnly(boolean)
+     */
+    public boolean isJsonOnly()
+    {
+        return jsonOnly;
+    }
+
     private IonCatalog validateCatalog()
     {
         // matches behavior in IonSystemBuilder when no catalog provided
@@ -162,7 +449,8 @@ public class IonReaderBuilder
      * instance over the given block of Ion data, detecting whether it's text or
      * binary data.
      * <p>
-     * This method will auto-detect and uncompress GZIPped Ion data.
+     * This method will auto-detect and uncompress GZIPped Ion data, or the
+     * formats given to {@link #setDecompressors(StreamDecompressor...)}.
      *
      * @param ionData the source of the Ion data, which may be either Ion binary
      * data or UTF-8 Ion text. The reader retains a reference to the array, so
@@ -175,7 +463,8 @@ public class IonReaderBuilder
      */
     public IonReader build(byte[] ionData)
     {
-        return makeReader(validateCatalog(), ionData);
+        return makeReader(validateCatalog(), ionData, 0, ionData.length,
+                          decompressors);
     }
 
     /**
@@ -183,7 +472,8 @@ public class IonReaderBuilder
      * instance over the given block of Ion data, detecting whether it's text or
      * binary data.
      * <p>
-     * This method will auto-detect and uncompress GZIPped Ion data.
+     * This method will auto-detect and uncompress GZIPped Ion data, or the
+     * formats given to {@link #setDecompressors(StreamDecompressor...)}.
      *
      * @param ionData the source of the Ion data, which is used only within the
      * range of bytes starting at {@code offset} for {@code len} bytes.
@@ -198,7 +488,8 @@ public class IonReaderBuilder
      */
     public IonReader build(byte[] ionData, int offset, int length)
     {
-        return makeReader(validateCatalog(), ionData, offset, length);
+        return makeReader(validateCatalog(), ionData, offset, length,
+                          decompressors);
     }
 
     /**
@@ -206,10 +497,13 @@ public class IonReaderBuilder
      * instance over the given stream of Ion data, detecting whether it's text or
      * binary data.
      * <p>
-     * This method will auto-detect and uncompress GZIPped Ion data.
+     * This method will auto-detect and uncompress GZIPped Ion data, or the
+     * formats given to {@link #setDecompressors(StreamDecompressor...)}.
      * <p>
      * Because this library performs its own buffering, it's recommended that
-     * users avoid adding additional buffering to the given stream.
+     * users avoid adding additional buffering to the given stream. That
+     * buffering is tuned with {@link #setBufferSize(int)} and
+     * {@link #setReadAhead(int)}.
      *
      * @param ionData the source of the Ion data, which may be either Ion binary
      * data or UTF-8 Ion text. Must not be null.
@@ -223,7 +517,92 @@ public class IonReaderBuilder
      */
     public IonReader build(InputStream ionData)
     {
-        return makeReader(validateCatalog(), ionData);
+        return makeReader(validateCatalog(), ionData, bufferSize, readAhead,
+                          decompressors);
+    }
+
+    /**
+     * Based on the builder's configuration properties, creates a new IonReader
+     * instance over the remaining bytes of the given buffer, detecting whether
+     * it's text or binary data.
+     * <p>
+     * This method will auto-detect and uncompress GZIPped Ion data, or the
+     * formats given to {@link #setDecompressors(StreamDecompressor...)}.
+     * <p>
+     * Buffers backed by an accessible array are read in place, exactly like
+     * {@link #build(byte[], int, int)}. Binary Ion in direct buffers,
+     * including {@link java.nio.MappedByteBuffer}s, is read in place too.
+     * Text and compressed data in a direct buffer are instead read with bulk
+     * transfers into the reader's own buffers, whose size is set by
+     * {@link #setBufferSize(int)}, without an intermediate
+     * {@link InputStream}.
+     *
+     * @param ionData the source of the Ion data, from its position to its
+     * limit. The reader retains a reference to the buffer, so its data must
+     * not be modified while the reader is active; its position and limit are
+     * not modified by the reader. Must not be null.
+     *
+     * @return a new {@link IonReader} instance; not {@code null}.
+     */
+    public IonReader build(ByteBuffer ionData)
+    {
+        return makeReader(validateCatalog(), ionData, bufferSize, readAhead,
+                          decompressors);
+    }
+
+    /**
+     * Based on the builder's configuration properties, creates a new IonReader
+     * instance over the contents of a file channel, from its current position
+     * to its end, detecting whether it's text or binary data.
+     * <p>
+     * This method will auto-detect and uncompress GZIPped Ion data, or the
+     * formats given to {@link #setDecompressors(StreamDecompressor...)}.
+     * <p>
+     * The channel is memory-mapped read-only, so data is read straight from
+     * the operating system's page cache. Binary Ion is read in place from the
+     * mapping, like a direct buffer passed to {@link #build(ByteBuffer)},
+     * unless the file is larger than 1 GB. Larger files, text and compressed
+     * data are mapped in consecutive regions of up to 1 GB as the reader
+     * advances, and copied into the reader's own buffers.
+     *
+     * @param ionData the source of the Ion data. It is closed when the reader
+     * is closed. Must not be null.
+     *
+     * @return a new reader instance.
+     * Callers must call {@link IonReader#close()} when finished with it.
+     *
+     * @throws IonException if the channel can't be mapped.
+     */
+    public IonReader build(FileChannel ionData)
+    {
+        return makeReader(validateCatalog(), ionData, bufferSize, readAhead,
+                          decompressors);
+    }
+
+    /**
+     * Based on the builder's configuration properties, creates a new IonReader
+     * instance over the contents of a file, which is memory-mapped as
+     * described by {@link #build(FileChannel)}.
+     *
+     * @param ionFile the Ion text or binary file. Must not be null.
+     *
+     * @return a new reader instance.
+     * Callers must call {@link IonReader#close()} when finished with it.
+     *
+     * @throws IonException if the file can't be opened or mapped.
+     */
+    public IonReader build(File ionFile)
+    {
+        FileInputStream in;
+        try
+        {
+            in = new FileInputStream(ionFile);
+        }
+        catch (IOException e)
+        {
+            throw new IonException(e);
+        }
+        return build(in.getChannel());
     }
 
     /**
@@ -245,7 +624,11 @@ public class IonReaderBuilder
      */
     public IonReader build(Reader ionText)
     {
-        return makeReader(validateCatalog(), ionText);
+        if (jsonOnly)
+        {
+            return makeJsonReader(validateCatalog(), ionText, bufferSize, readAhead);
+        }
+        return makeReader(validateCatalog(), ionText, bufferSize, readAhead);
     }
 
     /**
@@ -276,9 +659,55 @@ public class IonReaderBuilder
      */
     public IonTextReader build(String ionText)
     {
+        if (jsonOnly)
+        {
+            return makeJsonReader(validateCatalog(), ionText);
+        }
         return makeReader(validateCatalog(), ionText);
     }
 
+    /**
+     * Based on the builder's configuration properties, creates a new
+     * {@link IonIncrementalReader} instance over Ion binary data that the
+     * caller supplies in chunks via
+     * {@link IonIncrementalReader#feed(byte[], int, int)}.
+     * <p>
+     * Unlike readers over an {@link InputStream}, the returned reader never
+     * blocks waiting for data: at top-level, {@link IonReader#next()} returns
+     * null until the next value has been completely fed. This makes it
+     * suitable for decoding data received by non-blocking I/O.
+     * <p>
+     * GZIPped data and Ion text are not supported.
+     *
+     * @return a new reader instance with no input.
+     * Callers must call {@link IonIncrementalReader#endOfInput()} once all
+     * data has been fed.
+     */
+    public IonIncrementalReader buildIncremental()
+    {
+        return makeIncrementalReader(validateCatalog());
+    }
+
+    /**
+     * Based on the builder's configuration properties, creates a new
+     * {@link IonResettableReader} instance over Ion binary data in byte
+     * arrays.
+     * <p>
+     * The returned reader can be re-targeted at new data with
+     * {@link IonResettableReader#reset(byte[], int, int)}, reusing its
+     * buffers. This is much cheaper than building a new reader for each
+     * input when reading many small messages, such as the payloads of
+     * individual requests.
+     * <p>
+     * GZIPped data and Ion text are not supported.
+     *
+     * @return a new reader instance with no input.
+     */
+    public IonResettableReader buildResettable()
+    {
+        return makeResettableReader(validateCatalog());
+    }
+
     private static class Mutable extends IonReaderBuilder
     {
 
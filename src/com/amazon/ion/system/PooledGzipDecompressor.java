@@ -0,0 +1,154 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.system;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.zip.CRC32;
+import java.util.zip.Inflater;
+
+/**
+ * Decompresses GZIPped data using {@link Inflater}s and input buffers drawn
+ * from a bounded pool, instead of allocating new ones for every stream as
+ * {@link java.util.zip.GZIPInputStream} does.
+ * <p>
+ * Each {@code Inflater} holds native memory that is only released when it
+ * is ended or finalized, so allocating one per stream is costly when
+ * reading many small GZIPped messages. Pooled resources are returned when
+ * the reader is closed; readers that are not closed simply don't return
+ * them, which is safe but forgoes the reuse.
+ * <p>
+ * Data is inflated directly into the reader's buffers. Concatenated GZIP
+ * members are read as one stream, and each member's checksum and length
+ * are verified, as with {@code GZIPInputStream}.
+ * <p>
+ * Instances are thread-safe and are intended to be shared, for example:
+ * <pre>
+ *    IonReaderBuilder.standard()
+ *        .withDecompressors(PooledGzipDecompressor.standard())
+ * </pre>
+ */
+public final class PooledGzipDecompressor
+    implements StreamDecompressor
+{
+    /**
+     * The number of inflaters retained by {@link #standard()}.
+     */
+    public static final int DEFAULT_POOL_SIZE = 64;
+
+    /**
+     * The size of the compressed-input buffers used by {@link #standard()}.
+     */
+    public static final int DEFAULT_INPUT_BUFFER_SIZE = 8 * 1024;
+
+    private static final PooledGzipDecompressor STANDARD =
+        new PooledGzipDecompressor(DEFAULT_POOL_SIZE, DEFAULT_INPUT_BUFFER_SIZE);
+
+    private final ArrayBlockingQueue<Resources> myPool;
+    private final int myInputBufferSize;
+
+    /**
+     * @param poolSize the maximum number of idle inflaters to retain.
+     * @param inputBufferSize the size of the buffer that compressed data is
+     *  read into before inflation.
+     *
+     * @throws IllegalArgumentException if either size is less than 1.
+     */
+    public PooledGzipDecompressor(int poolSize, int inputBufferSize)
+    {
+        if (poolSize < 1)
+        {
+            throw new IllegalArgumentException("poolSize must be positive");
+        }
+        if (inputBufferSize < 1)
+        {
+            throw new IllegalArgumentException("inputBufferSize must be positive");
+        }
+        myPool = new ArrayBlockingQueue<Resources>(poolSize);
+        myInputBufferSize = inputBufferSize;
+    }
+
+    /**
+     * Gets the shared instance with the default pool and buffer sizes.
+     */
+    public static PooledGzipDecompressor standard()
+    {
+        return STANDARD;
+    }
+
+    public int getHeaderLength()
+    {
+        return 2;
+    }
+
+    public boolean matches(byte[] header, int offset, int length)
+    {
+        return length >= 2
+            && header[offset] == (byte) PooledGzipInputStream.ID1
+            && header[offset + 1] == (byte) PooledGzipInputStream.ID2;
+    }
+
+    public InputStream newInputStream(InputStream compressed)
+        throws IOException
+    {
+        return new PooledGzipInputStream(this, compressed);
+    }
+
+    /**
+     * Gets the number of idle inflaters currently pooled.
+     */
+    int getPooledCount()
+    {
+        return myPool.size();
+    }
+
+    Resources acquire()
+    {
+        Resources r = myPool.poll();
+        if (r == null)
+        {
+            r = new Resources(myInputBufferSize);
+        }
+        return r;
+    }
+
+    void release(Resources r)
+    {
+        r.inflater.reset();
+        r.crc.reset();
+        if (!myPool.offer(r))
+        {
+            r.inflater.end();
+        }
+    }
+
+
+    /**
+     * The reusable state of one {@link PooledGzipInputStream}.
+     */
+    static final class Resources
+    {
+        final Inflater inflater = new Inflater(true);
+        final CRC32    crc      = new CRC32();
+        final byte[]   input;
+
+        Resources(int inputBufferSize)
+        {
+            input = new byte[inputBufferSize];
+        }
+    }
+}
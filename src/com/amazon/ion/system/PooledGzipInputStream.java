@@ -0,0 +1,340 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.system;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * Inflates GZIP members (RFC 1952) using resources borrowed from a
+ * {@link PooledGzipDecompressor}, which are returned on {@link #close()}.
+ * <p>
+ * Compressed input is read into the pooled buffer, and both the headers and
+ * the deflated data are consumed from there, so the underlying stream is
+ * read in large chunks regardless of how the caller reads.
+ */
+final class PooledGzipInputStream
+    extends InputStream
+{
+    static final int ID1 = 0x1F;
+    static final int ID2 = 0x8B;
+
+    private static final int CM_DEFLATE = 8;
+
+    private static final int FHCRC    = 0x02;
+    private static final int FEXTRA   = 0x04;
+    private static final int FNAME    = 0x08;
+    private static final int FCOMMENT = 0x10;
+
+    private final PooledGzipDecompressor myPool;
+    private final InputStream myIn;
+
+    private PooledGzipDecompressor.Resources myResources;
+    private Inflater myInflater;
+    private CRC32    myCrc;
+    private byte[]   myBuffer;
+
+    /** The next unconsumed byte of {@link #myBuffer}. */
+    private int myPos;
+    /** The end of the valid data in {@link #myBuffer}. */
+    private int myLimit;
+
+    private boolean myEof;
+    private final byte[] mySingleByte = new byte[1];
+
+    PooledGzipInputStream(PooledGzipDecompressor pool, InputStream in)
+        throws IOException
+    {
+        myPool = pool;
+        myIn = in;
+        myResources = pool.acquire();
+        myInflater = myResources.inflater;
+        myCrc = myResources.crc;
+        myBuffer = myResources.input;
+        try
+        {
+            readHeader();
+        }
+        catch (IOException e)
+        {
+            releaseResources();
+            throw e;
+        }
+    }
+
+    @Override
+    public int read()
+        throws IOException
+    {
+        int n = read(mySingleByte, 0, 1);
+        return (n == -1 ? -1 : mySingleByte[0] & 0xFF);
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len)
+        throws IOException
+    {
+        ensureOpen();
+        if (off < 0 || len < 0 || len > b.length - off)
+        {
+            throw new IndexOutOfBoundsException();
+        }
+        if (myEof) return -1;
+        if (len == 0) return 0;
+
+        while (true)
+        {
+            int n;
+            try
+            {
+                n = myInflater.inflate(b, off, len);
+            }
+            catch (DataFormatException e)
+            {
+                String message = e.getMessage();
+                throw new ZipException(message != null
+                                       ? message
+                                       : "Invalid ZLIB data format");
+            }
+            if (n > 0)
+            {
+                myCrc.update(b, off, n);
+                return n;
+            }
+            if (myInflater.finished())
+            {
+                if (!nextMember())
+                {
+                    myEof = true;
+                    return -1;
+                }
+            }
+            else if (myInflater.needsDictionary())
+            {
+                throw new ZipException("GZIP data requires a preset dictionary");
+            }
+            else if (myInflater.needsInput())
+            {
+                if (myPos == myLimit && !fill())
+                {
+                    throw new EOFException("Unexpected end of ZLIB input stream");
+                }
+                myInflater.setInput(myBuffer, myPos, myLimit - myPos);
+                myPos = myLimit;
+            }
+        }
+    }
+
+    @Override
+    public int available()
+        throws IOException
+    {
+        ensureOpen();
+        return (myEof ? 0 : 1);
+    }
+
+    @Override
+    public void close()
+        throws IOException
+    {
+        if (myResources != null)
+        {
+            releaseResources();
+            myIn.close();
+        }
+    }
+
+
+    private void ensureOpen()
+        throws IOException
+    {
+        if (myResources == null)
+        {
+            throw new IOException("Stream closed");
+        }
+    }
+
+    private void releaseResources()
+    {
+        PooledGzipDecompressor.Resources r = myResources;
+        myResources = null;
+        myInflater = null;
+        myCrc = null;
+        myBuffer = null;
+        myPool.release(r);
+    }
+
+    /**
+     * Refills the buffer from the underlying stream.
+     *
+     * @return false at the end of the underlying stream.
+     */
+    private boolean fill()
+        throws IOException
+    {
+        int n;
+        do
+        {
+            n = myIn.read(myBuffer, 0, myBuffer.length);
+        }
+        while (n == 0);
+        if (n < 0) return false;
+        myPos = 0;
+        myLimit = n;
+        return true;
+    }
+
+    /**
+     * @return the next compressed byte, or -1 at the end of the stream.
+     */
+    private int nextByte()
+        throws IOException
+    {
+        if (myPos == myLimit && !fill()) return -1;
+        return myBuffer[myPos++] & 0xFF;
+    }
+
+    private int readUByte()
+        throws IOException
+    {
+        int b = nextByte();
+        if (b < 0)
+        {
+            throw new EOFException("Unexpected end of GZIP input stream");
+        }
+        return b;
+    }
+
+    private int readUShort()
+        throws IOException
+    {
+        int b = readUByte();
+        return (readUByte() << 8) | b;
+    }
+
+    private long readUInt()
+        throws IOException
+    {
+        long s = readUShort();
+        return ((long) readUShort() << 16) | s;
+    }
+
+    /**
+     * Reads one byte of a member header, accumulating it into the CRC that
+     * guards the header.
+     */
+    private int readHeaderByte()
+        throws IOException
+    {
+        int b = readUByte();
+        myCrc.update(b);
+        return b;
+    }
+
+    private void readHeader()
+        throws IOException
+    {
+        myCrc.reset();
+        if (readHeaderByte() != ID1 || readHeaderByte() != ID2)
+        {
+            throw new ZipException("Not in GZIP format");
+        }
+        readMemberHeader();
+    }
+
+    /**
+     * Reads the rest of a member header whose two magic bytes have already
+     * been read into the CRC.
+     */
+    private void readMemberHeader()
+        throws IOException
+    {
+        if (readHeaderByte() != CM_DEFLATE)
+        {
+            throw new ZipException("Unsupported compression method");
+        }
+        int flags = readHeaderByte();
+        for (int i = 0; i < 6; i++)  // MTIME, XFL and OS
+        {
+            readHeaderByte();
+        }
+        if ((flags & FEXTRA) != 0)
+        {
+            int len = readHeaderByte() | (readHeaderByte() << 8);
+            for (int i = 0; i < len; i++)
+            {
+                readHeaderByte();
+            }
+        }
+        if ((flags & FNAME) != 0)
+        {
+            while (readHeaderByte() != 0) { }
+        }
+        if ((flags & FCOMMENT) != 0)
+        {
+            while (readHeaderByte() != 0) { }
+        }
+        if ((flags & FHCRC) != 0)
+        {
+            int expected = (int) myCrc.getValue() & 0xFFFF;
+            if (readUShort() != expected)
+            {
+                throw new ZipException("Corrupt GZIP header");
+            }
+        }
+        myCrc.reset();
+    }
+
+    /**
+     * Verifies the trailer of the member that the inflater just finished,
+     * then prepares for the following member, if any.
+     *
+     * @return false if there is no following member.
+     */
+    private boolean nextMember()
+        throws IOException
+    {
+        // Give back whatever the inflater was handed but didn't consume.
+        myPos = myLimit - myInflater.getRemaining();
+
+        long crc = readUInt();
+        long size = readUInt();
+        if (crc != myCrc.getValue()
+            || size != (myInflater.getBytesWritten() & 0xFFFFFFFFL))
+        {
+            throw new ZipException("Corrupt GZIP trailer");
+        }
+
+        // As with GZIPInputStream, anything after the last member that
+        // doesn't start like a member is ignored.
+        myCrc.reset();
+        int b = nextByte();
+        if (b != ID1) return false;
+        myCrc.update(b);
+        b = nextByte();
+        if (b != ID2) return false;
+        myCrc.update(b);
+
+        myInflater.reset();
+        readMemberHeader();
+        return true;
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.system;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Recognizes and decompresses one compressed format for readers built by
+ * an {@link IonReaderBuilder}. Register instances with
+ * {@link IonReaderBuilder#setDecompressors(StreamDecompressor...)}.
+ * <p>
+ * Unlike most interfaces in this library, this one is intended to be
+ * implemented by applications, for example to plug in a zstd or LZ4 codec.
+ * Implementations must be safe for use by multiple threads, since builders
+ * are commonly shared.
+ */
+public interface StreamDecompressor
+{
+    /**
+     * Gets the number of leading bytes that {@link #matches} needs to
+     * recognize this format, such as the length of its magic number.
+     *
+     * @return a non-negative length.
+     */
+    public int getHeaderLength();
+
+    /**
+     * Determines whether data begins with this format's header.
+     *
+     * @param header the leading bytes of the data. Must not be modified.
+     * @param offset the position of the first byte in {@code header}.
+     * @param length the number of bytes available, which is less than
+     *  {@link #getHeaderLength()} only when the data is that short.
+     *
+     * @return {@code true} if the data should be decompressed by this
+     *  instance.
+     */
+    public boolean matches(byte[] header, int offset, int length);
+
+    /**
+     * Creates a stream that decompresses the given data. The stream is
+     * closed when the reader built over it is closed, and must then close
+     * {@code compressed}.
+     *
+     * @param compressed the compressed data, starting with the bytes that
+     *  were passed to {@link #matches}.
+     *
+     * @return the decompressed data; not null.
+     *
+     * @throws IOException if the data can't be read or its header is
+     *  malformed.
+     */
+    public InputStream newInputStream(InputStream compressed)
+        throws IOException;
+}
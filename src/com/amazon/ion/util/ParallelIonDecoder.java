@@ -0,0 +1,492 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.util;
+
+import com.amazon.ion.IonCatalog;
+import com.amazon.ion.IonException;
+import com.amazon.ion.IonReader;
+import com.amazon.ion.IonSystem;
+import com.amazon.ion.IonValue;
+import com.amazon.ion.SymbolTable;
+import com.amazon.ion.impl._Private_IonReaderFactory;
+import com.amazon.ion.system.SimpleCatalog;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Decodes an Ion binary stream on several threads at once by partitioning
+ * it into ranges of consecutive top-level values.
+ * <p>
+ * A single skip-only pass (see {@link TopLevelValueIndex}) finds the
+ * top-level value boundaries and the symbol table in effect at each one. The
+ * stream is then cut into ranges of roughly equal byte length, and each
+ * range is decoded by its own {@link IonReader} on an
+ * {@link ExecutorService}. Each range's reader starts with the right symbol
+ * table and returns exactly the values of its range.
+ * <p>
+ * Results are returned in stream order by
+ * {@link #decodeOrdered(ExecutorService, RangeDecoder)}, or handed over as
+ * soon as each range is done by
+ * {@link #decodeUnordered(ExecutorService, RangeDecoder, ResultHandler)}.
+ * <p>
+ * Instances are immutable and may be used to decode the same data any number
+ * of times, from any thread.
+ */
+public final class ParallelIonDecoder
+{
+    /**
+     * Decodes one range of values. Implementations are called concurrently
+     * from several threads, each with its own reader.
+     */
+    public interface RangeDecoder<T>
+    {
+        /**
+         * Decodes a range. The reader is positioned before the range's first
+         * value, and {@link IonReader#next()} returns null after its last.
+         * The reader is closed after this method returns.
+         */
+        public T decode(Range range, IonReader reader)
+            throws Exception;
+    }
+
+    /**
+     * Receives the results of
+     * {@link ParallelIonDecoder#decodeUnordered(ExecutorService, RangeDecoder, ResultHandler)}.
+     * It is only called on the thread that started the decoding, one result
+     * at a time.
+     */
+    public interface ResultHandler<T>
+    {
+        public void handle(Range range, T result);
+    }
+
+    /**
+     * A contiguous range of top-level values.
+     */
+    public static final class Range
+    {
+        private final int         myIndex;
+        private final int         myFirstOrdinal;
+        private final int         myValueCount;
+        private final long        myStartOffset;
+        private final int         myLength;
+        private final SymbolTable mySymbolTable;
+        private ByteBuffer        myData;
+
+        private Range(int index,
+                      int firstOrdinal,
+                      int valueCount,
+                      long startOffset,
+                      int length,
+                      SymbolTable symbolTable)
+        {
+            myIndex = index;
+            myFirstOrdinal = firstOrdinal;
+            myValueCount = valueCount;
+            myStartOffset = startOffset;
+            myLength = length;
+            mySymbolTable = symbolTable;
+        }
+
+        /** Gets the zero-based position of this range among all ranges. */
+        public int getIndex()
+        {
+            return myIndex;
+        }
+
+        /** Gets the ordinal of the first value in this range. */
+        public int getFirstOrdinal()
+        {
+            return myFirstOrdinal;
+        }
+
+        /** Gets the number of top-level values in this range. */
+        public int getValueCount()
+        {
+            return myValueCount;
+        }
+
+        /** Gets the byte offset of this range from the start of the data. */
+        public long getStartOffset()
+        {
+            return myStartOffset;
+        }
+
+        /** Gets the number of bytes in this range. */
+        public int getLength()
+        {
+            return myLength;
+        }
+
+        @Override
+        public String toString()
+        {
+            return "Range[" + myIndex + ": " + myValueCount + " values from #"
+                + myFirstOrdinal + " at offset " + myStartOffset + "]";
+        }
+    }
+
+    /**
+     * The longest range that is produced unless a single value is longer.
+     * This keeps each range within one file mapping of reasonable size.
+     */
+    static final int MAX_RANGE_LENGTH = 1 << 30;
+
+    private final IonCatalog  myCatalog;
+    private final List<Range> myRanges;
+
+    private ParallelIonDecoder(IonCatalog catalog, List<Range> ranges)
+    {
+        myCatalog = catalog;
+        myRanges = Collections.unmodifiableList(ranges);
+    }
+
+
+    //=========================================================================
+    // Partitioning
+
+    /**
+     * Partitions Ion binary data held in memory.
+     *
+     * @param catalog the catalog used to resolve shared symbol table imports;
+     *  may be null.
+     * @param ionBinary the data, which must be Ion binary.
+     * @param rangeCount the desired number of ranges, typically a small
+     *  multiple of the number of threads. Fewer ranges are produced if there
+     *  are fewer values, and more if a range would exceed 1 GB.
+     *
+     * @throws IllegalArgumentException if the data isn't Ion binary or
+     *  {@code rangeCount} isn't positive.
+     */
+    public static ParallelIonDecoder partition(IonCatalog catalog,
+                                               byte[] ionBinary,
+                                               int rangeCount)
+    {
+        return partition(catalog, ByteBuffer.wrap(ionBinary), rangeCount);
+    }
+
+    /**
+     * Partitions the remaining Ion binary data in a buffer. The buffer's
+     * position is not modified, and its content must not be modified while
+     * the returned decoder is in use.
+     *
+     * @see #partition(IonCatalog, byte[], int)
+     */
+    public static ParallelIonDecoder partition(IonCatalog catalog,
+                                               ByteBuffer ionBinary,
+                                               int rangeCount)
+    {
+        checkRangeCount(rangeCount);
+        catalog = catalog(catalog);
+        TopLevelValueIndex index = TopLevelValueIndex.build(catalog, ionBinary, null);
+        List<Range> ranges = cut(index, ionBinary.remaining(), rangeCount);
+        for (Range range : ranges)
+        {
+            ByteBuffer slice = ionBinary.duplicate();
+            int start = ionBinary.position() + (int) range.myStartOffset;
+            slice.limit(start + range.myLength);
+            slice.position(start);
+            range.myData = slice;
+        }
+        return new ParallelIonDecoder(catalog, ranges);
+    }
+
+    /**
+     * Partitions an Ion binary file. The file is memory-mapped, so files
+     * larger than the heap may be decoded.
+     *
+     * @throws IonException if the file can't be read.
+     *
+     * @see #partition(IonCatalog, byte[], int)
+     */
+    public static ParallelIonDecoder partition(IonCatalog catalog,
+                                               File ionFile,
+                                               int rangeCount)
+    {
+        checkRangeCount(rangeCount);
+        catalog = catalog(catalog);
+        TopLevelValueIndex index = TopLevelValueIndex.build(catalog, ionFile, null);
+        try
+        {
+            FileInputStream in = new FileInputStream(ionFile);
+            try
+            {
+                FileChannel channel = in.getChannel();
+                List<Range> ranges = cut(index, channel.size(), rangeCount);
+                for (Range range : ranges)
+                {
+                    // Mappings remain valid after the channel is closed.
+                    range.myData = channel.map(FileChannel.MapMode.READ_ONLY,
+                                               range.myStartOffset,
+                                               range.myLength);
+                }
+                return new ParallelIonDecoder(catalog, ranges);
+            }
+            finally
+            {
+                in.close();
+            }
+        }
+        catch (IOException e)
+        {
+            throw new IonException(e);
+        }
+    }
+
+    /**
+     * Cuts the indexed values into ranges of roughly equal byte length.
+     * Symbol tables and IVMs between ranges become the tail of the preceding
+     * range, where the reader processes them without returning any values.
+     */
+    private static List<Range> cut(TopLevelValueIndex index,
+                                   long dataLength,
+                                   int rangeCount)
+    {
+        List<Range> ranges = new ArrayList<Range>(rangeCount);
+        int count = index.size();
+        if (count == 0)
+        {
+            return ranges;
+        }
+
+        long target = (dataLength - index.getOffset(0) + rangeCount - 1) / rangeCount;
+        target = Math.max(1, Math.min(target, MAX_RANGE_LENGTH));
+
+        int start = 0;
+        while (start < count)
+        {
+            long startOffset = index.getOffset(start);
+            int end = start + 1;
+            while (end < count && index.getOffset(end) - startOffset < target)
+            {
+                end++;
+            }
+            long endOffset = (end < count) ? index.getOffset(end) : dataLength;
+            if (endOffset - startOffset > Integer.MAX_VALUE)
+            {
+                throw new IonException("Value at offset " + startOffset
+                                       + " is too large to decode");
+            }
+            ranges.add(new Range(ranges.size(),
+                                 start,
+                                 end - start,
+                                 startOffset,
+                                 (int) (endOffset - startOffset),
+                                 index.getSymbolTable(start)));
+            start = end;
+        }
+        return ranges;
+    }
+
+
+    //=========================================================================
+    // Decoding
+
+    /**
+     * Gets the ranges that the data was partitioned into, in stream order.
+     */
+    public List<Range> getRanges()
+    {
+        return myRanges;
+    }
+
+    /**
+     * Creates a reader over a single range, for decoding it on the current
+     * thread. Callers must call {@link IonReader#close()} when finished.
+     */
+    public IonReader newReader(Range range)
+    {
+        if (myRanges.get(range.myIndex) != range)
+        {
+            throw new IllegalArgumentException("Range is from another decoder");
+        }
+        return _Private_IonReaderFactory.makeBinaryReader(myCatalog,
+                                                          range.myData,
+                                                          range.mySymbolTable);
+    }
+
+    /**
+     * Decodes all ranges concurrently, waiting for them all to finish.
+     *
+     * @return the result for each range, in stream order.
+     *
+     * @throws IonException if any range fails to decode. The first failure
+     *  in stream order is rethrown as-is if it is an IonException, and
+     *  wrapped in one otherwise. Remaining ranges are cancelled.
+     */
+    public <T> List<T> decodeOrdered(ExecutorService executor,
+                                     RangeDecoder<T> decoder)
+    {
+        List<Future<T>> futures = new ArrayList<Future<T>>(myRanges.size());
+        try
+        {
+            for (Range range : myRanges)
+            {
+                futures.add(executor.submit(task(range, decoder)));
+            }
+            List<T> results = new ArrayList<T>(futures.size());
+            for (Future<T> future : futures)
+            {
+                results.add(await(future));
+            }
+            return results;
+        }
+        finally
+        {
+            cancel(futures);
+        }
+    }
+
+    /**
+     * Decodes all ranges concurrently, passing each result to the handler as
+     * soon as its range is done. Returns after every result has been handled.
+     *
+     * @throws IonException if any range fails to decode. The failure is
+     *  rethrown as-is if it is an IonException, and wrapped in one
+     *  otherwise. Remaining ranges are cancelled.
+     */
+    public <T> void decodeUnordered(ExecutorService executor,
+                                    RangeDecoder<T> decoder,
+                                    ResultHandler<? super T> handler)
+    {
+        CompletionService<T> completion = new ExecutorCompletionService<T>(executor);
+        List<Future<T>> futures = new ArrayList<Future<T>>(myRanges.size());
+        // Completed futures don't say which task they came from.
+        Map<Future<T>, Range> rangesByFuture = new IdentityHashMap<Future<T>, Range>();
+        try
+        {
+            for (Range range : myRanges)
+            {
+                Future<T> future = completion.submit(task(range, decoder));
+                futures.add(future);
+                rangesByFuture.put(future, range);
+            }
+            for (int i = 0; i < futures.size(); i++)
+            {
+                Future<T> future;
+                try
+                {
+                    future = completion.take();
+                }
+                catch (InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                    throw new IonException(e);
+                }
+                handler.handle(rangesByFuture.get(future), await(future));
+            }
+        }
+        finally
+        {
+            cancel(futures);
+        }
+    }
+
+    /**
+     * Returns a decoder that materializes every value of a range.
+     */
+    public static RangeDecoder<List<IonValue>> domDecoder(final IonSystem system)
+    {
+        return new RangeDecoder<List<IonValue>>()
+        {
+            public List<IonValue> decode(Range range, IonReader reader)
+            {
+                List<IonValue> values = new ArrayList<IonValue>(range.getValueCount());
+                while (reader.next() != null)
+                {
+                    values.add(system.newValue(reader));
+                }
+                return values;
+            }
+        };
+    }
+
+    private <T> Callable<T> task(final Range range, final RangeDecoder<T> decoder)
+    {
+        return new Callable<T>()
+        {
+            public T call() throws Exception
+            {
+                IonReader reader = newReader(range);
+                try
+                {
+                    return decoder.decode(range, reader);
+                }
+                finally
+                {
+                    reader.close();
+                }
+            }
+        };
+    }
+
+    private static <T> T await(Future<T> future)
+    {
+        try
+        {
+            return future.get();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new IonException(e);
+        }
+        catch (ExecutionException e)
+        {
+            Throwable cause = e.getCause();
+            if (cause instanceof IonException)
+            {
+                throw (IonException) cause;
+            }
+            throw new IonException(cause);
+        }
+    }
+
+    private static void cancel(List<? extends Future<?>> futures)
+    {
+        for (Future<?> future : futures)
+        {
+            future.cancel(true);
+        }
+    }
+
+    private static void checkRangeCount(int rangeCount)
+    {
+        if (rangeCount < 1)
+        {
+            throw new IllegalArgumentException("rangeCount must be positive");
+        }
+    }
+
+    private static IonCatalog catalog(IonCatalog catalog)
+    {
+        return (catalog == null) ? new SimpleCatalog() : catalog;
+    }
+}
@@ -0,0 +1,607 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.util;
+
+import com.amazon.ion.FieldHandleReader;
+import com.amazon.ion.IonReader;
+import com.amazon.ion.IonType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Extracts the values at a set of registered paths from a stream of Ion
+ * values, stepping into only those containers that can lead to a match.
+ * <p>
+ * A path selects values nested within the value it is applied to. It is a
+ * sequence of steps, each either a field name that selects a struct member or
+ * a bracketed index that selects an element of a list or sexp:
+ * <ul>
+ *   <li>{@code order.customer.id} selects field {@code id} of field
+ *       {@code customer} of field {@code order};</li>
+ *   <li>{@code items[*].sku} selects field {@code sku} of every element of
+ *       field {@code items};</li>
+ *   <li>{@code [0]} selects the first element, and {@code *} selects every
+ *       struct member;</li>
+ *   <li>field names that aren't plain identifiers can be quoted, as in
+ *       {@code 'a.b'.c}, using backslash to escape quotes and backslashes;</li>
+ *   <li>the empty path selects the value itself.</li>
+ * </ul>
+ * Annotations are ignored, and a field name step matches every member with
+ * that name.
+ * <p>
+ * The paths are compiled into a state machine when the extractor is built.
+ * Containers that no path leads into are passed over with
+ * {@link IonReader#next()}, which binary readers implement by skipping the
+ * container's length and text readers by scanning for its closing delimiter,
+ * so values outside the paths are never decoded. On binary readers, field
+ * names are matched by symbol ID through the {@link FieldHandleReader}
+ * facet, without materializing them as strings.
+ * <p>
+ * Instances of this class are immutable and safe for use by multiple threads.
+ */
+public final class PathExtractor
+{
+    /**
+     * Receives the values that match a path.
+     */
+    public interface Callback
+    {
+        /**
+         * Handles a match. The reader is positioned on the matched value,
+         * which the callback may read, or step into as long as it steps back
+         * out before returning.
+         *
+         * @return the number of enclosing containers to step out of before
+         * matching continues; zero to continue with the next value. A count
+         * that reaches the level at which matching started ends the match.
+         */
+        public int onMatch(IonReader reader);
+    }
+
+    /**
+     * Registers paths and builds {@link PathExtractor}s.
+     */
+    public static final class Builder
+    {
+        private final Node               myRoot = new Node(0);
+        private final List<Node>         myNodes = new ArrayList<Node>();
+        private final List<Callback>     myCallbacks = new ArrayList<Callback>();
+        private final Map<String, Integer> myNameIds = new HashMap<String, Integer>();
+        private final List<String>       myNames = new ArrayList<String>();
+
+        private Builder()
+        {
+            myNodes.add(myRoot);
+        }
+
+        /**
+         * Registers a path. Callbacks for the same value are invoked in the
+         * order they were registered.
+         *
+         * @param path the path, as described by {@link PathExtractor}.
+         * @param callback receives each value that matches the path.
+         *
+         * @return this builder.
+         *
+         * @throws IllegalArgumentException if the path is malformed.
+         */
+        public Builder withSearchPath(String path, Callback callback)
+        {
+            if (path == null || callback == null)
+            {
+                throw new NullPointerException();
+            }
+            Node node = myRoot;
+            int pos = 0;
+            int length = path.length();
+            boolean first = true;
+            while (pos < length)
+            {
+                char c = path.charAt(pos);
+                if (c == '[')
+                {
+                    int end = path.indexOf(']', pos);
+                    if (end < 0)
+                    {
+                        throw badPath(path, "unterminated index");
+                    }
+                    String index = path.substring(pos + 1, end);
+                    if (index.equals("*"))
+                    {
+                        if (node.anyIndex == null)
+                        {
+                            node.anyIndex = newNode();
+                        }
+                        node = node.anyIndex;
+                    }
+                    else
+                    {
+                        int i = parseIndex(path, index);
+                        Node child = node.indexChildren.get(i);
+                        if (child == null)
+                        {
+                            child = newNode();
+                            node.indexChildren.put(i, child);
+                        }
+                        node = child;
+                    }
+                    pos = end + 1;
+                }
+                else
+                {
+                    if (!first)
+                    {
+                        if (c != '.')
+                        {
+                            throw badPath(path, "expected '.' or '[' at " + pos);
+                        }
+                        pos++;
+                    }
+                    StringBuilder name = new StringBuilder();
+                    pos = parseName(path, pos, name);
+                    if (name.length() == 1 && name.charAt(0) == '*' && path.charAt(pos - 1) == '*')
+                    {
+                        if (node.anyField == null)
+                        {
+                            node.anyField = newNode();
+                        }
+                        node = node.anyField;
+                    }
+                    else
+                    {
+                        int nameId = nameId(name.toString());
+                        Node child = node.fieldChildren.get(nameId);
+                        if (child == null)
+                        {
+                            child = newNode();
+                            node.fieldChildren.put(nameId, child);
+                        }
+                        node = child;
+                    }
+                }
+                first = false;
+            }
+            node.callbacks.add(myCallbacks.size());
+            myCallbacks.add(callback);
+            return this;
+        }
+
+        /**
+         * Builds an extractor for the paths registered so far.
+         */
+        public PathExtractor build()
+        {
+            return new PathExtractor(this);
+        }
+
+        private Node newNode()
+        {
+            Node node = new Node(myNodes.size());
+            myNodes.add(node);
+            return node;
+        }
+
+        private int nameId(String name)
+        {
+            Integer id = myNameIds.get(name);
+            if (id == null)
+            {
+                id = myNames.size();
+                myNameIds.put(name, id);
+                myNames.add(name);
+            }
+            return id;
+        }
+
+        private static int parseIndex(String path, String index)
+        {
+            if (index.length() == 0)
+            {
+                throw badPath(path, "empty index");
+            }
+            for (int i = 0; i < index.length(); i++)
+            {
+                if (index.charAt(i) < '0' || index.charAt(i) > '9')
+                {
+                    throw badPath(path, "invalid index " + index);
+                }
+            }
+            try
+            {
+                return Integer.parseInt(index);
+            }
+            catch (NumberFormatException e)
+            {
+                throw badPath(path, "invalid index " + index);
+            }
+        }
+
+        /**
+         * Parses a plain or quoted field name starting at {@code pos}.
+         *
+         * @return the position after the name.
+         */
+        private static int parseName(String path, int pos, StringBuilder name)
+        {
+            int length = path.length();
+            if (pos < length && path.charAt(pos) == '\'')
+            {
+                pos++;
+                while (true)
+                {
+                    if (pos >= length)
+                    {
+                        throw badPath(path, "unterminated quoted field name");
+                    }
+                    char c = path.charAt(pos++);
+                    if (c == '\'')
+                    {
+                        return pos;
+                    }
+                    if (c == '\\')
+                    {
+                        if (pos >= length)
+                        {
+                            throw badPath(path, "unterminated quoted field name");
+                        }
+                        c = path.charAt(pos++);
+                    }
+                    name.append(c);
+                }
+            }
+            while (pos < length)
+            {
+                char c = path.charAt(pos);
+                if (c == '.' || c == '[')
+                {
+                    break;
+                }
+                if (c == ']' || c == '\'')
+                {
+                    throw badPath(path, "unexpected '" + c + "' at " + pos);
+                }
+                name.append(c);
+                pos++;
+            }
+            if (name.length() == 0)
+            {
+                throw badPath(path, "empty field name at " + pos);
+            }
+            return pos;
+        }
+
+        private static IllegalArgumentException badPath(String path, String reason)
+        {
+            return new IllegalArgumentException("Invalid path " + IonTextUtils.printString(path)
+                                                + ": " + reason);
+        }
+    }
+
+    /** A step of the registered paths, with the paths ending there. */
+    private static final class Node
+    {
+        final int                  id;
+        final Map<Integer, Node>   fieldChildren = new HashMap<Integer, Node>();
+        final TreeMap<Integer, Node> indexChildren = new TreeMap<Integer, Node>();
+        Node                       anyField;
+        Node                       anyIndex;
+        final List<Integer>        callbacks = new ArrayList<Integer>();
+
+        Node(int id)
+        {
+            this.id = id;
+        }
+    }
+
+    /**
+     * A state of the compiled matcher: the set of path steps that a value
+     * reached, and where each kind of child value leads from there.
+     */
+    private static final class State
+    {
+        Callback[] callbacks;
+        /** Indexed by name ID. */
+        State[]    fieldStates;
+        State      otherFieldState;
+        /** Sorted. */
+        int[]      indexes;
+        State[]    indexStates;
+        State      otherIndexState;
+        boolean    hasFieldTransitions;
+        boolean    hasIndexTransitions;
+
+        State fieldState(int nameId)
+        {
+            return (nameId < 0) ? otherFieldState : fieldStates[nameId];
+        }
+
+        State indexState(int index)
+        {
+            for (int i = 0; i < indexes.length; i++)
+            {
+                if (indexes[i] == index)
+                {
+                    return indexStates[i];
+                }
+            }
+            return otherIndexState;
+        }
+    }
+
+    private static final State[] NO_STATES = new State[0];
+
+    private final String[]             myNames;
+    private final Map<String, Integer> myNameIds;
+    private final State                myStartState;
+
+    private PathExtractor(Builder builder)
+    {
+        myNames = builder.myNames.toArray(new String[builder.myNames.size()]);
+        myNameIds = new HashMap<String, Integer>(builder.myNameIds);
+        Map<String, State> states = new HashMap<String, State>();
+        TreeSet<Integer> start = new TreeSet<Integer>();
+        start.add(builder.myRoot.id);
+        myStartState = compile(builder, start, states);
+    }
+
+    /**
+     * Creates a builder with no paths registered.
+     */
+    public static Builder builder()
+    {
+        return new Builder();
+    }
+
+    /**
+     * Compiles the state reached by a set of path steps, reusing states
+     * already compiled for the same set.
+     */
+    private State compile(Builder builder, TreeSet<Integer> nodeIds, Map<String, State> states)
+    {
+        String key = nodeIds.toString();
+        State state = states.get(key);
+        if (state != null)
+        {
+            return state;
+        }
+        state = new State();
+        states.put(key, state);
+
+        List<Node> nodes = new ArrayList<Node>(nodeIds.size());
+        TreeSet<Integer> callbackIds = new TreeSet<Integer>();
+        TreeSet<Integer> indexes = new TreeSet<Integer>();
+        TreeSet<Integer> anyFieldIds = new TreeSet<Integer>();
+        TreeSet<Integer> anyIndexIds = new TreeSet<Integer>();
+        for (Integer id : nodeIds)
+        {
+            Node node = builder.myNodes.get(id);
+            nodes.add(node);
+            callbackIds.addAll(node.callbacks);
+            indexes.addAll(node.indexChildren.keySet());
+            if (node.anyField != null)
+            {
+                anyFieldIds.add(node.anyField.id);
+            }
+            if (node.anyIndex != null)
+            {
+                anyIndexIds.add(node.anyIndex.id);
+            }
+        }
+
+        state.callbacks = new Callback[callbackIds.size()];
+        int i = 0;
+        for (Integer id : callbackIds)
+        {
+            state.callbacks[i++] = builder.myCallbacks.get(id);
+        }
+
+        state.otherFieldState = anyFieldIds.isEmpty() ? null : compile(builder, anyFieldIds, states);
+        state.fieldStates = new State[myNames.length];
+        for (int nameId = 0; nameId < myNames.length; nameId++)
+        {
+            TreeSet<Integer> next = new TreeSet<Integer>(anyFieldIds);
+            for (Node node : nodes)
+            {
+                Node child = node.fieldChildren.get(nameId);
+                if (child != null)
+                {
+                    next.add(child.id);
+                }
+            }
+            state.fieldStates[nameId] = next.isEmpty() ? null : compile(builder, next, states);
+            state.hasFieldTransitions |= (state.fieldStates[nameId] != null);
+        }
+
+        state.otherIndexState = anyIndexIds.isEmpty() ? null : compile(builder, anyIndexIds, states);
+        state.indexes = new int[indexes.size()];
+        state.indexStates = indexes.isEmpty() ? NO_STATES : new State[indexes.size()];
+        i = 0;
+        for (Integer index : indexes)
+        {
+            TreeSet<Integer> next = new TreeSet<Integer>(anyIndexIds);
+            for (Node node : nodes)
+            {
+                Node child = node.indexChildren.get(index);
+                if (child != null)
+                {
+                    next.add(child.id);
+                }
+            }
+            state.indexes[i] = index;
+            state.indexStates[i] = compile(builder, next, states);
+            i++;
+        }
+
+        state.hasFieldTransitions |= (state.otherFieldState != null);
+        state.hasIndexTransitions = (state.otherIndexState != null) || (state.indexes.length != 0);
+        return state;
+    }
+
+    /**
+     * Matches the registered paths against each of the remaining values at
+     * the reader's current depth, calling {@link IonReader#next()} until it
+     * returns null or a callback ends the match.
+     * Paths are applied to each of those values, so at the top level of a
+     * stream each top-level value is a separate record.
+     */
+    public void match(IonReader reader)
+    {
+        Matcher matcher = new Matcher(reader);
+        while (reader.next() != null)
+        {
+            if (matcher.matchValue(myStartState) > 0)
+            {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Matches the registered paths against the reader's current value only.
+     *
+     * @throws IllegalStateException if the reader is not positioned on a
+     * value.
+     */
+    public void matchCurrentValue(IonReader reader)
+    {
+        if (reader.getType() == null)
+        {
+            throw new IllegalStateException("reader is not positioned on a value");
+        }
+        new Matcher(reader).matchValue(myStartState);
+    }
+
+    /**
+     * Matches a reader's values against the compiled states, mapping its
+     * field names to name IDs.
+     */
+    private final class Matcher
+    {
+        private final IonReader         myReader;
+        private final FieldHandleReader myFieldHandles;
+        /** Name IDs indexed by the reader's field handles, or -1. */
+        private final int[]             myHandleNameIds;
+
+        Matcher(IonReader reader)
+        {
+            myReader = reader;
+            myFieldHandles = reader.asFacet(FieldHandleReader.class);
+            if (myFieldHandles == null)
+            {
+                myHandleNameIds = null;
+            }
+            else
+            {
+                int[] handles = new int[myNames.length];
+                int maxHandle = -1;
+                for (int nameId = 0; nameId < myNames.length; nameId++)
+                {
+                    handles[nameId] = myFieldHandles.registerFieldName(myNames[nameId]);
+                    maxHandle = Math.max(maxHandle, handles[nameId]);
+                }
+                myHandleNameIds = new int[maxHandle + 1];
+                Arrays.fill(myHandleNameIds, -1);
+                for (int nameId = 0; nameId < myNames.length; nameId++)
+                {
+                    myHandleNameIds[handles[nameId]] = nameId;
+                }
+            }
+        }
+
+        private int currentNameId()
+        {
+            if (myFieldHandles != null)
+            {
+                // Other users of the reader may have registered more names,
+                // so handles can lie beyond the ones this extractor knows.
+                int handle = myFieldHandles.getFieldHandle();
+                return (handle < 0 || handle >= myHandleNameIds.length)
+                    ? -1
+                    : myHandleNameIds[handle];
+            }
+            String name = myReader.getFieldName();
+            Integer nameId = (name == null) ? null : myNameIds.get(name);
+            return (nameId == null) ? -1 : nameId;
+        }
+
+        /**
+         * Invokes the callbacks of the current value and matches its
+         * children.
+         *
+         * @return the number of containers still to be stepped out of.
+         */
+        int matchValue(State state)
+        {
+            IonReader reader = myReader;
+            for (Callback callback : state.callbacks)
+            {
+                int depth = reader.getDepth();
+                int stepOut = callback.onMatch(reader);
+                if (reader.getDepth() != depth)
+                {
+                    throw new IllegalStateException("callback must leave the reader at depth " + depth);
+                }
+                if (stepOut < 0)
+                {
+                    throw new IllegalStateException("callback returned a negative step-out count: " + stepOut);
+                }
+                if (stepOut > 0)
+                {
+                    return stepOut;
+                }
+            }
+
+            IonType type = reader.getType();
+            boolean inStruct = (type == IonType.STRUCT);
+            if (inStruct ? !state.hasFieldTransitions
+                         : !(state.hasIndexTransitions && IonType.isContainer(type)))
+            {
+                // Nothing to match inside, so let next() skip over it.
+                return 0;
+            }
+            if (reader.isNullValue())
+            {
+                return 0;
+            }
+
+            reader.stepIn();
+            int stepOut = 0;
+            int index = 0;
+            while (reader.next() != null)
+            {
+                State child = inStruct
+                    ? state.fieldState(currentNameId())
+                    : state.indexState(index++);
+                if (child != null)
+                {
+                    stepOut = matchValue(child);
+                    if (stepOut > 0)
+                    {
+                        stepOut--;
+                        break;
+                    }
+                }
+            }
+            reader.stepOut();
+            return stepOut;
+        }
+    }
+}
@@ -0,0 +1,848 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.util;
+
+import com.amazon.ion.IonCatalog;
+import com.amazon.ion.IonException;
+import com.amazon.ion.IonReader;
+import com.amazon.ion.IonType;
+import com.amazon.ion.IonWriter;
+import com.amazon.ion.OffsetSpan;
+import com.amazon.ion.SpanProvider;
+import com.amazon.ion.SymbolTable;
+import com.amazon.ion.impl._Private_IonReaderFactory;
+import com.amazon.ion.impl._Private_Utils;
+import com.amazon.ion.system.IonBinaryWriterBuilder;
+import com.amazon.ion.system.SimpleCatalog;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An index of the top-level values of an Ion binary stream, allowing
+ * readers to be positioned directly on any value without rescanning the
+ * stream from its start.
+ * <p>
+ * An index is built by scanning the stream once. The scan skips over each
+ * value without decoding it, unless a {@link KeyExtractor} is supplied.
+ * For each value it records the byte offset from the start of the data and
+ * the symbol table in effect. The index can be written to a compact sidecar
+ * file with {@link #writeTo(OutputStream)} and loaded again with
+ * {@link #read(InputStream, IonCatalog)}.
+ * <p>
+ * {@link #newReader(IonCatalog, byte[], int)} and its overloads create a
+ * reader whose first call to {@link IonReader#next()} returns the value with
+ * the given ordinal.
+ * Subsequent calls continue through the rest of the stream, including any
+ * later symbol tables. Offsets of spans from such a reader are relative to
+ * the start of the value it was positioned on.
+ * <p>
+ * If a {@link KeyExtractor} is used, each value also gets a {@code long}
+ * key, and {@link #findKeyRange(long, long)} finds the values whose keys
+ * fall in a range.
+ * <p>
+ * GZIPped data can't be indexed, since offsets into it are meaningless.
+ * Instances of this class are immutable and safe for use by multiple threads.
+ */
+public final class TopLevelValueIndex
+{
+    /**
+     * Computes the key of a top-level value while an index is being built.
+     */
+    public interface KeyExtractor
+    {
+        /**
+         * Computes the key of the reader's current value. The reader is
+         * positioned on a top-level value. Implementations may step into it,
+         * but must step back out before returning.
+         */
+        public long extractKey(IonReader reader);
+    }
+
+    private static final String INDEX_ANNOTATION    = "ion_value_index";
+    private static final String VERSION             = "version";
+    private static final String COUNT               = "count";
+    private static final String OFFSETS             = "offsets";
+    private static final String SYMBOL_TABLES       = "symbol_tables";
+    private static final String SYMBOL_TABLE_STARTS = "symbol_table_starts";
+    private static final String SYMBOL_TABLE_IDS    = "symbol_table_ids";
+    private static final String KEYS                = "keys";
+
+    private static final int FORMAT_VERSION = 1;
+
+    private final int           myCount;
+    private final long[]        myOffsets;
+    /** Distinct symbol tables; null entries stand for the system table. */
+    private final SymbolTable[] mySymbolTables;
+    /** The first ordinal of each run of values sharing a symbol table. */
+    private final int[]         myRunStarts;
+    /** The index into {@link #mySymbolTables} of each run. */
+    private final int[]         myRunTables;
+    /** Null when the index has no keys. */
+    private final long[]        myKeys;
+    /** Ordinals sorted by key; null when there are no keys or when the keys are already sorted. */
+    private final int[]         myKeyOrder;
+
+    private TopLevelValueIndex(int count,
+                               long[] offsets,
+                               SymbolTable[] symbolTables,
+                               int[] runStarts,
+                               int[] runTables,
+                               long[] keys)
+    {
+        myCount = count;
+        myOffsets = offsets;
+        mySymbolTables = symbolTables;
+        myRunStarts = runStarts;
+        myRunTables = runTables;
+        myKeys = keys;
+        myKeyOrder = (keys == null) ? null : sortByKey(keys, count);
+    }
+
+
+    //=========================================================================
+    // Building
+
+    /**
+     * Builds an index of Ion binary data held in memory.
+     *
+     * @param catalog the catalog used to resolve shared symbol table imports;
+     *  may be null.
+     * @param ionBinary the data, which must be Ion binary.
+     *
+     * @throws IllegalArgumentException if the data isn't Ion binary.
+     */
+    public static TopLevelValueIndex build(IonCatalog catalog, byte[] ionBinary)
+    {
+        return build(catalog, ionBinary, null);
+    }
+
+    /**
+     * Builds an index of Ion binary data held in memory, extracting a key
+     * from each value.
+     *
+     * @param keyExtractor computes the key of each value; may be null, in
+     *  which case the index has no keys.
+     *
+     * @see #build(IonCatalog, byte[])
+     */
+    public static TopLevelValueIndex build(IonCatalog catalog,
+                                           byte[] ionBinary,
+                                           KeyExtractor keyExtractor)
+    {
+        if (ionBinary.length != 0 && ! IonStreamUtils.isIonBinary(ionBinary))
+        {
+            throw new IllegalArgumentException("Only Ion binary data can be indexed");
+        }
+        IonReader reader =
+            _Private_IonReaderFactory.makeReader(catalog(catalog), ionBinary);
+        return build(reader, keyExtractor);
+    }
+
+    /**
+     * Builds an index of the remaining Ion binary data in a buffer. Offsets
+     * are relative to the buffer's position, which is not modified.
+     *
+     * @param catalog the catalog used to resolve shared symbol table imports;
+     *  may be null.
+     * @param ionBinary the data, which must be Ion binary.
+     * @param keyExtractor computes the key of each value; may be null, in
+     *  which case the index has no keys.
+     *
+     * @throws IllegalArgumentException if the data isn't Ion binary.
+     */
+    public static TopLevelValueIndex build(IonCatalog catalog,
+                                           ByteBuffer ionBinary,
+                                           KeyExtractor keyExtractor)
+    {
+        ByteBuffer header = ionBinary.duplicate();
+        byte[] cookie = new byte[Math.min(4, header.remaining())];
+        header.get(cookie);
+        if (cookie.length != 0 && ! IonStreamUtils.isIonBinary(cookie))
+        {
+            throw new IllegalArgumentException("Only Ion binary data can be indexed");
+        }
+        IonReader reader =
+            _Private_IonReaderFactory.makeReader(catalog(catalog), ionBinary);
+        return build(reader, keyExtractor);
+    }
+
+    /**
+     * Builds an index of an Ion binary file. The file is memory-mapped, so
+     * files larger than the heap may be indexed.
+     *
+     * @param catalog the catalog used to resolve shared symbol table imports;
+     *  may be null.
+     * @param ionFile the file, which must contain Ion binary.
+     * @param keyExtractor computes the key of each value; may be null, in
+     *  which case the index has no keys.
+     *
+     * @throws IllegalArgumentException if the file doesn't contain Ion binary.
+     * @throws IonException if the file can't be read.
+     */
+    public static TopLevelValueIndex build(IonCatalog catalog,
+                                           File ionFile,
+                                           KeyExtractor keyExtractor)
+    {
+        FileChannel channel = open(ionFile, 0);
+        try
+        {
+            ByteBuffer header = ByteBuffer.allocate(4);
+            while (header.hasRemaining() && channel.read(header) >= 0) { }
+            if (header.position() != 0
+                && ! IonStreamUtils.isIonBinary(header.array(), 0, header.position()))
+            {
+                throw new IllegalArgumentException("Only Ion binary data can be indexed");
+            }
+            channel.position(0);
+        }
+        catch (IOException e)
+        {
+            closeQuietly(channel);
+            throw new IonException(e);
+        }
+        catch (RuntimeException e)
+        {
+            closeQuietly(channel);
+            throw e;
+        }
+        IonReader reader =
+            _Private_IonReaderFactory.makeReader(catalog(catalog), channel);
+        return build(reader, keyExtractor);
+    }
+
+    private static TopLevelValueIndex build(IonReader reader,
+                                            KeyExtractor keyExtractor)
+    {
+        try
+        {
+            SpanProvider spans = reader.asFacet(SpanProvider.class);
+
+            long[] offsets = new long[256];
+            long[] keys = (keyExtractor == null) ? null : new long[256];
+            List<SymbolTable> symbolTables = new ArrayList<SymbolTable>();
+            int[] runStarts = new int[4];
+            int[] runTables = new int[4];
+            int runCount = 0;
+            SymbolTable current = null;
+
+            int count = 0;
+            while (reader.next() != null)
+            {
+                if (count == offsets.length)
+                {
+                    if (count == Integer.MAX_VALUE)
+                    {
+                        throw new IonException("Too many values to index");
+                    }
+                    int newLength = (int) Math.min(2L * count, Integer.MAX_VALUE);
+                    offsets = Arrays.copyOf(offsets, newLength);
+                    if (keys != null) keys = Arrays.copyOf(keys, newLength);
+                }
+
+                OffsetSpan span = spans.currentSpan().asFacet(OffsetSpan.class);
+                offsets[count] = span.getStartOffset();
+
+                SymbolTable symtab = reader.getSymbolTable();
+                if (symtab != current || runCount == 0)
+                {
+                    current = symtab;
+                    if (runCount == runStarts.length)
+                    {
+                        runStarts = Arrays.copyOf(runStarts, runCount * 2);
+                        runTables = Arrays.copyOf(runTables, runCount * 2);
+                    }
+                    runStarts[runCount] = count;
+                    runTables[runCount] = symbolTables.size();
+                    runCount++;
+                    symbolTables.add(symtab.isSystemTable() ? null : symtab);
+                }
+
+                if (keys != null)
+                {
+                    keys[count] = keyExtractor.extractKey(reader);
+                }
+                count++;
+            }
+
+            return new TopLevelValueIndex(count,
+                                          offsets,
+                                          symbolTables.toArray(new SymbolTable[0]),
+                                          Arrays.copyOf(runStarts, runCount),
+                                          Arrays.copyOf(runTables, runCount),
+                                          keys);
+        }
+        finally
+        {
+            try
+            {
+                reader.close();
+            }
+            catch (IOException e)
+            {
+                throw new IonException(e);
+            }
+        }
+    }
+
+
+    //=========================================================================
+    // Lookup
+
+    /**
+     * Gets the number of top-level values in the index.
+     */
+    public int size()
+    {
+        return myCount;
+    }
+
+    /**
+     * Gets the byte offset of a value from the start of the indexed data.
+     * If the value is annotated, this is the offset of its annotations.
+     *
+     * @param ordinal the zero-based position of the value in the stream.
+     *
+     * @throws IndexOutOfBoundsException if the ordinal is out of range.
+     */
+    public long getOffset(int ordinal)
+    {
+        checkOrdinal(ordinal);
+        return myOffsets[ordinal];
+    }
+
+    /**
+     * Gets the symbol table in effect at a value.
+     *
+     * @return the local symbol table, or null if only the system symbol table
+     *  is in effect.
+     *
+     * @throws IndexOutOfBoundsException if the ordinal is out of range.
+     */
+    public SymbolTable getSymbolTable(int ordinal)
+    {
+        checkOrdinal(ordinal);
+        int run = Arrays.binarySearch(myRunStarts, ordinal);
+        if (run < 0)
+        {
+            run = -run - 2;
+        }
+        return mySymbolTables[myRunTables[run]];
+    }
+
+    /**
+     * Determines whether the index has a key for each value.
+     */
+    public boolean hasKeys()
+    {
+        return myKeys != null;
+    }
+
+    /**
+     * Gets the key of a value.
+     *
+     * @throws IllegalStateException if the index has no keys.
+     * @throws IndexOutOfBoundsException if the ordinal is out of range.
+     */
+    public long getKey(int ordinal)
+    {
+        checkKeys();
+        checkOrdinal(ordinal);
+        return myKeys[ordinal];
+    }
+
+    /**
+     * Finds the values whose keys are within a range.
+     *
+     * @param minKey the smallest key to find, inclusive.
+     * @param maxKey the largest key to find, inclusive.
+     *
+     * @return the ordinals of the matching values, ordered by key and then
+     *  by ordinal; not null.
+     *
+     * @throws IllegalStateException if the index has no keys.
+     */
+    public int[] findKeyRange(long minKey, long maxKey)
+    {
+        checkKeys();
+        int from = lowerBound(minKey);
+        int to = (maxKey == Long.MAX_VALUE) ? myCount : lowerBound(maxKey + 1);
+        if (to <= from)
+        {
+            return new int[0];
+        }
+        int[] ordinals = new int[to - from];
+        for (int i = from; i < to; i++)
+        {
+            ordinals[i - from] = (myKeyOrder == null) ? i : myKeyOrder[i];
+        }
+        return ordinals;
+    }
+
+    /** Returns the first position in key order with a key of at least the given key. */
+    private int lowerBound(long key)
+    {
+        int low = 0;
+        int high = myCount;
+        while (low < high)
+        {
+            int mid = (low + high) >>> 1;
+            long midKey = myKeys[(myKeyOrder == null) ? mid : myKeyOrder[mid]];
+            if (midKey < key)
+            {
+                low = mid + 1;
+            }
+            else
+            {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+
+    //=========================================================================
+    // Reading the indexed data
+
+    /**
+     * Creates a reader over the indexed data that is positioned before a
+     * value.
+     *
+     * @param catalog the catalog used to resolve shared symbol table imports
+     *  of later symbol tables; may be null.
+     * @param ionBinary the same data that was indexed.
+     * @param ordinal the value that the first call to {@link IonReader#next()}
+     *  will return.
+     *
+     * @throws IndexOutOfBoundsException if the ordinal is out of range.
+     */
+    public IonReader newReader(IonCatalog catalog, byte[] ionBinary, int ordinal)
+    {
+        long offset = getOffset(ordinal);
+        if (offset >= ionBinary.length)
+        {
+            throw new IllegalArgumentException("Data is shorter than the indexed data");
+        }
+        return _Private_IonReaderFactory.makeBinaryReader(catalog(catalog),
+                                                          ionBinary,
+                                                          (int) offset,
+                                                          ionBinary.length - (int) offset,
+                                                          getSymbolTable(ordinal));
+    }
+
+    /**
+     * Creates a reader over an indexed buffer that is positioned before a
+     * value. The buffer's position is not modified.
+     *
+     * @param catalog the catalog used to resolve shared symbol table imports
+     *  of later symbol tables; may be null.
+     * @param ionBinary the same data that was indexed, with the same position.
+     * @param ordinal the value that the first call to {@link IonReader#next()}
+     *  will return.
+     *
+     * @throws IndexOutOfBoundsException if the ordinal is out of range.
+     */
+    public IonReader newReader(IonCatalog catalog, ByteBuffer ionBinary, int ordinal)
+    {
+        long offset = getOffset(ordinal);
+        if (offset >= ionBinary.remaining())
+        {
+            throw new IllegalArgumentException("Data is shorter than the indexed data");
+        }
+        ByteBuffer slice = ionBinary.duplicate();
+        slice.position(slice.position() + (int) offset);
+        return _Private_IonReaderFactory.makeBinaryReader(catalog(catalog),
+                                                          slice,
+                                                          getSymbolTable(ordinal));
+    }
+
+    /**
+     * Creates a reader over an indexed file that is positioned before a
+     * value. The file is memory-mapped from the value to its end.
+     * Callers must call {@link IonReader#close()} when finished with it.
+     *
+     * @param catalog the catalog used to resolve shared symbol table imports
+     *  of later symbol tables; may be null.
+     * @param ionFile the same file that was indexed.
+     * @param ordinal the value that the first call to {@link IonReader#next()}
+     *  will return.
+     *
+     * @throws IndexOutOfBoundsException if the ordinal is out of range.
+     * @throws IonException if the file can't be read.
+     */
+    public IonReader newReader(IonCatalog catalog, File ionFile, int ordinal)
+    {
+        long offset = getOffset(ordinal);
+        FileChannel channel = open(ionFile, offset);
+        return _Private_IonReaderFactory.makeBinaryReader(catalog(catalog),
+                                                          channel,
+                                                          getSymbolTable(ordinal));
+    }
+
+
+    //=========================================================================
+    // Persistence
+
+    /**
+     * Writes this index in its sidecar format, which is itself Ion binary.
+     * Offsets and keys are delta-encoded, so the sidecar is typically one or
+     * two bytes per indexed value (plus the key, if any). Each distinct symbol
+     * table is written once, in its usual struct form.
+     * The stream is not closed.
+     */
+    public void writeTo(OutputStream out)
+        throws IOException
+    {
+        IonWriter writer = IonBinaryWriterBuilder.standard().build(out);
+        writer.setTypeAnnotations(INDEX_ANNOTATION);
+        writer.stepIn(IonType.STRUCT);
+        {
+            writer.setFieldName(VERSION);
+            writer.writeInt(FORMAT_VERSION);
+            writer.setFieldName(COUNT);
+            writer.writeInt(myCount);
+
+            ByteArrayOutputStream buf = new ByteArrayOutputStream();
+            long previous = 0;
+            for (int i = 0; i < myCount; i++)
+            {
+                writeVarUInt(buf, myOffsets[i] - previous);
+                previous = myOffsets[i];
+            }
+            writer.setFieldName(OFFSETS);
+            writer.writeBlob(buf.toByteArray());
+
+            writer.setFieldName(SYMBOL_TABLES);
+            writer.stepIn(IonType.LIST);
+            for (SymbolTable symtab : mySymbolTables)
+            {
+                if (symtab == null)
+                {
+                    writer.writeNull();
+                }
+                else
+                {
+                    symtab.writeTo(writer);
+                }
+            }
+            writer.stepOut();
+
+            writer.setFieldName(SYMBOL_TABLE_STARTS);
+            writeInts(writer, myRunStarts);
+            writer.setFieldName(SYMBOL_TABLE_IDS);
+            writeInts(writer, myRunTables);
+
+            if (myKeys != null)
+            {
+                buf.reset();
+                previous = 0;
+                for (int i = 0; i < myCount; i++)
+                {
+                    long delta = myKeys[i] - previous;
+                    writeVarUInt(buf, (delta << 1) ^ (delta >> 63));
+                    previous = myKeys[i];
+                }
+                writer.setFieldName(KEYS);
+                writer.writeBlob(buf.toByteArray());
+            }
+        }
+        writer.stepOut();
+        writer.finish();
+    }
+
+    /**
+     * Reads an index written by {@link #writeTo(OutputStream)}.
+     * The stream is not closed.
+     *
+     * @param catalog the catalog used to resolve shared symbol table imports;
+     *  may be null.
+     *
+     * @throws IonException if the data isn't a valid index.
+     */
+    public static TopLevelValueIndex read(InputStream in, IonCatalog catalog)
+        throws IOException
+    {
+        catalog = catalog(catalog);
+        IonReader reader = _Private_IonReaderFactory.makeReader(catalog, in);
+        if (reader.next() != IonType.STRUCT
+            || ! Arrays.asList(reader.getTypeAnnotations()).contains(INDEX_ANNOTATION))
+        {
+            throw new IonException("Not an Ion value index");
+        }
+
+        int count = -1;
+        byte[] offsetBytes = null;
+        byte[] keyBytes = null;
+        List<SymbolTable> symbolTables = new ArrayList<SymbolTable>();
+        int[] runStarts = null;
+        int[] runTables = null;
+
+        reader.stepIn();
+        while (reader.next() != null)
+        {
+            String field = reader.getFieldName();
+            if (VERSION.equals(field))
+            {
+                if (reader.intValue() != FORMAT_VERSION)
+                {
+                    throw new IonException("Unsupported index version: " + reader.intValue());
+                }
+            }
+            else if (COUNT.equals(field))
+            {
+                count = reader.intValue();
+            }
+            else if (OFFSETS.equals(field))
+            {
+                offsetBytes = reader.newBytes();
+            }
+            else if (KEYS.equals(field))
+            {
+                keyBytes = reader.newBytes();
+            }
+            else if (SYMBOL_TABLES.equals(field))
+            {
+                reader.stepIn();
+                while (reader.next() != null)
+                {
+                    symbolTables.add(reader.isNullValue()
+                                     ? null
+                                     : _Private_Utils.newLocalSymtab(catalog, reader));
+                }
+                reader.stepOut();
+            }
+            else if (SYMBOL_TABLE_STARTS.equals(field))
+            {
+                runStarts = readInts(reader);
+            }
+            else if (SYMBOL_TABLE_IDS.equals(field))
+            {
+                runTables = readInts(reader);
+            }
+        }
+        reader.stepOut();
+
+        if (count < 0 || offsetBytes == null || runStarts == null
+            || runTables == null || runStarts.length != runTables.length)
+        {
+            throw new IonException("Incomplete Ion value index");
+        }
+        for (int table : runTables)
+        {
+            if (table < 0 || table >= symbolTables.size())
+            {
+                throw new IonException("Invalid symbol table reference in Ion value index");
+            }
+        }
+
+        long[] offsets = new long[count];
+        int[] position = new int[1];
+        long previous = 0;
+        for (int i = 0; i < count; i++)
+        {
+            previous += readVarUInt(offsetBytes, position);
+            offsets[i] = previous;
+        }
+
+        long[] keys = null;
+        if (keyBytes != null)
+        {
+            keys = new long[count];
+            position[0] = 0;
+            previous = 0;
+            for (int i = 0; i < count; i++)
+            {
+                long zigzag = readVarUInt(keyBytes, position);
+                previous += (zigzag >>> 1) ^ -(zigzag & 1);
+                keys[i] = previous;
+            }
+        }
+
+        return new TopLevelValueIndex(count,
+                                      offsets,
+                                      symbolTables.toArray(new SymbolTable[0]),
+                                      runStarts,
+                                      runTables,
+                                      keys);
+    }
+
+
+    //=========================================================================
+    // Helpers
+
+    private void checkOrdinal(int ordinal)
+    {
+        if (ordinal < 0 || ordinal >= myCount)
+        {
+            throw new IndexOutOfBoundsException("ordinal " + ordinal + " of " + myCount);
+        }
+    }
+
+    private void checkKeys()
+    {
+        if (myKeys == null)
+        {
+            throw new IllegalStateException("The index has no keys");
+        }
+    }
+
+    private static IonCatalog catalog(IonCatalog catalog)
+    {
+        return (catalog == null) ? new SimpleCatalog() : catalog;
+    }
+
+    private static FileChannel open(File file, long position)
+    {
+        FileChannel channel = null;
+        try
+        {
+            channel = new FileInputStream(file).getChannel();
+            channel.position(position);
+            return channel;
+        }
+        catch (IOException e)
+        {
+            closeQuietly(channel);
+            throw new IonException(e);
+        }
+    }
+
+    private static void closeQuietly(FileChannel channel)
+    {
+        if (channel != null)
+        {
+            try
+            {
+                channel.close();
+            }
+            catch (IOException e)
+            {
+                // The original failure is more informative.
+            }
+        }
+    }
+
+    private static void writeInts(IonWriter writer, int[] values)
+        throws IOException
+    {
+        writer.stepIn(IonType.LIST);
+        for (int value : values)
+        {
+            writer.writeInt(value);
+        }
+        writer.stepOut();
+    }
+
+    private static int[] readInts(IonReader reader)
+    {
+        int[] values = new int[8];
+        int count = 0;
+        reader.stepIn();
+        while (reader.next() != null)
+        {
+            if (count == values.length)
+            {
+                values = Arrays.copyOf(values, count * 2);
+            }
+            values[count++] = reader.intValue();
+        }
+        reader.stepOut();
+        return Arrays.copyOf(values, count);
+    }
+
+    private static void writeVarUInt(ByteArrayOutputStream out, long value)
+    {
+        while ((value & ~0x7FL) != 0)
+        {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarUInt(byte[] bytes, int[] position)
+    {
+        long value = 0;
+        int shift = 0;
+        int b;
+        do
+        {
+            if (position[0] >= bytes.length || shift > 63)
+            {
+                throw new IonException("Corrupt Ion value index");
+            }
+            b = bytes[position[0]++];
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        }
+        while ((b & 0x80) != 0);
+        return value;
+    }
+
+    /**
+     * Returns the ordinals sorted by key (stably), or null if the keys are
+     * already in order, which is the common case for logs keyed by time.
+     */
+    private static int[] sortByKey(long[] keys, int count)
+    {
+        boolean sorted = true;
+        for (int i = 1; i < count && sorted; i++)
+        {
+            sorted = keys[i - 1] <= keys[i];
+        }
+        if (sorted)
+        {
+            return null;
+        }
+
+        int[] order = new int[count];
+        for (int i = 0; i < count; i++)
+        {
+            order[i] = i;
+        }
+        // Bottom-up merge sort, which is stable and needs no boxing.
+        int[] scratch = new int[count];
+        for (int width = 1; width < count; width *= 2)
+        {
+            for (int low = 0; low < count - width; low += 2 * width)
+            {
+                int mid = low + width;
+                int high = (int) Math.min((long) low + 2 * width, count);
+                int left = low;
+                int right = mid;
+                int out = low;
+                while (left < mid && right < high)
+                {
+                    scratch[out++] = (keys[order[right]] < keys[order[left]])
+                        ? order[right++]
+                        : order[left++];
+                }
+                while (left < mid) scratch[out++] = order[left++];
+                while (right < high) scratch[out++] = order[right++];
+                System.arraycopy(scratch, low, order, low, high - low);
+            }
+        }
+        return order;
+    }
+}
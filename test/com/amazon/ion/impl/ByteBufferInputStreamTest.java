@@ -0,0 +1,215 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.amazon.ion.IonReader;
+import com.amazon.ion.IonType;
+import com.amazon.ion.OffsetSpan;
+import com.amazon.ion.SpanProvider;
+import com.amazon.ion.system.IonSystemBuilder;
+import com.amazon.ion.system.SimpleCatalog;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ByteBufferInputStreamTest
+{
+    private File file;
+    private byte[] contents;
+
+    @Before
+    public void setUp()
+        throws IOException
+    {
+        contents = new byte[100];
+        for (int i = 0; i < contents.length; i++)
+        {
+            contents[i] = (byte) i;
+        }
+        file = File.createTempFile("ByteBufferInputStreamTest", ".10n");
+        FileOutputStream out = new FileOutputStream(file);
+        out.write(contents);
+        out.close();
+    }
+
+    @After
+    public void tearDown()
+    {
+        file.delete();
+    }
+
+    private static byte[] drain(ByteBufferInputStream in, int chunkSize)
+        throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] chunk = new byte[chunkSize];
+        int len;
+        while ((len = in.read(chunk, 0, chunk.length)) != -1)
+        {
+            out.write(chunk, 0, len);
+        }
+        in.close();
+        return out.toByteArray();
+    }
+
+    @Test
+    public void testReadAcrossMappedRegions()
+        throws IOException
+    {
+        FileChannel channel = new RandomAccessFile(file, "r").getChannel();
+        ByteBufferInputStream in = new ByteBufferInputStream(channel, 7);
+        assertArrayEquals(contents, drain(in, 5));
+        assertFalse(channel.isOpen());
+    }
+
+    @Test
+    public void testMapFromChannelPosition()
+        throws IOException
+    {
+        FileChannel channel = new RandomAccessFile(file, "r").getChannel();
+        channel.position(40);
+        ByteBufferInputStream in = new ByteBufferInputStream(channel, 16);
+        assertEquals(40, in.read());
+        assertEquals(10, in.skip(10));
+        assertEquals(51, in.read());
+    }
+
+    @Test
+    public void testBufferPositionIsUnchanged()
+        throws IOException
+    {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(contents.length);
+        buffer.put(contents);
+        buffer.position(20);
+        ByteBufferInputStream in = new ByteBufferInputStream(buffer);
+        byte[] peeked = new byte[3];
+        assertEquals(3, in.peek(peeked));
+        assertArrayEquals(new byte[] { 20, 21, 22 }, peeked);
+        assertEquals(80, drain(in, 64).length);
+        assertEquals(20, buffer.position());
+    }
+
+    @Test
+    public void testRemainingBuffer()
+        throws IOException
+    {
+        FileChannel channel = new RandomAccessFile(file, "r").getChannel();
+        ByteBufferInputStream in = new ByteBufferInputStream(channel, 16);
+        assertNull(in.remainingBuffer());
+        in.close();
+
+        channel = new RandomAccessFile(file, "r").getChannel();
+        channel.position(40);
+        in = new ByteBufferInputStream(channel, 100);
+        assertEquals(60, in.remainingBuffer().remaining());
+        assertEquals(40, in.remainingBuffer().get(0));
+        in.close();
+
+        ByteBuffer buffer = ByteBuffer.allocateDirect(contents.length);
+        buffer.put(contents);
+        buffer.position(20);
+        assertEquals(80, new ByteBufferInputStream(buffer).remainingBuffer().remaining());
+    }
+
+    private static UnifiedInputStreamX input(IonReader reader)
+    {
+        return ((IonReaderBinaryUserX) reader)._input;
+    }
+
+    private static long startOffset(IonReader reader)
+    {
+        return reader.asFacet(SpanProvider.class).currentSpan()
+            .asFacet(OffsetSpan.class).getStartOffset();
+    }
+
+    @Test
+    public void testBinaryBuffersAreReadInPlace()
+        throws IOException
+    {
+        byte[] binary = IonSystemBuilder.standard().build().getLoader()
+            .load("{a:\"hello\"} [1, 2.5, c]").getBytes();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(binary.length + 5);
+        buffer.position(5);
+        buffer.put(binary);
+        buffer.position(5);
+
+        IonReader reader =
+            _Private_IonReaderFactory.makeReader(new SimpleCatalog(), buffer);
+        assertTrue(input(reader) instanceof UnifiedInputStreamX.FromByteBuffer);
+        IonReader expected =
+            _Private_IonReaderFactory.makeReader(new SimpleCatalog(), binary);
+        assertEquals(IonType.STRUCT, reader.next());
+        expected.next();
+        assertEquals(startOffset(expected), startOffset(reader));
+        reader.stepIn();
+        assertEquals(IonType.STRING, reader.next());
+        assertEquals("hello", reader.stringValue());
+        reader.stepOut();
+        assertEquals(IonType.LIST, reader.next());
+        expected.next();
+        assertEquals(startOffset(expected), startOffset(reader));
+        reader.stepIn();
+        assertEquals(IonType.INT, reader.next());
+        assertEquals(IonType.DECIMAL, reader.next());
+        assertEquals(IonType.SYMBOL, reader.next());
+        assertEquals("c", reader.stringValue());
+        assertNull(reader.next());
+        reader.stepOut();
+        assertNull(reader.next());
+        assertEquals(5, buffer.position());
+
+        FileOutputStream out = new FileOutputStream(file);
+        out.write(binary);
+        out.close();
+        FileChannel channel = new RandomAccessFile(file, "r").getChannel();
+        reader = _Private_IonReaderFactory.makeReader(new SimpleCatalog(), channel);
+        assertTrue(input(reader) instanceof UnifiedInputStreamX.FromByteBuffer);
+        assertEquals(IonType.STRUCT, reader.next());
+        assertEquals(IonType.LIST, reader.next());
+        assertNull(reader.next());
+        reader.close();
+        assertFalse(channel.isOpen());
+    }
+
+    @Test
+    public void testTextBuffersArePaged()
+        throws IOException
+    {
+        byte[] text = "{a:\"hello\"}".getBytes("UTF-8");
+        ByteBuffer buffer = ByteBuffer.allocateDirect(text.length);
+        buffer.put(text);
+        buffer.flip();
+        IonReader reader =
+            _Private_IonReaderFactory.makeReader(new SimpleCatalog(), buffer);
+        assertEquals(IonType.STRUCT, reader.next());
+        reader.stepIn();
+        assertEquals(IonType.STRING, reader.next());
+        assertEquals("hello", reader.stringValue());
+    }
+}
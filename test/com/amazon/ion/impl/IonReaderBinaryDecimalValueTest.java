@@ -0,0 +1,246 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl;
+
+import com.amazon.ion.Decimal;
+import com.amazon.ion.DecimalValueReader;
+import com.amazon.ion.IonDecimal;
+import com.amazon.ion.IonList;
+import com.amazon.ion.IonReader;
+import com.amazon.ion.IonTestCase;
+import com.amazon.ion.IonType;
+import com.amazon.ion.IonWriter;
+import com.amazon.ion.NullValueException;
+import com.amazon.ion.system.IonBinaryWriterBuilder;
+import com.amazon.ion.system.IonReaderBuilder;
+import com.amazon.ion.system.IonTextWriterBuilder;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.util.Random;
+import org.junit.Test;
+
+public class IonReaderBinaryDecimalValueTest
+    extends IonTestCase
+{
+    private static final String[] LONG_DECIMALS = {
+        "0.", "0d0", "0d-3", "0d12", "12.34", "-12.34", "1d100", "-1d-100",
+        "127.", "-128.", "9223372036854775807d-2", "-9223372036854775808d5",
+        "0.000000001", "-72057594037927935.",
+    };
+
+    private static final String[] BIG_DECIMALS = {
+        "-0.", "-0d-5", "9223372036854775808.", "-9223372036854775809d-2",
+        "123456789012345678901234567890.123",
+    };
+
+    private static byte[] writeBinary(long unscaledValue, int exponent) throws Exception
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IonWriter writer = IonBinaryWriterBuilder.standard().build(out);
+        writer.writeDecimal(unscaledValue, exponent);
+        writer.close();
+        return out.toByteArray();
+    }
+
+    private static byte[] writeBinary(BigDecimal value) throws Exception
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IonWriter writer = IonBinaryWriterBuilder.standard().build(out);
+        writer.writeDecimal(value);
+        writer.close();
+        return out.toByteArray();
+    }
+
+    private static void checkPrimitive(IonReader reader, BigDecimal expected)
+    {
+        DecimalValueReader decimals = reader.asFacet(DecimalValueReader.class);
+        assertTrue(decimals.isDecimalLongRepresentable());
+        assertEquals(expected.unscaledValue().longValue(), decimals.decimalUnscaledValue());
+        assertEquals(-expected.scale(), decimals.decimalExponent());
+    }
+
+    @Test
+    public void testLongRepresentable()
+    {
+        for (String text : LONG_DECIMALS)
+        {
+            BigDecimal expected = ((IonDecimal) system().singleValue(text)).decimalValue();
+
+            IonReader reader = IonReaderBuilder.standard().build(encode(text));
+            assertEquals(IonType.DECIMAL, reader.next());
+            checkPrimitive(reader, expected);
+            // Materializing afterwards must give the same value.
+            assertEquals(expected, reader.decimalValue());
+            assertEquals(expected.scale(), reader.decimalValue().scale());
+
+            reader = IonReaderBuilder.standard().build(encode(text));
+            reader.next();
+            assertEquals(expected, reader.decimalValue());
+            checkPrimitive(reader, expected);
+        }
+    }
+
+    @Test
+    public void testNotLongRepresentable()
+    {
+        for (String text : BIG_DECIMALS)
+        {
+            Decimal expected = ((IonDecimal) system().singleValue(text)).decimalValue();
+
+            IonReader reader = IonReaderBuilder.standard().build(encode(text));
+            reader.next();
+            DecimalValueReader decimals = reader.asFacet(DecimalValueReader.class);
+            assertFalse(text, decimals.isDecimalLongRepresentable());
+            assertEquals(-expected.scale(), decimals.decimalExponent());
+            try
+            {
+                decimals.decimalUnscaledValue();
+                fail("Expected IllegalStateException");
+            }
+            catch (IllegalStateException e)
+            {
+                // Expected
+            }
+            Decimal actual = reader.decimalValue();
+            assertEquals(expected, actual);
+            assertEquals(expected.isNegativeZero(), actual.isNegativeZero());
+        }
+    }
+
+    @Test
+    public void testAcrossValuesAndContainers()
+    {
+        String text = "[1.5, 2.25, null.decimal, 3d3] {price:99.99, qty:5}";
+        IonReader reader = IonReaderBuilder.standard().build(
+            new ByteArrayInputStream(encode(text)));
+        DecimalValueReader decimals = reader.asFacet(DecimalValueReader.class);
+
+        reader.next();
+        reader.stepIn();
+        long[] unscaled = { 15, 225 };
+        int[] exponents = { -1, -2 };
+        for (int i = 0; i < unscaled.length; i++)
+        {
+            reader.next();
+            assertEquals(unscaled[i], decimals.decimalUnscaledValue());
+            assertEquals(exponents[i], decimals.decimalExponent());
+        }
+        reader.next();
+        try
+        {
+            decimals.isDecimalLongRepresentable();
+            fail("Expected NullValueException");
+        }
+        catch (NullValueException e)
+        {
+            // Expected
+        }
+        reader.next();
+        assertEquals(3, decimals.decimalUnscaledValue());
+        assertEquals(3, decimals.decimalExponent());
+        assertNull(reader.next());
+        reader.stepOut();
+
+        reader.next();
+        reader.stepIn();
+        reader.next();
+        assertEquals(9999, decimals.decimalUnscaledValue());
+        reader.next();
+        try
+        {
+            decimals.decimalExponent();
+            fail("Expected IllegalStateException");
+        }
+        catch (IllegalStateException e)
+        {
+            // Expected
+        }
+        assertEquals(5, reader.intValue());
+    }
+
+    @Test
+    public void testWriterMatchesBigDecimalEncoding() throws Exception
+    {
+        Random random = new Random(42);
+        long[] edges = { 0, 1, -1, 127, -127, 128, -128, Long.MAX_VALUE, Long.MIN_VALUE,
+                         Long.MIN_VALUE + 1, 0x7FFFFFFFFFFFFFL, -0x80000000000000L };
+        for (int i = 0; i < 2000; i++)
+        {
+            long unscaled = (i < edges.length)
+                ? edges[i]
+                : random.nextLong() >> random.nextInt(64);
+            int exponent = (i % 3 == 0) ? 0 : random.nextInt(200) - 100;
+            BigDecimal expected = BigDecimal.valueOf(unscaled, -exponent);
+
+            byte[] bytes = writeBinary(unscaled, exponent);
+            assertArrayEquals(writeBinary(expected), bytes);
+
+            IonReader reader = IonReaderBuilder.standard().build(bytes);
+            assertEquals(IonType.DECIMAL, reader.next());
+            checkPrimitive(reader, expected);
+        }
+    }
+
+    @Test
+    public void testTextAndTreeWriters() throws Exception
+    {
+        StringBuilder out = new StringBuilder();
+        IonWriter writer = IonTextWriterBuilder.standard().build(out);
+        writer.writeDecimal(1234, -2);
+        writer.writeDecimal(-5, 3);
+        writer.close();
+        assertEquals(loader().load("12.34 -5d3"),
+                     loader().load(out.toString()));
+
+        IonList list = system().newEmptyList();
+        writer = system().newWriter(list);
+        writer.writeDecimal(7, -1);
+        writer.close();
+        assertEquals(system().singleValue("[0.7]"), list);
+    }
+
+    @Test
+    public void testTranscodingPreservesDecimals() throws Exception
+    {
+        StringBuilder text = new StringBuilder();
+        for (String value : LONG_DECIMALS)
+        {
+            text.append(value).append(' ');
+        }
+        for (String value : BIG_DECIMALS)
+        {
+            text.append(value).append(' ');
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IonWriter writer = IonBinaryWriterBuilder.standard().build(out);
+        writer.writeValues(IonReaderBuilder.standard().build(encode(text.toString())));
+        writer.close();
+
+        IonReader expected = IonReaderBuilder.standard().build(text.toString());
+        IonReader actual = IonReaderBuilder.standard().build(out.toByteArray());
+        while (expected.next() != null)
+        {
+            assertEquals(IonType.DECIMAL, actual.next());
+            Decimal e = expected.decimalValue();
+            Decimal a = actual.decimalValue();
+            assertEquals(e, a);
+            assertEquals(e.scale(), a.scale());
+            assertEquals(e.isNegativeZero(), a.isNegativeZero());
+        }
+        assertNull(actual.next());
+    }
+}
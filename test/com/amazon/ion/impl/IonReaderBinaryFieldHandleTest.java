@@ -0,0 +1,226 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl;
+
+import static com.amazon.ion.FieldHandleReader.NO_FIELD_HANDLE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import com.amazon.ion.FieldHandleReader;
+import com.amazon.ion.IonReader;
+import com.amazon.ion.IonSystem;
+import com.amazon.ion.IonType;
+import com.amazon.ion.IonWriter;
+import com.amazon.ion.SymbolTable;
+import com.amazon.ion.system.IonBinaryWriterBuilder;
+import com.amazon.ion.system.IonReaderBuilder;
+import com.amazon.ion.system.IonSystemBuilder;
+import com.amazon.ion.system.SimpleCatalog;
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import org.junit.Test;
+
+public class IonReaderBinaryFieldHandleTest
+{
+    private static void writeRecord(IonWriter writer, String... fieldNames)
+        throws Exception
+    {
+        writer.stepIn(IonType.STRUCT);
+        for (int i = 0; i < fieldNames.length; i++)
+        {
+            writer.setFieldName(fieldNames[i]);
+            writer.writeInt(i);
+        }
+        writer.stepOut();
+    }
+
+    @Test
+    public void testHandlesAcrossSymbolTables() throws Exception
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IonWriter writer = IonBinaryWriterBuilder.standard().build(out);
+        writeRecord(writer, "id", "name", "other");
+        // Force a new local symbol table that declares the names in a
+        // different order, so the SIDs change.
+        writer.finish();
+        writeRecord(writer, "unrelated", "name", "id");
+        writer.close();
+
+        IonReader reader = IonReaderBuilder.standard().build(out.toByteArray());
+        FieldHandleReader handles = reader.asFacet(FieldHandleReader.class);
+        assertSame(handles, reader.asFacet(FieldHandleReader.class));
+
+        int id = handles.registerFieldName("id");
+        int name = handles.registerFieldName("name");
+        assertEquals(0, id);
+        assertEquals(1, name);
+        assertEquals(id, handles.registerFieldName("id"));
+
+        assertEquals(IonType.STRUCT, reader.next());
+        assertEquals(NO_FIELD_HANDLE, handles.getFieldHandle());
+        reader.stepIn();
+        reader.next();
+        assertEquals(id, handles.getFieldHandle());
+        reader.next();
+        assertEquals(name, handles.getFieldHandle());
+        reader.next();
+        assertEquals(NO_FIELD_HANDLE, handles.getFieldHandle());
+        reader.stepOut();
+
+        assertEquals(IonType.STRUCT, reader.next());
+        reader.stepIn();
+        reader.next();
+        assertEquals(NO_FIELD_HANDLE, handles.getFieldHandle());
+        reader.next();
+        assertEquals(name, handles.getFieldHandle());
+        reader.next();
+        assertEquals(id, handles.getFieldHandle());
+        assertNull(reader.next());
+        reader.stepOut();
+    }
+
+    @Test
+    public void testHandlesForImportedSymbols() throws Exception
+    {
+        SymbolTable shared = IonSystemBuilder.standard().build()
+            .newSharedSymbolTable("fields", 1, Arrays.asList("id", "name").iterator());
+        SimpleCatalog catalog = new SimpleCatalog();
+        catalog.putTable(shared);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IonWriter writer =
+            IonBinaryWriterBuilder.standard().withImports(shared).build(out);
+        writeRecord(writer, "name", "local", "id");
+        writer.close();
+
+        IonReader reader =
+            IonReaderBuilder.standard().withCatalog(catalog).build(out.toByteArray());
+        FieldHandleReader handles = reader.asFacet(FieldHandleReader.class);
+        int id = handles.registerFieldName("id");
+        int local = handles.registerFieldName("local");
+        int name = handles.registerFieldName("name");
+
+        assertEquals(IonType.STRUCT, reader.next());
+        reader.stepIn();
+        reader.next();
+        assertEquals(name, handles.getFieldHandle());
+        reader.next();
+        assertEquals(local, handles.getFieldHandle());
+        reader.next();
+        assertEquals(id, handles.getFieldHandle());
+        assertNull(reader.next());
+    }
+
+    @Test
+    public void testDuplicateImportedSymbols() throws Exception
+    {
+        IonSystem system = IonSystemBuilder.standard().build();
+        SymbolTable fields = system.newSharedSymbolTable(
+            "fields", 1, Arrays.asList("id", "name").iterator());
+        SymbolTable keys = system.newSharedSymbolTable(
+            "keys", 1, Arrays.asList("id").iterator());
+        SimpleCatalog catalog = new SimpleCatalog();
+        catalog.putTable(fields);
+        catalog.putTable(keys);
+
+        // {$4:0, $10:1, $11:2, $12:3}, where $4 is the system symbol "name"
+        // and $12 is "id" again, from the second import.
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IonWriter writer = IonBinaryWriterBuilder.standard()
+            .withImports(fields, keys).build(out);
+        writer.stepIn(IonType.STRUCT);
+        writer.setFieldNameSymbol(_Private_Utils.newSymbolToken(4));
+        writer.writeInt(0);
+        // Interning some text makes the writer emit the symbol table.
+        writer.setFieldName("id");
+        writer.writeInt(1);
+        writer.setFieldNameSymbol(_Private_Utils.newSymbolToken(11));
+        writer.writeInt(2);
+        writer.setFieldNameSymbol(_Private_Utils.newSymbolToken(12));
+        writer.writeInt(3);
+        writer.stepOut();
+        writer.close();
+
+        IonReader reader =
+            IonReaderBuilder.standard().withCatalog(catalog).build(out.toByteArray());
+        FieldHandleReader handles = reader.asFacet(FieldHandleReader.class);
+        int id = handles.registerFieldName("id");
+        int name = handles.registerFieldName("name");
+
+        assertEquals(IonType.STRUCT, reader.next());
+        reader.stepIn();
+        int[] expected = { name, id, name, id };
+        for (int i = 0; i < expected.length; i++)
+        {
+            reader.next();
+            assertEquals(expected[i], handles.getFieldHandle());
+        }
+        assertNull(reader.next());
+    }
+
+    @Test
+    public void testRegisterAfterResolution() throws Exception
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IonWriter writer = IonBinaryWriterBuilder.standard().build(out);
+        writeRecord(writer, "a", "b");
+        writer.close();
+
+        IonReader reader = IonReaderBuilder.standard().build(out.toByteArray());
+        FieldHandleReader handles = reader.asFacet(FieldHandleReader.class);
+        int a = handles.registerFieldName("a");
+
+        reader.next();
+        reader.stepIn();
+        reader.next();
+        assertEquals(a, handles.getFieldHandle());
+        int b = handles.registerFieldName("b");
+        reader.next();
+        assertEquals(b, handles.getFieldHandle());
+    }
+
+    @Test
+    public void testSystemSymbolsAndDuplicateDeclarations()
+    {
+        byte[] bytes = {
+            (byte) 0xE0, 0x01, 0x00, (byte) 0xEA,
+            // $ion_symbol_table::{symbols:["name", "name"]}
+            (byte) 0xEE, (byte) 0x8F, (byte) 0x81, (byte) 0x83,
+            (byte) 0xDC, (byte) 0x87, (byte) 0xBA,
+            (byte) 0x84, 'n', 'a', 'm', 'e',
+            (byte) 0x84, 'n', 'a', 'm', 'e',
+            // {$10:1, $11:2, name:3}
+            (byte) 0xD9,
+            (byte) 0x8A, 0x21, 0x01,
+            (byte) 0x8B, 0x21, 0x02,
+            (byte) 0x84, 0x21, 0x03,
+        };
+
+        IonReader reader = IonReaderBuilder.standard().build(bytes);
+        FieldHandleReader handles = reader.asFacet(FieldHandleReader.class);
+        int systemName = handles.registerFieldName("name");
+        assertEquals(IonType.STRUCT, reader.next());
+        reader.stepIn();
+        reader.next();
+        assertEquals(systemName, handles.getFieldHandle());
+        reader.next();
+        assertEquals(systemName, handles.getFieldHandle());
+        reader.next();
+        assertEquals(systemName, handles.getFieldHandle());
+        assertNull(reader.next());
+    }
+}
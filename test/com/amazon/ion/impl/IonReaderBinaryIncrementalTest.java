@@ -0,0 +1,223 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl;
+
+import com.amazon.ion.IonDatagram;
+import com.amazon.ion.IonException;
+import com.amazon.ion.IonIncrementalReader;
+import com.amazon.ion.IonTestCase;
+import com.amazon.ion.IonType;
+import com.amazon.ion.IonValue;
+import com.amazon.ion.system.IonReaderBuilder;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+public class IonReaderBinaryIncrementalTest
+    extends IonTestCase
+{
+    private static final String DATA =
+        "a::{b:[1, 2.5, 3e0, \"four\", five, {{AAEC}}], c:(x y z), d:2020-01-01T}"
+      + " null.struct 'sym' \"a string that's long enough to span several chunks\""
+      + " $ion_symbol_table::{symbols:[\"ignored\"]} true";
+
+    private static byte[] concat(byte[] a, byte[] b)
+    {
+        byte[] result = new byte[a.length + b.length];
+        System.arraycopy(a, 0, result, 0, a.length);
+        System.arraycopy(b, 0, result, a.length, b.length);
+        return result;
+    }
+
+    /**
+     * Feeds the data in chunks of the given size, materializing each value as
+     * soon as the reader offers it.
+     */
+    private List<IonValue> readInChunks(byte[] data, int chunkSize)
+    {
+        IonIncrementalReader reader = IonReaderBuilder.standard().buildIncremental();
+        List<IonValue> values = new ArrayList<IonValue>();
+        for (int offset = 0; offset < data.length; offset += chunkSize)
+        {
+            reader.feed(data, offset, Math.min(chunkSize, data.length - offset));
+            while (reader.next() != null)
+            {
+                values.add(system().newValue(reader));
+            }
+            assertTrue(reader.isAwaitingData());
+        }
+        reader.endOfInput();
+        while (reader.next() != null)
+        {
+            values.add(system().newValue(reader));
+        }
+        assertFalse(reader.isAwaitingData());
+        return values;
+    }
+
+    private static void assertValues(IonDatagram expected, List<IonValue> actual)
+    {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++)
+        {
+            assertEquals(expected.get(i), actual.get(i));
+        }
+    }
+
+    @Test
+    public void testEveryChunkSize()
+    {
+        byte[] data = encode(DATA);
+        IonDatagram expected = loader().load(data);
+        for (int chunkSize = 1; chunkSize <= data.length; chunkSize++)
+        {
+            assertValues(expected, readInChunks(data, chunkSize));
+        }
+    }
+
+    @Test
+    public void testConcatenatedStreamsWithLocalSymbolTables()
+    {
+        byte[] data = concat(encode("{foo:bar} baz"), encode("{qux:quux} corge::1"));
+        IonDatagram expected = loader().load(data);
+        for (int chunkSize = 1; chunkSize <= data.length; chunkSize += 3)
+        {
+            assertValues(expected, readInChunks(data, chunkSize));
+        }
+    }
+
+    @Test
+    public void testLongAnnotationList()
+    {
+        // Enough local symbols that the annotations need more than 127 bytes,
+        // so their length takes a two-byte VarUInt. The last annotation, $80,
+        // encodes as 0xD0, which looks like a struct type descriptor if the
+        // wrapped value is looked for one byte early.
+        StringBuilder symtab = new StringBuilder("$ion_symbol_table::{symbols:[");
+        StringBuilder annotations = new StringBuilder("$ion_symbol_table::");
+        for (int i = 0; i < 140; i++)
+        {
+            symtab.append("\"s").append(i).append("\",");
+            annotations.append('s').append(i).append("::");
+        }
+        symtab.append("]}");
+        annotations.append("$80::[1]");
+
+        byte[] data = encode(symtab + " " + annotations);
+        IonDatagram expected = loader().load(data);
+        assertEquals(1, expected.size());
+
+        // The annotated list is complete, so it must be offered without
+        // waiting for more input.
+        IonIncrementalReader reader = IonReaderBuilder.standard().buildIncremental();
+        reader.feed(data, 0, data.length);
+        assertEquals(IonType.LIST, reader.next());
+        assertEquals(expected.get(0), system().newValue(reader));
+        assertNull(reader.next());
+        assertTrue(reader.isAwaitingData());
+    }
+
+    @Test
+    public void testNextAwaitsCompleteValue()
+    {
+        byte[] data = encode("\"hello\" 42");
+        IonIncrementalReader reader = IonReaderBuilder.standard().buildIncremental();
+        assertNull(reader.next());
+        assertTrue(reader.isAwaitingData());
+
+        // Everything but the last byte of the string.
+        int split = data.length - 3;
+        reader.feed(data, 0, split);
+        assertNull(reader.next());
+        assertNull(reader.getType());
+        assertTrue(reader.isAwaitingData());
+
+        reader.feed(data, split, data.length - split);
+        assertEquals(IonType.STRING, reader.next());
+        assertEquals("hello", reader.stringValue());
+        assertEquals(IonType.INT, reader.next());
+        assertEquals(42, reader.intValue());
+        assertNull(reader.next());
+        assertTrue(reader.isAwaitingData());
+
+        reader.endOfInput();
+        assertNull(reader.next());
+        assertFalse(reader.isAwaitingData());
+    }
+
+    @Test
+    public void testStepInWithinBufferedValue()
+    {
+        byte[] data = encode("[1, [2, 3]] 4");
+        IonIncrementalReader reader = IonReaderBuilder.standard().buildIncremental();
+        reader.feed(data, 0, data.length - 2);
+        assertEquals(IonType.LIST, reader.next());
+        reader.stepIn();
+        assertEquals(IonType.INT, reader.next());
+        assertEquals(IonType.LIST, reader.next());
+        reader.stepIn();
+        assertEquals(IonType.INT, reader.next());
+        assertEquals(IonType.INT, reader.next());
+        assertNull(reader.next());
+        assertFalse(reader.isAwaitingData());
+        reader.stepOut();
+        assertNull(reader.next());
+        reader.stepOut();
+        assertNull(reader.next());
+        assertTrue(reader.isAwaitingData());
+
+        reader.feed(data, data.length - 2, 2);
+        assertEquals(IonType.INT, reader.next());
+        assertEquals(4, reader.intValue());
+    }
+
+    @Test(expected = IonException.class)
+    public void testTruncatedInput()
+    {
+        byte[] data = encode("\"hello\"");
+        IonIncrementalReader reader = IonReaderBuilder.standard().buildIncremental();
+        reader.feed(data, 0, data.length - 1);
+        assertNull(reader.next());
+        reader.endOfInput();
+        reader.next();
+        reader.stringValue();
+    }
+
+    @Test(expected = IonException.class)
+    public void testTextInput()
+    {
+        byte[] data = "{a:1}".getBytes();
+        IonIncrementalReader reader = IonReaderBuilder.standard().buildIncremental();
+        reader.feed(data, 0, data.length);
+        reader.next();
+    }
+
+    @Test
+    public void testFeedAfterEndOfInput()
+    {
+        IonIncrementalReader reader = IonReaderBuilder.standard().buildIncremental();
+        reader.endOfInput();
+        try
+        {
+            reader.feed(new byte[1], 0, 1);
+            fail("Expected IllegalStateException");
+        }
+        catch (IllegalStateException e)
+        {
+            // expected
+        }
+    }
+}
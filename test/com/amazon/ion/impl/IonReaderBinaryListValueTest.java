@@ -0,0 +1,262 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl;
+
+import com.amazon.ion.IonException;
+import com.amazon.ion.IonReader;
+import com.amazon.ion.IonTestCase;
+import com.amazon.ion.IonType;
+import com.amazon.ion.IonWriter;
+import com.amazon.ion.ListValueReader;
+import com.amazon.ion.NullValueException;
+import com.amazon.ion.system.IonBinaryWriterBuilder;
+import com.amazon.ion.system.IonReaderBuilder;
+import com.amazon.ion.util.IonStreamUtils;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Test;
+
+public class IonReaderBinaryListValueTest
+    extends IonTestCase
+{
+    private static final int[] INTS = {
+        0, 1, -1, 127, -128, 255, 65536, Integer.MAX_VALUE, Integer.MIN_VALUE
+    };
+    private static final long[] LONGS = {
+        0, -1, Integer.MAX_VALUE + 1L, Long.MAX_VALUE, Long.MIN_VALUE, -Long.MAX_VALUE
+    };
+    private static final boolean[] BOOLEANS = { true, false, false, true };
+
+    private static double[] randomDoubles(int count)
+    {
+        Random random = new Random(count);
+        double[] values = new double[count];
+        for (int i = 0; i < count; i++) values[i] = random.nextGaussian();
+        values[0] = 0.0;
+        values[1] = Double.NaN;
+        values[2] = Double.NEGATIVE_INFINITY;
+        return values;
+    }
+
+    private static byte[] primitiveLists() throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IonWriter writer = IonBinaryWriterBuilder.standard().build(out);
+        IonStreamUtils.writeIntList(writer, INTS);
+        IonStreamUtils.writeIntList(writer, LONGS);
+        IonStreamUtils.writeFloatList(writer, randomDoubles(1500));
+        IonStreamUtils.writeBoolList(writer, BOOLEANS);
+        IonStreamUtils.writeFloatList(writer, new float[] { 1.5f, -2.25f });
+        IonStreamUtils.writeIntList(writer, new int[0]);
+        writer.writeInt(42);
+        writer.close();
+        return out.toByteArray();
+    }
+
+    private static void checkArrays(IonReader reader)
+    {
+        ListValueReader lists = reader.asFacet(ListValueReader.class);
+        assertEquals(IonType.LIST, reader.next());
+        assertArrayEquals(INTS, lists.intListValue());
+        assertEquals(IonType.LIST, reader.next());
+        assertArrayEquals(LONGS, lists.longListValue());
+        assertEquals(IonType.LIST, reader.next());
+        assertArrayEquals(randomDoubles(1500), lists.doubleListValue(), 0.0);
+        assertEquals(IonType.LIST, reader.next());
+        assertTrue(Arrays.equals(BOOLEANS, lists.booleanListValue()));
+        assertEquals(IonType.LIST, reader.next());
+        assertArrayEquals(new double[] { 1.5, -2.25 }, lists.doubleListValue(), 0.0);
+        assertEquals(IonType.LIST, reader.next());
+        assertEquals(0, lists.intListValue().length);
+        assertEquals(IonType.INT, reader.next());
+        assertEquals(42, reader.intValue());
+        assertEquals(null, reader.next());
+    }
+
+    @Test
+    public void testArraysFromBytes() throws IOException
+    {
+        IonReader reader = IonReaderBuilder.standard().build(primitiveLists());
+        reader.next();
+        assertTrue(((IonReaderBinaryRawX) reader).isDirectlyDecodable());
+        checkArrays(IonReaderBuilder.standard().build(primitiveLists()));
+    }
+
+    @Test
+    public void testArraysFromStream() throws IOException
+    {
+        byte[] data = primitiveLists();
+        checkArrays(IonReaderBuilder.standard().build(new ByteArrayInputStream(data)));
+    }
+
+    @Test
+    public void testCallerProvidedArrays() throws IOException
+    {
+        IonReader reader = IonReaderBuilder.standard().build(primitiveLists());
+        ListValueReader lists = reader.asFacet(ListValueReader.class);
+
+        reader.next();
+        int[] ints = new int[INTS.length + 2];
+        assertEquals(INTS.length, lists.getInts(ints, 1, INTS.length + 1));
+        assertEquals(INTS[0], ints[1]);
+        assertEquals(INTS[INTS.length - 1], ints[INTS.length]);
+
+        reader.next();
+        long[] longs = new long[2];
+        assertEquals(LONGS.length, lists.getLongs(longs, 0, 2));
+        assertArrayEquals(new long[] { LONGS[0], LONGS[1] }, longs);
+
+        reader.next();
+        double[] doubles = new double[1500];
+        assertEquals(1500, lists.getDoubles(doubles, 0, 1500));
+        assertArrayEquals(randomDoubles(1500), doubles, 0.0);
+
+        reader.next();
+        boolean[] booleans = new boolean[1];
+        assertEquals(BOOLEANS.length, lists.getBooleans(booleans, 0, 1));
+        assertEquals(true, booleans[0]);
+
+        assertEquals(IonType.LIST, reader.next());
+        try
+        {
+            lists.getDoubles(doubles, 1499, 2);
+            fail("expected IndexOutOfBoundsException");
+        }
+        catch (IndexOutOfBoundsException e)
+        {
+            // expected
+        }
+    }
+
+    private static void checkMalformed(byte[] bytes, int method)
+    {
+        IonReader reader = IonReaderBuilder.standard().build(bytes);
+        ListValueReader lists = reader.asFacet(ListValueReader.class);
+        assertEquals(IonType.LIST, reader.next());
+        try
+        {
+            switch (method)
+            {
+                case 0: lists.intListValue(); break;
+                case 1: lists.longListValue(); break;
+                case 2: lists.doubleListValue(); break;
+                case 3: lists.booleanListValue(); break;
+                default: lists.getInts(new int[8], 0, 8); break;
+            }
+            fail("Expected IonException");
+        }
+        catch (IonException e)
+        {
+            // expected
+        }
+    }
+
+    @Test
+    public void testMalformedLists()
+    {
+        // The list declares six bytes but only two are present.
+        byte[] truncated = {
+            (byte) 0xE0, 0x01, 0x00, (byte) 0xEA, (byte) 0xB6, 0x21, 0x01
+        };
+        // The list is complete, but its only element runs past its end.
+        byte[] overrun = {
+            (byte) 0xE0, 0x01, 0x00, (byte) 0xEA, (byte) 0xB2, 0x22, 0x01, 0x21, 0x05
+        };
+        for (int method = 0; method < 5; method++)
+        {
+            checkMalformed(truncated, method);
+            checkMalformed(overrun, method);
+        }
+    }
+
+    @Test
+    public void testTextShapedContent()
+    {
+        // annotations, sexps and big ints take the element-by-element path
+        byte[] data =
+            encode("[a::1, 2] (3 4) [18446744073709551616] [1e0, 2e0] null.list [1, null] [1, 2.0] 5");
+        IonReader reader = IonReaderBuilder.standard().build(data);
+        ListValueReader lists = reader.asFacet(ListValueReader.class);
+
+        reader.next();
+        assertArrayEquals(new int[] { 1, 2 }, lists.intListValue());
+        reader.next();
+        assertArrayEquals(new long[] { 3, 4 }, lists.longListValue());
+        reader.next();
+        try
+        {
+            lists.longListValue();
+            fail("expected IonException");
+        }
+        catch (IonException e)
+        {
+            // expected
+        }
+        reader.next();
+        try
+        {
+            lists.intListValue();
+            fail("expected IonException");
+        }
+        catch (IonException e)
+        {
+            // expected
+        }
+        reader.next();
+        try
+        {
+            lists.intListValue();
+            fail("expected NullValueException");
+        }
+        catch (NullValueException e)
+        {
+            // expected
+        }
+        reader.next();
+        try
+        {
+            lists.getInts(new int[2], 0, 2);
+            fail("expected IonException");
+        }
+        catch (IonException e)
+        {
+            // expected
+        }
+        reader.next();
+        try
+        {
+            lists.doubleListValue();
+            fail("expected IonException");
+        }
+        catch (IonException e)
+        {
+            // expected
+        }
+        assertEquals(IonType.INT, reader.next());
+        try
+        {
+            lists.intListValue();
+            fail("expected IllegalStateException");
+        }
+        catch (IllegalStateException e)
+        {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,265 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl;
+
+import com.amazon.ion.IonBlob;
+import com.amazon.ion.IonDatagram;
+import com.amazon.ion.IonReader;
+import com.amazon.ion.IonTestCase;
+import com.amazon.ion.IonType;
+import com.amazon.ion.IonWriter;
+import com.amazon.ion.LobValueReader;
+import com.amazon.ion.NullValueException;
+import com.amazon.ion.system.IonBinaryWriterBuilder;
+import com.amazon.ion.system.IonReaderBuilder;
+import com.amazon.ion.system.IonTextWriterBuilder;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Test;
+
+public class IonReaderBinaryLobStreamTest
+    extends IonTestCase
+{
+    private static byte[] randomBytes(int size)
+    {
+        byte[] bytes = new byte[size];
+        new Random(size).nextBytes(bytes);
+        return bytes;
+    }
+
+    private static byte[] binaryOf(byte[] blob, byte[] clob) throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IonWriter writer = IonBinaryWriterBuilder.standard().build(out);
+        writer.writeBlob(blob);
+        writer.writeClob(clob);
+        writer.writeInt(7);
+        writer.close();
+        return out.toByteArray();
+    }
+
+    private static IonReader binaryReader(byte[] data)
+    {
+        return IonReaderBuilder.standard().build(data);
+    }
+
+    private static byte[] drain(InputStream in, int chunk) throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[chunk];
+        int n;
+        while ((n = in.read(buffer)) >= 0)
+        {
+            out.write(buffer, 0, n);
+        }
+        return out.toByteArray();
+    }
+
+    @Test
+    public void testStreamLargeLobs() throws IOException
+    {
+        byte[] blob = randomBytes(300000);
+        byte[] clob = randomBytes(70000);
+        IonReader reader = binaryReader(binaryOf(blob, clob));
+        LobValueReader lobs = reader.asFacet(LobValueReader.class);
+
+        assertEquals(IonType.BLOB, reader.next());
+        assertArrayEquals(blob, drain(lobs.newInputStream(), 4096));
+        assertEquals(IonType.CLOB, reader.next());
+        InputStream in = lobs.newInputStream();
+        assertEquals(clob[0] & 0xFF, in.read());
+        byte[] rest = drain(in, 13);
+        assertArrayEquals(Arrays.copyOfRange(clob, 1, clob.length), rest);
+        assertEquals(-1, in.read());
+        assertEquals(IonType.INT, reader.next());
+        assertEquals(7, reader.intValue());
+        reader.close();
+    }
+
+    @Test
+    public void testPartialReadThenNext() throws IOException
+    {
+        byte[] blob = randomBytes(5000);
+        byte[] clob = randomBytes(20);
+        IonReader reader = binaryReader(binaryOf(blob, clob));
+        LobValueReader lobs = reader.asFacet(LobValueReader.class);
+
+        assertEquals(IonType.BLOB, reader.next());
+        InputStream in = lobs.newInputStream();
+        byte[] head = new byte[100];
+        assertEquals(100, in.read(head));
+        assertArrayEquals(Arrays.copyOf(blob, 100), head);
+        assertEquals(IonType.CLOB, reader.next());
+        assertArrayEquals(clob, reader.newBytes());
+        assertEquals(IonType.INT, reader.next());
+    }
+
+    @Test
+    public void testSkipSharesPosition() throws IOException
+    {
+        byte[] blob = randomBytes(1000);
+        IonReader reader = binaryReader(binaryOf(blob, new byte[0]));
+        LobValueReader lobs = reader.asFacet(LobValueReader.class);
+
+        assertEquals(IonType.BLOB, reader.next());
+        InputStream in = lobs.newInputStream();
+        assertEquals(400, in.skip(400));
+        assertEquals(600, reader.byteSize());
+        byte[] rest = new byte[600];
+        assertEquals(600, reader.getBytes(rest, 0, 600));
+        assertArrayEquals(Arrays.copyOfRange(blob, 400, 1000), rest);
+        assertEquals(0, in.skip(10));
+        assertEquals(-1, in.read());
+    }
+
+    @Test
+    public void testStreamFailsAfterReaderMoves() throws IOException
+    {
+        IonReader reader = binaryReader(binaryOf(randomBytes(50), randomBytes(50)));
+        LobValueReader lobs = reader.asFacet(LobValueReader.class);
+
+        assertEquals(IonType.BLOB, reader.next());
+        InputStream in = lobs.newInputStream();
+        in.read();
+        reader.next();
+        try
+        {
+            in.read();
+            fail("expected IOException");
+        }
+        catch (IOException e)
+        {
+            // expected
+        }
+    }
+
+    @Test
+    public void testNullAndNonLobValues() throws IOException
+    {
+        IonReader reader = binaryReader(encode("null.blob 5"));
+        LobValueReader lobs = reader.asFacet(LobValueReader.class);
+
+        assertEquals(IonType.BLOB, reader.next());
+        try
+        {
+            lobs.newInputStream();
+            fail("expected NullValueException");
+        }
+        catch (NullValueException e)
+        {
+            // expected
+        }
+        assertEquals(IonType.INT, reader.next());
+        try
+        {
+            lobs.newInputStream();
+            fail("expected IllegalStateException");
+        }
+        catch (IllegalStateException e)
+        {
+            // expected
+        }
+    }
+
+    @Test
+    public void testStreamingWriterMatchesArrayWriter() throws IOException
+    {
+        for (int size : new int[] { 0, 13, 14, 200, 40000 })
+        {
+            byte[] blob = randomBytes(size);
+            byte[] clob = randomBytes(size + 1);
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            IonWriter writer = IonBinaryWriterBuilder.standard().build(out);
+            writer.writeBlob(new ByteArrayInputStream(blob), blob.length);
+            writer.writeClob(new ByteArrayInputStream(clob), clob.length);
+            writer.writeInt(7);
+            writer.close();
+
+            assertArrayEquals(binaryOf(blob, clob), out.toByteArray());
+        }
+    }
+
+    @Test
+    public void testWriteNullSource() throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IonWriter writer = IonBinaryWriterBuilder.standard().build(out);
+        writer.writeBlob((InputStream) null, 0);
+        writer.writeClob((InputStream) null, 0);
+        writer.close();
+
+        IonDatagram dg = loader().load(out.toByteArray());
+        assertEquals(IonType.BLOB, dg.get(0).getType());
+        assertNull(((IonBlob) dg.get(0)).getBytes());
+        assertEquals(IonType.CLOB, dg.get(1).getType());
+        assertEquals(true, dg.get(1).isNullValue());
+    }
+
+    @Test
+    public void testShortSourceFails() throws IOException
+    {
+        IonWriter binary = IonBinaryWriterBuilder.standard().build(new ByteArrayOutputStream());
+        try
+        {
+            binary.writeBlob(new ByteArrayInputStream(new byte[10]), 20000);
+            fail("expected EOFException");
+        }
+        catch (EOFException e)
+        {
+            // expected
+        }
+
+        IonWriter text = IonTextWriterBuilder.standard().build(new StringBuilder());
+        try
+        {
+            text.writeClob(new ByteArrayInputStream(new byte[10]), 11);
+            fail("expected EOFException");
+        }
+        catch (EOFException e)
+        {
+            // expected
+        }
+    }
+
+    @Test
+    public void testTextWriterAndCopy() throws IOException
+    {
+        byte[] blob = randomBytes(3000);
+        byte[] clob = "hello".getBytes("US-ASCII");
+
+        StringBuilder text = new StringBuilder();
+        IonWriter writer = IonTextWriterBuilder.standard().build(text);
+        writer.writeBlob(new ByteArrayInputStream(blob), blob.length);
+        writer.writeClob(new ByteArrayInputStream(clob), clob.length);
+        writer.close();
+        IonDatagram dg = loader().load(text.toString());
+        assertArrayEquals(blob, ((IonBlob) dg.get(0)).getBytes());
+
+        // binary to binary copy goes through the streaming path
+        byte[] source = binaryOf(blob, clob);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IonWriter copier = IonBinaryWriterBuilder.standard().build(out);
+        copier.writeValues(binaryReader(source));
+        copier.close();
+        assertArrayEquals(source, out.toByteArray());
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl;
+
+import com.amazon.ion.FieldHandleReader;
+import com.amazon.ion.IonReader;
+import com.amazon.ion.IonResettableReader;
+import com.amazon.ion.IonTestCase;
+import com.amazon.ion.IonType;
+import com.amazon.ion.OffsetSpan;
+import com.amazon.ion.SpanProvider;
+import com.amazon.ion.Utf8ValueReader;
+import com.amazon.ion.system.IonReaderBuilder;
+import org.junit.Test;
+
+public class IonReaderBinaryResettableTest
+    extends IonTestCase
+{
+    @Test
+    public void testNoDataUntilReset()
+    {
+        IonResettableReader reader = IonReaderBuilder.standard().buildResettable();
+        assertNull(reader.next());
+        reader.reset(encode("1"));
+        assertEquals(IonType.INT, reader.next());
+        assertEquals(1, reader.intValue());
+        assertNull(reader.next());
+    }
+
+    @Test
+    public void testMessagesWithDifferentSymbolTables()
+    {
+        IonResettableReader reader = IonReaderBuilder.standard().buildResettable();
+        String[] messages = {
+            "{alpha:1, beta:two}",
+            "{gamma:[x, y], alpha:\"three\"}",
+            "a::b::c",
+            "{beta:2}",
+        };
+        for (int round = 0; round < 3; round++)
+        {
+            for (String message : messages)
+            {
+                reader.reset(encode(message));
+                reader.next();
+                assertEquals(system().singleValue(message), system().newValue(reader));
+            }
+        }
+    }
+
+    @Test
+    public void testResetMidValue()
+    {
+        IonResettableReader reader = IonReaderBuilder.standard().buildResettable();
+        reader.reset(encode("{a:[1, 2, {b:\"deep\"}], c:3} 4"));
+        reader.next();
+        reader.stepIn();
+        reader.next();
+        reader.stepIn();
+        reader.next();
+        assertEquals(2, reader.getDepth());
+
+        reader.reset(encode("(x y) 5"));
+        assertEquals(0, reader.getDepth());
+        assertEquals(IonType.SEXP, reader.next());
+        assertEquals(system().singleValue("(x y)"), system().newValue(reader));
+        assertEquals(IonType.INT, reader.next());
+        assertEquals(5, reader.intValue());
+        assertNull(reader.next());
+    }
+
+    @Test
+    public void testOffsetAndSpans() throws Exception
+    {
+        byte[] message = encode("hello");
+        byte[] padded = new byte[message.length + 10];
+        System.arraycopy(message, 0, padded, 7, message.length);
+
+        IonReader plain = IonReaderBuilder.standard().build(message);
+        plain.next();
+        long expected = plain.asFacet(SpanProvider.class).currentSpan()
+            .asFacet(OffsetSpan.class).getStartOffset();
+
+        IonResettableReader reader = IonReaderBuilder.standard().buildResettable();
+        SpanProvider spans = reader.asFacet(SpanProvider.class);
+        reader.reset(padded, 7, message.length);
+        reader.next();
+        OffsetSpan span = spans.currentSpan().asFacet(OffsetSpan.class);
+        assertEquals(expected, span.getStartOffset());
+        assertEquals("hello", reader.stringValue());
+        assertNull(reader.next());
+
+        reader.close();
+        reader.reset(message);
+        reader.next();
+        assertEquals("hello", reader.stringValue());
+    }
+
+    @Test
+    public void testFacetsSurviveReset()
+    {
+        IonResettableReader reader = IonReaderBuilder.standard().buildResettable();
+        Utf8ValueReader text = reader.asFacet(Utf8ValueReader.class);
+        FieldHandleReader fields = reader.asFacet(FieldHandleReader.class);
+        int name = fields.registerFieldName("name");
+
+        for (String value : new String[] { "first", "second" })
+        {
+            reader.reset(encode("{other:1, name:\"" + value + "\"}"));
+            reader.next();
+            reader.stepIn();
+            reader.next();
+            assertEquals(FieldHandleReader.NO_FIELD_HANDLE, fields.getFieldHandle());
+            reader.next();
+            assertEquals(name, fields.getFieldHandle());
+            assertTrue(text.textValueEquals(value));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTextRejected()
+    {
+        IonReaderBuilder.standard().buildResettable().reset("{a:1}".getBytes());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testBadRange()
+    {
+        IonReaderBuilder.standard().buildResettable().reset(new byte[4], 2, 3);
+    }
+}
@@ -0,0 +1,365 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl;
+
+import com.amazon.ion.IonReader;
+import com.amazon.ion.IonTestCase;
+import com.amazon.ion.IonTimestamp;
+import com.amazon.ion.IonType;
+import com.amazon.ion.IonWriter;
+import com.amazon.ion.NullValueException;
+import com.amazon.ion.Timestamp;
+import com.amazon.ion.TimestampValueReader;
+import com.amazon.ion.system.IonBinaryWriterBuilder;
+import com.amazon.ion.system.IonReaderBuilder;
+import com.amazon.ion.system.IonTextWriterBuilder;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.util.Random;
+import org.junit.Test;
+
+public class IonReaderBinaryTimestampValueTest
+    extends IonTestCase
+{
+    private static final String[] TIMESTAMPS = {
+        "2000T", "2000-02T", "2000-02-29T", "0001-01-01T", "9999-12T",
+        "1969-12-31T23:59Z", "1970-01-01T00:00:00Z", "1970-01-01T00:00:00.000Z",
+        "1970-01-02T00:00:01.5+01:00", "1969-12-31T23:59:59.999-00:00",
+        "0001-01-01T00:00:00.000000001Z", "9999-12-31T23:59:59.999999999+23:59",
+        "2020-03-01T08:00:00.123456789123-08:00", "1900-02-28T12:34:56.7-12:30",
+        "2001-01-01T00:00:00.00000000000000000000000001Z", "2012-06-30T23:59:59.0+05:45",
+    };
+
+    private static final String[] BIG_FRACTIONS = {
+        "2001-01-01T00:00:00.1234567890123456789012Z",
+        "1601-07-15T10:20:30.99999999999999999999999+02:00",
+    };
+
+    private static Integer box(int localOffset)
+    {
+        return localOffset == TimestampValueReader.UNKNOWN_LOCAL_OFFSET ? null : localOffset;
+    }
+
+    private static void check(TimestampValueReader timestamps, Timestamp expected)
+    {
+        long millis = expected.getMillis();
+        BigDecimal fraction = expected.getZFractionalSecond();
+        Integer offset = expected.getLocalOffset();
+        assertEquals(millis, timestamps.timestampEpochMillis());
+        assertEquals(_Private_EpochTime.floorDiv(millis, 1000), timestamps.timestampEpochSecond());
+        assertEquals(fraction == null ? 0 : fraction.movePointRight(9).intValue(),
+                     timestamps.timestampNanos());
+        assertEquals(offset == null ? TimestampValueReader.UNKNOWN_LOCAL_OFFSET : offset.intValue(),
+                     timestamps.timestampLocalOffset());
+        assertEquals(expected.getPrecision(), timestamps.timestampPrecision());
+    }
+
+    private void checkRead(String text)
+    {
+        Timestamp expected = ((IonTimestamp) system().singleValue(text)).timestampValue();
+
+        IonReader reader = IonReaderBuilder.standard().build(encode(text));
+        assertEquals(IonType.TIMESTAMP, reader.next());
+        check(reader.asFacet(TimestampValueReader.class), expected);
+        // Materializing afterwards must give the same value.
+        assertEquals(expected, reader.timestampValue());
+
+        reader = IonReaderBuilder.standard().build(encode(text));
+        reader.next();
+        assertEquals(expected, reader.timestampValue());
+        check(reader.asFacet(TimestampValueReader.class), expected);
+    }
+
+    @Test
+    public void testRead()
+    {
+        for (String text : TIMESTAMPS)
+        {
+            checkRead(text);
+        }
+    }
+
+    @Test
+    public void testReadFractionTooLongForPrimitives()
+    {
+        for (String text : BIG_FRACTIONS)
+        {
+            checkRead(text);
+        }
+    }
+
+    @Test
+    public void testReadInContainers()
+    {
+        String text = "{a:2000-01-01T00:00Z, b:[1969-07-20T20:17:40Z, 2000T], c:1234567}";
+        IonReader reader = IonReaderBuilder.standard().build(encode(text));
+        TimestampValueReader timestamps = reader.asFacet(TimestampValueReader.class);
+        reader.next();
+        reader.stepIn();
+        reader.next();
+        assertEquals(946684800L, timestamps.timestampEpochSecond());
+        reader.next();
+        reader.stepIn();
+        reader.next();
+        assertEquals(-14182940L, timestamps.timestampEpochSecond());
+        assertEquals(0, timestamps.timestampLocalOffset());
+        reader.next();
+        assertEquals(Timestamp.Precision.YEAR, timestamps.timestampPrecision());
+        assertEquals(TimestampValueReader.UNKNOWN_LOCAL_OFFSET, timestamps.timestampLocalOffset());
+        reader.stepOut();
+        assertEquals(IonType.INT, reader.next());
+        assertEquals(null, reader.next());
+    }
+
+    @Test
+    public void testNullAndWrongType()
+    {
+        IonReader reader = IonReaderBuilder.standard().build(encode("null.timestamp 12"));
+        TimestampValueReader timestamps = reader.asFacet(TimestampValueReader.class);
+        reader.next();
+        try
+        {
+            timestamps.timestampEpochSecond();
+            fail("Expected NullValueException");
+        }
+        catch (NullValueException e)
+        {
+            // Expected
+        }
+        reader.next();
+        try
+        {
+            timestamps.timestampNanos();
+            fail("Expected IllegalStateException");
+        }
+        catch (IllegalStateException e)
+        {
+            // Expected
+        }
+    }
+
+    private interface WriteTask
+    {
+        void write(IonWriter writer) throws Exception;
+    }
+
+    private static byte[] writeBinary(WriteTask task) throws Exception
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IonWriter writer = IonBinaryWriterBuilder.standard().build(out);
+        task.write(writer);
+        writer.close();
+        return out.toByteArray();
+    }
+
+    private static String writeText(WriteTask task) throws Exception
+    {
+        StringBuilder out = new StringBuilder();
+        IonWriter writer = IonTextWriterBuilder.standard().build(out);
+        task.write(writer);
+        writer.close();
+        return out.toString();
+    }
+
+    private static void checkWrite(final long epochMillis, final int localOffset) throws Exception
+    {
+        final Timestamp expected = Timestamp.forMillis(epochMillis, box(localOffset));
+        WriteTask primitive = new WriteTask()
+        {
+            public void write(IonWriter writer) throws Exception
+            {
+                writer.writeTimestamp(epochMillis, localOffset);
+            }
+        };
+        WriteTask object = new WriteTask()
+        {
+            public void write(IonWriter writer) throws Exception
+            {
+                writer.writeTimestamp(expected);
+            }
+        };
+        byte[] bytes = writeBinary(primitive);
+        assertArrayEquals(writeBinary(object), bytes);
+        assertEquals(writeText(object), writeText(primitive));
+
+        IonReader reader = IonReaderBuilder.standard().build(bytes);
+        reader.next();
+        TimestampValueReader timestamps = reader.asFacet(TimestampValueReader.class);
+        assertEquals(epochMillis, timestamps.timestampEpochMillis());
+        assertEquals(localOffset, timestamps.timestampLocalOffset());
+        assertEquals(expected, reader.timestampValue());
+    }
+
+    private static void checkWrite(final long epochSecond, final int nanos, final int localOffset)
+        throws Exception
+    {
+        final Timestamp expected = Timestamp.forEpochSecond(epochSecond, nanos, box(localOffset));
+        WriteTask primitive = new WriteTask()
+        {
+            public void write(IonWriter writer) throws Exception
+            {
+                writer.writeTimestamp(epochSecond, nanos, localOffset);
+            }
+        };
+        WriteTask object = new WriteTask()
+        {
+            public void write(IonWriter writer) throws Exception
+            {
+                writer.writeTimestamp(expected);
+            }
+        };
+        byte[] bytes = writeBinary(primitive);
+        assertArrayEquals(writeBinary(object), bytes);
+        assertEquals(writeText(object), writeText(primitive));
+
+        IonReader reader = IonReaderBuilder.standard().build(bytes);
+        reader.next();
+        TimestampValueReader timestamps = reader.asFacet(TimestampValueReader.class);
+        assertEquals(epochSecond, timestamps.timestampEpochSecond());
+        assertEquals(nanos, timestamps.timestampNanos());
+        assertEquals(localOffset, timestamps.timestampLocalOffset());
+        assertEquals(expected, reader.timestampValue());
+    }
+
+    @Test
+    public void testWrite() throws Exception
+    {
+        checkWrite(0, 0);
+        checkWrite(-1, TimestampValueReader.UNKNOWN_LOCAL_OFFSET);
+        checkWrite(1234567890123L, -480);
+        checkWrite(-62135769600000L, 1439);
+        checkWrite(253402300799999L, -1439);
+        checkWrite(-12219292800001L, 0);
+        checkWrite(-12219292800000L, 0);
+        checkWrite(951782400000L, -1439);
+
+        checkWrite(0, 0, 0);
+        checkWrite(-1, 999999999, TimestampValueReader.UNKNOWN_LOCAL_OFFSET);
+        checkWrite(1234567890L, 123456789, 330);
+        checkWrite(-62135769600L, 1, 0);
+        checkWrite(-12219292801L, 999999999, 0);
+        checkWrite(253402300799L, 999999999, -60);
+    }
+
+    @Test
+    public void testWriteRandom() throws Exception
+    {
+        Random random = new Random(42);
+        for (int i = 0; i < 1000; i++)
+        {
+            long epochSecond = -62135769600L + (long) (random.nextDouble() * 315538070400L);
+            int offset = random.nextInt(10) == 0
+                ? TimestampValueReader.UNKNOWN_LOCAL_OFFSET
+                : random.nextInt(2 * 1439 + 1) - 1439;
+            checkWrite(epochSecond * 1000 + random.nextInt(1000), offset);
+            checkWrite(epochSecond, random.nextInt(3) == 0 ? 0 : random.nextInt(1000000000), offset);
+        }
+    }
+
+    private static void checkWriteFails(WriteTask task) throws Exception
+    {
+        try
+        {
+            writeBinary(task);
+            fail("Expected IllegalArgumentException");
+        }
+        catch (IllegalArgumentException e)
+        {
+            // Expected
+        }
+        try
+        {
+            writeText(task);
+            fail("Expected IllegalArgumentException");
+        }
+        catch (IllegalArgumentException e)
+        {
+            // Expected
+        }
+    }
+
+    @Test
+    public void testWriteOutOfRange() throws Exception
+    {
+        checkWriteFails(new WriteTask()
+        {
+            public void write(IonWriter writer) throws Exception
+            {
+                writer.writeTimestamp(-62135769600001L, 0);
+            }
+        });
+        checkWriteFails(new WriteTask()
+        {
+            public void write(IonWriter writer) throws Exception
+            {
+                writer.writeTimestamp(253402300800L, 0, 0);
+            }
+        });
+        checkWriteFails(new WriteTask()
+        {
+            public void write(IonWriter writer) throws Exception
+            {
+                writer.writeTimestamp(0, 1000000000, 0);
+            }
+        });
+        checkWriteFails(new WriteTask()
+        {
+            public void write(IonWriter writer) throws Exception
+            {
+                writer.writeTimestamp(0, -1, 0);
+            }
+        });
+        checkWriteFails(new WriteTask()
+        {
+            public void write(IonWriter writer) throws Exception
+            {
+                writer.writeTimestamp(0, 1440);
+            }
+        });
+        checkWriteFails(new WriteTask()
+        {
+            public void write(IonWriter writer) throws Exception
+            {
+                // The local time is in the year 10000.
+                writer.writeTimestamp(253402300799999L, 1);
+            }
+        });
+        checkWriteFails(new WriteTask()
+        {
+            public void write(IonWriter writer) throws Exception
+            {
+                // Julian leap day that is not a Gregorian one.
+                writer.writeTimestamp(-14825894400L, 0, 0);
+            }
+        });
+    }
+
+    @Test
+    public void testEpochTime()
+    {
+        for (long day = _Private_EpochTime.MIN_EPOCH_DAY; day <= _Private_EpochTime.MAX_EPOCH_DAY; day += 7)
+        {
+            int date = _Private_EpochTime.dateOf(day);
+            assertEquals(day, _Private_EpochTime.epochDay(_Private_EpochTime.yearOf(date),
+                                                          _Private_EpochTime.monthOf(date),
+                                                          _Private_EpochTime.dayOf(date)));
+        }
+        assertEquals(_Private_EpochTime.MIN_EPOCH_DAY, _Private_EpochTime.epochDay(1, 1, 1));
+        assertEquals(_Private_EpochTime.MAX_EPOCH_DAY, _Private_EpochTime.epochDay(9999, 12, 31));
+        assertEquals(0, _Private_EpochTime.epochDay(1970, 1, 1));
+        assertEquals(11016, _Private_EpochTime.epochDay(2000, 2, 29));
+    }
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl;
+
+import com.amazon.ion.IonException;
+import com.amazon.ion.IonReader;
+import com.amazon.ion.IonTestCase;
+import com.amazon.ion.IonType;
+import com.amazon.ion.UnknownSymbolException;
+import com.amazon.ion.Utf8ValueReader;
+import com.amazon.ion.system.IonReaderBuilder;
+import java.io.ByteArrayInputStream;
+import org.junit.Test;
+
+public class IonReaderBinaryUtf8ValueTest
+    extends IonTestCase
+{
+    private static final String ASCII = "hello";
+    private static final String MIXED = "caf\u00E9 \u2708 \uD83D\uDE02";
+
+    private static String longText()
+    {
+        StringBuilder buf = new StringBuilder();
+        for (int i = 0; i < 2000; i++)
+        {
+            buf.append(MIXED);
+        }
+        return buf.toString();
+    }
+
+    private IonReader reader(String ionText)
+    {
+        return IonReaderBuilder.standard().build(encode(ionText));
+    }
+
+    private static byte[] utf8(String text) throws Exception
+    {
+        return text.getBytes("UTF-8");
+    }
+
+    private static void checkText(Utf8ValueReader facet, String expected)
+        throws Exception
+    {
+        byte[] expectedUtf8 = utf8(expected);
+        assertEquals(expectedUtf8.length, facet.utf8Length());
+
+        byte[] copy = new byte[expectedUtf8.length + 3];
+        assertEquals(expectedUtf8.length, facet.getUtf8Bytes(copy, 3));
+        byte[] actual = new byte[expectedUtf8.length];
+        System.arraycopy(copy, 3, actual, 0, actual.length);
+        assertArrayEquals(expectedUtf8, actual);
+
+        assertEquals(expected, facet.textValue().toString());
+        assertTrue(facet.textValueEquals(expected));
+        assertTrue(facet.textValueEquals(new StringBuilder(expected)));
+        assertFalse(facet.textValueEquals(expected + "x"));
+
+        byte[] padded = new byte[expectedUtf8.length + 2];
+        System.arraycopy(expectedUtf8, 0, padded, 1, expectedUtf8.length);
+        assertTrue(facet.textValueEquals(padded, 1, expectedUtf8.length));
+        if (expected.length() > 0)
+        {
+            assertFalse(facet.textValueEquals(expected.substring(1)));
+            assertFalse(facet.textValueEquals(padded, 0, expectedUtf8.length));
+            assertFalse(facet.textValueEquals(padded, 1, expectedUtf8.length - 1));
+        }
+    }
+
+    @Test
+    public void testStrings() throws Exception
+    {
+        String big = longText();
+        IonReader reader = reader("\"" + ASCII + "\" \"" + MIXED + "\" \"" + big + "\" \"\"");
+        Utf8ValueReader facet = reader.asFacet(Utf8ValueReader.class);
+        assertSame(facet, reader.asFacet(Utf8ValueReader.class));
+
+        assertEquals(IonType.STRING, reader.next());
+        checkText(facet, ASCII);
+        assertEquals(IonType.STRING, reader.next());
+        checkText(facet, MIXED);
+        assertEquals(IonType.STRING, reader.next());
+        checkText(facet, big);
+        assertEquals(IonType.STRING, reader.next());
+        checkText(facet, "");
+        assertNull(reader.next());
+    }
+
+    @Test
+    public void testStringValueAfterFacet() throws Exception
+    {
+        String big = longText();
+        IonReader reader = reader("\"" + MIXED + "\" \"" + big + "\"");
+        Utf8ValueReader facet = reader.asFacet(Utf8ValueReader.class);
+
+        reader.next();
+        assertTrue(facet.textValueEquals(utf8(MIXED), 0, utf8(MIXED).length));
+        assertEquals(MIXED, reader.stringValue());
+        reader.next();
+        assertEquals(utf8(big).length, facet.utf8Length());
+        assertEquals(big, reader.stringValue());
+    }
+
+    @Test
+    public void testFacetAfterStringValue() throws Exception
+    {
+        IonReader reader = reader("\"" + MIXED + "\"");
+        Utf8ValueReader facet = reader.asFacet(Utf8ValueReader.class);
+
+        reader.next();
+        assertEquals(MIXED, reader.stringValue());
+        checkText(facet, MIXED);
+    }
+
+    @Test
+    public void testSymbols() throws Exception
+    {
+        IonReader reader = reader("'" + MIXED + "' name {a:b}");
+        Utf8ValueReader facet = reader.asFacet(Utf8ValueReader.class);
+
+        assertEquals(IonType.SYMBOL, reader.next());
+        checkText(facet, MIXED);
+        assertEquals(IonType.SYMBOL, reader.next());
+        checkText(facet, "name");
+        assertEquals(IonType.STRUCT, reader.next());
+        reader.stepIn();
+        assertEquals(IonType.SYMBOL, reader.next());
+        checkText(facet, "b");
+        reader.stepOut();
+    }
+
+    @Test
+    public void testStreamInput() throws Exception
+    {
+        byte[] bytes = encode("[\"" + MIXED + "\", x]");
+        IonReader reader = IonReaderBuilder.standard().build(new ByteArrayInputStream(bytes));
+        Utf8ValueReader facet = reader.asFacet(Utf8ValueReader.class);
+
+        reader.next();
+        reader.stepIn();
+        reader.next();
+        checkText(facet, MIXED);
+        reader.next();
+        checkText(facet, "x");
+        assertNull(reader.next());
+        reader.stepOut();
+    }
+
+    @Test
+    public void testWrongTypeOrNull()
+    {
+        IonReader reader = reader("1 null.string");
+        Utf8ValueReader facet = reader.asFacet(Utf8ValueReader.class);
+
+        reader.next();
+        try
+        {
+            facet.utf8Length();
+            fail("Expected IllegalStateException");
+        }
+        catch (IllegalStateException e)
+        {
+            // Expected
+        }
+        reader.next();
+        try
+        {
+            facet.textValue();
+            fail("Expected an exception for null.string");
+        }
+        catch (IonException e)
+        {
+            // Expected
+        }
+    }
+
+    @Test(expected = UnknownSymbolException.class)
+    public void testUnknownSymbol()
+    {
+        // $10 is out of range of the system symbol table.
+        byte[] bytes = { (byte) 0xE0, 0x01, 0x00, (byte) 0xEA, 0x71, 0x0A };
+        IonReader reader = IonReaderBuilder.standard().build(bytes);
+        reader.next();
+        reader.asFacet(Utf8ValueReader.class).textValue();
+    }
+
+    @Test
+    public void testInvalidUtf8()
+    {
+        // A string containing an overlong encoding of '/'.
+        byte[] bytes = { (byte) 0xE0, 0x01, 0x00, (byte) 0xEA, (byte) 0x82, (byte) 0xC0, (byte) 0xAF };
+        IonReader reader = IonReaderBuilder.standard().build(bytes);
+        reader.next();
+        try
+        {
+            reader.asFacet(Utf8ValueReader.class).textValue();
+            fail("Expected IonException");
+        }
+        catch (IonException e)
+        {
+            // Expected
+        }
+    }
+}
@@ -0,0 +1,226 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl;
+
+import static org.junit.Assert.assertEquals;
+
+import com.amazon.ion.IonDatagram;
+import com.amazon.ion.IonException;
+import com.amazon.ion.IonReader;
+import com.amazon.ion.IonSystem;
+import com.amazon.ion.IonType;
+import com.amazon.ion.system.IonReaderBuilder;
+import com.amazon.ion.system.IonSystemBuilder;
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.math.BigInteger;
+import org.junit.Test;
+
+/**
+ * Exercises the tokenizer's scanning of whitespace, digit and identifier
+ * runs, particularly runs that cross the buffer pages of streamed input.
+ */
+public class IonReaderTextCharacterRunTest
+{
+    private static final IonSystem SYSTEM = IonSystemBuilder.standard().build();
+
+    /** Pages this small put page boundaries inside most runs. */
+    private static final IonReaderBuilder SMALL_PAGES =
+        IonReaderBuilder.standard().withBufferSize(IonReaderBuilder.MINIMUM_BUFFER_SIZE);
+
+    private static String repeat(char c, int count)
+    {
+        StringBuilder sb = new StringBuilder(count);
+        for (int i = 0; i < count; i++)
+        {
+            sb.append(c);
+        }
+        return sb.toString();
+    }
+
+    private static final String LONG_SYMBOL = "sym_" + repeat('x', 75) + "$9";
+    private static final String LONG_DIGITS = "1" + repeat('0', 70);
+
+    private static final String TEXT =
+        repeat(' ', 40) + LONG_SYMBOL + repeat('\t', 33) + "\n"
+        + "{" + LONG_SYMBOL + ":" + LONG_DIGITS + "}\n"
+        + LONG_DIGITS + "/* comment */ "
+        + "1_000_000 -" + LONG_DIGITS + "// comment\n"
+        + "123." + LONG_DIGITS + "d-" + "0" + repeat('1', 2) + " "
+        + "[a,bc,def]" + repeat(' ', 31) + "(x+y)"
+        + "\r\n" + repeat(' ', 64) + "end";
+
+    private static void assertLoadsLikeString(IonReader reader)
+        throws Exception
+    {
+        try
+        {
+            IonDatagram expected = SYSTEM.getLoader().load(TEXT);
+            assertEquals(expected, SYSTEM.getLoader().load(reader));
+        }
+        finally
+        {
+            reader.close();
+        }
+    }
+
+    @Test
+    public void testValues()
+    {
+        IonReader reader = SYSTEM.newReader(TEXT);
+        assertEquals(IonType.SYMBOL, reader.next());
+        assertEquals(LONG_SYMBOL, reader.stringValue());
+        assertEquals(IonType.STRUCT, reader.next());
+        reader.stepIn();
+        assertEquals(IonType.INT, reader.next());
+        assertEquals(LONG_SYMBOL, reader.getFieldName());
+        assertEquals(new BigInteger(LONG_DIGITS), reader.bigIntegerValue());
+        reader.stepOut();
+        assertEquals(IonType.INT, reader.next());
+        assertEquals(new BigInteger(LONG_DIGITS), reader.bigIntegerValue());
+        assertEquals(IonType.INT, reader.next());
+        assertEquals(1000000, reader.intValue());
+        assertEquals(IonType.INT, reader.next());
+        assertEquals(new BigInteger("-" + LONG_DIGITS), reader.bigIntegerValue());
+        assertEquals(IonType.DECIMAL, reader.next());
+        assertEquals(IonType.LIST, reader.next());
+        assertEquals(IonType.SEXP, reader.next());
+        reader.stepIn();
+        assertEquals(IonType.SYMBOL, reader.next());
+        assertEquals("x", reader.stringValue());
+        assertEquals(IonType.SYMBOL, reader.next());
+        assertEquals("+", reader.stringValue());
+        assertEquals(IonType.SYMBOL, reader.next());
+        assertEquals("y", reader.stringValue());
+        reader.stepOut();
+        assertEquals(IonType.SYMBOL, reader.next());
+        assertEquals("end", reader.stringValue());
+        assertEquals(null, reader.next());
+    }
+
+    @Test
+    public void testSmallPagesFromBytes()
+        throws Exception
+    {
+        byte[] utf8 = TEXT.getBytes("UTF-8");
+        assertLoadsLikeString(SMALL_PAGES.build(new ByteArrayInputStream(utf8)));
+        assertLoadsLikeString(SMALL_PAGES.build(utf8));
+    }
+
+    @Test
+    public void testSmallPagesFromChars()
+        throws Exception
+    {
+        assertLoadsLikeString(SMALL_PAGES.build(new StringReader(TEXT)));
+    }
+
+    @Test
+    public void testSkippingRuns()
+        throws Exception
+    {
+        // Skipping values without materializing them uses the skip paths.
+        IonReader reader =
+            SMALL_PAGES.build(new ByteArrayInputStream(TEXT.getBytes("UTF-8")));
+        int count = 0;
+        while (reader.next() != null)
+        {
+            count++;
+        }
+        reader.close();
+        assertEquals(9, count);
+    }
+
+    private static final String MIXED_TEXT =
+        "plain ASCII text that is long enough to cross several small pages, "
+        + "caf\u00e9 \u20ac\u4e2d\u6587 \ud83d\ude00 " + repeat('.', 29)
+        + "\ud834\udd1e\u00e9\u00e9\u00e9\u00e9\u00e9\u00e9\u00e9\u00e9";
+
+    private static void assertTextValues(String ion, String expected)
+        throws Exception
+    {
+        byte[] utf8 = ion.getBytes("UTF-8");
+        IonReader[] readers = {
+            SYSTEM.newReader(ion),
+            SYSTEM.newReader(utf8),
+            SMALL_PAGES.build(new ByteArrayInputStream(utf8)),
+            SMALL_PAGES.build(new StringReader(ion)),
+        };
+        for (IonReader reader : readers)
+        {
+            while (reader.next() != null)
+            {
+                if (reader.getType() == IonType.STRUCT)
+                {
+                    reader.stepIn();
+                    reader.next();
+                    assertEquals(expected, reader.getFieldName());
+                }
+                assertEquals(expected, reader.stringValue());
+            }
+            reader.close();
+        }
+    }
+
+    @Test
+    public void testQuotedTextRuns()
+        throws Exception
+    {
+        String escaped = MIXED_TEXT.replace("caf\u00e9", "caf\\xe9");
+        assertTextValues("\"" + MIXED_TEXT + "\"", MIXED_TEXT);
+        assertTextValues("'" + MIXED_TEXT + "'", MIXED_TEXT);
+        assertTextValues("'''" + MIXED_TEXT + "'''", MIXED_TEXT);
+        assertTextValues("{'" + MIXED_TEXT + "':\"" + escaped + "\"}",
+                         MIXED_TEXT);
+        // each page boundary lands at a different offset within the UTF-8
+        for (int i = 1; i < 5; i++)
+        {
+            String padding = repeat('x', i);
+            assertTextValues(padding + "::\"" + MIXED_TEXT + "\"", MIXED_TEXT);
+        }
+    }
+
+    @Test
+    public void testQuotedTextWithEscapesAndQuotes()
+        throws Exception
+    {
+        assertTextValues("\"a\\\"b'c\\\\d\\u00e9\\t\"", "a\"b'c\\d\u00e9\t");
+        assertTextValues("'a\"b\\'c'", "a\"b'c");
+        assertTextValues("'''a''b''' '''c'd'''", "a''bc'd");
+    }
+
+    @Test
+    public void testClobTextRuns()
+        throws Exception
+    {
+        IonReader reader = SMALL_PAGES.build(new ByteArrayInputStream(
+            "{{\"plain text in a clob, long enough for pages\"}}".getBytes("UTF-8")));
+        assertEquals(IonType.CLOB, reader.next());
+        assertEquals("plain text in a clob, long enough for pages",
+                     new String(reader.newBytes(), "US-ASCII"));
+        reader.close();
+    }
+
+    @Test(expected = IonException.class)
+    public void testEncodedSurrogateIsRejected()
+        throws Exception
+    {
+        // U+D800 encoded directly in UTF-8 is ill-formed.
+        byte[] data = { '"', 'a', (byte) 0xED, (byte) 0xA0, (byte) 0x80, '"' };
+        IonReader reader = SYSTEM.newReader(data);
+        reader.next();
+        reader.stringValue();
+    }
+}
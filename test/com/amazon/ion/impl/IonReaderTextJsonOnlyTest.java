@@ -0,0 +1,191 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl;
+
+import com.amazon.ion.IonDatagram;
+import com.amazon.ion.IonException;
+import com.amazon.ion.IonReader;
+import com.amazon.ion.IonTestCase;
+import com.amazon.ion.IonType;
+import com.amazon.ion.system.IonReaderBuilder;
+import java.io.StringReader;
+import org.junit.Test;
+
+public class IonReaderTextJsonOnlyTest
+    extends IonTestCase
+{
+    private static final IonReaderBuilder JSON = IonReaderBuilder.standard().withJsonOnly(true);
+
+    private static final String JSON_TEXT =
+        "{\"name\": \"caf\\u00e9\", \"id\": -12345678901234567890, \"ok\": true,\n"
+        + " \"none\": null, \"ratio\": 0.25, \"big\": -1.5E+300, \"small\": 2e-3,\n"
+        + " \"tags\": [\"a\", \"b\\n\\\"c\\\"\", [], {}], \"zero\": 0, \"nested\": {\"x\": [false, -0]}}\n"
+        + "[1, 2, 3]  \"top\"  42";
+
+    private static final String[] NOT_JSON = {
+        "a::1", "(1)", "{{ }}", "{{\"clob\"}}", "abc", "'sym'", "2001T", "2001-01-01",
+        "null.int", "'''long'''", "/* comment */ 1", "1 // comment", "[1,]", "{\"a\":1,}",
+        "{a:1}", "{'a':1}", "0x10", "0b10", "1d5", "1_000", "+1", "01", "-01", "1.", "1.e5",
+        "1e", "-", "nan", "+inf", "-inf", "[1 2]", "{\"a\" 1}", "1,2", "$ion_1_0",
+    };
+
+    /** String contents that Ion text accepts but JSON doesn't. */
+    private static final String[] NOT_JSON_STRING_CONTENTS = {
+        "\\x41", "\\a", "\\0", "\\v", "\\'", "\\?", "\\U0001F600",
+        "a\tb", "a\u0001b", "a\\\nb", "a\\\r\nb",
+    };
+
+    private IonDatagram load(IonReader reader)
+    {
+        return loader().load(reader);
+    }
+
+    /**
+     * Reads every value, including the contents of scalars, as a loader
+     * would.
+     */
+    private static void readAll(IonReader reader)
+    {
+        IonType type;
+        while ((type = reader.next()) != null)
+        {
+            if (IonType.isContainer(type))
+            {
+                reader.stepIn();
+                readAll(reader);
+                reader.stepOut();
+            }
+            else if (!reader.isNullValue())
+            {
+                switch (type)
+                {
+                    case STRING:
+                        reader.stringValue();
+                        break;
+                    case INT:
+                        reader.bigIntegerValue();
+                        break;
+                    case DECIMAL:
+                        reader.decimalValue();
+                        break;
+                    case FLOAT:
+                        reader.doubleValue();
+                        break;
+                    default:
+                        break;
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testReadsJsonAsIonTextDoes()
+    {
+        IonDatagram expected = load(IonReaderBuilder.standard().build(JSON_TEXT));
+        assertEquals(expected, load(JSON.build(JSON_TEXT)));
+        assertEquals(expected, load(JSON.copy().withBufferSize(32).build(new StringReader(JSON_TEXT))));
+    }
+
+    @Test
+    public void testTypes()
+    {
+        IonReader reader = JSON.build("[1, 1.5, 1e5, -0.0, \"s\", true, null, {}]");
+        reader.next();
+        reader.stepIn();
+        assertEquals(IonType.INT, reader.next());
+        assertEquals(IonType.DECIMAL, reader.next());
+        assertEquals(IonType.FLOAT, reader.next());
+        assertEquals(IonType.DECIMAL, reader.next());
+        assertEquals(IonType.STRING, reader.next());
+        assertEquals(IonType.BOOL, reader.next());
+        assertEquals(IonType.NULL, reader.next());
+        assertEquals(IonType.STRUCT, reader.next());
+        assertEquals(null, reader.next());
+        reader.stepOut();
+        assertEquals(null, reader.next());
+    }
+
+    @Test
+    public void testRejectsIonOnlySyntax()
+    {
+        for (String text : NOT_JSON)
+        {
+            try
+            {
+                readAll(JSON.build(text));
+                fail("Expected IonException for " + text);
+            }
+            catch (IonException e)
+            {
+                // Expected
+            }
+        }
+    }
+
+    @Test
+    public void testJsonEscapes()
+    {
+        IonReader reader = JSON.build(
+            "\"\\\" \\\\ \\/ \\b \\f \\n \\r \\t \\u00e9 \\ud83d\\ude00\"");
+        assertEquals(IonType.STRING, reader.next());
+        assertEquals("\" \\ / \b \f \n \r \t \u00e9 \ud83d\ude00", reader.stringValue());
+    }
+
+    @Test
+    public void testRejectsIonOnlyStringContents()
+    {
+        for (String contents : NOT_JSON_STRING_CONTENTS)
+        {
+            String value = "\"" + contents + "\"";
+            try
+            {
+                readAll(JSON.build(value));
+                fail("Expected IonException for " + value);
+            }
+            catch (IonException e)
+            {
+                // Expected
+            }
+            // Skipped strings are scanned too.
+            try
+            {
+                IonReader reader = JSON.build("[" + value + ", 1]");
+                reader.next();
+                reader.stepIn();
+                reader.next();
+                reader.next();
+                fail("Expected IonException when skipping " + value);
+            }
+            catch (IonException e)
+            {
+                // Expected
+            }
+            try
+            {
+                IonReader reader = JSON.build("{" + value + ": 1}");
+                reader.next();
+                reader.stepIn();
+                reader.next();
+                reader.getFieldName();
+                fail("Expected IonException for field name " + value);
+            }
+            catch (IonException e)
+            {
+                // Expected
+            }
+        }
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.amazon.ion.IonException;
+import com.amazon.ion.IonReader;
+import com.amazon.ion.IonType;
+import com.amazon.ion.NullValueException;
+import com.amazon.ion.Timestamp;
+import com.amazon.ion.TimestampValueReader;
+import com.amazon.ion.system.IonReaderBuilder;
+import java.math.BigDecimal;
+import java.util.Random;
+import org.junit.Test;
+
+public class IonReaderTextTimestampValueTest
+{
+    private static final String[] TIMESTAMPS = {
+        "2000T", "2000-02T", "2000-02-29", "2000-02-29T", "0001-01-01T", "9999-12T",
+        "1969-12-31T23:59Z", "1970-01-01T00:00:00Z", "1970-01-01T00:00:00.000Z",
+        "1970-01-02T00:00:01.5+01:00", "1969-12-31T23:59:59.999-00:00",
+        "0001-01-01T00:00:00.000000001Z", "9999-12-31T23:59:59.999999999+23:59",
+        "2020-03-01T08:00:00.123456789123-08:00", "1900-02-28T12:34:56.7-12:30",
+        "2012-06-30T23:59:59.0+05:45", "2001-01-01T00:00:00.12345678901234567Z",
+    };
+
+    private static final String[] BIG_FRACTIONS = {
+        "2001-01-01T00:00:00.123456789012345678Z",
+        "2001-01-01T00:00:00.00000000000000000000000001Z",
+        "1601-07-15T10:20:30.99999999999999999999999+02:00",
+    };
+
+    private static final String[] INVALID = {
+        "2000-13T", "2001-02-29", "2000-01-32T", "0000T", "2000-01-01T24:00Z",
+        "2000-01-01T00:60Z", "2000-01-01T00:00:60Z", "2000-01-01T00:00",
+        "2000-01-01T00:00:00.Z", "2000-01-01T00:00+24:00", "2000-01-01T00:00+01:60",
+        "2000-01-01T00:00:00+1:00",
+    };
+
+    private static void check(TimestampValueReader timestamps, Timestamp expected)
+    {
+        long millis = expected.getMillis();
+        BigDecimal fraction = expected.getZFractionalSecond();
+        Integer offset = expected.getLocalOffset();
+        assertEquals(millis, timestamps.timestampEpochMillis());
+        assertEquals(_Private_EpochTime.floorDiv(millis, 1000), timestamps.timestampEpochSecond());
+        assertEquals(fraction == null ? 0 : fraction.movePointRight(9).intValue(),
+                     timestamps.timestampNanos());
+        assertEquals(offset == null ? TimestampValueReader.UNKNOWN_LOCAL_OFFSET : offset.intValue(),
+                     timestamps.timestampLocalOffset());
+        assertEquals(expected.getPrecision(), timestamps.timestampPrecision());
+    }
+
+    private static void checkRead(String text)
+    {
+        Timestamp expected = Timestamp.valueOf(text);
+
+        IonReader reader = IonReaderBuilder.standard().build(text);
+        assertEquals(IonType.TIMESTAMP, reader.next());
+        Timestamp actual = reader.timestampValue();
+        assertEquals(text, expected, actual);
+        assertEquals(text, expected.toString(), actual.toString());
+        check(reader.asFacet(TimestampValueReader.class), expected);
+
+        reader = IonReaderBuilder.standard().build(text.getBytes());
+        reader.next();
+        check(reader.asFacet(TimestampValueReader.class), expected);
+        // Materializing afterwards must give the same value.
+        assertEquals(text, expected, reader.timestampValue());
+    }
+
+    @Test
+    public void testRead()
+    {
+        for (String text : TIMESTAMPS)
+        {
+            checkRead(text);
+        }
+    }
+
+    @Test
+    public void testReadFractionTooLongForParser()
+    {
+        for (String text : BIG_FRACTIONS)
+        {
+            assertFalse(text, new TextTimestampParser().parse(text));
+            checkRead(text);
+        }
+    }
+
+    @Test
+    public void testReadRandom()
+    {
+        Random random = new Random(42);
+        for (int i = 0; i < 2000; i++)
+        {
+            long millis = random.nextLong() % 60000000000000L;
+            int offset = random.nextInt(2 * 24 * 60 - 1) - (24 * 60 - 1);
+            String text = Timestamp.forMillis(millis, offset).toString();
+            assertTrue(text, new TextTimestampParser().parse(text));
+            checkRead(text);
+        }
+    }
+
+    @Test
+    public void testInvalid()
+    {
+        for (String text : INVALID)
+        {
+            assertFalse(text, new TextTimestampParser().parse(text));
+
+            IonReader reader = IonReaderBuilder.standard().build(text);
+            reader.next();
+            try
+            {
+                reader.asFacet(TimestampValueReader.class).timestampEpochSecond();
+                fail("Expected IonException for " + text);
+            }
+            catch (IonException e)
+            {
+                // Expected
+            }
+        }
+    }
+
+    @Test
+    public void testReadInContainers()
+    {
+        String text = "{a:2000-01-01T00:00Z, b:[1969-07-20T20:17:40Z, 2000T], c:1234567}";
+        IonReader reader = IonReaderBuilder.standard().build(text);
+        TimestampValueReader timestamps = reader.asFacet(TimestampValueReader.class);
+        reader.next();
+        reader.stepIn();
+        reader.next();
+        assertEquals(946684800L, timestamps.timestampEpochSecond());
+        reader.next();
+        reader.stepIn();
+        reader.next();
+        assertEquals(-14182940L, timestamps.timestampEpochSecond());
+        assertEquals(0, timestamps.timestampLocalOffset());
+        reader.next();
+        assertEquals(Timestamp.Precision.YEAR, timestamps.timestampPrecision());
+        assertEquals(TimestampValueReader.UNKNOWN_LOCAL_OFFSET, timestamps.timestampLocalOffset());
+        reader.stepOut();
+        assertEquals(IonType.INT, reader.next());
+        assertEquals(null, reader.next());
+    }
+
+    @Test
+    public void testNullAndWrongType()
+    {
+        IonReader reader = IonReaderBuilder.standard().build("null.timestamp 12");
+        TimestampValueReader timestamps = reader.asFacet(TimestampValueReader.class);
+        reader.next();
+        try
+        {
+            timestamps.timestampEpochSecond();
+            fail("Expected NullValueException");
+        }
+        catch (NullValueException e)
+        {
+            // Expected
+        }
+        reader.next();
+        try
+        {
+            timestamps.timestampNanos();
+            fail("Expected IllegalStateException");
+        }
+        catch (IllegalStateException e)
+        {
+            // Expected
+        }
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl;
+
+import com.amazon.ion.Decimal;
+import com.amazon.ion.IntegerSize;
+import com.amazon.ion.IonReader;
+import com.amazon.ion.IonTestCase;
+import com.amazon.ion.IonType;
+import java.util.Random;
+import org.junit.Test;
+
+public class TextNumberParserTest
+    extends IonTestCase
+{
+    private final TextNumberParser parser = new TextNumberParser();
+
+    private void assertLong(String text)
+    {
+        assertTrue(text, parser.parseLong(new StringBuilder(text)));
+        assertEquals(text, Long.parseLong(text), parser.longValue);
+    }
+
+    private void assertDecimal(String text)
+    {
+        Decimal actual = parser.parseDecimal(new StringBuilder(text));
+        Decimal expected = Decimal.valueOf(text.replace('d', 'e').replace('D', 'e'));
+        assertTrue(text, Decimal.equals(expected, actual));
+    }
+
+    private void assertDouble(String text)
+    {
+        assertTrue(text, parser.parseDouble(new StringBuilder(text)));
+        assertEquals(text,
+                     Double.doubleToRawLongBits(Double.parseDouble(text)),
+                     Double.doubleToRawLongBits(parser.doubleValue));
+    }
+
+    @Test
+    public void testLongs()
+    {
+        assertLong("0");
+        assertLong("-0");
+        assertLong("123");
+        assertLong("-2147483649");
+        assertLong(Long.toString(Long.MAX_VALUE));
+        assertLong(Long.toString(Long.MIN_VALUE));
+
+        assertFalse(parser.parseLong("9223372036854775808"));
+        assertFalse(parser.parseLong("-9223372036854775809"));
+        assertFalse(parser.parseLong("-"));
+        assertFalse(parser.parseLong(""));
+        assertFalse(parser.parseLong("+1"));
+        assertFalse(parser.parseLong("1.0"));
+    }
+
+    @Test
+    public void testDecimals()
+    {
+        assertDecimal("0.");
+        assertDecimal("-0.");
+        assertDecimal("-0.000");
+        assertDecimal("-0d5");
+        assertDecimal("1.50");
+        assertDecimal("123.456d-7");
+        assertDecimal("123.456D+7");
+        assertDecimal("12d0");
+        assertDecimal("-12345678901234567.89");
+        assertDecimal("1d-999999999");
+
+        assertNull(parser.parseDecimal("12345678901234567890.1"));
+        assertNull(parser.parseDecimal("1d1234567890"));
+        assertNull(parser.parseDecimal("1d"));
+        assertNull(parser.parseDecimal("1d+"));
+        assertNull(parser.parseDecimal("1e5"));
+        assertNull(parser.parseDecimal("1.2.3"));
+    }
+
+    @Test
+    public void testDoubles()
+    {
+        assertDouble("0e0");
+        assertDouble("-0e0");
+        assertDouble("-0.0e400");
+        assertDouble("1.5e0");
+        assertDouble("123.456e-7");
+        assertDouble("9007199254740992e0");
+        assertDouble("1e22");
+        assertDouble("1e-22");
+        assertDouble("1e23");
+        assertDouble("123e30");
+
+        // not exact with a single operation
+        assertFalse(parser.parseDouble("9007199254740993e0"));
+        assertFalse(parser.parseDouble("1e-23"));
+        assertFalse(parser.parseDouble("12345678e32"));
+        // not a float
+        assertFalse(parser.parseDouble("1.5"));
+        assertFalse(parser.parseDouble("1e2.5"));
+    }
+
+    @Test
+    public void testRandomDoubles()
+    {
+        Random random = new Random(42);
+        for (int i = 0; i < 10000; i++)
+        {
+            long mantissa = random.nextLong() % 100000000000L;
+            int fraction = random.nextInt(12);
+            int exponent = random.nextInt(40) - 20;
+            String digits = Long.toString(Math.abs(mantissa));
+            while (digits.length() <= fraction)
+            {
+                digits = "0" + digits;
+            }
+            String text = (mantissa < 0 ? "-" : "")
+                + digits.substring(0, digits.length() - fraction)
+                + "." + digits.substring(digits.length() - fraction)
+                + "e" + exponent;
+            if (parser.parseDouble(text))
+            {
+                assertEquals(text,
+                             Double.doubleToRawLongBits(Double.parseDouble(text)),
+                             Double.doubleToRawLongBits(parser.doubleValue));
+            }
+            assertDecimal(text.replace('e', 'd'));
+        }
+    }
+
+    @Test
+    public void testReaderIntegerSizes()
+    {
+        IonReader reader = system().newReader(
+            "2147483639 2147483648 -9223372036854775808 9223372036854775808 0x10");
+        assertEquals(IonType.INT, reader.next());
+        assertEquals(IntegerSize.INT, reader.getIntegerSize());
+        assertEquals(2147483639, reader.intValue());
+        assertEquals(IonType.INT, reader.next());
+        assertEquals(IntegerSize.LONG, reader.getIntegerSize());
+        assertEquals(2147483648L, reader.longValue());
+        assertEquals(IonType.INT, reader.next());
+        assertEquals(IntegerSize.LONG, reader.getIntegerSize());
+        assertEquals(Long.MIN_VALUE, reader.longValue());
+        assertEquals(IonType.INT, reader.next());
+        assertEquals(IntegerSize.BIG_INTEGER, reader.getIntegerSize());
+        assertEquals(IonType.INT, reader.next());
+        assertEquals(16, reader.intValue());
+    }
+}
@@ -18,6 +18,7 @@ package com.amazon.ion.impl;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Arrays;
@@ -61,4 +62,48 @@ public class UnifiedInputStreamXTest extends Assert {
 
         assertArrayEquals(expected, actual);
     }
+
+    @Test
+    public void testCharacterRunStopsAtPageLimit() throws Exception {
+        StringBuilder symbol = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            symbol.append((char) ('a' + i % 26));
+        }
+        byte[] data = (symbol + "  \t7").getBytes("US-ASCII");
+        UnifiedInputStreamX uix =
+            UnifiedInputStreamX.makeStream(new ByteArrayInputStream(data), 32, 0);
+
+        // each run ends at the page limit, and reading refills
+        StringBuilder sb = new StringBuilder();
+        int runs = 0;
+        int c = uix.read();
+        while (IonTokenConstsX.isValidSymbolCharacter(c)) {
+            sb.append((char) c);
+            uix.appendCharacterRun(sb, IonTokenConstsX.CC_SYMBOL);
+            runs++;
+            c = uix.read();
+        }
+        assertEquals(symbol.toString(), sb.toString());
+        assertTrue(runs > 1);
+        assertEquals(' ', c);
+
+        uix.unread(c);
+        assertEquals(3, uix.skipCharacterRun(IonTokenConstsX.CC_BLANK));
+        assertEquals(0, uix.skipCharacterRun(IonTokenConstsX.CC_BLANK));
+        assertEquals('7', uix.read());
+    }
+
+    @Test
+    public void testCharacterRunOverChars() throws Exception {
+        UnifiedInputStreamX uix = UnifiedInputStreamX.makeStream("\t 007\u00e9");
+
+        assertEquals(2, uix.skipCharacterRun(IonTokenConstsX.CC_BLANK));
+        StringBuilder sb = new StringBuilder();
+        assertEquals(3, uix.appendCharacterRun(sb, IonTokenConstsX.CC_DIGIT | IonTokenConstsX.CC_SYMBOL));
+        assertEquals("007", sb.toString());
+        assertEquals(0, uix.skipCharacterRun(IonTokenConstsX.CC_SYMBOL));
+        assertEquals(0xE9, uix.read());
+        assertEquals(0, uix.skipCharacterRun(IonTokenConstsX.CC_SYMBOL));
+        assertEquals(UnifiedInputStreamX.EOF, uix.read());
+    }
 }
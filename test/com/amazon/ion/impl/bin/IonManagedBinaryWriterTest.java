@@ -142,6 +142,17 @@ public class IonManagedBinaryWriterTest extends IonRawBinaryWriterTest
         importedSymbolResolverMode = mode;
     }
 
+    @Inject("allocatorMode")
+    public static final AllocatorMode[] ALLOCATOR_DIMENSIONS =
+        { AllocatorMode.POOLED, AllocatorMode.POOLED_DIRECT, AllocatorMode.THREAD_LOCAL };
+
+    private AllocatorMode allocatorMode;
+
+    public void setAllocatorMode(final AllocatorMode mode)
+    {
+        allocatorMode = mode;
+    }
+
     @Override
     protected IonWriter createWriter(final OutputStream out) throws IOException
     {
@@ -156,7 +167,7 @@ public class IonManagedBinaryWriterTest extends IonRawBinaryWriterTest
         }
 
         final _Private_IonManagedBinaryWriterBuilder builder = _Private_IonManagedBinaryWriterBuilder
-            .create(AllocatorMode.POOLED)
+            .create(allocatorMode)
             .withImports(importedSymbolResolverMode, symbolTables)
             .withPreallocationMode(preallocationMode)
             .withFloatBinary32Enabled();
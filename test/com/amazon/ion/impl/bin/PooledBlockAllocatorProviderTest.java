@@ -16,8 +16,10 @@
 package com.amazon.ion.impl.bin;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 import org.junit.After;
 import org.junit.Before;
@@ -48,7 +50,8 @@ public class PooledBlockAllocatorProviderTest
         final Block block2 = allocator.allocateBlock();
         assertNotSame(block1.data, block2.data);
         assertEquals(0, block1.limit);
-        assertEquals(8, block1.data.length);
+        assertEquals(8, block1.capacity());
+        assertFalse(block1.data.isDirect());
         block1.limit = 7;
         block1.close();
         final Block block1Again = allocator.allocateBlock();
@@ -88,4 +91,19 @@ public class PooledBlockAllocatorProviderTest
         block1Again.close();
         block2Again.close();
     }
+
+    @Test
+    public void testDirectBlocks()
+    {
+        final BlockAllocator allocator = new PooledBlockAllocatorProvider(true).vendAllocator(8);
+        final Block block1 = allocator.allocateBlock();
+        assertTrue(block1.data.isDirect());
+        assertEquals(8, block1.capacity());
+        block1.limit = 3;
+        block1.close();
+        final Block block1Again = allocator.allocateBlock();
+        assertSame(block1.data, block1Again.data);
+        assertEquals(0, block1Again.limit);
+        block1Again.close();
+    }
 }
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl.bin;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.Test;
+
+public class ThreadLocalBlockAllocatorProviderTest
+{
+    private static Block allocateOnOtherThread(final BlockAllocator allocator) throws InterruptedException
+    {
+        final AtomicReference<Block> result = new AtomicReference<Block>();
+        final Thread thread = new Thread()
+        {
+            @Override
+            public void run()
+            {
+                result.set(allocator.allocateBlock());
+            }
+        };
+        thread.start();
+        thread.join();
+        return result.get();
+    }
+
+    @Test
+    public void testReuseBlockAfterClose()
+    {
+        final BlockAllocator allocator = new ThreadLocalBlockAllocatorProvider().vendAllocator(8);
+        final Block block1 = allocator.allocateBlock();
+        final Block block2 = allocator.allocateBlock();
+        assertNotSame(block1.data, block2.data);
+        assertEquals(0, block1.limit);
+        assertEquals(8, block1.capacity());
+        block1.limit = 7;
+        block1.close();
+        block2.close();
+
+        // the most recently released block comes back first
+        assertSame(block2, allocator.allocateBlock());
+        final Block block1Again = allocator.allocateBlock();
+        assertSame(block1, block1Again);
+        assertEquals(0, block1Again.limit);
+    }
+
+    @Test
+    public void testLocalBlocksAreNotShared() throws Exception
+    {
+        final BlockAllocator allocator = new ThreadLocalBlockAllocatorProvider().vendAllocator(8);
+        final Block block = allocator.allocateBlock();
+        block.close();
+
+        assertNotSame(block, allocateOnOtherThread(allocator));
+        assertSame(block, allocator.allocateBlock());
+    }
+
+    @Test
+    public void testOverflowToGlobalBlocks() throws Exception
+    {
+        // room for two blocks per thread and one globally
+        final BlockAllocator allocator = new ThreadLocalBlockAllocatorProvider(16, 8).vendAllocator(8);
+        final Block block1 = allocator.allocateBlock();
+        final Block block2 = allocator.allocateBlock();
+        final Block block3 = allocator.allocateBlock();
+        final Block block4 = allocator.allocateBlock();
+        block1.close();
+        block2.close();
+        block3.close();
+        block4.close();
+
+        // block3 overflowed to the global free list and block4 was dropped
+        assertSame(block3, allocateOnOtherThread(allocator));
+        final Block fresh = allocateOnOtherThread(allocator);
+        assertNotSame(block1, fresh);
+        assertNotSame(block2, fresh);
+        assertNotSame(block4, fresh);
+
+        assertSame(block2, allocator.allocateBlock());
+        assertSame(block1, allocator.allocateBlock());
+    }
+
+    @Test
+    public void testAllocatorsAreSharedBySize()
+    {
+        final ThreadLocalBlockAllocatorProvider provider = new ThreadLocalBlockAllocatorProvider();
+        assertSame(provider.vendAllocator(8), provider.vendAllocator(8));
+        assertNotSame(provider.vendAllocator(8), provider.vendAllocator(16));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidBlockSize()
+    {
+        new ThreadLocalBlockAllocatorProvider().vendAllocator(0);
+    }
+}
@@ -20,8 +20,10 @@ import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.fail;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.channels.Channels;
 import java.util.Arrays;
 import org.junit.After;
 import org.junit.Before;
@@ -34,10 +36,15 @@ public class WriteBufferTest
 
     private WriteBuffer buf;
 
+    protected BlockAllocator allocator()
+    {
+        return ALLOCATOR;
+    }
+
     @Before
     public void setup()
     {
-        buf = new WriteBuffer(ALLOCATOR);
+        buf = new WriteBuffer(allocator());
     }
 
     @After
@@ -921,4 +928,23 @@ public class WriteBufferTest
         buf.truncate(3);
         assertBuffer("ARG".getBytes("UTF-8"));
     }
+
+    @Test
+    public void testBytesFromStream() throws IOException
+    {
+        buf.writeBytes("ARGLE".getBytes("UTF-8"));
+        buf.writeBytes(new ByteArrayInputStream("FOOBARGLEDOO".getBytes("UTF-8")), 12);
+        assertBuffer("ARGLEFOOBARGLEDOO".getBytes("UTF-8"));
+    }
+
+    @Test
+    public void testWriteToChannel() throws IOException
+    {
+        buf.writeBytes("ARGLEFOOBARGLEDOO".getBytes("UTF-8"));
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final ChannelOutput channelOut = new ChannelOutput(Channels.newChannel(out));
+        buf.writeTo(channelOut, 2, 12);
+        channelOut.write();
+        assertArrayEquals("GLEFOOBARGLE".getBytes("UTF-8"), out.toByteArray());
+    }
 }
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl.lite;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import com.amazon.ion.IonDatagram;
+import com.amazon.ion.IonLoader;
+import com.amazon.ion.IonStruct;
+import com.amazon.ion.IonSystem;
+import com.amazon.ion.system.IonSystemBuilder;
+import org.junit.Test;
+
+public class FieldProjectionTest
+{
+    private static final IonSystem SYSTEM = IonSystemBuilder.standard().build();
+
+    private static final String RECORD =
+        "{id:1, name:\"a\", order:tag::{customer:{id:2, email:\"e\"}, total:3.0},"
+        + " items:[{sku:x, qty:1}, 5, {sku:y, qty:2}, [{sku:z}], null.struct],"
+        + " 'a.b':{c:1, d:2}, n:null}";
+
+    private void assertProjection(String expected, String data, String... paths)
+    {
+        IonLoader loader = SYSTEM.getLoader().withProjection(paths);
+        IonDatagram want = SYSTEM.getLoader().load(expected);
+        assertEquals(want, loader.load(data));
+        assertEquals(want, loader.load(SYSTEM.getLoader().load(data).getBytes()));
+    }
+
+    @Test
+    public void testTopLevelFields()
+    {
+        assertProjection("{id:1, n:null}", RECORD, "id", "n", "missing");
+    }
+
+    @Test
+    public void testNestedFields()
+    {
+        assertProjection("{order:tag::{customer:{id:2}}}", RECORD, "order.customer.id");
+        assertProjection("{order:tag::{customer:{id:2, email:\"e\"}, total:3.0}}",
+                         RECORD, "order.customer.id", "order");
+    }
+
+    @Test
+    public void testSequencesAreTransparent()
+    {
+        assertProjection("{items:[{sku:x}, {sku:y}, [{sku:z}]]}", RECORD, "items.sku");
+        assertProjection("[{a:1}, {a:3}] ({a:5})",
+                         "[{a:1, b:2}, {a:3}] (x {a:5, c:6})", "a");
+    }
+
+    @Test
+    public void testScalarsOnIntermediateStepsAreDropped()
+    {
+        assertProjection("{}", RECORD, "id.x", "n.x");
+    }
+
+    @Test
+    public void testWildcardAndQuotedNames()
+    {
+        assertProjection("{order:tag::{customer:{id:2}}, items:[{sku:x}, {sku:y}, [{sku:z}]], 'a.b':{}}",
+                         RECORD, "*.customer.id", "items.sku");
+        assertProjection("{'a.b':{d:2}}", RECORD, "'a.b'.d");
+        assertProjection("{'*':1}", "{'*':1, x:2}", "'*'");
+    }
+
+    @Test
+    public void testTopLevelValuesAreKept()
+    {
+        assertProjection("1 null.struct {} \"s\" a::[]", "1 null.struct {x:1} \"s\" a::[2]");
+    }
+
+    @Test
+    public void testFieldNamesAreUsable()
+    {
+        IonDatagram dg = SYSTEM.getLoader().withProjection("order.total").load(RECORD);
+        IonStruct order = (IonStruct) ((IonStruct) dg.get(0)).get("order");
+        assertEquals("tag", order.getTypeAnnotations()[0]);
+        assertEquals(1, order.size());
+        assertEquals("total", order.get("total").getFieldName());
+    }
+
+    @Test
+    public void testBadPaths()
+    {
+        String[] bad = { "", "a.", ".a", "a..b", "'a", "a'b'", "'a'b" };
+        for (String path : bad)
+        {
+            try
+            {
+                SYSTEM.getLoader().withProjection(path);
+                fail("expected failure for " + path);
+            }
+            catch (IllegalArgumentException e)
+            {
+                // expected
+            }
+        }
+    }
+}
@@ -0,0 +1,215 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl.lite;
+
+import com.amazon.ion.IonDatagram;
+import com.amazon.ion.IonList;
+import com.amazon.ion.IonLoader;
+import com.amazon.ion.IonStruct;
+import com.amazon.ion.IonTestCase;
+import com.amazon.ion.IonValue;
+import com.amazon.ion.IonWriter;
+import com.amazon.ion.system.IonBinaryWriterBuilder;
+import com.amazon.ion.system.IonTextWriterBuilder;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import org.junit.Test;
+
+public class LazyMaterializationTest
+    extends IonTestCase
+{
+    private static final String DOCUMENT =
+        "{id:1, name:\"a\", tags:[x, y, z], order:tag::{customer:{id:2, email:\"e\"},"
+        + " items:[{sku:abc, qty:1}, {sku:def, qty:2}], empty:{}, none:null.list},"
+        + " s:(a b [c])} "
+        + "[1, {a:b}, []] "
+        + "foo::(+ 1 2) "
+        + "5 "
+        + "{nested:$ion_symbol_table::{symbols:[\"q\"]}, long:\"" + repeat('x', 40) + "\"}";
+
+    private static String repeat(char c, int n)
+    {
+        StringBuilder b = new StringBuilder();
+        for (int i = 0; i < n; i++) b.append(c);
+        return b.toString();
+    }
+
+    private IonLoader lazyLoader()
+    {
+        return loader().withLazyMaterialization(true);
+    }
+
+    private static LazyContent lazyContent(IonValue value)
+    {
+        return ((IonContainerLite) value).getLazyContent();
+    }
+
+    @Test
+    public void testLazyEqualsEager()
+    {
+        byte[] data = encode(DOCUMENT);
+        IonDatagram eager = loader().load(data);
+        IonDatagram lazy = lazyLoader().load(data);
+        assertEquals(eager, lazy);
+        assertEquals(eager.hashCode(), lazyLoader().load(data).hashCode());
+        assertEquals(eager.toString(), lazyLoader().load(data).toString());
+    }
+
+    private void checkSystemValuesMatchEager(byte[] data)
+    {
+        IonDatagram eager = loader().load(data);
+        IonDatagram lazy = lazyLoader().load(data);
+        assertEquals(eager.systemSize(), lazy.systemSize());
+        assertEquals(eager.toString(), lazy.toString());
+        assertArrayEquals(eager.getBytes(), lazy.getBytes());
+    }
+
+    @Test
+    public void testSystemValuesMatchEager()
+    {
+        checkSystemValuesMatchEager(encode(DOCUMENT));
+        checkSystemValuesMatchEager(encode("1 2.5 [3]"));
+
+        // A second local symbol table part way through the stream.
+        byte[] first = encode("a::b");
+        byte[] second = encode("{c:d}");
+        byte[] data = new byte[first.length + second.length];
+        System.arraycopy(first, 0, data, 0, first.length);
+        System.arraycopy(second, 0, data, first.length, second.length);
+        checkSystemValuesMatchEager(data);
+    }
+
+    @Test
+    public void testMaterializesOneLevelAtATime()
+    {
+        IonDatagram dg = lazyLoader().load(encode(DOCUMENT));
+        IonStruct record = (IonStruct) dg.get(0);
+        assertNotNull(lazyContent(record));
+
+        IonStruct order = (IonStruct) record.get("order");
+        assertNull(lazyContent(record));
+        assertNotNull(lazyContent(order));
+        assertNotNull(lazyContent(record.get("tags")));
+
+        IonStruct customer = (IonStruct) order.get("customer");
+        assertEquals(system().newInt(2), customer.get("id"));
+        assertNotNull(lazyContent(order.get("items")));
+        assertEquals("tag", order.getTypeAnnotations()[0]);
+        assertEquals(3, ((IonList) record.get("tags")).size());
+
+        // top-level values that are never touched stay lazy
+        assertNotNull(lazyContent(dg.get(1)));
+    }
+
+    @Test
+    public void testUntouchedContainersAreCopied()
+    {
+        byte[] data = encode(DOCUMENT);
+        IonDatagram dg = lazyLoader().load(data);
+        ((IonStruct) dg.get(0)).get("id");
+
+        IonDatagram reloaded = loader().load(dg.getBytes());
+        assertEquals(loader().load(data), reloaded);
+        assertNotNull(lazyContent(((IonStruct) dg.get(0)).get("order")));
+    }
+
+    @Test
+    public void testWriteTo() throws IOException
+    {
+        byte[] data = encode(DOCUMENT);
+        IonDatagram expected = loader().load(data);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IonWriter writer = IonBinaryWriterBuilder.standard().build(out);
+        IonDatagram copied = lazyLoader().load(data);
+        copied.writeTo(writer);
+        writer.close();
+        assertEquals(expected, loader().load(out.toByteArray()));
+        assertNotNull(lazyContent(copied.get(0)));
+
+        StringBuilder text = new StringBuilder();
+        writer = IonTextWriterBuilder.standard().build(text);
+        IonDatagram dg = lazyLoader().load(data);
+        ((IonStruct) dg.get(0)).get("order").addTypeAnnotation("more");
+        dg.writeTo(writer);
+        writer.close();
+        ((IonStruct) expected.get(0)).get("order").addTypeAnnotation("more");
+        assertEquals(expected, loader().load(text.toString()));
+    }
+
+    @Test
+    public void testModification()
+    {
+        IonDatagram dg = lazyLoader().load(encode(DOCUMENT));
+        IonStruct record = (IonStruct) dg.get(0);
+        IonStruct customer = (IonStruct) ((IonStruct) record.get("order")).get("customer");
+        customer.put("email", system().newString("new"));
+        ((IonList) dg.get(1)).add(system().newSymbol("brand_new_symbol"));
+
+        IonDatagram expected = loader().load(DOCUMENT);
+        IonStruct order = (IonStruct) ((IonStruct) expected.get(0)).get("order");
+        ((IonStruct) order.get("customer")).put("email", system().newString("new"));
+        ((IonList) expected.get(1)).add(system().newSymbol("brand_new_symbol"));
+
+        assertEquals(expected, dg);
+        assertEquals(expected, loader().load(dg.getBytes()));
+    }
+
+    @Test
+    public void testCloneStaysLazy()
+    {
+        IonDatagram dg = lazyLoader().load(encode(DOCUMENT));
+        IonValue copy = dg.get(0).clone();
+        assertNotNull(lazyContent(copy));
+        assertEquals(loader().load(DOCUMENT).get(0), copy);
+        assertNotNull(lazyContent(dg.get(0)));
+    }
+
+    @Test
+    public void testReadOnlyMaterializes()
+    {
+        IonDatagram dg = lazyLoader().load(encode(DOCUMENT));
+        dg.makeReadOnly();
+        IonStruct record = (IonStruct) dg.get(0);
+        assertNull(lazyContent(record));
+        assertNull(lazyContent(((IonStruct) record.get("order")).get("items")));
+        assertEquals(loader().load(DOCUMENT), dg);
+    }
+
+    @Test
+    public void testMultipleSymbolTables() throws IOException
+    {
+        byte[] first = encode("{a:b}");
+        byte[] second = encode("[{c:d}, e]");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(first);
+        out.write(second);
+        byte[] data = out.toByteArray();
+
+        IonDatagram lazy = lazyLoader().load(new ByteArrayInputStream(data));
+        assertEquals(loader().load("{a:b} [{c:d}, e]"), lazy);
+        assertEquals(lazy, loader().load(lazyLoader().load(data).getBytes()));
+    }
+
+    @Test
+    public void testTextIsEager()
+    {
+        IonDatagram dg = lazyLoader().load(DOCUMENT);
+        assertNull(lazyContent(dg.get(0)));
+        assertTrue(dg.equals(loader().load(DOCUMENT)));
+    }
+}
@@ -18,6 +18,7 @@ package com.amazon.ion.system;
 import static com.amazon.ion.TestUtils.symbolTableEquals;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
@@ -25,6 +26,7 @@ import static org.junit.Assert.fail;
 
 import com.amazon.ion.IonCatalog;
 import com.amazon.ion.IonSystem;
+import com.amazon.ion.IonType;
 import com.amazon.ion.IonWriter;
 import com.amazon.ion.SymbolTable;
 import com.amazon.ion.impl.Symtabs;
@@ -34,6 +36,11 @@ import com.amazon.ion.impl._Private_Utils;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.Pipe;
+import java.nio.channels.WritableByteChannel;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -387,4 +394,168 @@ public class IonBinaryWriterBuilderTest
         b.setImports(new SymbolTable[0]);
         assertArrayEquals(new SymbolTable[0], b.getImports());
     }
+
+
+    //-------------------------------------------------------------------------
+
+    /**
+     * A gathering channel that records what it receives and accepts at most
+     * {@code maxBytesPerWrite} bytes per call.
+     */
+    private static final class RecordingChannel
+        implements GatheringByteChannel
+    {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final int maxBytesPerWrite;
+        int gatheringWrites;
+        boolean open = true;
+
+        RecordingChannel(int maxBytesPerWrite)
+        {
+            this.maxBytesPerWrite = maxBytesPerWrite;
+        }
+
+        public long write(ByteBuffer[] srcs, int offset, int length)
+        {
+            gatheringWrites++;
+            long written = 0;
+            for (int i = offset; i < offset + length; i++)
+            {
+                written += write(srcs[i], maxBytesPerWrite - written);
+                if (written == maxBytesPerWrite) break;
+            }
+            return written;
+        }
+
+        public long write(ByteBuffer[] srcs)
+        {
+            return write(srcs, 0, srcs.length);
+        }
+
+        public int write(ByteBuffer src)
+        {
+            return (int) write(src, maxBytesPerWrite);
+        }
+
+        private long write(ByteBuffer src, long limit)
+        {
+            int amount = (int) Math.min(src.remaining(), limit);
+            byte[] data = new byte[amount];
+            src.get(data);
+            bytes.write(data, 0, amount);
+            return amount;
+        }
+
+        public boolean isOpen()
+        {
+            return open;
+        }
+
+        public void close()
+        {
+            open = false;
+        }
+    }
+
+    private static void writeTestData(IonWriter writer)
+        throws IOException
+    {
+        StringBuilder longText = new StringBuilder();
+        for (int i = 0; i < 5000; i++)
+        {
+            longText.append("text").append(i);
+        }
+
+        for (int segment = 0; segment < 2; segment++)
+        {
+            writer.stepIn(IonType.STRUCT);
+            for (int i = 0; i < 100; i++)
+            {
+                writer.setFieldName("field" + i);
+                writer.stepIn(IonType.LIST);
+                writer.writeInt(i);
+                writer.writeSymbol("sym" + (i % 7));
+                writer.writeString("value" + i);
+                writer.stepOut();
+            }
+            writer.setFieldName("long");
+            writer.writeString(longText.toString());
+            writer.stepOut();
+            writer.finish();
+        }
+    }
+
+    private static byte[] streamBytes(IonBinaryWriterBuilder b)
+        throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IonWriter writer = b.build(out);
+        writeTestData(writer);
+        writer.close();
+        return out.toByteArray();
+    }
+
+    @Test
+    public void testBuildChannelGathersEachFlush()
+        throws IOException
+    {
+        IonBinaryWriterBuilder b = IonBinaryWriterBuilder.standard();
+        RecordingChannel channel = new RecordingChannel(Integer.MAX_VALUE);
+        IonWriter writer = b.build(channel);
+        writeTestData(writer);
+        assertEquals(2, channel.gatheringWrites);
+        writer.close();
+
+        assertFalse(channel.isOpen());
+        assertArrayEquals(streamBytes(b), channel.bytes.toByteArray());
+    }
+
+    @Test
+    public void testBuildChannelWithPartialWrites()
+        throws IOException
+    {
+        IonBinaryWriterBuilder b = IonBinaryWriterBuilder.standard();
+        RecordingChannel channel = new RecordingChannel(1000);
+        IonWriter writer = b.build(channel);
+        writeTestData(writer);
+        writer.close();
+
+        assertArrayEquals(streamBytes(b), channel.bytes.toByteArray());
+    }
+
+    @Test
+    public void testBuildNonGatheringChannel()
+        throws IOException
+    {
+        IonBinaryWriterBuilder b = IonBinaryWriterBuilder.standard();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IonWriter writer = b.build(Channels.newChannel(out));
+        writeTestData(writer);
+        writer.close();
+
+        assertArrayEquals(streamBytes(b), out.toByteArray());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testBuildNullChannel()
+    {
+        IonBinaryWriterBuilder.standard().build((WritableByteChannel) null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuildNonBlockingChannel()
+        throws IOException
+    {
+        Pipe pipe = Pipe.open();
+        try
+        {
+            pipe.sink().configureBlocking(false);
+            IonBinaryWriterBuilder.standard().build(pipe.sink());
+        }
+        finally
+        {
+            pipe.sink().close();
+            pipe.source().close();
+        }
+    }
 }
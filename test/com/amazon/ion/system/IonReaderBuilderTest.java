@@ -16,16 +16,30 @@
 package com.amazon.ion.system;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertSame;
 
 import com.amazon.ion.IonCatalog;
+import com.amazon.ion.IonDatagram;
+import com.amazon.ion.IonException;
 import com.amazon.ion.IonReader;
+import com.amazon.ion.IonSystem;
 import com.amazon.ion.IonType;
 import com.amazon.ion.IonWriter;
 import com.amazon.ion.impl._Private_IonBinaryWriterBuilder;
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.zip.GZIPOutputStream;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
@@ -111,4 +125,213 @@ public class IonReaderBuilderTest
         assertEquals(42, reader.intValue());
     }
 
+    private static byte[] binaryInts(int... values) throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IonWriter writer = _Private_IonBinaryWriterBuilder.standard().build(out);
+        for (int value : values)
+        {
+            writer.writeInt(value);
+        }
+        writer.close();
+        return out.toByteArray();
+    }
+
+    private static void assertInts(IonReader reader, int... expected) throws IOException
+    {
+        for (int value : expected)
+        {
+            assertEquals(IonType.INT, reader.next());
+            assertEquals(value, reader.intValue());
+        }
+        assertNull(reader.next());
+        reader.close();
+    }
+
+    @Test
+    public void testBuildFromHeapByteBuffer() throws IOException
+    {
+        byte[] data = binaryInts(1, 2, 3);
+        ByteBuffer buffer = ByteBuffer.allocate(data.length + 10);
+        buffer.position(5);
+        buffer.put(data);
+        buffer.flip();
+        buffer.position(5);
+        assertInts(IonReaderBuilder.standard().build(buffer.slice()), 1, 2, 3);
+        assertEquals(5, buffer.position());
+    }
+
+    @Test
+    public void testBuildFromDirectByteBuffer() throws IOException
+    {
+        byte[] data = binaryInts(1, 2, 3);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(data.length);
+        buffer.put(data);
+        buffer.flip();
+        assertInts(IonReaderBuilder.standard().build(buffer), 1, 2, 3);
+        assertEquals(0, buffer.position());
+
+        byte[] text = "4 5".getBytes("UTF-8");
+        ByteBuffer textBuffer = ByteBuffer.allocateDirect(text.length);
+        textBuffer.put(text);
+        textBuffer.flip();
+        assertInts(IonReaderBuilder.standard().build(textBuffer), 4, 5);
+    }
+
+    @Test
+    public void testBuildFromGzippedDirectByteBuffer() throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        GZIPOutputStream gzip = new GZIPOutputStream(out);
+        gzip.write(binaryInts(6, 7));
+        gzip.close();
+        byte[] data = out.toByteArray();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(data.length);
+        buffer.put(data);
+        buffer.flip();
+        assertInts(IonReaderBuilder.standard().build(buffer), 6, 7);
+    }
+
+    @Test
+    public void testBuildFromMappedFile() throws IOException
+    {
+        File file = File.createTempFile("IonReaderBuilderTest", ".10n");
+        try
+        {
+            FileOutputStream out = new FileOutputStream(file);
+            out.write(binaryInts(8, 9, 10));
+            out.close();
+
+            assertInts(IonReaderBuilder.standard().build(file), 8, 9, 10);
+
+            FileChannel channel = new RandomAccessFile(file, "r").getChannel();
+            assertInts(IonReaderBuilder.standard().build(channel), 8, 9, 10);
+            assertFalse(channel.isOpen());
+        }
+        finally
+        {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testBufferSettingsAreCopied()
+    {
+        IonReaderBuilder mutable = IonReaderBuilder.standard()
+            .withBufferSize(4096)
+            .withReadAhead(1024);
+        IonReaderBuilder immutable = mutable.immutable();
+        mutable.setBufferSize(0);
+        mutable.setReadAhead(0);
+        assertEquals(4096, immutable.getBufferSize());
+        assertEquals(1024, immutable.getReadAhead());
+        assertEquals(0, mutable.getBufferSize());
+        assertEquals(0, IonReaderBuilder.standard().getReadAhead());
+    }
+
+    @Test
+    public void testJsonOnlyIsCopied()
+    {
+        IonReaderBuilder mutable = IonReaderBuilder.standard().withJsonOnly(true);
+        IonReaderBuilder immutable = mutable.immutable();
+        mutable.setJsonOnly(false);
+        assertTrue(immutable.isJsonOnly());
+        assertFalse(mutable.isJsonOnly());
+        assertFalse(IonReaderBuilder.standard().isJsonOnly());
+
+        thrown.expect(IonException.class);
+        IonReader reader = immutable.build("{a:1}");
+        reader.next();
+        reader.stepIn();
+        reader.next();
+    }
+
+    @Test
+    public void testBufferSizeTooSmall()
+    {
+        thrown.expect(IllegalArgumentException.class);
+        IonReaderBuilder.standard().setBufferSize(IonReaderBuilder.MINIMUM_BUFFER_SIZE - 1);
+    }
+
+    @Test
+    public void testNegativeReadAhead()
+    {
+        thrown.expect(IllegalArgumentException.class);
+        IonReaderBuilder.standard().setReadAhead(-1);
+    }
+
+    /**
+     * Returns at most three bytes per read, like a slow socket.
+     */
+    private static class TrickleInputStream extends ByteArrayInputStream
+    {
+        int reads;
+
+        TrickleInputStream(byte[] data)
+        {
+            super(data);
+        }
+
+        @Override
+        public synchronized int read(byte[] b, int off, int len)
+        {
+            reads++;
+            return super.read(b, off, Math.min(len, 3));
+        }
+    }
+
+    @Test
+    public void testBufferSizeAndReadAheadOverStreams() throws IOException
+    {
+        IonSystem system = IonSystemBuilder.standard().build();
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 200; i++)
+        {
+            text.append("{id:").append(i)
+                .append(", name:\"record number ").append(i)
+                .append("\", tags:[a, b, c], blob:{{ aGVsbG8gd29ybGQ= }}} ");
+        }
+        IonDatagram expected = system.getLoader().load(text.toString());
+        byte[] binary = expected.getBytes();
+        byte[] utf8 = text.toString().getBytes("UTF-8");
+
+        int[][] settings = { {0, 0}, {32, 0}, {32, 32}, {100, 64}, {1 << 16, 1 << 16} };
+        for (int[] setting : settings)
+        {
+            IonReaderBuilder builder = IonReaderBuilder.standard()
+                .withBufferSize(setting[0])
+                .withReadAhead(setting[1]);
+            for (byte[] data : new byte[][] { binary, utf8 })
+            {
+                TrickleInputStream in = new TrickleInputStream(data);
+                IonReader reader = builder.build(in);
+                assertEquals(expected, system.getLoader().load(reader));
+                reader.close();
+                assertTrue(in.reads > data.length / 3);
+            }
+            IonReader reader = builder.build(
+                new InputStreamReader(new TrickleInputStream(utf8), "UTF-8"));
+            assertEquals(expected, system.getLoader().load(reader));
+            reader.close();
+
+            ByteBuffer buffer = ByteBuffer.allocateDirect(binary.length);
+            buffer.put(binary);
+            buffer.flip();
+            reader = builder.build(buffer);
+            assertEquals(expected, system.getLoader().load(reader));
+            reader.close();
+        }
+    }
+
+    @Test
+    public void testReadAheadGathersMultipleReads() throws IOException
+    {
+        byte[] data = binaryInts(1, 2, 3, 4, 5, 6, 7, 8);
+        TrickleInputStream in = new TrickleInputStream(data);
+        IonReader reader = IonReaderBuilder.standard().withReadAhead(1024).build(in);
+        assertEquals(IonType.INT, reader.next());
+        // The first refill consumed the whole stream, though it asked for more.
+        assertEquals(0, in.available());
+        assertInts(reader, 2, 3, 4, 5, 6, 7, 8);
+    }
 }
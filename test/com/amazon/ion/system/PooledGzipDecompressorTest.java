@@ -0,0 +1,220 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.system;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import com.amazon.ion.IonException;
+import com.amazon.ion.IonReader;
+import com.amazon.ion.IonSystem;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPOutputStream;
+import org.junit.Test;
+
+public class PooledGzipDecompressorTest
+{
+    private static final IonSystem SYSTEM = IonSystemBuilder.standard().build();
+
+    private static final String DATA = "{a:1, b:\"two\"} [3, 4e0] five";
+
+    /** A tiny input buffer forces headers and trailers across refills. */
+    private final PooledGzipDecompressor myDecompressor =
+        new PooledGzipDecompressor(1, 3);
+
+    private final IonReaderBuilder myBuilder =
+        IonReaderBuilder.standard().withDecompressors(myDecompressor);
+
+    private static byte[] binary()
+    {
+        return SYSTEM.getLoader().load(DATA).getBytes();
+    }
+
+    private static byte[] gzip(byte[] data)
+        throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        GZIPOutputStream gzip = new GZIPOutputStream(out);
+        gzip.write(data);
+        gzip.close();
+        return out.toByteArray();
+    }
+
+    private static byte[] concat(byte[] a, byte[] b)
+    {
+        byte[] result = new byte[a.length + b.length];
+        System.arraycopy(a, 0, result, 0, a.length);
+        System.arraycopy(b, 0, result, a.length, b.length);
+        return result;
+    }
+
+    private static void assertData(IonReader reader)
+        throws IOException
+    {
+        try
+        {
+            assertEquals(SYSTEM.getLoader().load(DATA),
+                         SYSTEM.getLoader().load(reader));
+        }
+        finally
+        {
+            reader.close();
+        }
+    }
+
+    @Test
+    public void testByteArrayReusesInflater()
+        throws IOException
+    {
+        byte[] gzipped = gzip(binary());
+        assertData(myBuilder.build(gzipped));
+        assertEquals(1, myDecompressor.getPooledCount());
+        assertData(myBuilder.build(gzipped, 0, gzipped.length));
+        assertEquals(1, myDecompressor.getPooledCount());
+    }
+
+    @Test
+    public void testStreamAndBuffers()
+        throws IOException
+    {
+        byte[] gzipped = gzip(DATA.getBytes("UTF-8"));
+        assertData(myBuilder.build(new ByteArrayInputStream(gzipped)));
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(gzipped.length);
+        direct.put(gzipped).flip();
+        assertData(myBuilder.build(direct));
+        assertEquals(1, myDecompressor.getPooledCount());
+    }
+
+    @Test
+    public void testUncompressedPassesThrough()
+        throws IOException
+    {
+        assertData(myBuilder.build(binary()));
+        assertData(myBuilder.build(new ByteArrayInputStream(DATA.getBytes("UTF-8"))));
+        assertEquals(0, myDecompressor.getPooledCount());
+    }
+
+    @Test
+    public void testConcatenatedMembers()
+        throws IOException
+    {
+        byte[] gzipped = concat(gzip("{a:1, b:\"two\"} ".getBytes("UTF-8")),
+                                gzip("[3, 4e0] five".getBytes("UTF-8")));
+        assertData(myBuilder.build(new ByteArrayInputStream(gzipped)));
+    }
+
+    @Test
+    public void testOptionalHeaderFields()
+        throws IOException
+    {
+        byte[] plain = gzip(DATA.getBytes("UTF-8"));
+
+        // Rebuild the header with FHCRC, FEXTRA, FNAME and FCOMMENT set.
+        ByteArrayOutputStream header = new ByteArrayOutputStream();
+        header.write(plain, 0, 10);
+        header.write(new byte[] { 3, 0, 'x', 'y', 'z' });
+        header.write("name.ion\0".getBytes("US-ASCII"));
+        header.write("comment\0".getBytes("US-ASCII"));
+        byte[] h = header.toByteArray();
+        h[3] = 0x02 | 0x04 | 0x08 | 0x10;
+        CRC32 crc = new CRC32();
+        crc.update(h);
+        int crc16 = (int) crc.getValue() & 0xFFFF;
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(h);
+        out.write(crc16 & 0xFF);
+        out.write(crc16 >>> 8);
+        out.write(plain, 10, plain.length - 10);
+        assertData(myBuilder.build(out.toByteArray()));
+    }
+
+    @Test(expected = IonException.class)
+    public void testCorruptTrailer()
+        throws IOException
+    {
+        byte[] gzipped = gzip(DATA.getBytes("UTF-8"));
+        gzipped[gzipped.length - 5] ^= 1;
+        IonReader reader = myBuilder.build(gzipped);
+        try
+        {
+            while (reader.next() != null) { }
+        }
+        finally
+        {
+            reader.close();
+            assertEquals(1, myDecompressor.getPooledCount());
+        }
+    }
+
+    @Test
+    public void testCustomDecompressor()
+        throws IOException
+    {
+        // A "format" that just prefixes the data with a three-byte magic.
+        final byte[] magic = { 'R', 'A', 'W' };
+        StreamDecompressor prefixed = new StreamDecompressor()
+        {
+            public int getHeaderLength()
+            {
+                return magic.length;
+            }
+
+            public boolean matches(byte[] header, int offset, int length)
+            {
+                for (int i = 0; i < magic.length; i++)
+                {
+                    if (i >= length || header[offset + i] != magic[i]) return false;
+                }
+                return true;
+            }
+
+            public InputStream newInputStream(InputStream compressed)
+                throws IOException
+            {
+                InputStream in = new FilterInputStream(compressed) { };
+                in.skip(magic.length);
+                return in;
+            }
+        };
+
+        IonReaderBuilder builder = myBuilder.withDecompressors(myDecompressor, prefixed);
+        byte[] data = concat(magic, DATA.getBytes("UTF-8"));
+        assertData(builder.build(data));
+        assertData(builder.build(new ByteArrayInputStream(data)));
+        assertData(builder.build(gzip(binary())));
+    }
+
+    @Test
+    public void testBuilderConfiguration()
+    {
+        IonReaderBuilder standard = IonReaderBuilder.standard();
+        assertNull(standard.getDecompressors());
+
+        StreamDecompressor[] decompressors = myBuilder.getDecompressors();
+        assertArrayEquals(new StreamDecompressor[] { myDecompressor }, decompressors);
+        decompressors[0] = null;
+        assertEquals(myDecompressor, myBuilder.immutable().getDecompressors()[0]);
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.amazon.ion.IonDatagram;
+import com.amazon.ion.IonException;
+import com.amazon.ion.IonReader;
+import com.amazon.ion.IonSystem;
+import com.amazon.ion.IonValue;
+import com.amazon.ion.IonWriter;
+import com.amazon.ion.system.IonBinaryWriterBuilder;
+import com.amazon.ion.system.IonSystemBuilder;
+import com.amazon.ion.util.ParallelIonDecoder.Range;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ParallelIonDecoderTest
+{
+    private static final IonSystem SYSTEM = IonSystemBuilder.standard().build();
+
+    private static final int COUNT = 500;
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @After
+    public void shutdown()
+    {
+        executor.shutdownNow();
+    }
+
+    /** Several segments, each with its own local symbol table. */
+    private static byte[] data() throws Exception
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IonWriter writer = IonBinaryWriterBuilder.standard().build(out);
+        for (int i = 0; i < COUNT; i++)
+        {
+            if (i % 64 == 0)
+            {
+                writer.finish();
+            }
+            SYSTEM.singleValue("{id:" + i + ", s" + (i % 13) + ":v" + i + "}").writeTo(writer);
+        }
+        writer.close();
+        return out.toByteArray();
+    }
+
+    private static void checkValues(List<List<IonValue>> ranges)
+    {
+        IonDatagram expected = SYSTEM.getLoader().load(toText());
+        int i = 0;
+        for (List<IonValue> range : ranges)
+        {
+            for (IonValue value : range)
+            {
+                assertEquals(expected.get(i++), value);
+            }
+        }
+        assertEquals(COUNT, i);
+    }
+
+    private static String toText()
+    {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < COUNT; i++)
+        {
+            text.append("{id:").append(i).append(", s").append(i % 13)
+                .append(":v").append(i).append("} ");
+        }
+        return text.toString();
+    }
+
+    private static void checkRanges(ParallelIonDecoder decoder, int dataLength)
+    {
+        int ordinal = 0;
+        long offset = decoder.getRanges().get(0).getStartOffset();
+        for (Range range : decoder.getRanges())
+        {
+            assertEquals(ordinal, range.getFirstOrdinal());
+            assertEquals(offset, range.getStartOffset());
+            ordinal += range.getValueCount();
+            offset += range.getLength();
+        }
+        assertEquals(COUNT, ordinal);
+        assertEquals(dataLength, offset);
+    }
+
+    @Test
+    public void testOrderedBytes() throws Exception
+    {
+        byte[] data = data();
+        ParallelIonDecoder decoder = ParallelIonDecoder.partition(null, data, 8);
+        assertTrue(decoder.getRanges().size() > 1);
+        checkRanges(decoder, data.length);
+        checkValues(decoder.decodeOrdered(executor, ParallelIonDecoder.domDecoder(SYSTEM)));
+    }
+
+    @Test
+    public void testDirectBufferAndFile() throws Exception
+    {
+        byte[] data = data();
+        ByteBuffer direct = ByteBuffer.allocateDirect(data.length);
+        direct.put(data).flip();
+        ParallelIonDecoder decoder = ParallelIonDecoder.partition(null, direct, 5);
+        checkRanges(decoder, data.length);
+        checkValues(decoder.decodeOrdered(executor, ParallelIonDecoder.domDecoder(SYSTEM)));
+
+        File file = tmp.newFile("data.10n");
+        FileOutputStream out = new FileOutputStream(file);
+        out.write(data);
+        out.close();
+        decoder = ParallelIonDecoder.partition(null, file, 3);
+        checkRanges(decoder, data.length);
+        checkValues(decoder.decodeOrdered(executor, ParallelIonDecoder.domDecoder(SYSTEM)));
+    }
+
+    @Test
+    public void testUnordered() throws Exception
+    {
+        ParallelIonDecoder decoder = ParallelIonDecoder.partition(null, data(), 16);
+        final List<List<IonValue>> results = new ArrayList<List<IonValue>>();
+        for (int i = 0; i < decoder.getRanges().size(); i++)
+        {
+            results.add(null);
+        }
+        decoder.decodeUnordered(executor,
+                                ParallelIonDecoder.domDecoder(SYSTEM),
+                                new ParallelIonDecoder.ResultHandler<List<IonValue>>()
+                                {
+                                    public void handle(Range range, List<IonValue> result)
+                                    {
+                                        assertEquals(range.getValueCount(), result.size());
+                                        results.set(range.getIndex(), result);
+                                    }
+                                });
+        checkValues(results);
+    }
+
+    @Test
+    public void testFailure() throws Exception
+    {
+        ParallelIonDecoder decoder = ParallelIonDecoder.partition(null, data(), 4);
+        try
+        {
+            decoder.decodeOrdered(executor, new ParallelIonDecoder.RangeDecoder<Object>()
+            {
+                public Object decode(Range range, IonReader reader) throws Exception
+                {
+                    if (range.getIndex() == 1)
+                    {
+                        throw new IllegalStateException("boom");
+                    }
+                    return null;
+                }
+            });
+            fail("Expected IonException");
+        }
+        catch (IonException e)
+        {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+    }
+
+    @Test
+    public void testEmpty() throws Exception
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IonBinaryWriterBuilder.standard().build(out).close();
+        ParallelIonDecoder decoder = ParallelIonDecoder.partition(null, out.toByteArray(), 4);
+        assertEquals(0, decoder.getRanges().size());
+        assertEquals(0, decoder.decodeOrdered(executor, ParallelIonDecoder.domDecoder(SYSTEM)).size());
+    }
+}
@@ -0,0 +1,330 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.util;
+
+import com.amazon.ion.IonReader;
+import com.amazon.ion.IonTestCase;
+import com.amazon.ion.IonType;
+import com.amazon.ion.system.IonReaderBuilder;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+
+public class PathExtractorTest
+    extends IonTestCase
+{
+    private static final String ORDERS =
+        "{id:1, order:{customer:{id:10, name:\"a\"}, note:{big:[1,2,3]}}, items:[{sku:\"x\"},{sku:\"y\", n:2}]}"
+      + "{id:2, order:{customer:{name:\"b\"}}, items:[], extra:{order:{customer:{id:99}}}}"
+      + "{id:3, order:null.struct, items:[{sku:\"z\"}, 5, {other:1}]}";
+
+    /** Records a description of each match, prefixed by a label. */
+    private static final class Recorder implements PathExtractor.Callback
+    {
+        private final List<String> myLog;
+        private final String       myLabel;
+        private final int          myStepOut;
+
+        Recorder(List<String> log, String label)
+        {
+            this(log, label, 0);
+        }
+
+        Recorder(List<String> log, String label, int stepOut)
+        {
+            myLog = log;
+            myLabel = label;
+            myStepOut = stepOut;
+        }
+
+        public int onMatch(IonReader reader)
+        {
+            String text;
+            switch (reader.getType())
+            {
+                case INT:
+                    text = Long.toString(reader.longValue());
+                    break;
+                case STRING:
+                    text = reader.stringValue();
+                    break;
+                default:
+                    text = reader.getType().toString();
+                    break;
+            }
+            myLog.add(myLabel + "=" + text);
+            return myStepOut;
+        }
+    }
+
+    /** Counts the calls to {@link IonReader#stepIn()} made through a reader. */
+    private static final class StepInCounter implements InvocationHandler
+    {
+        private final IonReader myReader;
+        int                     stepIns;
+
+        StepInCounter(IonReader reader)
+        {
+            myReader = reader;
+        }
+
+        IonReader proxy()
+        {
+            return (IonReader) Proxy.newProxyInstance(IonReader.class.getClassLoader(),
+                                                      new Class<?>[] { IonReader.class },
+                                                      this);
+        }
+
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable
+        {
+            if (method.getName().equals("stepIn"))
+            {
+                stepIns++;
+            }
+            try
+            {
+                return method.invoke(myReader, args);
+            }
+            catch (InvocationTargetException e)
+            {
+                throw e.getCause();
+            }
+        }
+    }
+
+    private List<IonReader> readers(String text)
+    {
+        byte[] binary = encode(text);
+        return Arrays.asList(IonReaderBuilder.standard().build(text),
+                             IonReaderBuilder.standard().build(binary));
+    }
+
+    @Test
+    public void testFieldAndIndexPaths()
+    {
+        for (IonReader reader : readers(ORDERS))
+        {
+            List<String> log = new ArrayList<String>();
+            PathExtractor extractor = PathExtractor.builder()
+                .withSearchPath("order.customer.id", new Recorder(log, "customer"))
+                .withSearchPath("items[*].sku", new Recorder(log, "sku"))
+                .withSearchPath("id", new Recorder(log, "id"))
+                .build();
+            extractor.match(reader);
+            assertEquals(Arrays.asList("id=1", "customer=10", "sku=x", "sku=y",
+                                       "id=2",
+                                       "id=3", "sku=z"),
+                         log);
+        }
+    }
+
+    @Test
+    public void testWildcardsAndOverlappingPaths()
+    {
+        String text = "{a:{b:1, c:2}, l:[10, 11, (12 13)]}";
+        for (IonReader reader : readers(text))
+        {
+            List<String> log = new ArrayList<String>();
+            PathExtractor.builder()
+                .withSearchPath("a.*", new Recorder(log, "any"))
+                .withSearchPath("a.c", new Recorder(log, "c"))
+                .withSearchPath("l[1]", new Recorder(log, "one"))
+                .withSearchPath("l[*]", new Recorder(log, "all"))
+                .withSearchPath("l[2][1]", new Recorder(log, "nested"))
+                .withSearchPath("", new Recorder(log, "self"))
+                .build()
+                .match(reader);
+            assertEquals(Arrays.asList("self=STRUCT",
+                                       "any=1", "any=2", "c=2",
+                                       "all=10", "one=11", "all=11", "all=SEXP", "nested=13"),
+                         log);
+        }
+    }
+
+    @Test
+    public void testQuotedFieldNames()
+    {
+        String text = "{'a.b':{'[x]':1, '*':2, y:3}, 'it\\'s':4}";
+        for (IonReader reader : readers(text))
+        {
+            List<String> log = new ArrayList<String>();
+            PathExtractor.builder()
+                .withSearchPath("'a.b'.'[x]'", new Recorder(log, "x"))
+                .withSearchPath("'a.b'.'*'", new Recorder(log, "star"))
+                .withSearchPath("'it\\'s'", new Recorder(log, "quote"))
+                .build()
+                .match(reader);
+            assertEquals(Arrays.asList("x=1", "star=2", "quote=4"), log);
+        }
+    }
+
+    @Test
+    public void testSkipsNonMatchingContainers()
+    {
+        for (IonReader reader : readers(ORDERS))
+        {
+            StepInCounter counter = new StepInCounter(reader);
+            List<String> log = new ArrayList<String>();
+            PathExtractor.builder()
+                .withSearchPath("order.customer.id", new Recorder(log, "customer"))
+                .build()
+                .match(counter.proxy());
+            assertEquals(Arrays.asList("customer=10"), log);
+            // Only the three records, two orders and two customers; never
+            // "note", "items" or "extra".
+            assertEquals(7, counter.stepIns);
+        }
+    }
+
+    @Test
+    public void testStepOut()
+    {
+        for (IonReader reader : readers(ORDERS))
+        {
+            List<String> log = new ArrayList<String>();
+            PathExtractor.builder()
+                // Stop at the first sku of each record.
+                .withSearchPath("items[*].sku", new Recorder(log, "sku", 2))
+                .withSearchPath("id", new Recorder(log, "id"))
+                .build()
+                .match(reader);
+            assertEquals(Arrays.asList("id=1", "sku=x", "id=2", "id=3", "sku=z"), log);
+        }
+        for (IonReader reader : readers(ORDERS))
+        {
+            List<String> log = new ArrayList<String>();
+            PathExtractor.builder()
+                // Stop matching entirely.
+                .withSearchPath("id", new Recorder(log, "id", 2))
+                .build()
+                .match(reader);
+            assertEquals(Arrays.asList("id=1"), log);
+            // The reader is left after the first record.
+            assertEquals(0, reader.getDepth());
+            assertEquals(IonType.STRUCT, reader.next());
+            reader.stepIn();
+            reader.next();
+            assertEquals(2, reader.intValue());
+        }
+    }
+
+    @Test
+    public void testMatchCurrentValue()
+    {
+        for (IonReader reader : readers(ORDERS))
+        {
+            List<String> log = new ArrayList<String>();
+            PathExtractor extractor = PathExtractor.builder()
+                .withSearchPath("id", new Recorder(log, "id"))
+                .build();
+            reader.next();
+            reader.next();
+            extractor.matchCurrentValue(reader);
+            assertEquals(Arrays.asList("id=2"), log);
+            assertEquals(IonType.STRUCT, reader.next());
+            assertEquals(0, reader.getDepth());
+        }
+    }
+
+    @Test
+    public void testSymbolTableChanges()
+    {
+        // Each binary stream has its own symbol table with different IDs.
+        byte[] first = encode("{zz:1, id:{v:1}}");
+        byte[] second = encode("{v:0, id:{v:2}, other:3}");
+        byte[] both = new byte[first.length + second.length];
+        System.arraycopy(first, 0, both, 0, first.length);
+        System.arraycopy(second, 0, both, first.length, second.length);
+
+        List<String> log = new ArrayList<String>();
+        PathExtractor.builder()
+            .withSearchPath("id.v", new Recorder(log, "v"))
+            .build()
+            .match(IonReaderBuilder.standard().build(both));
+        assertEquals(Arrays.asList("v=1", "v=2"), log);
+    }
+
+    @Test
+    public void testExtractorsSharingOneReader()
+    {
+        // The reader's field handles are shared, so B registers a handle
+        // that A never saw.
+        byte[] binary = encode("{a:1} {c:2} {a:3, c:4}");
+        IonReader reader = IonReaderBuilder.standard().build(binary);
+        List<String> log = new ArrayList<String>();
+        PathExtractor a = PathExtractor.builder()
+            .withSearchPath("a", new Recorder(log, "a"))
+            .build();
+        PathExtractor b = PathExtractor.builder()
+            .withSearchPath("c", new Recorder(log, "c"))
+            .build();
+
+        reader.next();
+        a.matchCurrentValue(reader);
+        reader.next();
+        b.matchCurrentValue(reader);
+        reader.next();
+        a.matchCurrentValue(reader);
+        assertEquals(Arrays.asList("a=1", "c=2", "a=3"), log);
+    }
+
+    @Test
+    public void testCallbackMustRestoreDepth()
+    {
+        PathExtractor extractor = PathExtractor.builder()
+            .withSearchPath("order", new PathExtractor.Callback()
+            {
+                public int onMatch(IonReader reader)
+                {
+                    reader.stepIn();
+                    return 0;
+                }
+            })
+            .build();
+        try
+        {
+            extractor.match(IonReaderBuilder.standard().build(ORDERS));
+            fail("Expected IllegalStateException");
+        }
+        catch (IllegalStateException e)
+        {
+            // Expected
+        }
+    }
+
+    @Test
+    public void testInvalidPaths()
+    {
+        String[] invalid = { "a.", ".a", "a..b", "a[", "a[x]", "a[]", "a[-1]", "'a", "a]", "a'b'", "[0]b" };
+        for (String path : invalid)
+        {
+            try
+            {
+                PathExtractor.builder().withSearchPath(path, new Recorder(null, null));
+                fail("Expected IllegalArgumentException for " + path);
+            }
+            catch (IllegalArgumentException e)
+            {
+                // Expected
+            }
+        }
+    }
+}
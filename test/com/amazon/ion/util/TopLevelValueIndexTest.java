@@ -0,0 +1,192 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.amazon.ion.IonReader;
+import com.amazon.ion.IonSystem;
+import com.amazon.ion.IonType;
+import com.amazon.ion.IonValue;
+import com.amazon.ion.IonWriter;
+import com.amazon.ion.system.IonBinaryWriterBuilder;
+import com.amazon.ion.system.IonSystemBuilder;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TopLevelValueIndexTest
+{
+    private static final IonSystem SYSTEM = IonSystemBuilder.standard().build();
+
+    private static final int COUNT = 300;
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    private static final TopLevelValueIndex.KeyExtractor ID_KEY =
+        new TopLevelValueIndex.KeyExtractor()
+        {
+            public long extractKey(IonReader reader)
+            {
+                reader.stepIn();
+                try
+                {
+                    while (reader.next() != null)
+                    {
+                        if ("id".equals(reader.getFieldName()))
+                        {
+                            return reader.longValue();
+                        }
+                    }
+                    return -1;
+                }
+                finally
+                {
+                    reader.stepOut();
+                }
+            }
+        };
+
+    private static String record(int i)
+    {
+        return "event::{id:" + ((i * 7) % COUNT) + ", name:\"n" + i + "\", f" + (i % 5) + ":sym" + i + "}";
+    }
+
+    /**
+     * Writes the records in several segments, each with its own local symbol
+     * table, so that the symbol table in effect differs between values.
+     */
+    private static byte[] data() throws Exception
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IonWriter writer = IonBinaryWriterBuilder.standard().build(out);
+        for (int i = 0; i < COUNT; i++)
+        {
+            if (i % 100 == 0)
+            {
+                writer.finish();
+            }
+            SYSTEM.singleValue(record(i)).writeTo(writer);
+        }
+        writer.close();
+        return out.toByteArray();
+    }
+
+    private static void checkReaderAt(IonReader reader, int ordinal)
+        throws Exception
+    {
+        for (int i = ordinal; i < COUNT; i++)
+        {
+            assertEquals(IonType.STRUCT, reader.next());
+            IonValue value = SYSTEM.newValue(reader);
+            assertEquals(SYSTEM.singleValue(record(i)), value);
+            if (i > ordinal + 120) break;
+        }
+        reader.close();
+    }
+
+    @Test
+    public void testBytes() throws Exception
+    {
+        byte[] data = data();
+        TopLevelValueIndex index = TopLevelValueIndex.build(null, data);
+        assertEquals(COUNT, index.size());
+        assertFalse(index.hasKeys());
+        assertTrue(index.getSymbolTable(0) != index.getSymbolTable(COUNT - 1));
+
+        for (int ordinal : new int[] { 0, 1, 99, 100, 150, COUNT - 1 })
+        {
+            checkReaderAt(index.newReader(null, data, ordinal), ordinal);
+        }
+    }
+
+    @Test
+    public void testRoundTripAndFile() throws Exception
+    {
+        byte[] data = data();
+        File file = tmp.newFile("data.10n");
+        FileOutputStream out = new FileOutputStream(file);
+        out.write(data);
+        out.close();
+
+        TopLevelValueIndex built = TopLevelValueIndex.build(null, file, ID_KEY);
+        assertEquals(COUNT, built.size());
+
+        ByteArrayOutputStream sidecar = new ByteArrayOutputStream();
+        built.writeTo(sidecar);
+        TopLevelValueIndex index =
+            TopLevelValueIndex.read(new ByteArrayInputStream(sidecar.toByteArray()), null);
+
+        assertEquals(COUNT, index.size());
+        assertTrue(index.hasKeys());
+        for (int i = 0; i < COUNT; i++)
+        {
+            assertEquals(built.getOffset(i), index.getOffset(i));
+            assertEquals(built.getKey(i), index.getKey(i));
+        }
+        for (int ordinal : new int[] { 0, 101, COUNT - 1 })
+        {
+            checkReaderAt(index.newReader(null, file, ordinal), ordinal);
+        }
+    }
+
+    @Test
+    public void testKeyRange() throws Exception
+    {
+        TopLevelValueIndex index = TopLevelValueIndex.build(null, data(), ID_KEY);
+
+        // id = (i * 7) % COUNT is a permutation of 0..COUNT-1
+        int[] found = index.findKeyRange(10, 12);
+        assertEquals(3, found.length);
+        for (int j = 0; j < found.length; j++)
+        {
+            assertEquals(10 + j, index.getKey(found[j]));
+            assertEquals(10 + j, (found[j] * 7) % COUNT);
+        }
+        assertEquals(COUNT, index.findKeyRange(Long.MIN_VALUE, Long.MAX_VALUE).length);
+        assertArrayEquals(new int[0], index.findKeyRange(COUNT, Long.MAX_VALUE));
+        assertArrayEquals(new int[0], index.findKeyRange(5, 4));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTextRejected()
+    {
+        TopLevelValueIndex.build(null, "{a:1}".getBytes());
+    }
+
+    @Test
+    public void testEmpty() throws Exception
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IonBinaryWriterBuilder.standard().build(out).close();
+        TopLevelValueIndex index = TopLevelValueIndex.build(null, out.toByteArray());
+        assertEquals(0, index.size());
+
+        ByteArrayOutputStream sidecar = new ByteArrayOutputStream();
+        index.writeTo(sidecar);
+        index = TopLevelValueIndex.read(new ByteArrayInputStream(sidecar.toByteArray()), null);
+        assertEquals(0, index.size());
+    }
+}